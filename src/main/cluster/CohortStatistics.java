@@ -0,0 +1,109 @@
+package cluster;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+import model.RiskAnalyzer;
+import model.RiskAssessment;
+
+// Overall risk statistics of a cohort of athletes. Partial statistics from different shards are
+// combined with merge, so every field is a count, sum or extreme.
+public class CohortStatistics {
+    private static final List<String> CATEGORIES = RiskAnalyzer.getRiskCategories();
+
+    private final long[] categoryCounts = new long[CATEGORIES.size()];
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // MODIFIES: this
+    // EFFECTS: adds assessment to the statistics
+    public void add(RiskAssessment assessment) {
+        String category = assessment.getRiskCategory();
+        int index = CATEGORIES.indexOf(category);
+        if (index >= 0) {
+            categoryCounts[index]++;
+        }
+        double score = assessment.getOverallRiskScore();
+        count++;
+        sum += score;
+        sumOfSquares += score * score;
+        min = Math.min(min, score);
+        max = Math.max(max, score);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every athlete counted in other to the statistics
+    public void merge(CohortStatistics other) {
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            categoryCounts[i] += other.categoryCounts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // EFFECTS: returns the number of athletes in category (Low, Moderate, High, Very High)
+    public long getCategoryCount(String category) {
+        int index = CATEGORIES.indexOf(category);
+        return index < 0 ? 0 : categoryCounts[index];
+    }
+
+    // EFFECTS: returns the mean overall risk, or 0 for an empty cohort
+    public double getMean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    // EFFECTS: returns the population standard deviation of overall risk, or 0 for an empty cohort
+    public double getStandardDeviation() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0.0, sumOfSquares / count - mean * mean));
+    }
+
+    // EFFECTS: returns the lowest overall risk, or 0 for an empty cohort
+    public double getMin() {
+        return count == 0 ? 0.0 : min;
+    }
+
+    // EFFECTS: returns the highest overall risk, or 0 for an empty cohort
+    public double getMax() {
+        return count == 0 ? 0.0 : max;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        for (long categoryCount : categoryCounts) {
+            out.writeLong(categoryCount);
+        }
+        out.writeLong(count);
+        out.writeDouble(sum);
+        out.writeDouble(sumOfSquares);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    static CohortStatistics readFrom(DataInput in) throws IOException {
+        CohortStatistics statistics = new CohortStatistics();
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            statistics.categoryCounts[i] = in.readLong();
+        }
+        statistics.count = in.readLong();
+        statistics.sum = in.readDouble();
+        statistics.sumOfSquares = in.readDouble();
+        statistics.min = in.readDouble();
+        statistics.max = in.readDouble();
+        return statistics;
+    }
+}
@@ -0,0 +1,317 @@
+package cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.Athlete;
+import model.RiskAssessment;
+import persistence.AthleteCsv;
+
+// Front end of a sharded roster. Athletes are partitioned across ShardServers by a hash of their name
+// (the roster's athlete identifier). Requests that touch many shards are scattered to all of them in
+// parallel and the partial results merged here: assessments are put back in request order, top-K
+// lists are merged and cohort statistics are summed. A connection whose request failed part-way may
+// hold an unread response, so it is closed and dropped, and the next request to that shard reconnects.
+public class ShardCoordinator implements Closeable {
+    // Highest overall risk first, ties by name so results do not depend on the shard layout
+    static final Comparator<RiskAssessment> BY_RISK = Comparator
+            .comparingDouble(RiskAssessment::getOverallRiskScore).reversed()
+            .thenComparing(RiskAssessment::getAthleteName);
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final ExecutorService scatter;
+    private volatile boolean closed;
+
+    // A shard's address and its current connection (null after a failure, until the next request)
+    private static final class Shard {
+        final InetSocketAddress address;
+        volatile Connection connection;
+
+        Shard(InetSocketAddress address) {
+            this.address = address;
+        }
+    }
+
+    // One request and the reading of its response on a connection
+    private interface Exchange<T> {
+        T run(Connection connection) throws IOException;
+    }
+
+    // One request/response channel to a shard; requests on it are serialized
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Connection(InetSocketAddress address) throws IOException {
+            socket = new Socket(address.getAddress(), address.getPort());
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        // EFFECTS: flushes the request written to out and reads the status of its response; throws
+        //          IOException with the shard's message if the shard rejected the request
+        void awaitResponse() throws IOException {
+            out.flush();
+            if (in.readByte() != ShardProtocol.OK) {
+                throw new IOException("Shard " + socket.getPort() + " rejected request: " + in.readUTF());
+            }
+        }
+    }
+
+    // EFFECTS: connects to every shard; throws IOException if one cannot be reached
+    public ShardCoordinator(List<InetSocketAddress> addresses) throws IOException {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        try {
+            for (InetSocketAddress address : addresses) {
+                Shard shard = new Shard(address);
+                shards.add(shard);
+                shard.connection = new Connection(address);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        scatter = Executors.newFixedThreadPool(addresses.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    // EFFECTS: runs exchange on shard's connection, reconnecting first if it was dropped; requests to one
+    //          shard are serialized. If exchange fails the connection is closed and dropped, since the
+    //          rest of its response may still be unread.
+    private <T> T exchange(Shard shard, Exchange<T> exchange) throws IOException {
+        synchronized (shard) {
+            if (closed) {
+                throw new IOException("Coordinator is closed");
+            }
+            Connection connection = shard.connection;
+            if (connection == null) {
+                connection = new Connection(shard.address);
+                shard.connection = connection;
+            }
+            try {
+                return exchange.run(connection);
+            } catch (IOException | RuntimeException e) {
+                shard.connection = null;
+                try {
+                    connection.socket.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+                throw e;
+            }
+        }
+    }
+
+    // EFFECTS: returns the index of the shard that owns athleteName
+    int shardOf(String athleteName) {
+        int hash = athleteName.hashCode() * 0x9E3779B9;
+        return (int) ((hash & 0xFFFFFFFFL) * shards.size() >>> 32);
+    }
+
+    // EFFECTS: analyzes athlete on its shard, stores it there and returns its assessment
+    public RiskAssessment analyzeRisk(Athlete athlete) throws IOException {
+        List<Athlete> single = new ArrayList<>(1);
+        single.add(athlete);
+        return analyzeRisk(single).get(0);
+    }
+
+    // EFFECTS: analyzes every athlete on its shard, all shards in parallel, stores them there and
+    //          returns their assessments in the order of athletes
+    public List<RiskAssessment> analyzeRisk(List<Athlete> athletes) throws IOException {
+        int shardCount = shards.size();
+        List<List<Integer>> positions = new ArrayList<>(shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < athletes.size(); i++) {
+            positions.get(shardOf(athletes.get(i).getName())).add(i);
+        }
+
+        RiskAssessment[] assessments = new RiskAssessment[athletes.size()];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int s = 0; s < shardCount; s++) {
+            List<Integer> owned = positions.get(s);
+            if (owned.isEmpty()) {
+                continue;
+            }
+            Shard target = shards.get(s);
+            tasks.add(() -> exchange(target, shard -> {
+                shard.out.writeByte(ShardProtocol.ANALYZE);
+                shard.out.writeInt(owned.size());
+                StringBuilder line = new StringBuilder(160);
+                for (int index : owned) {
+                    line.setLength(0);
+                    AthleteCsv.format(athletes.get(index), line);
+                    shard.out.writeUTF(line.toString());
+                }
+                shard.awaitResponse();
+                int count = shard.in.readInt();
+                for (int i = 0; i < count; i++) {
+                    assessments[owned.get(i)] = ShardProtocol.readAssessment(shard.in);
+                }
+                return null;
+            }));
+        }
+        gather(tasks);
+        List<RiskAssessment> result = new ArrayList<>(assessments.length);
+        for (RiskAssessment assessment : assessments) {
+            result.add(assessment);
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the stored assessment of athleteName, or null if no shard has it
+    public RiskAssessment getAssessment(String athleteName) throws IOException {
+        return exchange(shards.get(shardOf(athleteName)), shard -> {
+            shard.out.writeByte(ShardProtocol.GET);
+            shard.out.writeUTF(athleteName);
+            shard.awaitResponse();
+            return shard.in.readBoolean() ? ShardProtocol.readAssessment(shard.in) : null;
+        });
+    }
+
+    // REQUIRES: k > 0
+    // EFFECTS: returns the k stored assessments with the highest overall risk across all shards,
+    //          highest first
+    public List<RiskAssessment> topK(int k) throws IOException {
+        List<Callable<List<RiskAssessment>>> tasks = new ArrayList<>();
+        for (Shard target : shards) {
+            tasks.add(() -> exchange(target, shard -> {
+                shard.out.writeByte(ShardProtocol.TOP_K);
+                shard.out.writeInt(k);
+                shard.awaitResponse();
+                int count = shard.in.readInt();
+                List<RiskAssessment> partial = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    partial.add(ShardProtocol.readAssessment(shard.in));
+                }
+                return partial;
+            }));
+        }
+        // Each partial list is sorted, so a k-way merge stops after k elements
+        List<List<RiskAssessment>> partials = gather(tasks);
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> BY_RISK.compare(partials.get(a[0]).get(a[1]), partials.get(b[0]).get(b[1])));
+        for (int s = 0; s < partials.size(); s++) {
+            if (!partials.get(s).isEmpty()) {
+                heads.add(new int[] {s, 0});
+            }
+        }
+        List<RiskAssessment> top = new ArrayList<>(k);
+        while (top.size() < k && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<RiskAssessment> partial = partials.get(head[0]);
+            top.add(partial.get(head[1]));
+            if (++head[1] < partial.size()) {
+                heads.add(head);
+            }
+        }
+        return top;
+    }
+
+    // EFFECTS: returns overall risk statistics of the athletes playing sport across all shards, or of
+    //          every athlete if sport is null or empty
+    public CohortStatistics cohortStatistics(String sport) throws IOException {
+        String cohort = sport == null ? "" : sport;
+        List<Callable<CohortStatistics>> tasks = new ArrayList<>();
+        for (Shard target : shards) {
+            tasks.add(() -> exchange(target, shard -> {
+                shard.out.writeByte(ShardProtocol.STATS);
+                shard.out.writeUTF(cohort);
+                shard.awaitResponse();
+                return CohortStatistics.readFrom(shard.in);
+            }));
+        }
+        CohortStatistics total = new CohortStatistics();
+        for (CohortStatistics partial : gather(tasks)) {
+            total.merge(partial);
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of athletes stored on each shard
+    public int[] shardSizes() throws IOException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (Shard target : shards) {
+            tasks.add(() -> exchange(target, shard -> {
+                shard.out.writeByte(ShardProtocol.SIZE);
+                shard.awaitResponse();
+                return shard.in.readInt();
+            }));
+        }
+        List<Integer> partials = gather(tasks);
+        int[] sizes = new int[partials.size()];
+        for (int s = 0; s < sizes.length; s++) {
+            sizes[s] = partials.get(s);
+        }
+        return sizes;
+    }
+
+    // EFFECTS: runs tasks on the scatter pool and returns their results in order; throws the
+    //          first failure as an IOException
+    private <T> List<T> gather(List<Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(scatter.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+        return results;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the connections to all shards
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (scatter != null) {
+            scatter.shutdownNow();
+        }
+        // Not under the shard locks, so a request blocked on a read is woken by its socket closing
+        for (Shard shard : shards) {
+            Connection connection = shard.connection;
+            if (connection != null) {
+                connection.socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cluster;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import model.RiskAssessment;
+import persistence.AssessmentCodec;
+
+// Wire protocol between a ShardCoordinator and its ShardServers. Each request is an opcode byte
+// followed by its arguments; each response starts with a status byte, followed by the result or, on
+// error, a message. Athletes travel as AthleteCsv lines and assessments in the AssessmentCodec format.
+//   ANALYZE  int n, n athlete lines       -> n assessments (athletes are stored on the shard)
+//   GET      name                          -> boolean found, assessment if found
+//   TOP_K    int k                         -> int m <= k, m assessments by descending overall risk
+//   STATS    sport ("" for every sport)    -> CohortStatistics
+//   SIZE                                   -> int number of athletes stored
+final class ShardProtocol {
+    static final byte ANALYZE = 1;
+    static final byte GET = 2;
+    static final byte TOP_K = 3;
+    static final byte STATS = 4;
+    static final byte SIZE = 5;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    private ShardProtocol() {
+    }
+
+    static void writeAssessment(DataOutputStream out, RiskAssessment assessment) throws IOException {
+        byte[] bytes = AssessmentCodec.encode(assessment);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static RiskAssessment readAssessment(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return AssessmentCodec.decode(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,230 @@
+package cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.Athlete;
+import model.RiskAnalyzer;
+import model.RiskAssessment;
+import persistence.AthleteCsv;
+
+// One shard of a roster: stores the athletes routed to it with their latest assessment and answers
+// ShardProtocol requests from coordinators on a loopback socket, one thread per connection. Run
+// several as separate processes (see main) so heap and screening work scale with the process count.
+public class ShardServer implements Closeable {
+    private final RiskAnalyzer analyzer;
+    private final ServerSocket serverSocket;
+    private final ConcurrentHashMap<String, Stored> athletes = new ConcurrentHashMap<>();
+    private final List<Socket> connections = new ArrayList<>();
+    private final Thread acceptor;
+
+    // An athlete's sport (for cohort statistics) and latest assessment
+    private static final class Stored {
+        final String sport;
+        final RiskAssessment assessment;
+
+        Stored(String sport, RiskAssessment assessment) {
+            this.sport = sport;
+            this.assessment = assessment;
+        }
+    }
+
+    // EFFECTS: binds a loopback server socket to port (0 for any free port); throws IOException if
+    //          the port cannot be bound
+    public ShardServer(int port, RiskAnalyzer analyzer) throws IOException {
+        this.analyzer = analyzer;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::acceptConnections, "shard-acceptor-" + getPort());
+        acceptor.setDaemon(true);
+    }
+
+    // Starts a shard process: java cluster.ShardServer <port>. The acceptor is a daemon thread, so main
+    // waits for it; the process runs until it is killed.
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("Usage: java cluster.ShardServer <port>");
+            System.exit(2);
+        }
+        ShardServer server = new ShardServer(Integer.parseInt(args[0]), new RiskAnalyzer());
+        server.start();
+        System.out.println("Shard listening on port " + server.getPort());
+        server.awaitTermination();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts accepting connections in the background
+    public void start() {
+        acceptor.start();
+    }
+
+    // EFFECTS: blocks until the server stops accepting connections, i.e. until it is closed
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // EFFECTS: returns the number of athletes stored on this shard
+    public int size() {
+        return athletes.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting connections and closes the open ones
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        synchronized (connections) {
+            for (Socket connection : connections) {
+                connection.close();
+            }
+            connections.clear();
+        }
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                synchronized (connections) {
+                    connections.add(socket);
+                }
+                Thread handler = new Thread(() -> serve(socket), "shard-connection-" + getPort());
+                handler.setDaemon(true);
+                handler.start();
+            }
+        } catch (IOException e) {
+            // Server socket closed
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            s.setTcpNoDelay(true);
+            while (true) {
+                byte opcode;
+                try {
+                    opcode = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    handle(opcode, in, out);
+                } catch (IllegalArgumentException e) {
+                    out.writeByte(ShardProtocol.ERROR);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // Connection closed by either side
+        } catch (IOException e) {
+            System.err.println("Shard " + getPort() + ": " + e.getMessage());
+        } finally {
+            synchronized (connections) {
+                connections.remove(socket);
+            }
+        }
+    }
+
+    // EFFECTS: reads the arguments of opcode from in and writes its response to out; throws
+    //          IllegalArgumentException for a malformed request once its arguments have been read
+    private void handle(byte opcode, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (opcode) {
+            case ShardProtocol.ANALYZE:
+                analyze(in, out);
+                break;
+            case ShardProtocol.GET:
+                Stored stored = athletes.get(in.readUTF());
+                out.writeByte(ShardProtocol.OK);
+                out.writeBoolean(stored != null);
+                if (stored != null) {
+                    ShardProtocol.writeAssessment(out, stored.assessment);
+                }
+                break;
+            case ShardProtocol.TOP_K:
+                List<RiskAssessment> top = topK(in.readInt());
+                out.writeByte(ShardProtocol.OK);
+                out.writeInt(top.size());
+                for (RiskAssessment assessment : top) {
+                    ShardProtocol.writeAssessment(out, assessment);
+                }
+                break;
+            case ShardProtocol.STATS:
+                String sport = in.readUTF();
+                out.writeByte(ShardProtocol.OK);
+                statistics(sport).writeTo(out);
+                break;
+            case ShardProtocol.SIZE:
+                out.writeByte(ShardProtocol.OK);
+                out.writeInt(athletes.size());
+                break;
+            default:
+                throw new IOException("Unknown opcode " + opcode);
+        }
+    }
+
+    private void analyze(DataInputStream in, DataOutputStream out) throws IOException {
+        int count = in.readInt();
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = in.readUTF();
+        }
+        // Parse everything first so a malformed batch stores nothing
+        Athlete[] parsed = new Athlete[count];
+        for (int i = 0; i < count; i++) {
+            parsed[i] = AthleteCsv.parse(lines[i]);
+        }
+        out.writeByte(ShardProtocol.OK);
+        out.writeInt(count);
+        for (Athlete athlete : parsed) {
+            RiskAssessment assessment = analyzer.analyzeRisk(athlete);
+            athletes.put(athlete.getName(), new Stored(athlete.getSport(), assessment));
+            ShardProtocol.writeAssessment(out, assessment);
+        }
+    }
+
+    // EFFECTS: returns the k stored assessments with the highest overall risk, highest first
+    private List<RiskAssessment> topK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        PriorityQueue<RiskAssessment> heap = new PriorityQueue<>(ShardCoordinator.BY_RISK.reversed());
+        for (Stored stored : athletes.values()) {
+            heap.offer(stored.assessment);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<RiskAssessment> top = new ArrayList<>(heap);
+        top.sort(ShardCoordinator.BY_RISK);
+        return top;
+    }
+
+    private CohortStatistics statistics(String sport) {
+        CohortStatistics statistics = new CohortStatistics();
+        for (Stored stored : athletes.values()) {
+            if (sport.isEmpty() || sport.equalsIgnoreCase(stored.sport)) {
+                statistics.add(stored.assessment);
+            }
+        }
+        return statistics;
+    }
+}
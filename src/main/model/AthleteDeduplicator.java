@@ -0,0 +1,368 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Finds repeated athletes in a stream of ingested records before they are analyzed. A record is
+//   - an exact duplicate if an earlier record has the same normalized name, age, sex and sport
+//   - a near duplicate if an earlier record of the same sex and sport, at most a year apart in age and
+//     with about the same height and weight, has a nearly identical name: trigram Jaccard similarity of
+//     at least the threshold and at most MAX_NAME_EDITS edits apart ("Jonathan" vs "Jonathon"). Names
+//     alone cannot tell a typo from a different athlete ("Maria" vs "Marta" is also one edit), so the
+//     body measurements must agree too. Candidates are found by locality-sensitive hashing: a MinHash
+//     signature of the name's trigrams is cut into bands and records sharing any band bucket are compared.
+// Records are looked up by fingerprint (a 64-bit hash of the identity fields) in a primitive hash map;
+// records whose fingerprints collide are chained, and an exact match is confirmed against the stored
+// name, age and group, so a hash collision never passes a different athlete off as a duplicate. The identity
+// fields of earlier records are kept in primitive columns and their names in one shared character pool,
+// so memory per record is a few dozen bytes. Only a merging MergePolicy also keeps the Athlete objects,
+// since it updates them. Not thread-safe; use one instance per ingest stream.
+public class AthleteDeduplicator {
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.7;
+    static final int MAX_NAME_EDITS = 2;
+    static final double HEIGHT_TOLERANCE = 2.0;
+    static final double WEIGHT_TOLERANCE = 2.0;
+
+    private static final int BANDS = 8;
+    private static final int ROWS = 2;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int MAX_BUCKET_PROBES = 64;
+    private static final int NONE = -1;
+
+    // How the measurements of a duplicate are merged into the kept record
+    public enum MergePolicy {
+        KEEP_FIRST,      // ignore the duplicate's measurements
+        PREFER_LATEST,   // replace every measurement with the duplicate's
+        FILL_MISSING     // take the duplicate's measurement where the kept one was never set (0)
+    }
+
+    // What an offered record turned out to be
+    public enum Match {
+        UNIQUE, EXACT_DUPLICATE, NEAR_DUPLICATE
+    }
+
+    private final MergePolicy policy;
+    private final double similarityThreshold;
+    private final int[] seeds = new int[HASHES];
+
+    // Per kept record, indexed by the order in which records were kept
+    private int count;
+    private int[] ages = new int[1024];
+    private float[] heights = new float[1024];
+    private float[] weights = new float[1024];
+    // Sport id * 2 + (female ? 1 : 0)
+    private int[] groups = new int[1024];
+    // Earlier record with the same fingerprint, or NONE
+    private int[] nextWithFingerprint = new int[1024];
+    // Normalized names back to back: record i's name is namePool[nameStarts[i] .. nameStarts[i + 1])
+    private char[] namePool = new char[16 * 1024];
+    private int[] nameStarts = new int[1025];
+    private final Map<String, Integer> sportIds = new HashMap<>();
+    // Only for merging policies
+    private final List<Athlete> kept = new ArrayList<>();
+
+    // Fingerprint -> most recent record with it, chained through nextWithFingerprint
+    private final LongIntHashMap fingerprints = new LongIntHashMap(1024);
+    // LSH: bucket key -> most recent entry (keptIndex * BANDS + band), chained through nextInBucket
+    private final LongIntHashMap buckets = new LongIntHashMap(1024);
+    private int[] nextInBucket = new int[1024 * BANDS];
+    private int exactDuplicates;
+    private int nearDuplicates;
+    // Scratch rows for the edit distance
+    private int[] previousRow = new int[64];
+    private int[] currentRow = new int[64];
+
+    public AthleteDeduplicator(MergePolicy policy) {
+        this(policy, DEFAULT_SIMILARITY_THRESHOLD);
+    }
+
+    // REQUIRES: 0 < similarityThreshold <= 1
+    public AthleteDeduplicator(MergePolicy policy, double similarityThreshold) {
+        if (!(similarityThreshold > 0 && similarityThreshold <= 1)) {
+            throw new IllegalArgumentException("Similarity threshold must be in (0, 1]");
+        }
+        this.policy = policy;
+        this.similarityThreshold = similarityThreshold;
+        int seed = 0x5DEECE66;
+        for (int i = 0; i < HASHES; i++) {
+            seed = mix(seed + 0x61C88647);
+            seeds[i] = seed;
+        }
+    }
+
+    // MODIFIES: this, and the kept record if athlete duplicates it
+    // EFFECTS: returns true if athlete is new and should be analyzed; otherwise merges its
+    //          measurements into the earlier record it duplicates and returns false
+    public boolean offer(Athlete athlete) {
+        return classify(athlete) == Match.UNIQUE;
+    }
+
+    // MODIFIES: this, and the kept record if athlete duplicates it
+    // EFFECTS: returns whether athlete duplicates an earlier record; a duplicate's measurements are
+    //          merged into that record according to the policy, a unique athlete is remembered
+    public Match classify(Athlete athlete) {
+        String name = NameIndex.normalize(athlete.getName());
+        String sport = athlete.getSport().trim().toLowerCase(Locale.ROOT);
+        Integer sportId = sportIds.get(sport);
+        int group = sportId == null ? NONE : sportId * 2 + (athlete.getGender() ? 1 : 0);
+        long fingerprint = fingerprint(name, athlete.getAge(), athlete.getGender(), sport);
+        int head = fingerprints.get(fingerprint, NONE);
+        for (int index = head; index != NONE; index = nextWithFingerprint[index]) {
+            if (groups[index] == group && ages[index] == athlete.getAge() && nameEquals(index, name)) {
+                exactDuplicates++;
+                merge(index, athlete);
+                return Match.EXACT_DUPLICATE;
+            }
+        }
+
+        int[] shingles = shingles(name);
+        int[] signature = signature(shingles);
+        long block = hash(sport, athlete.getGender() ? 1 : 2);
+        int index = group == NONE ? NONE : findNearDuplicate(athlete, name, shingles, signature, block, group);
+        if (index != NONE) {
+            nearDuplicates++;
+            merge(index, athlete);
+            return Match.NEAR_DUPLICATE;
+        }
+
+        if (sportId == null) {
+            sportId = sportIds.size();
+            sportIds.put(sport, sportId);
+            group = sportId * 2 + (athlete.getGender() ? 1 : 0);
+        }
+        index = remember(athlete, name, group);
+        nextWithFingerprint[index] = head;
+        fingerprints.put(fingerprint, index);
+        addToBuckets(index, signature, block);
+        return Match.UNIQUE;
+    }
+
+    // EFFECTS: returns the athletes kept so far, in ingest order; empty under KEEP_FIRST, which keeps
+    //          only what it needs to recognize duplicates
+    public List<Athlete> getAthletes() {
+        return Collections.unmodifiableList(kept);
+    }
+
+    public int getUniqueCount() {
+        return count;
+    }
+
+    public int getExactDuplicateCount() {
+        return exactDuplicates;
+    }
+
+    public int getNearDuplicateCount() {
+        return nearDuplicates;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the identity fields of a new unique athlete and returns its index
+    private int remember(Athlete athlete, String name, int group) {
+        int index = count++;
+        if (index == ages.length) {
+            int capacity = ages.length * 2;
+            ages = Arrays.copyOf(ages, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            nextWithFingerprint = Arrays.copyOf(nextWithFingerprint, capacity);
+            nameStarts = Arrays.copyOf(nameStarts, capacity + 1);
+        }
+        ages[index] = athlete.getAge();
+        heights[index] = (float) athlete.getHeight();
+        weights[index] = (float) athlete.getWeight();
+        groups[index] = group;
+        int start = nameStarts[index];
+        if (start + name.length() > namePool.length) {
+            namePool = Arrays.copyOf(namePool, Math.max(start + name.length(), namePool.length * 2));
+        }
+        name.getChars(0, name.length(), namePool, start);
+        nameStarts[index + 1] = start + name.length();
+        if (policy != MergePolicy.KEEP_FIRST) {
+            kept.add(athlete);
+        }
+        return index;
+    }
+
+    // EFFECTS: returns true if the stored name of record index is name
+    private boolean nameEquals(int index, String name) {
+        int start = nameStarts[index];
+        if (nameStarts[index + 1] - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (namePool[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String nameOf(int index) {
+        return new String(namePool, nameStarts[index], nameStarts[index + 1] - nameStarts[index]);
+    }
+
+    // EFFECTS: returns the index of a kept record that athlete nearly duplicates, or NONE
+    private int findNearDuplicate(Athlete athlete, String name, int[] shingles, int[] signature, long block,
+                                  int group) {
+        int best = NONE;
+        double bestSimilarity = 0;
+        for (int band = 0; band < BANDS; band++) {
+            int probes = 0;
+            for (int entry = buckets.get(bucketKey(signature, band, block), NONE);
+                    entry != NONE && probes < MAX_BUCKET_PROBES; entry = nextInBucket[entry], probes++) {
+                int candidate = entry / BANDS;
+                if (candidate == best || groups[candidate] != group
+                        || Math.abs(ages[candidate] - athlete.getAge()) > 1
+                        || Math.abs(heights[candidate] - athlete.getHeight()) > HEIGHT_TOLERANCE
+                        || Math.abs(weights[candidate] - athlete.getWeight()) > WEIGHT_TOLERANCE) {
+                    continue;
+                }
+                String other = nameOf(candidate);
+                double similarity = jaccard(shingles, shingles(other));
+                if (similarity >= similarityThreshold && similarity > bestSimilarity
+                        && withinEdits(name, other)) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean withinEdits(String name, String other) {
+        if (previousRow.length <= name.length()) {
+            previousRow = new int[name.length() + 1];
+            currentRow = new int[name.length() + 1];
+        }
+        return NameIndex.boundedDistance(name, other, MAX_NAME_EDITS, previousRow, currentRow) <= MAX_NAME_EDITS;
+    }
+
+    private void addToBuckets(int index, int[] signature, long block) {
+        int needed = (index + 1) * BANDS;
+        if (needed > nextInBucket.length) {
+            nextInBucket = Arrays.copyOf(nextInBucket, Math.max(needed, nextInBucket.length * 2));
+        }
+        for (int band = 0; band < BANDS; band++) {
+            int entry = index * BANDS + band;
+            nextInBucket[entry] = buckets.put(bucketKey(signature, band, block), entry);
+        }
+    }
+
+    // MODIFIES: the kept athlete at index
+    // EFFECTS: merges the measurements of duplicate into the kept athlete at index according to the policy
+    private void merge(int index, Athlete duplicate) {
+        if (policy == MergePolicy.KEEP_FIRST) {
+            return;
+        }
+        BiomechanicalData into = kept.get(index).getBioMechData();
+        BiomechanicalData from = duplicate.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+            double value = field.get(from);
+            if (policy == MergePolicy.PREFER_LATEST || field.get(into) == 0.0) {
+                field.set(into, value);
+            }
+        }
+    }
+
+    static long fingerprint(String name, int age, boolean female, String sport) {
+        long hash = hash(name, age);
+        hash = hash * 31 + (female ? 1 : 2);
+        return hash * 0x100000001B3L ^ hash(sport, 0);
+    }
+
+    // EFFECTS: returns a 64-bit FNV-1a hash of text, seeded with seed
+    private static long hash(String text, int seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns the sorted distinct hashes of the trigrams of name padded with spaces
+    static int[] shingles(String name) {
+        String padded = " " + name + " ";
+        int count = Math.max(1, padded.length() - 2);
+        int[] shingles = new int[count];
+        for (int i = 0; i < count; i++) {
+            int end = Math.min(i + 3, padded.length());
+            int h = 0;
+            for (int j = i; j < end; j++) {
+                h = h * 65599 + padded.charAt(j);
+            }
+            shingles[i] = h;
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    // EFFECTS: returns |a & b| / |a | b| of two sorted sets
+    static double jaccard(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private int[] signature(int[] shingles) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < HASHES; i++) {
+                int h = (int) (mix64(((long) seeds[i] << 32) | (shingle & 0xFFFFFFFFL)) >>> 32);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long bucketKey(int[] signature, int band, long block) {
+        long key = block * 31 + band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            key = key * 0x100000001B3L ^ signature[r];
+        }
+        return key;
+    }
+
+    // EFFECTS: returns a well-distributed permutation of x (SplitMix64 finalizer)
+    private static long mix64(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    // EFFECTS: returns a well-distributed permutation of x (murmur3 finalizer)
+    private static int mix(int x) {
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        x *= 0xC2B2AE35;
+        return x ^ (x >>> 16);
+    }
+}
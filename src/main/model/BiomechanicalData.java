@@ -70,6 +70,25 @@ public class BiomechanicalData {
         this.intercondylarNotchWidth = intercondylarNotchWidth;
     }
     
+    // REQUIRES: out.length >= BiomechanicalField.COUNT
+    // MODIFIES: out
+    // EFFECTS: copies all measurements into out, indexed by BiomechanicalField.ordinal(), and returns out
+    public double[] toArray(double[] out) {
+        out[0] = kneeValgusAngle;
+        out[1] = hipAdductionAngle;
+        out[2] = kneeFlexionAngle;
+        out[3] = verticalJumpHeight;
+        out[4] = landingForce;
+        out[5] = landingAsymmetry;
+        out[6] = hamstringsToQuadsRatio;
+        out[7] = singleLegBalanceTime;
+        out[8] = proprioceptionScore;
+        out[9] = qAngle;
+        out[10] = jointLaxity;
+        out[11] = intercondylarNotchWidth;
+        return out;
+    }
+    
     // GETTERS
     public double getKneeValgusAngle() {
         return kneeValgusAngle;
@@ -0,0 +1,149 @@
+package model;
+
+import java.util.List;
+
+// The twelve measurements of BiomechanicalData, in a fixed order used wherever they are handled
+// as primitive vectors or columns (index = ordinal()). Every measurement is non-negative; the two scored
+// on a scale also have an upper bound.
+public enum BiomechanicalField {
+    KNEE_VALGUS_ANGLE("kneeValgusAngle"),
+    HIP_ADDUCTION_ANGLE("hipAdductionAngle"),
+    KNEE_FLEXION_ANGLE("kneeFlexionAngle"),
+    VERTICAL_JUMP_HEIGHT("verticalJumpHeight"),
+    LANDING_FORCE("landingForce"),
+    LANDING_ASYMMETRY("landingAsymmetry"),
+    HAMSTRINGS_TO_QUADS_RATIO("hamstringsToQuadsRatio"),
+    SINGLE_LEG_BALANCE_TIME("singleLegBalanceTime"),
+    PROPRIOCEPTION_SCORE("proprioceptionScore", 10.0),
+    Q_ANGLE("qAngle"),
+    JOINT_LAXITY("jointLaxity", 5.0),
+    INTERCONDYLAR_NOTCH_WIDTH("intercondylarNotchWidth");
+
+    // Cached because values() copies the array on every call
+    static final BiomechanicalField[] FIELDS = values();
+
+    public static final int COUNT = FIELDS.length;
+
+    private final String propertyName;
+    private final double maximum;
+
+    BiomechanicalField(String propertyName) {
+        this(propertyName, Double.POSITIVE_INFINITY);
+    }
+
+    BiomechanicalField(String propertyName, double maximum) {
+        this.propertyName = propertyName;
+        this.maximum = maximum;
+    }
+
+    // EFFECTS: returns the field name as used by the BiomechanicalData getters (e.g. "kneeValgusAngle")
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    // EFFECTS: returns the largest valid value of this field (infinite if it has no upper bound)
+    public double getMaximum() {
+        return maximum;
+    }
+
+    // EFFECTS: returns value limited to the valid range of this field, from 0 to getMaximum()
+    public double clamp(double value) {
+        return Math.max(0.0, Math.min(maximum, value));
+    }
+
+    // EFFECTS: returns the field whose property name matches name (case-insensitive), or null
+    public static BiomechanicalField fromPropertyName(String name) {
+        for (BiomechanicalField field : FIELDS) {
+            if (field.propertyName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns this field's value in data
+    public double get(BiomechanicalData data) {
+        switch (this) {
+            case KNEE_VALGUS_ANGLE:
+                return data.getKneeValgusAngle();
+            case HIP_ADDUCTION_ANGLE:
+                return data.getHipAdductionAngle();
+            case KNEE_FLEXION_ANGLE:
+                return data.getKneeFlexionAngle();
+            case VERTICAL_JUMP_HEIGHT:
+                return data.getVerticalJumpHeight();
+            case LANDING_FORCE:
+                return data.getLandingForce();
+            case LANDING_ASYMMETRY:
+                return data.getLandingAsymmetry();
+            case HAMSTRINGS_TO_QUADS_RATIO:
+                return data.getHamstringsToQuadsRatio();
+            case SINGLE_LEG_BALANCE_TIME:
+                return data.getSingleLegBalanceTime();
+            case PROPRIOCEPTION_SCORE:
+                return data.getProprioceptionScore();
+            case Q_ANGLE:
+                return data.getQAngle();
+            case JOINT_LAXITY:
+                return data.getJointLaxity();
+            default:
+                return data.getIntercondylarNotchWidth();
+        }
+    }
+
+    // MODIFIES: data
+    // EFFECTS: sets this field in data to value (balance time is rounded to whole seconds)
+    public void set(BiomechanicalData data, double value) {
+        switch (this) {
+            case KNEE_VALGUS_ANGLE:
+                data.setKneeValgusAngle(value);
+                break;
+            case HIP_ADDUCTION_ANGLE:
+                data.setHipAdductionAngle(value);
+                break;
+            case KNEE_FLEXION_ANGLE:
+                data.setKneeFlexionAngle(value);
+                break;
+            case VERTICAL_JUMP_HEIGHT:
+                data.setVerticalJumpHeight(value);
+                break;
+            case LANDING_FORCE:
+                data.setLandingForce(value);
+                break;
+            case LANDING_ASYMMETRY:
+                data.setLandingAsymmetry(value);
+                break;
+            case HAMSTRINGS_TO_QUADS_RATIO:
+                data.setHamstringsToQuadsRatio(value);
+                break;
+            case SINGLE_LEG_BALANCE_TIME:
+                data.setSingleLegBalanceTime((int) Math.round(value));
+                break;
+            case PROPRIOCEPTION_SCORE:
+                data.setProprioceptionScore(value);
+                break;
+            case Q_ANGLE:
+                data.setQAngle(value);
+                break;
+            case JOINT_LAXITY:
+                data.setJointLaxity(value);
+                break;
+            default:
+                data.setIntercondylarNotchWidth(value);
+                break;
+        }
+    }
+
+    // EFFECTS: returns the biomechanical data of roster as columns, columns[field.ordinal()][athlete]
+    public static double[][] toColumns(List<Athlete> roster) {
+        double[][] columns = new double[COUNT][roster.size()];
+        double[] row = new double[COUNT];
+        for (int i = 0; i < roster.size(); i++) {
+            roster.get(i).getBioMechData().toArray(row);
+            for (int f = 0; f < COUNT; f++) {
+                columns[f][i] = row[f];
+            }
+        }
+        return columns;
+    }
+}
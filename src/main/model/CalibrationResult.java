@@ -0,0 +1,62 @@
+package model;
+
+// Screening performance of one (weight triple, cut-off) configuration against labeled outcomes
+public class CalibrationResult {
+    private final double demographicWeight;
+    private final double biomechanicalWeight;
+    private final double medicalWeight;
+    private final double cutoff;
+    private final double auc;
+    private final double sensitivity;
+    private final double specificity;
+
+    CalibrationResult(double demographicWeight, double biomechanicalWeight, double medicalWeight,
+                      double cutoff, double auc, double sensitivity, double specificity) {
+        this.demographicWeight = demographicWeight;
+        this.biomechanicalWeight = biomechanicalWeight;
+        this.medicalWeight = medicalWeight;
+        this.cutoff = cutoff;
+        this.auc = auc;
+        this.sensitivity = sensitivity;
+        this.specificity = specificity;
+    }
+
+    // EFFECTS: returns sensitivity + specificity - 1
+    public double getYoudenIndex() {
+        return sensitivity + specificity - 1.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("weights=(%.2f, %.2f, %.2f) cutoff=%.2f AUC=%.3f sensitivity=%.3f specificity=%.3f",
+                demographicWeight, biomechanicalWeight, medicalWeight, cutoff, auc, sensitivity, specificity);
+    }
+
+    public double getDemographicWeight() {
+        return demographicWeight;
+    }
+
+    public double getBiomechanicalWeight() {
+        return biomechanicalWeight;
+    }
+
+    public double getMedicalWeight() {
+        return medicalWeight;
+    }
+
+    public double getCutoff() {
+        return cutoff;
+    }
+
+    public double getAuc() {
+        return auc;
+    }
+
+    public double getSensitivity() {
+        return sensitivity;
+    }
+
+    public double getSpecificity() {
+        return specificity;
+    }
+}
@@ -0,0 +1,213 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Percentile ranks of athletes within their cohort (e.g. "U18 Female Soccer"), kept up to date as
+// assessments arrive instead of sorting the cohort for every report. Each cohort keeps, per score kind, a
+// Fenwick tree of counts over scores quantized to RESOLUTION, so inserting, replacing or removing an
+// athlete's assessment, counting the athletes below a score and finding the score at a percentile all
+// take O(log BUCKETS). Scores closer together than RESOLUTION count as ties; scores above the top
+// bucket share it. As in TeamDashboard, each athlete contributes only its latest assessment. Methods
+// are synchronized; one index can be shared.
+public class CohortRankIndex {
+    public static final double RESOLUTION = 0.01;
+    // A power of two, so select can walk the tree top-down
+    static final int BUCKETS = 2048;
+    private static final int[] AGE_LIMITS = {12, 14, 16, 18, 21};
+
+    // The scores of an assessment that can be ranked
+    public enum ScoreKind {
+        OVERALL, DEMOGRAPHIC, BIOMECHANICAL, MEDICAL;
+
+        double of(RiskAssessment assessment) {
+            switch (this) {
+                case OVERALL:
+                    return assessment.getOverallRiskScore();
+                case DEMOGRAPHIC:
+                    return assessment.getDemographicRiskScore();
+                case BIOMECHANICAL:
+                    return assessment.getBiomechanicalRiskScore();
+                default:
+                    return assessment.getMedicalHistoryRiskScore();
+            }
+        }
+    }
+
+    private static final ScoreKind[] KINDS = ScoreKind.values();
+
+    private final Map<String, Cohort> cohorts = new HashMap<>();
+    private final Map<String, Member> members = new HashMap<>();
+
+    // An athlete's cohort and quantized scores, indexed by ScoreKind ordinal
+    private static final class Member {
+        final Cohort cohort;
+        final int[] buckets;
+
+        Member(Cohort cohort, int[] buckets) {
+            this.cohort = cohort;
+            this.buckets = buckets;
+        }
+    }
+
+    private static final class Cohort {
+        final String name;
+        // trees[kind][1..BUCKETS]: Fenwick tree of the number of members per score bucket
+        final int[][] trees = new int[KINDS.length][BUCKETS + 1];
+        int size;
+
+        Cohort(String name) {
+            this.name = name;
+        }
+
+        void add(int[] buckets, int delta) {
+            for (int k = 0; k < buckets.length; k++) {
+                int[] tree = trees[k];
+                for (int i = buckets[k] + 1; i <= BUCKETS; i += i & -i) {
+                    tree[i] += delta;
+                }
+            }
+            size += delta;
+        }
+
+        // Number of members of kind with a bucket below bucket
+        int countBelow(int kind, int bucket) {
+            int[] tree = trees[kind];
+            int count = 0;
+            for (int i = bucket; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+
+        // Bucket of the member of kind with the given 0-based rank in ascending order
+        int select(int kind, int rank) {
+            int[] tree = trees[kind];
+            int position = 0;
+            for (int step = BUCKETS; step > 0; step >>= 1) {
+                int next = position + step;
+                if (next <= BUCKETS && tree[next] <= rank) {
+                    position = next;
+                    rank -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
+    // EFFECTS: returns the cohort of athlete: age band (U12, U14, U16, U18, U21 or Senior), sex and sport,
+    //          e.g. "U18 Female Soccer"
+    public static String cohortOf(Athlete athlete) {
+        String band = "Senior";
+        for (int limit : AGE_LIMITS) {
+            if (athlete.getAge() < limit) {
+                band = "U" + limit;
+                break;
+            }
+        }
+        return band + (athlete.getGender() ? " Female " : " Male ") + athlete.getSport();
+    }
+
+    // EFFECTS: returns the bucket of score
+    static int bucket(double score) {
+        long bucket = Math.round(score / RESOLUTION);
+        return (int) Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes assessment the latest one of athlete, ranked in athlete's cohort (see cohortOf)
+    public void update(Athlete athlete, RiskAssessment assessment) {
+        update(cohortOf(athlete), assessment);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes assessment the latest one of its athlete, ranked in cohort; the athlete leaves any
+    //          cohort it was ranked in before
+    public synchronized void update(String cohort, RiskAssessment assessment) {
+        int[] buckets = new int[KINDS.length];
+        for (ScoreKind kind : KINDS) {
+            buckets[kind.ordinal()] = bucket(kind.of(assessment));
+        }
+        Cohort target = cohorts.computeIfAbsent(cohort, Cohort::new);
+        Member previous = members.put(assessment.getAthleteName(), new Member(target, buckets));
+        // Join before leaving, so re-ranking the only member of a cohort does not empty and drop it
+        target.add(buckets, 1);
+        if (previous != null) {
+            leave(previous);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops ranking the athlete; returns false if it was not ranked
+    public synchronized boolean remove(String athleteName) {
+        Member previous = members.remove(athleteName);
+        if (previous == null) {
+            return false;
+        }
+        leave(previous);
+        return true;
+    }
+
+    private void leave(Member member) {
+        member.cohort.add(member.buckets, -1);
+        if (member.cohort.size == 0) {
+            cohorts.remove(member.cohort.name);
+        }
+    }
+
+    // EFFECTS: returns the number of athletes ranked in cohort
+    public synchronized int getCohortSize(String cohort) {
+        Cohort found = cohorts.get(cohort);
+        return found == null ? 0 : found.size;
+    }
+
+    // EFFECTS: returns the cohort the athlete is ranked in, or null
+    public synchronized String getCohort(String athleteName) {
+        Member member = members.get(athleteName);
+        return member == null ? null : member.cohort.name;
+    }
+
+    // EFFECTS: returns the number of athletes in cohort whose kind score is lower than score
+    public synchronized int countBelow(String cohort, ScoreKind kind, double score) {
+        Cohort found = cohorts.get(cohort);
+        return found == null ? 0 : found.countBelow(kind.ordinal(), bucket(score));
+    }
+
+    // EFFECTS: returns the percentile (0 to 100) of score among the kind scores of cohort: the share of
+    //          athletes scoring lower plus half the share scoring the same; NaN for an empty cohort
+    public synchronized double percentile(String cohort, ScoreKind kind, double score) {
+        Cohort found = cohorts.get(cohort);
+        if (found == null) {
+            return Double.NaN;
+        }
+        int bucket = bucket(score);
+        int below = found.countBelow(kind.ordinal(), bucket);
+        int ties = found.countBelow(kind.ordinal(), bucket + 1) - below;
+        return 100.0 * (below + 0.5 * ties) / found.size;
+    }
+
+    // EFFECTS: returns the percentile of the athlete's latest kind score within its cohort (see
+    //          percentile(String, ScoreKind, double)), or NaN if the athlete is not ranked
+    public synchronized double percentile(String athleteName, ScoreKind kind) {
+        Member member = members.get(athleteName);
+        if (member == null) {
+            return Double.NaN;
+        }
+        int bucket = member.buckets[kind.ordinal()];
+        int below = member.cohort.countBelow(kind.ordinal(), bucket);
+        int ties = member.cohort.countBelow(kind.ordinal(), bucket + 1) - below;
+        return 100.0 * (below + 0.5 * ties) / member.cohort.size;
+    }
+
+    // REQUIRES: 0 <= fraction <= 1
+    // EFFECTS: returns the kind score (to RESOLUTION) at the given fraction of cohort, i.e. the score of
+    //          the athlete ranked floor(fraction * (size - 1)) from the lowest; NaN for an empty cohort
+    public synchronized double scoreAt(String cohort, ScoreKind kind, double fraction) {
+        Cohort found = cohorts.get(cohort);
+        if (found == null) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.floor(Math.max(0.0, Math.min(1.0, fraction)) * (found.size - 1));
+        return found.select(kind.ordinal(), rank) * RESOLUTION;
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Column-oriented component risk scores (demographic, biomechanical, medical) for a whole roster.
+// Scores are computed once so that alternative weightings can be evaluated without re-analysis.
+public class ComponentScores {
+    // The configuration the scores were computed with; its category thresholds apply to reweighted scores
+    private final ScoringConfig config;
+    private final String[] athleteNames;
+    private final double[] demographic;
+    private final double[] biomechanical;
+    private final double[] medical;
+
+    // REQUIRES: all arrays have the same length
+    // EFFECTS: wraps existing score columns, computed with the default configuration, without copying them
+    public ComponentScores(String[] athleteNames, double[] demographic, double[] biomechanical, double[] medical) {
+        this(ScoringConfig.DEFAULT, athleteNames, demographic, biomechanical, medical);
+    }
+
+    ComponentScores(ScoringConfig config, String[] athleteNames, double[] demographic, double[] biomechanical,
+                    double[] medical) {
+        if (demographic.length != athleteNames.length || biomechanical.length != athleteNames.length
+                || medical.length != athleteNames.length) {
+            throw new IllegalArgumentException("Score columns must all have the same length");
+        }
+        this.config = config;
+        this.athleteNames = athleteNames;
+        this.demographic = demographic;
+        this.biomechanical = biomechanical;
+        this.medical = medical;
+    }
+
+    // EFFECTS: scores every athlete in roster once with the engine of analyzer; demographic and medical
+    //          scores are computed in parallel, biomechanical scores through the engine's batch path
+    public static ComponentScores compute(RiskAnalyzer analyzer, List<Athlete> roster) {
+        RiskAnalyzer.Snapshot current = analyzer.snapshot();
+        ScoringEngine engine = current.engine;
+        int size = roster.size();
+        String[] names = new String[size];
+        double[] demographic = new double[size];
+        double[] biomechanical = new double[size];
+        double[] medical = new double[size];
+
+        IntStream.range(0, size).parallel().forEach(i -> {
+            Athlete athlete = roster.get(i);
+            names[i] = athlete.getName();
+            demographic[i] = engine.assessDemographicRisk(athlete);
+            medical[i] = engine.assessMedicalHistoryRisk(athlete);
+        });
+        engine.assessBiomechanicalRisk(BiomechanicalField.toColumns(roster), biomechanical);
+        return new ComponentScores(current.config, names, demographic, biomechanical, medical);
+    }
+
+    public int size() {
+        return athleteNames.length;
+    }
+
+    public String getAthleteName(int index) {
+        return athleteNames[index];
+    }
+
+    public double getDemographic(int index) {
+        return demographic[index];
+    }
+
+    public double getBiomechanical(int index) {
+        return biomechanical[index];
+    }
+
+    public double getMedical(int index) {
+        return medical[index];
+    }
+
+    ScoringConfig getConfig() {
+        return config;
+    }
+
+    // Raw column access for bulk computations inside the model package
+    double[] demographicColumn() {
+        return demographic;
+    }
+
+    double[] biomechanicalColumn() {
+        return biomechanical;
+    }
+
+    double[] medicalColumn() {
+        return medical;
+    }
+}
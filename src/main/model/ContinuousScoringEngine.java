@@ -0,0 +1,148 @@
+package model;
+
+import java.util.Arrays;
+
+// Additive linear-spline alternative to the step-function biomechanical rules. Each term is a clamped
+// hinge on one measurement, contribution = min(cap, max(0, slope * (value - knot))), so risk grows
+// continuously past a threshold instead of jumping once (negative slopes model "lower is worse").
+// Coefficients are kept in primitive arrays; inference has no data-dependent branches and the batch
+// path runs term by term over whole columns. Demographic and medical inputs are categorical, so those
+// components use the standard rules.
+public class ContinuousScoringEngine implements ScoringEngine {
+    private final RuleScoringEngine categoricalRules;
+    private final int[] fields;
+    private final double[] knots;
+    private final double[] slopes;
+    private final double[] caps;
+
+    // REQUIRES: all arrays have the same length; fields holds BiomechanicalField ordinals
+    // EFFECTS: creates an engine from the given hinge terms (arrays are copied)
+    public ContinuousScoringEngine(int[] fields, double[] knots, double[] slopes, double[] caps) {
+        if (knots.length != fields.length || slopes.length != fields.length || caps.length != fields.length) {
+            throw new IllegalArgumentException("Coefficient arrays must all have the same length");
+        }
+        for (int field : fields) {
+            if (field < 0 || field >= BiomechanicalField.COUNT) {
+                throw new IllegalArgumentException("Unknown biomechanical field index: " + field);
+            }
+        }
+        this.fields = fields.clone();
+        this.knots = knots.clone();
+        this.slopes = slopes.clone();
+        this.caps = caps.clone();
+        this.categoricalRules = new RuleScoringEngine();
+        sortTermsByField();
+    }
+
+    private ContinuousScoringEngine(ContinuousScoringEngine terms, ScoringConfig config) {
+        this.fields = terms.fields;
+        this.knots = terms.knots;
+        this.slopes = terms.slopes;
+        this.caps = terms.caps;
+        this.categoricalRules = new RuleScoringEngine(config);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stably reorders the terms by field, so the score is summed in the same order as the per-field
+    //          contributions RiskAlertEngine adds up and the incremental total matches it bit for bit
+    private void sortTermsByField() {
+        for (int t = 1; t < fields.length; t++) {
+            int field = fields[t];
+            double knot = knots[t];
+            double slope = slopes[t];
+            double cap = caps[t];
+            int u = t - 1;
+            for (; u >= 0 && fields[u] > field; u--) {
+                fields[u + 1] = fields[u];
+                knots[u + 1] = knots[u];
+                slopes[u + 1] = slopes[u];
+                caps[u + 1] = caps[u];
+            }
+            fields[u + 1] = field;
+            knots[u + 1] = knot;
+            slopes[u + 1] = slope;
+            caps[u + 1] = cap;
+        }
+    }
+
+    // EFFECTS: returns an engine whose hinges pass through the step rules' increments at the middle of
+    //          each threshold band and keep rising for one more band before capping
+    public static ContinuousScoringEngine withDefaultCoefficients() {
+        return new ContinuousScoringEngine(
+                new int[] {
+                    BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal(),
+                    BiomechanicalField.HIP_ADDUCTION_ANGLE.ordinal(),
+                    BiomechanicalField.KNEE_FLEXION_ANGLE.ordinal(),
+                    BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal(),
+                    BiomechanicalField.LANDING_ASYMMETRY.ordinal(),
+                    BiomechanicalField.Q_ANGLE.ordinal()
+                },
+                new double[] {7.5, 12.5, 67.5, 0.65, 5.0, 12.5},
+                new double[] {0.2, 0.15, -0.05, -10.0, 0.075, 0.15},
+                new double[] {3.0, 2.25, 2.25, 3.0, 2.25, 2.25});
+    }
+
+    // The hinge terms are not part of ScoringConfig; only the categorical rules follow it
+    @Override
+    public ScoringEngine withConfig(ScoringConfig config) {
+        return new ContinuousScoringEngine(this, config);
+    }
+
+    @Override
+    public double assessDemographicRisk(Athlete athlete) {
+        return categoricalRules.assessDemographicRisk(athlete);
+    }
+
+    @Override
+    public double assessBiomechanicalRisk(BiomechanicalData data) {
+        // Reads each measurement through its getter, as RuleScoringEngine does, without a temporary vector
+        double riskScore = 0.0;
+        for (int t = 0; t < fields.length; t++) {
+            double value = BiomechanicalField.FIELDS[fields[t]].get(data);
+            riskScore += Math.min(caps[t], Math.max(0.0, slopes[t] * (value - knots[t])));
+        }
+        return Math.min(10.0, riskScore);
+    }
+
+    @Override
+    public double assessBiomechanicalRisk(double[] values) {
+        double riskScore = 0.0;
+        for (int t = 0; t < fields.length; t++) {
+            riskScore += Math.min(caps[t], Math.max(0.0, slopes[t] * (values[fields[t]] - knots[t])));
+        }
+        return Math.min(10.0, riskScore);
+    }
+
+    @Override
+    public double assessFieldContribution(BiomechanicalField field, double value) {
+        double contribution = 0.0;
+        for (int t = 0; t < fields.length; t++) {
+            if (fields[t] == field.ordinal()) {
+                contribution += Math.min(caps[t], Math.max(0.0, slopes[t] * (value - knots[t])));
+            }
+        }
+        return contribution;
+    }
+
+    @Override
+    public void assessBiomechanicalRisk(double[][] columns, double[] out) {
+        Arrays.fill(out, 0.0);
+        for (int t = 0; t < fields.length; t++) {
+            double[] column = columns[fields[t]];
+            double knot = knots[t];
+            double slope = slopes[t];
+            double cap = caps[t];
+            for (int i = 0; i < out.length; i++) {
+                out[i] += Math.min(cap, Math.max(0.0, slope * (column[i] - knot)));
+            }
+        }
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Math.min(10.0, out[i]);
+        }
+    }
+
+    @Override
+    public double assessMedicalHistoryRisk(Athlete athlete) {
+        return categoricalRules.assessMedicalHistoryRisk(athlete);
+    }
+}
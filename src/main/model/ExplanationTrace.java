@@ -0,0 +1,89 @@
+package model;
+
+// Preallocated record of the rules that fired during one analysis and what each contributed.
+// Each rule fires at most once per analysis, so the buffers never grow. The trace also remembers the
+// configuration the rules were evaluated with, so descriptions state the thresholds actually applied.
+// Not thread-safe.
+public class ExplanationTrace {
+    private final ScoringRule[] rules = new ScoringRule[ScoringRule.COUNT];
+    private final double[] contributions = new double[ScoringRule.COUNT];
+    private int size;
+    private ScoringConfig config = ScoringConfig.DEFAULT;
+
+    // MODIFIES: this
+    // EFFECTS: clears the trace for the next analysis
+    public void reset() {
+        size = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that rule fired under config and added contribution to its component score
+    void record(ScoringRule rule, double contribution, ScoringConfig config) {
+        if (size == rules.length) {
+            throw new IllegalStateException("Trace was not reset between analyses");
+        }
+        this.config = config;
+        rules[size] = rule;
+        contributions[size] = contribution;
+        size++;
+    }
+
+    // EFFECTS: returns the number of rules that fired
+    public int size() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    public ScoringRule getRule(int index) {
+        return rules[index];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    public double getContribution(int index) {
+        return contributions[index];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns what the rule at index tested, with the thresholds of the configuration it ran with
+    public String getDescription(int index) {
+        return rules[index].describe(config);
+    }
+
+    // EFFECTS: returns the configuration the recorded rules were evaluated with
+    public ScoringConfig getConfig() {
+        return config;
+    }
+
+    // EFFECTS: returns the contribution of rule, or 0.0 if it did not fire
+    public double getContribution(ScoringRule rule) {
+        for (int i = 0; i < size; i++) {
+            if (rules[i] == rule) {
+                return contributions[i];
+            }
+        }
+        return 0.0;
+    }
+
+    // EFFECTS: returns the sum of contributions to component before capping at 10
+    public double getRawComponentTotal(ScoringRule.Component component) {
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (rules[i].getComponent() == component) {
+                total += contributions[i];
+            }
+        }
+        return total;
+    }
+
+    // EFFECTS: lists each fired rule with its contribution, in evaluation order
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            summary.append("- [").append(rules[i].getComponent()).append("] ")
+                   .append(getDescription(i)).append(": +")
+                   .append(String.format("%.2f", contributions[i])).append("\n");
+        }
+        return summary.toString();
+    }
+}
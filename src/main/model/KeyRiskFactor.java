@@ -0,0 +1,74 @@
+package model;
+
+// The fixed set of key risk factors RiskAnalyzer can flag. Each factor owns one bit, so the factors
+// present in an assessment form an int mask and cohort questions become bit operations.
+public enum KeyRiskFactor {
+    PREVIOUS_ACL_INJURY("Previous ACL Injury", null),
+    EXCESSIVE_KNEE_VALGUS("Excessive Knee Valgus", BiomechanicalField.KNEE_VALGUS_ANGLE),
+    EXCESSIVE_HIP_ADDUCTION("Excessive Hip Adduction", BiomechanicalField.HIP_ADDUCTION_ANGLE),
+    INSUFFICIENT_KNEE_FLEXION("Insufficient Knee Flexion", BiomechanicalField.KNEE_FLEXION_ANGLE),
+    HAMSTRING_QUADRICEPS_IMBALANCE("Hamstring-Quadriceps Imbalance", BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO),
+    LANDING_ASYMMETRY("Landing Asymmetry", BiomechanicalField.LANDING_ASYMMETRY),
+    ELEVATED_Q_ANGLE("Elevated Q-Angle", BiomechanicalField.Q_ANGLE),
+    FEMALE_GENDER("Female Gender", null),
+    HIGH_RISK_SPORT("High-Risk Sport Participation", null);
+
+    // Cached because values() copies the array on every call
+    static final KeyRiskFactor[] FACTORS = values();
+
+    public static final int COUNT = FACTORS.length;
+
+    private final String displayName;
+    private final BiomechanicalField field;
+
+    KeyRiskFactor(String displayName, BiomechanicalField field) {
+        this.displayName = displayName;
+        this.field = field;
+    }
+
+    // EFFECTS: returns the name shown in assessments (e.g. "Excessive Knee Valgus")
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // EFFECTS: returns the measurement this factor is flagged from, or null for a demographic or
+    //          medical factor
+    public BiomechanicalField getField() {
+        return field;
+    }
+
+    // EFFECTS: returns the bit representing this factor in a factor mask
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    // EFFECTS: returns the factor with the given display name, or null if there is none
+    public static KeyRiskFactor fromDisplayName(String displayName) {
+        for (KeyRiskFactor factor : FACTORS) {
+            if (factor.displayName.equals(displayName)) {
+                return factor;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the mask containing exactly the given factors
+    public static int mask(KeyRiskFactor... factors) {
+        int mask = 0;
+        for (KeyRiskFactor factor : factors) {
+            mask |= factor.bit();
+        }
+        return mask;
+    }
+
+    // EFFECTS: returns how many of masks contain every factor in required
+    public static int countWith(int[] masks, int required) {
+        int count = 0;
+        for (int mask : masks) {
+            if ((mask & required) == required) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
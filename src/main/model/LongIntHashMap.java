@@ -0,0 +1,85 @@
+package model;
+
+import java.util.Arrays;
+
+// Open-addressing map from long keys to non-negative int values, without boxing. Keys are expected to
+// be hashes already, so they are only mixed lightly before linear probing. Not thread-safe.
+final class LongIntHashMap {
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    // EFFECTS: returns the value of key, or missing if it has none
+    int get(long key, int missing) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == EMPTY) {
+                return missing;
+            }
+            if (keys[slot] == key) {
+                return value;
+            }
+        }
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: this
+    // EFFECTS: maps key to value and returns its previous value, or -1 if it had none
+    int put(long key, int value) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int previous = values[slot];
+            if (previous == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return EMPTY;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return previous;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.SplittableRandom;
+
+// Gaussian measurement-error model: each biomechanical field is perturbed by zero-mean noise with its
+// own standard deviation (in the field's units). Fields with a deviation of 0 are treated as exact. Noisy
+// values are clamped to the field's valid range, so a sample never has a negative angle or ratio.
+// A model is immutable; withStandardDeviation returns a new one.
+public class MeasurementNoise {
+    private final double[] standardDeviations;
+
+    // EFFECTS: creates a model in which every measurement is exact
+    public MeasurementNoise() {
+        this.standardDeviations = new double[BiomechanicalField.COUNT];
+    }
+
+    private MeasurementNoise(double[] standardDeviations) {
+        this.standardDeviations = standardDeviations;
+    }
+
+    // EFFECTS: returns a model with typical test-retest error for the fields used in risk scoring
+    public static MeasurementNoise typicalRetestError() {
+        return new MeasurementNoise()
+                .withStandardDeviation(BiomechanicalField.KNEE_VALGUS_ANGLE, 3.0)
+                .withStandardDeviation(BiomechanicalField.HIP_ADDUCTION_ANGLE, 3.0)
+                .withStandardDeviation(BiomechanicalField.KNEE_FLEXION_ANGLE, 4.0)
+                .withStandardDeviation(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.05)
+                .withStandardDeviation(BiomechanicalField.LANDING_ASYMMETRY, 3.0)
+                .withStandardDeviation(BiomechanicalField.Q_ANGLE, 2.0);
+    }
+
+    // REQUIRES: standardDeviation >= 0
+    // EFFECTS: returns a copy of this model in which field has the given standard deviation
+    public MeasurementNoise withStandardDeviation(BiomechanicalField field, double standardDeviation) {
+        if (!(standardDeviation >= 0.0)) {
+            throw new IllegalArgumentException("Standard deviation must not be negative");
+        }
+        double[] copy = standardDeviations.clone();
+        copy[field.ordinal()] = standardDeviation;
+        return new MeasurementNoise(copy);
+    }
+
+    public double getStandardDeviation(BiomechanicalField field) {
+        return standardDeviations[field.ordinal()];
+    }
+
+    // REQUIRES: base and out have BiomechanicalField.COUNT entries
+    // MODIFIES: out, random
+    // EFFECTS: writes one noisy sample of the measurements base into out; exact fields are copied unchanged
+    void sample(double[] base, double[] out, SplittableRandom random) {
+        for (int f = 0; f < base.length; f += 2) {
+            // Marsaglia polar method yields two independent standard normals per accepted point
+            double u;
+            double v;
+            double s;
+            do {
+                u = 2.0 * random.nextDouble() - 1.0;
+                v = 2.0 * random.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+            double scale = Math.sqrt(-2.0 * Math.log(s) / s);
+            out[f] = perturb(f, base[f], u * scale);
+            if (f + 1 < base.length) {
+                out[f + 1] = perturb(f + 1, base[f + 1], v * scale);
+            }
+        }
+    }
+
+    private double perturb(int field, double value, double standardNormal) {
+        double deviation = standardDeviations[field];
+        if (deviation == 0.0) {
+            return value;
+        }
+        return BiomechanicalField.FIELDS[field].clamp(value + deviation * standardNormal);
+    }
+}
@@ -0,0 +1,391 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Looks athletes up by name as it is typed. Names are normalized (lower case, letters and digits only,
+// single spaces) and indexed two ways:
+//   - a sorted map keyed by every word-start suffix of the name followed by '\0' and the name itself
+//     ("jane doe\0jane doe", "doe\0jane doe"), so a prefix query walks one range in suffix and then
+//     name order and stops after limit matches; keys are unique per name, so adding is one map insert
+//   - a map from each trigram of the padded name to its athletes, used to find candidates for a
+//     misspelled query, which are then checked with a bounded edit distance; queries too short for
+//     trigrams to be selective use a map from name length to athletes instead
+// Athletes are held in plain arrays rather than sets, a few bytes per posting. The maps are concurrent
+// and updated one key at a time, so lookups never lock and see either the old or the new state of a
+// concurrent add or remove. Writers lock a stripe chosen by name, so an add and a remove of the same
+// athlete cannot interleave and leave stale keys behind; keys left without athletes are removed.
+public class NameIndex {
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+    // Ends the suffix part of a prefix key; sorts before every character of a normalized name
+    private static final char SEPARATOR = '\0';
+    // A power of two
+    private static final int LOCK_STRIPES = 64;
+
+    private final ConcurrentSkipListMap<String, Entry[]> prefixes = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Postings> trigrams = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Postings> lengths = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Athlete, Entry> entries = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public NameIndex() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // An indexed athlete with its normalized name; compared by identity
+    private static final class Entry {
+        final Athlete athlete;
+        final String name;
+
+        Entry(Athlete athlete, String name) {
+            this.athlete = athlete;
+            this.name = name;
+        }
+    }
+
+    // An immutable view of the athletes under one key: the first size slots of items. Adding appends in
+    // place when there is room and returns a new view of the same array, which earlier views do not
+    // see; removing copies. Only the writer holding the key (inside ConcurrentHashMap.compute) changes
+    // the array, and readers get views through the map, so they always see complete slots.
+    private static final class Postings {
+        final Entry[] items;
+        final int size;
+
+        Postings(Entry[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        Postings with(Entry entry) {
+            Entry[] array = size < items.length ? items : Arrays.copyOf(items, Math.max(2, size * 2));
+            array[size] = entry;
+            return new Postings(array, size + 1);
+        }
+
+        // EFFECTS: returns these postings without entry, or null if nothing is left
+        Postings without(Entry entry) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == entry) {
+                    if (size == 1) {
+                        return null;
+                    }
+                    Entry[] array = new Entry[size - 1];
+                    System.arraycopy(items, 0, array, 0, i);
+                    System.arraycopy(items, i + 1, array, i, size - i - 1);
+                    return new Postings(array, array.length);
+                }
+            }
+            return this;
+        }
+    }
+
+    // A fuzzy match and its edit distance from the query
+    private static final class Match {
+        final Entry entry;
+        final int distance;
+
+        Match(Entry entry, int distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes athlete under its name; returns false if it is already indexed
+    public boolean add(Athlete athlete) {
+        Entry entry = new Entry(athlete, normalize(athlete.getName()));
+        synchronized (lockFor(entry.name)) {
+            if (entries.putIfAbsent(athlete, entry) != null) {
+                return false;
+            }
+            for (String key : prefixKeys(entry.name)) {
+                prefixes.merge(key, new Entry[] {entry}, NameIndex::concat);
+            }
+            for (String trigram : trigramsOf(entry.name)) {
+                addTo(trigrams, trigram, entry);
+            }
+            addTo(lengths, entry.name.length(), entry);
+            return true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes athlete from the index; returns false if it was not indexed
+    public boolean remove(Athlete athlete) {
+        Entry entry = entries.get(athlete);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (lockFor(entry.name)) {
+            if (!entries.remove(athlete, entry)) {
+                return false;
+            }
+            for (String key : prefixKeys(entry.name)) {
+                prefixes.computeIfPresent(key, (k, current) -> without(current, entry));
+            }
+            for (String trigram : trigramsOf(entry.name)) {
+                removeFrom(trigrams, trigram, entry);
+            }
+            removeFrom(lengths, entry.name.length(), entry);
+            return true;
+        }
+    }
+
+    private Object lockFor(String name) {
+        return locks[name.hashCode() & (LOCK_STRIPES - 1)];
+    }
+
+    // Both run atomically for their key, so an add cannot append to postings that a remove has just
+    // dropped
+    private static <K> void addTo(ConcurrentHashMap<K, Postings> map, K key, Entry entry) {
+        map.compute(key, (k, postings) -> postings == null ? new Postings(new Entry[] {entry}, 1)
+                : postings.with(entry));
+    }
+
+    private static <K> void removeFrom(ConcurrentHashMap<K, Postings> map, K key, Entry entry) {
+        map.computeIfPresent(key, (k, postings) -> postings.without(entry));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // EFFECTS: returns the number of distinct trigrams currently indexed
+    int getTrigramCount() {
+        return trigrams.size();
+    }
+
+    // EFFECTS: returns up to limit distinct athletes with a name word starting with prefix, ordered by
+    //          the name from the matching word on and then by the whole (normalized) name, e.g. "amy doe"
+    //          and "jane doe" before "dora lee" for "do"; an empty prefix matches nothing
+    public List<Athlete> findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<Athlete> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Entry[]> matches : prefixes.subMap(key, true, key + MAX_CHAR, false).entrySet()) {
+            int suffixLength = matches.getKey().indexOf(SEPARATOR);
+            for (Entry entry : matches.getValue()) {
+                if (!matchedEarlier(entry.name, entry.name.length() - suffixLength, key)) {
+                    result.add(entry.athlete);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns true if another word suffix of name starts with prefix and sorts before the one at
+    //          start, so the range scan has already returned name under that key
+    private static boolean matchedEarlier(String name, int start, String prefix) {
+        for (int word = 0; word >= 0; word = nextWord(name, word)) {
+            if (word != start && name.startsWith(prefix, word) && compareSuffixes(name, word, start) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Start of the word after the one at index, or -1
+    private static int nextWord(String name, int index) {
+        int space = name.indexOf(' ', index);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private static int compareSuffixes(String name, int a, int b) {
+        int length = name.length();
+        for (int i = 0; a + i < length && b + i < length; i++) {
+            int order = Character.compare(name.charAt(a + i), name.charAt(b + i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        // The shorter suffix is a prefix of the longer one
+        return Integer.compare(length - a, length - b);
+    }
+
+    // REQUIRES: maxEdits >= 0
+    // EFFECTS: returns up to limit athletes whose whole name is within maxEdits insertions, deletions
+    //          or substitutions of query, closest first and then in name order
+    public List<Athlete> findSimilar(String query, int maxEdits, int limit) {
+        String name = normalize(query);
+        if (name.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<Match> matches = new ArrayList<>();
+        int[] previous = new int[name.length() + 1];
+        int[] current = new int[name.length() + 1];
+        for (Entry entry : candidates(name, maxEdits)) {
+            int distance = boundedDistance(name, entry.name, maxEdits, previous, current);
+            if (distance <= maxEdits) {
+                matches.add(new Match(entry, distance));
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match m) -> m.distance).thenComparing(m -> m.entry.name));
+        List<Athlete> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).entry.athlete);
+        }
+        return result;
+    }
+
+    // EFFECTS: returns every indexed name that might be within maxEdits of name. Each edit destroys at
+    //          most three of the query's trigrams, so a match shares at least one trigram with any
+    //          3 * maxEdits + 1 of them; only the rarest ones are scanned. A query with no more trigrams
+    //          than 3 * maxEdits can share none with a match (e.g. "ab" and "xb"), so it is checked
+    //          against every name whose length is within maxEdits of its own instead.
+    private Set<Entry> candidates(String name, int maxEdits) {
+        Set<Entry> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        String[] queryTrigrams = trigramsOf(name);
+        if (queryTrigrams.length <= 3 * maxEdits) {
+            int longest = name.length() + maxEdits;
+            for (int length = Math.max(1, name.length() - maxEdits); length <= longest; length++) {
+                addAll(candidates, lengths.get(length));
+            }
+            return candidates;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String trigram : queryTrigrams) {
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                postings = new Postings(new Entry[0], 0);
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        for (int i = 0; i <= 3 * maxEdits; i++) {
+            addAll(candidates, lists.get(i));
+        }
+        return candidates;
+    }
+
+    private static void addAll(Set<Entry> candidates, Postings postings) {
+        if (postings != null) {
+            for (int i = 0; i < postings.size; i++) {
+                candidates.add(postings.items[i]);
+            }
+        }
+    }
+
+    // EFFECTS: returns the edit distance between a and b, or maxEdits + 1 as soon as it must exceed
+    //          maxEdits; previous and current are scratch rows of length a.length() + 1
+    static int boundedDistance(String a, String b, int maxEdits, int[] previous, int[] current) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+        for (int i = 0; i <= n; i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            current[0] = j;
+            int rowMin = j;
+            char c = b.charAt(j - 1);
+            for (int i = 1; i <= n; i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(current[i - 1], previous[i]) + 1, previous[i - 1] + cost);
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[n], maxEdits + 1);
+    }
+
+    // EFFECTS: returns name in lower case with runs of other characters than letters and digits
+    //          replaced by one space and no leading or trailing space
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    // EFFECTS: returns the prefix keys of name: each suffix of name that starts at a word, followed by
+    //          SEPARATOR and name
+    private static List<String> prefixKeys(String name) {
+        List<String> keys = new ArrayList<>(2);
+        if (name.isEmpty()) {
+            return keys;
+        }
+        for (int word = 0; word >= 0; word = nextWord(name, word)) {
+            keys.add(name.substring(word) + SEPARATOR + name);
+        }
+        return keys;
+    }
+
+    // EFFECTS: returns the distinct trigrams of name padded with two leading and one trailing space
+    private static String[] trigramsOf(String name) {
+        String padded = "  " + name + " ";
+        String[] result = new String[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = padded.substring(i, i + 3);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (String trigram : result) {
+            if (distinct == 0 || !trigram.equals(result[distinct - 1])) {
+                result[distinct++] = trigram;
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    // Athletes with the same name share prefix keys
+    private static Entry[] concat(Entry[] current, Entry[] added) {
+        Entry[] result = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, result, current.length, added.length);
+        return result;
+    }
+
+    // EFFECTS: returns current without entry, or null (removing the key) if nothing is left
+    private static Entry[] without(Entry[] current, Entry entry) {
+        int index = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == entry) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return current;
+        }
+        if (current.length == 1) {
+            return null;
+        }
+        Entry[] result = new Entry[current.length - 1];
+        System.arraycopy(current, 0, result, 0, index);
+        System.arraycopy(current, index + 1, result, index, current.length - index - 1);
+        return result;
+    }
+}
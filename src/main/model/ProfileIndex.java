@@ -0,0 +1,369 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Nearest-neighbour index over biomechanical profiles, for "athletes with similar landing mechanics".
+// Profiles are the twelve BiomechanicalField values, z-normalized with the roster's mean and standard
+// deviation so each measurement weighs the same, and compared by Euclidean distance. A missing (NaN)
+// value is replaced by the mean.
+//
+// The index is an implicit KD-tree over one flat double array (row i holds profile i's twelve values):
+// every range of rows is split at its median along the dimension with the widest spread, the median row
+// stays in the middle of the range and the two halves are the subtrees, so there are no node objects or
+// pointers. Ranges of LEAF_SIZE rows or fewer are scanned directly. The halves of large ranges are built
+// in parallel on the common ForkJoinPool. A query descends to the query's side of each split first and
+// visits the other side only if the splitting plane is closer than the k-th best distance so far.
+// The index is immutable once built; queries may run concurrently.
+public final class ProfileIndex {
+    private static final int DIMENSIONS = BiomechanicalField.COUNT;
+    private static final int LEAF_SIZE = 16;
+    // Ranges at least this large build their halves in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int size;
+    private final double[] means = new double[DIMENSIONS];
+    private final double[] scales = new double[DIMENSIONS];
+    // Normalized profiles in tree order, and the roster index of each row
+    private final double[] points;
+    private final int[] ids;
+    // The row of each roster index (the inverse of ids)
+    private final int[] rows;
+    // Split dimension of the range whose median is row i (unused for rows in leaves)
+    private final byte[] splitDimensions;
+
+    // REQUIRES: columns[f] has the same length for every field f
+    private ProfileIndex(double[][] columns) {
+        size = columns[0].length;
+        points = new double[size * DIMENSIONS];
+        ids = new int[size];
+        rows = new int[size];
+        splitDimensions = new byte[size];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double[] column = columns[d];
+            double sum = 0.0;
+            int count = 0;
+            for (double value : column) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                    count++;
+                }
+            }
+            double mean = count == 0 ? 0.0 : sum / count;
+            double squares = 0.0;
+            for (double value : column) {
+                if (!Double.isNaN(value)) {
+                    squares += (value - mean) * (value - mean);
+                }
+            }
+            double deviation = count == 0 ? 0.0 : Math.sqrt(squares / count);
+            means[d] = mean;
+            // A constant measurement cannot separate profiles; leave it unscaled
+            scales[d] = deviation > 0.0 ? 1.0 / deviation : 1.0;
+            for (int i = 0; i < size; i++) {
+                points[i * DIMENSIONS + d] = normalize(d, column[i]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        ForkJoinPool.commonPool().invoke(new Build(0, size));
+        for (int row = 0; row < size; row++) {
+            rows[ids[row]] = row;
+        }
+    }
+
+    // EFFECTS: returns an index of the biomechanical profiles in roster; results refer to roster positions
+    public static ProfileIndex of(List<Athlete> roster) {
+        return new ProfileIndex(BiomechanicalField.toColumns(roster));
+    }
+
+    // REQUIRES: columns has BiomechanicalField.COUNT columns of equal length, indexed by field ordinal
+    // EFFECTS: returns an index of the profiles in columns; results refer to positions in the columns
+    public static ProfileIndex of(double[][] columns) {
+        if (columns.length != DIMENSIONS) {
+            throw new IllegalArgumentException("Expected " + DIMENSIONS + " columns");
+        }
+        for (double[] column : columns) {
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("Columns differ in length");
+            }
+        }
+        return new ProfileIndex(columns);
+    }
+
+    private double normalize(int dimension, double value) {
+        return Double.isNaN(value) ? 0.0 : (value - means[dimension]) * scales[dimension];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Orders rows [from, to) into a KD-tree
+    private final class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Build(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                return;
+            }
+            int dimension = widestDimension(from, to);
+            int median = (from + to) >>> 1;
+            select(from, to, median, dimension);
+            splitDimensions[median] = (byte) dimension;
+            if (to - from >= PARALLEL_THRESHOLD) {
+                invokeAll(new Build(from, median), new Build(median + 1, to));
+            } else {
+                new Build(from, median).compute();
+                new Build(median + 1, to).compute();
+            }
+        }
+    }
+
+    private int widestDimension(int from, int to) {
+        double[] low = new double[DIMENSIONS];
+        double[] high = new double[DIMENSIONS];
+        Arrays.fill(low, Double.POSITIVE_INFINITY);
+        Arrays.fill(high, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            int row = i * DIMENSIONS;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                double value = points[row + d];
+                low[d] = Math.min(low[d], value);
+                high[d] = Math.max(high[d], value);
+            }
+        }
+        int widest = 0;
+        for (int d = 1; d < DIMENSIONS; d++) {
+            if (high[d] - low[d] > high[widest] - low[widest]) {
+                widest = d;
+            }
+        }
+        return widest;
+    }
+
+    // Rearranges rows [from, to) so that row k holds the value it would have if sorted by dimension, with
+    // no larger value before it and no smaller one after it (quickselect, median-of-three pivots)
+    private void select(int from, int to, int k, int dimension) {
+        int low = from;
+        int high = to - 1;
+        while (high > low) {
+            int middle = (low + high) >>> 1;
+            double pivot = medianOfThree(value(low, dimension), value(middle, dimension),
+                    value(high, dimension));
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (value(i, dimension) < pivot) {
+                    i++;
+                }
+                while (value(j, dimension) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private double value(int row, int dimension) {
+        return points[row * DIMENSIONS + dimension];
+    }
+
+    private void swap(int a, int b) {
+        int rowA = a * DIMENSIONS;
+        int rowB = b * DIMENSIONS;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double value = points[rowA + d];
+            points[rowA + d] = points[rowB + d];
+            points[rowB + d] = value;
+        }
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+
+    // EFFECTS: returns the positions of the (at most) k profiles nearest to data, nearest first
+    public int[] nearest(BiomechanicalData data, int k) {
+        return nearest(data.toArray(new double[DIMENSIONS]), k, null);
+    }
+
+    // REQUIRES: profile has BiomechanicalField.COUNT raw (unnormalized) values; distances is null or has
+    //           at least k entries
+    // EFFECTS: returns the positions of the (at most) k profiles nearest to profile, nearest first, and
+    //          stores their normalized distances in distances if it is not null
+    public int[] nearest(double[] profile, int k, double[] distances) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        double[] query = new double[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            query[d] = normalize(d, profile[d]);
+        }
+        Search search = new Search(query, Math.min(k, size), -1);
+        search.visit(0, size);
+        return search.result(distances);
+    }
+
+    // EFFECTS: returns the positions of the (at most) k profiles nearest to the profile at position,
+    //          nearest first, leaving out that profile itself
+    public int[] similarTo(int position, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (position < 0 || position >= size) {
+            throw new IllegalArgumentException("No profile at position " + position);
+        }
+        double[] query = Arrays.copyOfRange(points, rows[position] * DIMENSIONS, (rows[position] + 1) * DIMENSIONS);
+        Search search = new Search(query, Math.min(k, size - 1), position);
+        search.visit(0, size);
+        return search.result(null);
+    }
+
+    // One query: the k best rows so far in a max-heap on squared distance, so the worst is at the top
+    private final class Search {
+        private final double[] query;
+        private final int k;
+        private final int excluded;
+        private final double[] heapDistances;
+        private final int[] heapRows;
+        private int count;
+
+        Search(double[] query, int k, int excluded) {
+            this.query = query;
+            this.k = k;
+            this.excluded = excluded;
+            this.heapDistances = new double[k];
+            this.heapRows = new int[k];
+        }
+
+        private double worst() {
+            return count < k ? Double.POSITIVE_INFINITY : heapDistances[0];
+        }
+
+        void visit(int from, int to) {
+            if (k == 0) {
+                return;
+            }
+            if (to - from <= LEAF_SIZE) {
+                for (int row = from; row < to; row++) {
+                    consider(row);
+                }
+                return;
+            }
+            int median = (from + to) >>> 1;
+            int dimension = splitDimensions[median];
+            double offset = query[dimension] - points[median * DIMENSIONS + dimension];
+            consider(median);
+            if (offset < 0) {
+                visit(from, median);
+                if (offset * offset < worst()) {
+                    visit(median + 1, to);
+                }
+            } else {
+                visit(median + 1, to);
+                if (offset * offset < worst()) {
+                    visit(from, median);
+                }
+            }
+        }
+
+        private void consider(int row) {
+            if (ids[row] == excluded) {
+                return;
+            }
+            int base = row * DIMENSIONS;
+            double limit = worst();
+            double distance = 0.0;
+            for (int d = 0; d < DIMENSIONS && distance < limit; d++) {
+                double difference = query[d] - points[base + d];
+                distance += difference * difference;
+            }
+            if (distance >= limit) {
+                return;
+            }
+            if (count < k) {
+                siftUp(count++, distance, row);
+            } else {
+                siftDown(distance, row);
+            }
+        }
+
+        private void siftUp(int slot, double distance, int row) {
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (heapDistances[parent] >= distance) {
+                    break;
+                }
+                heapDistances[slot] = heapDistances[parent];
+                heapRows[slot] = heapRows[parent];
+                slot = parent;
+            }
+            heapDistances[slot] = distance;
+            heapRows[slot] = row;
+        }
+
+        // Replaces the top (worst) entry
+        private void siftDown(double distance, int row) {
+            int slot = 0;
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= count) {
+                    break;
+                }
+                if (child + 1 < count && heapDistances[child + 1] > heapDistances[child]) {
+                    child++;
+                }
+                if (heapDistances[child] <= distance) {
+                    break;
+                }
+                heapDistances[slot] = heapDistances[child];
+                heapRows[slot] = heapRows[child];
+                slot = child;
+            }
+            heapDistances[slot] = distance;
+            heapRows[slot] = row;
+        }
+
+        // Empties the heap from the worst entry down, filling the result from the back
+        int[] result(double[] distances) {
+            int[] positions = new int[count];
+            for (int i = count - 1; i >= 0; i--) {
+                double distance = heapDistances[0];
+                positions[i] = ids[heapRows[0]];
+                if (distances != null) {
+                    distances[i] = Math.sqrt(distance);
+                }
+                count--;
+                if (count > 0) {
+                    siftDown(heapDistances[count], heapRows[count]);
+                }
+            }
+            return positions;
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package model;
 
 public class Recommendation {
-    private String category;
+    private final String category;
     
     // Priority level (1-3, where 1 is highest priority)
-    private int priority;
+    private final int priority;
     
     // Description of the recommended action
-    private String description;
+    private final String description;
     
     // Risk factor this recommendation addresses
-    private String targetRiskFactor;
+    private final String targetRiskFactor;
     
     /**
      * Constructor for creating a new recommendation.
@@ -0,0 +1,113 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// The fixed set of recommendations RiskAnalyzer can make, with the key risk factor (or high risk tier)
+// that triggers each. Because the triggers are a factor mask plus one tier bit, every possible
+// combination is resolved once, when the class loads, into an immutable list sorted by priority.
+// Selecting the recommendations for an assessment is then a single array lookup with no allocation;
+// the lists are shared between assessments, which copy one only if a recommendation is added.
+public final class RecommendationCatalog {
+    // Bit set in a selection key for assessments in the High or Very High category
+    private static final int HIGH_TIER = 1 << KeyRiskFactor.COUNT;
+
+    private static final Recommendation PREVIOUS_INJURY = new Recommendation(
+            "Medical",
+            1,
+            "Consult with sports medicine physician and physical therapist for comprehensive ACL prevention program",
+            "Previous ACL Injury");
+    private static final Recommendation KNEE_VALGUS = new Recommendation(
+            "Biomechanical",
+            1,
+            "Implement jump-landing training to reduce knee valgus during landing",
+            "Excessive Knee Valgus");
+    private static final Recommendation HIP_ADDUCTION = new Recommendation(
+            "Training",
+            2,
+            "Strengthen hip abductors (glute medius) with side planks and lateral band walks",
+            "Excessive Hip Adduction");
+    private static final Recommendation KNEE_FLEXION = new Recommendation(
+            "Biomechanical",
+            1,
+            "Practice soft landing techniques with increased knee bend",
+            "Insufficient Knee Flexion");
+    private static final Recommendation HQ_RATIO = new Recommendation(
+            "Training",
+            1,
+            "Implement hamstring strengthening program (Nordic hamstring curls, deadlifts)",
+            "Hamstring-Quadriceps Imbalance");
+    private static final Recommendation LANDING_ASYMMETRY = new Recommendation(
+            "Biomechanical",
+            2,
+            "Implement single-leg landing exercises with focus on symmetrical loading",
+            "Landing Asymmetry");
+    private static final Recommendation HIGH_RISK = new Recommendation(
+            "Educational",
+            1,
+            "Complete neuromuscular training program designed specifically for ACL injury prevention",
+            "Overall High Risk");
+    private static final Recommendation MAINTENANCE = new Recommendation(
+            "General",
+            3,
+            "Continue current training regimen with regular monitoring of biomechanical factors",
+            "Maintenance of Low Risk Profile");
+
+    // Recommendations in catalog order and the selection-key bit that triggers each
+    private static final Recommendation[] ENTRIES = {
+        PREVIOUS_INJURY, KNEE_VALGUS, HIP_ADDUCTION, KNEE_FLEXION, HQ_RATIO, LANDING_ASYMMETRY, HIGH_RISK
+    };
+    private static final int[] TRIGGERS = {
+        KeyRiskFactor.PREVIOUS_ACL_INJURY.bit(),
+        KeyRiskFactor.EXCESSIVE_KNEE_VALGUS.bit(),
+        KeyRiskFactor.EXCESSIVE_HIP_ADDUCTION.bit(),
+        KeyRiskFactor.INSUFFICIENT_KNEE_FLEXION.bit(),
+        KeyRiskFactor.HAMSTRING_QUADRICEPS_IMBALANCE.bit(),
+        KeyRiskFactor.LANDING_ASYMMETRY.bit(),
+        HIGH_TIER
+    };
+
+    // Selection key (factor mask | tier bit) -> recommendations
+    private static final List<List<Recommendation>> TABLE = buildTable();
+
+    private RecommendationCatalog() {
+    }
+
+    private static List<List<Recommendation>> buildTable() {
+        int relevant = 0;
+        for (int trigger : TRIGGERS) {
+            relevant |= trigger;
+        }
+        int size = HIGH_TIER << 1;
+        List<List<Recommendation>> table = new ArrayList<>(size);
+        for (int key = 0; key < size; key++) {
+            int canonical = key & relevant;
+            if (canonical != key) {
+                // Bits without recommendations do not change the selection; share the list
+                table.add(table.get(canonical));
+                continue;
+            }
+            List<Recommendation> selected = new ArrayList<>();
+            for (int i = 0; i < ENTRIES.length; i++) {
+                if ((key & TRIGGERS[i]) != 0) {
+                    selected.add(ENTRIES[i]);
+                }
+            }
+            if (selected.isEmpty()) {
+                selected.add(MAINTENANCE);
+            }
+            // Stable, so equal priorities keep catalog order
+            selected.sort(Comparator.comparingInt(Recommendation::getPriority));
+            table.add(Collections.unmodifiableList(selected));
+        }
+        return table;
+    }
+
+    // EFFECTS: returns the immutable, priority-sorted recommendations for an assessment flagging the
+    //          factors in factorMask, with highTier true for the High and Very High categories
+    public static List<Recommendation> select(int factorMask, boolean highTier) {
+        return TABLE.get((factorMask & (HIGH_TIER - 1)) | (highTier ? HIGH_TIER : 0));
+    }
+}
@@ -0,0 +1,215 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Decides when each athlete is due for re-assessment: the date of their latest assessment plus a
+// retest interval that shrinks as the risk category rises. Due dates are kept in an indexed binary
+// min-heap (each athlete knows its heap position), so rescheduling after a new assessment is
+// O(log n), and the athletes due on a day are collected by walking only the part of the heap that is
+// due instead of sorting the roster. Methods are synchronized; one scheduler can be shared.
+public class RetestScheduler {
+    // Retest intervals in days for Low, Moderate, High and Very High
+    private static final int[] DEFAULT_INTERVAL_DAYS = {180, 90, 30, 14};
+
+    private final int[] intervalDays;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int[] positions = new int[16];   // id -> heap position, -1 if unscheduled
+    private long[] due = new long[16];       // id -> due date as epoch day
+    private int[] heap = new int[16];        // heap position -> id
+    private int size;
+
+    public RetestScheduler() {
+        this(DEFAULT_INTERVAL_DAYS);
+    }
+
+    // REQUIRES: intervalDays has one positive entry per risk category, from Low to Very High
+    public RetestScheduler(int[] intervalDays) {
+        if (intervalDays.length != RiskAnalyzer.RISK_CATEGORIES.length) {
+            throw new IllegalArgumentException("One retest interval is needed per risk category");
+        }
+        for (int days : intervalDays) {
+            if (days <= 0) {
+                throw new IllegalArgumentException("Retest intervals must be positive");
+            }
+        }
+        this.intervalDays = intervalDays.clone();
+    }
+
+    // EFFECTS: returns the retest interval in days for category
+    public int getIntervalDays(String category) {
+        return intervalDays[categoryIndex(category)];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: (re)schedules the athlete of assessment for retesting one interval after assessedOn and
+    //          returns the due date
+    public synchronized LocalDate schedule(RiskAssessment assessment, LocalDate assessedOn) {
+        LocalDate dueDate = assessedOn.plusDays(getIntervalDays(assessment.getRiskCategory()));
+        int id = idOf(assessment.getAthleteName());
+        long day = dueDate.toEpochDay();
+        int position = positions[id];
+        if (position < 0) {
+            due[id] = day;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size++);
+        } else {
+            long previous = due[id];
+            due[id] = day;
+            if (day < previous) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+        return dueDate;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops scheduling the athlete; returns false if they were not scheduled
+    public synchronized boolean unschedule(String athleteName) {
+        Integer id = ids.get(athleteName);
+        if (id == null || positions[id] < 0) {
+            return false;
+        }
+        int position = positions[id];
+        positions[id] = -1;
+        size--;
+        if (position < size) {
+            int last = heap[size];
+            heap[position] = last;
+            positions[last] = position;
+            siftUp(position);
+            siftDown(positions[last]);
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the athlete's due date, or null if they are not scheduled
+    public synchronized LocalDate getDueDate(String athleteName) {
+        Integer id = ids.get(athleteName);
+        return id == null || positions[id] < 0 ? null : LocalDate.ofEpochDay(due[id]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the athletes due on or before date (including overdue ones), earliest first and
+    //          then by name. Only heap nodes that are due and their direct children are visited, so the
+    //          cost depends on the length of the list, not on the roster size.
+    public synchronized List<String> dueOn(LocalDate date) {
+        long day = date.toEpochDay();
+        int[] found = new int[16];
+        int count = 0;
+        int[] stack = new int[32];
+        int top = 0;
+        if (size > 0) {
+            stack[top++] = 0;
+        }
+        while (top > 0) {
+            int position = stack[--top];
+            int id = heap[position];
+            if (due[id] > day) {
+                continue;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = id;
+            int child = 2 * position + 1;
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (child < size) {
+                stack[top++] = child;
+            }
+            if (child + 1 < size) {
+                stack[top++] = child + 1;
+            }
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = found[i];
+        }
+        Arrays.sort(order, (a, b) -> due[a] != due[b] ? Long.compare(due[a], due[b])
+                : names.get(a).compareTo(names.get(b)));
+        List<String> result = new ArrayList<>(count);
+        for (Integer id : order) {
+            result.add(names.get(id));
+        }
+        return result;
+    }
+
+    private int idOf(String athleteName) {
+        Integer id = ids.get(athleteName);
+        if (id != null) {
+            return id;
+        }
+        int next = names.size();
+        if (next == positions.length) {
+            int capacity = next * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            due = Arrays.copyOf(due, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+        positions[next] = -1;
+        ids.put(athleteName, next);
+        names.add(athleteName);
+        return next;
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            int parentId = heap[parent];
+            if (due[parentId] <= due[id]) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && due[heap[child + 1]] < due[heap[child]]) {
+                child++;
+            }
+            int childId = heap[child];
+            if (due[childId] >= due[id]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private static int categoryIndex(String category) {
+        for (int i = 0; i < RiskAnalyzer.RISK_CATEGORIES.length; i++) {
+            if (RiskAnalyzer.RISK_CATEGORIES[i].equals(category)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown risk category: " + category);
+    }
+}
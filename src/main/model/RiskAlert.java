@@ -0,0 +1,63 @@
+package model;
+
+// A confirmed threshold crossing raised by RiskAlertEngine
+public class RiskAlert {
+
+    public enum Type {
+        CATEGORY_RAISED,   // overall risk moved up into the alert category or above it
+        CATEGORY_CLEARED,  // overall risk fell back below the alert category
+        FACTOR_RAISED,     // a watched key risk factor reached its alert score
+        FACTOR_CLEARED     // a watched key risk factor fell back below its alert score
+    }
+
+    private final Type type;
+    private final String athleteName;
+    private final String riskCategory;
+    private final double overallRiskScore;
+    private final KeyRiskFactor factor;
+    private final double factorScore;
+
+    RiskAlert(Type type, String athleteName, String riskCategory, double overallRiskScore,
+              KeyRiskFactor factor, double factorScore) {
+        this.type = type;
+        this.athleteName = athleteName;
+        this.riskCategory = riskCategory;
+        this.overallRiskScore = overallRiskScore;
+        this.factor = factor;
+        this.factorScore = factorScore;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAthleteName() {
+        return athleteName;
+    }
+
+    // EFFECTS: returns the athlete's confirmed risk category when the alert was raised
+    public String getRiskCategory() {
+        return riskCategory;
+    }
+
+    public double getOverallRiskScore() {
+        return overallRiskScore;
+    }
+
+    // EFFECTS: returns the factor of a FACTOR_ alert, or null for a CATEGORY_ alert
+    public KeyRiskFactor getFactor() {
+        return factor;
+    }
+
+    // EFFECTS: returns the factor score of a FACTOR_ alert (0 if the factor is no longer flagged)
+    public double getFactorScore() {
+        return factorScore;
+    }
+
+    @Override
+    public String toString() {
+        String subject = factor == null ? riskCategory : factor.getDisplayName();
+        return type + " " + athleteName + ": " + subject + " (overall " + Math.round(overallRiskScore * 100) / 100.0
+                + ")";
+    }
+}
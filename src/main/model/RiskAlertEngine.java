@@ -0,0 +1,266 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+// Raises alerts while athletes are measured live: when overall risk crosses into High or Very High, and
+// when a watched key risk factor (e.g. Excessive Knee Valgus) reaches a set score.
+// Each tracked athlete keeps its measurement vector and the biomechanical score contribution of every
+// field. A measurement update re-scores only the changed field (when the engine's score decomposes per
+// field, see ScoringEngine.assessFieldContribution) and re-checks only the factors flagged from that
+// field; demographic and medical scores are computed once when tracking starts, and the whole session
+// is re-scored on its next update after the analyzer's configuration changes.
+// Borderline values are damped two ways: a state is only left once the score is a hysteresis margin
+// past the threshold, and a change must persist for a number of consecutive updates (debounce) before
+// it is confirmed. Alerts go to the listener on the given executor, so a slow consumer never blocks
+// the thread reporting measurements. Updates for different athletes may run concurrently.
+public class RiskAlertEngine {
+    // Index into RiskAnalyzer.RISK_CATEGORIES of the lowest category that raises an alert (High)
+    private static final int ALERT_CATEGORY = 2;
+    private static final KeyRiskFactor[][] FACTORS_BY_FIELD = factorsByField();
+
+    private final RiskAnalyzer analyzer;
+    private final Executor executor;
+    private final Consumer<RiskAlert> listener;
+    private final double hysteresis;
+    private final int debounceUpdates;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    // Alert score per factor ordinal, NaN when the factor is not watched; replaced, never mutated
+    private volatile double[] factorThresholds;
+
+    // Live state of one tracked athlete; guarded by its own monitor
+    private static final class Session {
+        final Athlete athlete;
+        final String athleteName;
+        RiskAnalyzer.Snapshot scoredWith;
+        double demographicRisk;
+        double medicalRisk;
+        final double[] values = new double[BiomechanicalField.COUNT];
+        final double[] contributions = new double[BiomechanicalField.COUNT];
+        final boolean[] factorActive = new boolean[KeyRiskFactor.COUNT];
+        final int[] factorPending = new int[KeyRiskFactor.COUNT];
+        double overallRisk;
+        int category;
+        int pendingCategory;
+        int pendingCount;
+
+        Session(Athlete athlete) {
+            this.athlete = athlete;
+            this.athleteName = athlete.getName();
+        }
+    }
+
+    public RiskAlertEngine(RiskAnalyzer analyzer, Executor executor, Consumer<RiskAlert> listener) {
+        this(analyzer, executor, listener, 0.25, 2);
+    }
+
+    // REQUIRES: hysteresis >= 0, debounceUpdates >= 1
+    // EFFECTS: creates an engine whose states are left only hysteresis score points past their threshold
+    //          and confirmed only after debounceUpdates consecutive updates agree
+    public RiskAlertEngine(RiskAnalyzer analyzer, Executor executor, Consumer<RiskAlert> listener,
+                           double hysteresis, int debounceUpdates) {
+        if (hysteresis < 0 || debounceUpdates < 1) {
+            throw new IllegalArgumentException("Hysteresis must be >= 0 and debounce >= 1 update");
+        }
+        this.analyzer = analyzer;
+        this.executor = executor;
+        this.listener = listener;
+        this.hysteresis = hysteresis;
+        this.debounceUpdates = debounceUpdates;
+        double[] thresholds = new double[KeyRiskFactor.COUNT];
+        Arrays.fill(thresholds, Double.NaN);
+        this.factorThresholds = thresholds;
+    }
+
+    private static KeyRiskFactor[][] factorsByField() {
+        KeyRiskFactor[][] byField = new KeyRiskFactor[BiomechanicalField.COUNT][];
+        for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+            int count = 0;
+            KeyRiskFactor[] factors = new KeyRiskFactor[KeyRiskFactor.COUNT];
+            for (KeyRiskFactor factor : KeyRiskFactor.FACTORS) {
+                if (factor.getField() == field) {
+                    factors[count++] = factor;
+                }
+            }
+            byField[field.ordinal()] = Arrays.copyOf(factors, count);
+        }
+        return byField;
+    }
+
+    // REQUIRES: factor is flagged from a biomechanical measurement (factor.getField() != null)
+    // MODIFIES: this
+    // EFFECTS: raises FACTOR_ alerts when factor's score reaches score (factor scores run from 5 to 10)
+    public synchronized void watchFactor(KeyRiskFactor factor, double score) {
+        if (factor.getField() == null) {
+            throw new IllegalArgumentException(factor.getDisplayName() + " does not depend on a measurement");
+        }
+        double[] thresholds = factorThresholds.clone();
+        thresholds[factor.ordinal()] = score;
+        factorThresholds = thresholds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts tracking athlete from its current measurements and returns its overall risk; the
+    //          starting state raises no alert
+    public double track(Athlete athlete) {
+        Session session = new Session(athlete);
+        athlete.getBioMechData().toArray(session.values);
+        score(session, analyzer.snapshot());
+        double[] thresholds = factorThresholds;
+        for (KeyRiskFactor factor : KeyRiskFactor.FACTORS) {
+            double threshold = thresholds[factor.ordinal()];
+            if (!Double.isNaN(threshold)) {
+                double score = RiskAnalyzer.biomechanicalFactorScore(session.scoredWith.config, factor,
+                        session.values[factor.getField().ordinal()]);
+                session.factorActive[factor.ordinal()] = score >= threshold;
+            }
+        }
+        session.overallRisk = overallRisk(session);
+        session.category = session.scoredWith.categoryIndex(session.overallRisk);
+        session.pendingCategory = session.category;
+        sessions.put(athlete.getName(), session);
+        return session.overallRisk;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops tracking the athlete; returns false if they were not tracked
+    public boolean untrack(String athleteName) {
+        return sessions.remove(athleteName) != null;
+    }
+
+    // EFFECTS: returns the tracked athlete's current overall risk, or NaN if they are not tracked
+    public double getOverallRisk(String athleteName) {
+        Session session = sessions.get(athleteName);
+        if (session == null) {
+            return Double.NaN;
+        }
+        synchronized (session) {
+            return session.overallRisk;
+        }
+    }
+
+    // EFFECTS: returns the tracked athlete's confirmed risk category, or null if they are not tracked
+    public String getConfirmedCategory(String athleteName) {
+        Session session = sessions.get(athleteName);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            return RiskAnalyzer.RISK_CATEGORIES[session.category];
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a new value of field for the athlete, re-evaluates the rules that depend on it and
+    //          dispatches any confirmed alerts; returns false if the athlete is not tracked
+    public boolean update(String athleteName, BiomechanicalField field, double value) {
+        Session session = sessions.get(athleteName);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            RiskAnalyzer.Snapshot current = analyzer.snapshot();
+            if (current != session.scoredWith) {
+                score(session, current);
+            }
+            int f = field.ordinal();
+            session.values[f] = value;
+            session.contributions[f] = current.engine.assessFieldContribution(field, value);
+            session.overallRisk = overallRisk(session);
+            checkCategory(session);
+            double[] thresholds = factorThresholds;
+            for (KeyRiskFactor factor : FACTORS_BY_FIELD[f]) {
+                double threshold = thresholds[factor.ordinal()];
+                if (!Double.isNaN(threshold)) {
+                    checkFactor(session, factor, threshold, value);
+                }
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: session
+    // EFFECTS: computes every component score of session with the configuration and engine of current
+    private static void score(Session session, RiskAnalyzer.Snapshot current) {
+        ScoringEngine engine = current.engine;
+        session.scoredWith = current;
+        session.demographicRisk = engine.assessDemographicRisk(session.athlete);
+        session.medicalRisk = engine.assessMedicalHistoryRisk(session.athlete);
+        for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+            int f = field.ordinal();
+            session.contributions[f] = engine.assessFieldContribution(field, session.values[f]);
+        }
+    }
+
+    private double overallRisk(Session session) {
+        double biomechanicalRisk = 0.0;
+        for (double contribution : session.contributions) {
+            biomechanicalRisk += contribution;
+        }
+        if (Double.isNaN(biomechanicalRisk)) {
+            // The engine does not score fields independently; re-score the whole vector
+            biomechanicalRisk = session.scoredWith.engine.assessBiomechanicalRisk(session.values);
+        } else {
+            biomechanicalRisk = Math.min(10.0, biomechanicalRisk);
+        }
+        return session.scoredWith.overallRisk(session.demographicRisk, biomechanicalRisk, session.medicalRisk);
+    }
+
+    private void checkCategory(Session session) {
+        int target = session.scoredWith.categoryIndex(session.overallRisk);
+        if (target < session.category) {
+            // Moving down only once the score is clear of the threshold by the hysteresis margin
+            target = Math.min(session.category, session.scoredWith.categoryIndex(session.overallRisk + hysteresis));
+        }
+        if (!debounced(session, target)) {
+            return;
+        }
+        int previous = session.category;
+        session.category = target;
+        if (target >= ALERT_CATEGORY && target > previous) {
+            dispatch(session, RiskAlert.Type.CATEGORY_RAISED, null, 0.0);
+        } else if (previous >= ALERT_CATEGORY && target < ALERT_CATEGORY) {
+            dispatch(session, RiskAlert.Type.CATEGORY_CLEARED, null, 0.0);
+        }
+    }
+
+    // EFFECTS: returns true once target, differing from the confirmed category, has been seen for
+    //          debounceUpdates consecutive updates
+    private boolean debounced(Session session, int target) {
+        if (target == session.category) {
+            session.pendingCategory = target;
+            session.pendingCount = 0;
+            return false;
+        }
+        if (target != session.pendingCategory) {
+            session.pendingCategory = target;
+            session.pendingCount = 0;
+        }
+        return ++session.pendingCount >= debounceUpdates;
+    }
+
+    private void checkFactor(Session session, KeyRiskFactor factor, double threshold, double value) {
+        int i = factor.ordinal();
+        double score = RiskAnalyzer.biomechanicalFactorScore(session.scoredWith.config, factor, value);
+        boolean active = session.factorActive[i];
+        boolean desired = active ? score >= threshold - hysteresis : score >= threshold;
+        if (desired == active) {
+            session.factorPending[i] = 0;
+            return;
+        }
+        if (++session.factorPending[i] < debounceUpdates) {
+            return;
+        }
+        session.factorPending[i] = 0;
+        session.factorActive[i] = desired;
+        dispatch(session, desired ? RiskAlert.Type.FACTOR_RAISED : RiskAlert.Type.FACTOR_CLEARED, factor, score);
+    }
+
+    private void dispatch(Session session, RiskAlert.Type type, KeyRiskFactor factor, double factorScore) {
+        RiskAlert alert = new RiskAlert(type, session.athleteName, RiskAnalyzer.RISK_CATEGORIES[session.category],
+                session.overallRisk, factor, factorScore);
+        executor.execute(() -> listener.accept(alert));
+    }
+}
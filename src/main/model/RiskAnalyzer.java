@@ -1,33 +1,50 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 // Analyzes athlete risk based on demographics, biomechanics, and medical assessments
 public class RiskAnalyzer {
-    // Constants for risk thresholds
-    private static final double LOW_RISK_THRESHOLD = 3.0;
-    private static final double MODERATE_RISK_THRESHOLD = 6.0;
-    private static final double HIGH_RISK_THRESHOLD = 8.0;
-    
-    // Constants for high-risk sports
-    private static final String[] HIGH_RISK_SPORTS = {
-        "Basketball", "Soccer", "Football", "Handball", "Volleyball"
-    };
-    
-    // Component weights for overall risk calculation
-    private double demographicWeight;
-    private double biomechanicalWeight;
-    private double medicalWeight;
+    // Risk categories in ascending order of severity
+    static final String[] RISK_CATEGORIES = {"Low", "Moderate", "High", "Very High"};
+    private static final List<String> RISK_CATEGORY_LIST =
+            Collections.unmodifiableList(Arrays.asList(RISK_CATEGORIES));
+
+    // A scoring configuration and the engine configured from it. Analyses read the current snapshot
+    // once and use only it, and setConfig replaces it with a single volatile write, so a configuration
+    // change reaches every analysis thread without locks and never splits an analysis between two
+    // configurations.
+    static final class Snapshot {
+        final ScoringConfig config;
+        final ScoringEngine engine;
+
+        Snapshot(ScoringConfig config, ScoringEngine engine) {
+            this.config = config;
+            this.engine = engine;
+        }
+
+        double overallRisk(double demographicRisk, double biomechanicalRisk, double medicalRisk) {
+            return config.overallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
+        }
+
+        int categoryIndex(double riskScore) {
+            return config.categoryIndex(riskScore);
+        }
+    }
+
+    private volatile Snapshot snapshot;
     
     /**
      * Default constructor with standard risk weighting.
      */
     public RiskAnalyzer() {
-        // Default weights (biomechanical factors highest)
-        this.demographicWeight = 0.25;
-        this.biomechanicalWeight = 0.5;
-        this.medicalWeight = 0.25;
+        this(new RuleScoringEngine());
+    }
+    
+    // Constructor with standard risk weighting and a custom scoring engine.
+    public RiskAnalyzer(ScoringEngine engine) {
+        this.snapshot = new Snapshot(ScoringConfig.DEFAULT, engine);
     }
     
 
@@ -35,16 +52,52 @@ public class RiskAnalyzer {
     //  demographicWeight Weight for demographic factors (should sum to 1.0 with other weights)
     //  biomechanicalWeight Weight for biomechanical factors
     //  medicalWeight Weight for medical history factors
+    //  Throws IllegalArgumentException if a weight is negative or they do not sum to 1.0
     public RiskAnalyzer(double demographicWeight, double biomechanicalWeight, double medicalWeight) {
-        // Validate weights sum to approximately 1.0
-        double sum = demographicWeight + biomechanicalWeight + medicalWeight;
-        if (sum < 0.99 || sum > 1.01) {
-            throw new IllegalArgumentException("Weights must sum to 1.0");
-        }
-        
-        this.demographicWeight = demographicWeight;
-        this.biomechanicalWeight = biomechanicalWeight;
-        this.medicalWeight = medicalWeight;
+        this(new RuleScoringEngine(), demographicWeight, biomechanicalWeight, medicalWeight);
+    }
+    
+    // Constructor with custom risk weighting and a custom scoring engine.
+    public RiskAnalyzer(ScoringEngine engine, double demographicWeight, double biomechanicalWeight,
+                        double medicalWeight) {
+        this(engine, ScoringConfig.DEFAULT.withWeights(demographicWeight, biomechanicalWeight, medicalWeight));
+    }
+
+    // Constructor taking every threshold, increment and weight from config.
+    public RiskAnalyzer(ScoringConfig config) {
+        this(new RuleScoringEngine(), config);
+    }
+
+    // Constructor with a custom scoring engine, reconfigured with config (see ScoringEngine.withConfig).
+    public RiskAnalyzer(ScoringEngine engine, ScoringConfig config) {
+        this.snapshot = new Snapshot(config, engine.withConfig(config));
+    }
+    
+    
+    // EFFECTS: throws IllegalArgumentException unless the weights sum to approximately 1.0
+    static void validateWeights(double demographicWeight, double biomechanicalWeight, double medicalWeight) {
+        ScoringConfig.validateWeights(demographicWeight, biomechanicalWeight, medicalWeight);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: switches every later analysis to config; analyses already running finish with the
+    //          configuration they started with. Writers are serialized; readers never block.
+    public synchronized void setConfig(ScoringConfig config) {
+        snapshot = new Snapshot(config, snapshot.engine.withConfig(config));
+    }
+
+    public ScoringConfig getConfig() {
+        return snapshot.config;
+    }
+
+    // EFFECTS: returns the risk category names in ascending order of severity, as assessments report them
+    public static List<String> getRiskCategories() {
+        return RISK_CATEGORY_LIST;
+    }
+
+    // EFFECTS: returns the current configuration and engine as one consistent pair
+    Snapshot snapshot() {
+        return snapshot;
     }
     
     
@@ -53,16 +106,20 @@ public class RiskAnalyzer {
     // return RiskAssessment object containing comprehensive risk evaluation
     
     public RiskAssessment analyzeRisk(Athlete athlete) {
+        // One snapshot for the whole analysis, even if the configuration changes meanwhile
+        Snapshot current = snapshot;
+        ScoringEngine engine = current.engine;
+
         // Calculate component risk scores
-        double demographicRisk = assessDemographicRisk(athlete);
-        double biomechanicalRisk = assessBiomechanicalRisk(athlete.getBioMechData());
-        double medicalRisk = assessMedicalHistoryRisk(athlete);
+        double demographicRisk = engine.assessDemographicRisk(athlete);
+        double biomechanicalRisk = engine.assessBiomechanicalRisk(athlete.getBioMechData());
+        double medicalRisk = engine.assessMedicalHistoryRisk(athlete);
         
         // Calculate overall risk score
-        double overallRisk = calculateOverallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
+        double overallRisk = current.overallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
         
         // Determine risk category
-        String riskCategory = categorizeRisk(overallRisk);
+        String riskCategory = RISK_CATEGORIES[current.categoryIndex(overallRisk)];
         
         // Create assessment
         RiskAssessment assessment = new RiskAssessment(
@@ -75,315 +132,109 @@ public class RiskAnalyzer {
         );
         
         // Add key risk factors
-        addKeyRiskFactors(assessment, athlete);
+        addKeyRiskFactors(assessment, athlete, current.config);
         
         // Generate recommendations
-        List<Recommendation> recommendations = generateRecommendations(assessment, athlete);
-        assessment.setRecommendations(recommendations);
+        assessment.setSharedRecommendations(generateRecommendations(assessment));
         
         return assessment;
     }
     
- 
-    // Evaluates demographic risk factors (age, gender, sport, etc.)
-    // athlete is The athlete to analyze
-    // returns Risk score for demographic factors (0-10)
-    private double assessDemographicRisk(Athlete athlete) {
-        double riskScore = 0.0;
-        
-        // Gender risk (females have higher ACL injury risk)
-        if (athlete.getGender()) {  // True = Female in your implementation
-            riskScore += 2.0;
-        }
-        
-        // Age risk (adolescents and young adults at higher risk)
-        int age = athlete.getAge();
-        if (age >= 14 && age <= 25) {
-            riskScore += 1.5;
-        }
-        
-        // Sport risk (certain sports have higher ACL injury rates)
-        String sport = athlete.getSport();
-        for (String highRiskSport : HIGH_RISK_SPORTS) {
-            if (sport.equalsIgnoreCase(highRiskSport)) {
-                riskScore += 2.0;
-                break;
-            }
-        }
-        
-        // BMI risk (very low or very high BMI can be risk factors)
-        double bmi = athlete.getBMI();
-        if (bmi < 18.5 || bmi > 30.0) {
-            riskScore += 1.0;
-        }
-        
-        // Normalize to 0-10 scale
-        return Math.min(10.0, riskScore);
-    }
-    
-    
-    // Evaluates biomechanical risk factors (landing mechanics, muscle imbalances, etc.)
-    // data is Biomechanical measurements for the athlete
-    // returns Risk score for biomechanical factors (0-10)
-    private double assessBiomechanicalRisk(BiomechanicalData data) {
-        double riskScore = 0.0;
-        
-        // Knee valgus risk (higher angles = higher risk)
-        double kneeValgusAngle = data.getKneeValgusAngle();
-        if (kneeValgusAngle > 15.0) {
-            riskScore += 2.0;
-        } else if (kneeValgusAngle > 10.0) {
-            riskScore += 1.0;
-        }
-        
-        // Hip adduction risk
-        double hipAdductionAngle = data.getHipAdductionAngle();
-        if (hipAdductionAngle > 20.0) {
-            riskScore += 1.5;
-        } else if (hipAdductionAngle > 15.0) {
-            riskScore += 0.75;
-        }
-        
-        // Knee flexion risk (lower angles = higher risk)
-        double kneeFlexionAngle = data.getKneeFlexionAngle();
-        if (kneeFlexionAngle < 45.0) {
-            riskScore += 1.5;
-        } else if (kneeFlexionAngle < 60.0) {
-            riskScore += 0.75;
-        }
-        
-        // Hamstrings to quadriceps strength ratio risk (lower ratio = higher risk)
-        double hqRatio = data.getHamstringsToQuadsRatio();
-        if (hqRatio < 0.5) {
-            riskScore += 2.0;
-        } else if (hqRatio < 0.6) {
-            riskScore += 1.0;
-        }
-        
-        // Landing asymmetry risk
-        double asymmetry = data.getLandingAsymmetry();
-        if (asymmetry > 20.0) {
-            riskScore += 1.5;
-        } else if (asymmetry > 10.0) {
-            riskScore += 0.75;
-        }
-        
-        // Q-angle risk
-        double qAngle = data.getQAngle();
-        if (qAngle > 20.0) {
-            riskScore += 1.5;
-        } else if (qAngle > 15.0) {
-            riskScore += 0.75;
-        }
-        
-        // Normalize to 0-10 scale
-        return Math.min(10.0, riskScore);
-    }
-    
-
-    // Evaluates medical history risk factors (previous injuries, family history)
-    // athlete is the athlete to analyze
-    // returns Risk score for medical history (0-10)
-    private double assessMedicalHistoryRisk(Athlete athlete) {
-        double riskScore = 0.0;
-        
-        // Previous ACL injury (highest risk factor)
-        if (athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) {
-            riskScore += 6.0;  // Very high risk factor
-        }
-        
-        // Family history of ACL injury
-        if (athlete.hasFamilyHistory()) {
-            riskScore += 2.0;
-        }
-        
-        // Normalize to 0-10 scale
-        return Math.min(10.0, riskScore);
+    public ScoringEngine getScoringEngine() {
+        return snapshot.engine;
     }
     
 
-    //  Calculates overall risk score by combining component scores with appropriate weights.
+    //  Calculates overall risk score by combining component scores with the current weights.
     // demographicRisk Demographic risk score
     // biomechanicalRisk is Biomechanical risk score
     // medicalRisk os Medical history risk score
     // returns Overall risk score (0-10)
-    private double calculateOverallRisk(double demographicRisk, double biomechanicalRisk, double medicalRisk) {
-        return (demographicRisk * demographicWeight) + 
-               (biomechanicalRisk * biomechanicalWeight) + 
-               (medicalRisk * medicalWeight);
-    }
-    
-    // Categorizes numerical risk score into a risk category.
-    // riskScore is Overall risk score
-    // returns Risk category (Low, Moderate, High, Very High)
-    private String categorizeRisk(double riskScore) {
-        if (riskScore <= LOW_RISK_THRESHOLD) {
-            return "Low";
-        } else if (riskScore <= MODERATE_RISK_THRESHOLD) {
-            return "Moderate";
-        } else if (riskScore <= HIGH_RISK_THRESHOLD) {
-            return "High";
-        } else {
-            return "Very High";
-        }
+    double calculateOverallRisk(double demographicRisk, double biomechanicalRisk, double medicalRisk) {
+        return snapshot.overallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
     }
     
     // Adds key risk factors to the assessment.
     // assessment The risk assessment to update
     // athlete The athlete being analyzed
-    private void addKeyRiskFactors(RiskAssessment assessment, Athlete athlete) {
+    // config The configuration the analysis runs with
+    private void addKeyRiskFactors(RiskAssessment assessment, Athlete athlete, ScoringConfig config) {
         BiomechanicalData data = athlete.getBioMechData();
         
         // Check for previous injury (highest risk factor)
         if (athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) {
-            assessment.addKeyRiskFactor("Previous ACL Injury", 9.0);
-        }
-        
-        // Check knee valgus angle
-        double kneeValgusAngle = data.getKneeValgusAngle();
-        if (kneeValgusAngle > 10.0) {
-            double score = Math.min(10.0, 5.0 + (kneeValgusAngle - 10.0) / 2.0);
-            assessment.addKeyRiskFactor("Excessive Knee Valgus", score);
-        }
-        
-        // Check hip adduction angle
-        double hipAdductionAngle = data.getHipAdductionAngle();
-        if (hipAdductionAngle > 15.0) {
-            double score = Math.min(10.0, 5.0 + (hipAdductionAngle - 15.0) / 3.0);
-            assessment.addKeyRiskFactor("Excessive Hip Adduction", score);
-        }
-        
-        // Check knee flexion angle (lower = higher risk)
-        double kneeFlexionAngle = data.getKneeFlexionAngle();
-        if (kneeFlexionAngle < 60.0) {
-            double score = Math.min(10.0, 5.0 + (60.0 - kneeFlexionAngle) / 4.0);
-            assessment.addKeyRiskFactor("Insufficient Knee Flexion", score);
-        }
-        
-        // Check hamstrings to quadriceps ratio
-        double hqRatio = data.getHamstringsToQuadsRatio();
-        if (hqRatio < 0.6) {
-            double score = Math.min(10.0, 5.0 + (0.6 - hqRatio) * 20.0);
-            assessment.addKeyRiskFactor("Hamstring-Quadriceps Imbalance", score);
+            addDemographicFactor(assessment, KeyRiskFactor.PREVIOUS_ACL_INJURY, config.getPreviousInjuryIncrement());
         }
         
-        // Check landing asymmetry
-        double asymmetry = data.getLandingAsymmetry();
-        if (asymmetry > 10.0) {
-            double score = Math.min(10.0, 5.0 + (asymmetry - 10.0) / 4.0);
-            assessment.addKeyRiskFactor("Landing Asymmetry", score);
-        }
-        
-        // Check Q-angle
-        double qAngle = data.getQAngle();
-        if (qAngle > 15.0) {
-            double score = Math.min(10.0, 5.0 + (qAngle - 15.0) / 3.0);
-            assessment.addKeyRiskFactor("Elevated Q-Angle", score);
+        // Check the biomechanical factors
+        for (KeyRiskFactor factor : KeyRiskFactor.FACTORS) {
+            BiomechanicalField field = factor.getField();
+            if (field != null) {
+                double score = biomechanicalFactorScore(config, factor, field.get(data));
+                if (score > 0.0) {
+                    assessment.addKeyRiskFactor(factor, score);
+                }
+            }
         }
         
         // Check if female (demographic risk factor)
         if (athlete.getGender()) {
-            assessment.addKeyRiskFactor("Female Gender", 7.0);
+            addDemographicFactor(assessment, KeyRiskFactor.FEMALE_GENDER, config.getFemaleIncrement());
         }
         
         // Check if high-risk sport
-        String sport = athlete.getSport();
-        for (String highRiskSport : HIGH_RISK_SPORTS) {
-            if (sport.equalsIgnoreCase(highRiskSport)) {
-                assessment.addKeyRiskFactor("High-Risk Sport Participation", 7.0);
-                break;
-            }
+        if (config.isHighRiskSport(athlete.getSport())) {
+            addDemographicFactor(assessment, KeyRiskFactor.HIGH_RISK_SPORT, config.getHighRiskSportIncrement());
         }
     }
-    
 
-    // Generates personalized recommendations based on identified risk factors.
-    // assessment The risk assessment containing risk factors
-    // The athlete being analyzed
-    // returns List of recommendations
-    private List<Recommendation> generateRecommendations(RiskAssessment assessment, Athlete athlete) {
-        List<Recommendation> recommendations = new ArrayList<>();
-        BiomechanicalData data = athlete.getBioMechData();
-        
-        // Previous injury recommendations
-        if (athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) {
-            recommendations.add(new Recommendation(
-                "Medical", 
-                1, 
-                "Consult with sports medicine physician and physical therapist for comprehensive ACL prevention program",
-                "Previous ACL Injury"
-            ));
-        }
-        
-        // Knee valgus recommendations
-        if (data.getKneeValgusAngle() > 10.0) {
-            recommendations.add(new Recommendation(
-                "Biomechanical", 
-                1, 
-                "Implement jump-landing training to reduce knee valgus during landing",
-                "Excessive Knee Valgus"
-            ));
+    // Flags a factor scored by one rule increment: 6 plus half the increment, capped at 10 (9 for the
+    // default previous-injury increment of 6, 7 for the default increments of 2); a rule the
+    // configuration switched off (increment 0) flags nothing
+    private static void addDemographicFactor(RiskAssessment assessment, KeyRiskFactor factor, double increment) {
+        if (increment > 0.0) {
+            assessment.addKeyRiskFactor(factor, Math.min(10.0, 6.0 + increment / 2.0));
         }
-        
-        // Hip adduction recommendations
-        if (data.getHipAdductionAngle() > 15.0) {
-            recommendations.add(new Recommendation(
-                "Training", 
-                2, 
-                "Strengthen hip abductors (glute medius) with side planks and lateral band walks",
-                "Excessive Hip Adduction"
-            ));
-        }
-        
-        // Knee flexion recommendations
-        if (data.getKneeFlexionAngle() < 60.0) {
-            recommendations.add(new Recommendation(
-                "Biomechanical", 
-                1, 
-                "Practice soft landing techniques with increased knee bend",
-                "Insufficient Knee Flexion"
-            ));
-        }
-        
-        // Hamstrings to quadriceps ratio recommendations
-        if (data.getHamstringsToQuadsRatio() < 0.6) {
-            recommendations.add(new Recommendation(
-                "Training", 
-                1, 
-                "Implement hamstring strengthening program (Nordic hamstring curls, deadlifts)",
-                "Hamstring-Quadriceps Imbalance"
-            ));
-        }
-        
-        // Landing asymmetry recommendations
-        if (data.getLandingAsymmetry() > 10.0) {
-            recommendations.add(new Recommendation(
-                "Biomechanical", 
-                2, 
-                "Implement single-leg landing exercises with focus on symmetrical loading",
-                "Landing Asymmetry"
-            ));
-        }
-        
-        // General recommendations based on risk level
-        if (assessment.getRiskCategory().equals("High") || assessment.getRiskCategory().equals("Very High")) {
-            recommendations.add(new Recommendation(
-                "Educational", 
-                1, 
-                "Complete neuromuscular training program designed specifically for ACL injury prevention",
-                "Overall High Risk"
-            ));
-        }
-        
-        if (recommendations.isEmpty()) {
-            recommendations.add(new Recommendation(
-                "General", 
-                3, 
-                "Continue current training regimen with regular monitoring of biomechanical factors",
-                "Maintenance of Low Risk Profile"
-            ));
+    }
+
+    // EFFECTS: returns the score (5-10) of the biomechanical factor when value, the measurement it is
+    //          flagged from, crosses the mild threshold of its rule in config; returns 0 if it does not or
+    //          if config gives the rule no weight. The score grows from 5 at the threshold by a fixed
+    //          number of points per unit beyond it.
+    static double biomechanicalFactorScore(ScoringConfig config, KeyRiskFactor factor, double value) {
+        BiomechanicalField field = factor.getField();
+        if (field == null || config.ruleLevel(field, value) == 0 || config.ruleIncrement(field, 1) <= 0.0
+                && config.ruleIncrement(field, 2) <= 0.0) {
+            return 0.0;
+        }
+        double threshold = config.mildThreshold(field);
+        double excess = ScoringConfig.isLowerWorse(field) ? threshold - value : value - threshold;
+        return Math.min(10.0, 5.0 + excess * pointsPerUnit(factor));
+    }
+
+    // EFFECTS: returns how fast the score of factor grows beyond its threshold, per unit of its measurement
+    private static double pointsPerUnit(KeyRiskFactor factor) {
+        switch (factor) {
+            case EXCESSIVE_KNEE_VALGUS:
+                return 1.0 / 2.0;
+            case INSUFFICIENT_KNEE_FLEXION:
+            case LANDING_ASYMMETRY:
+                return 1.0 / 4.0;
+            case HAMSTRING_QUADRICEPS_IMBALANCE:
+                return 20.0;
+            default:
+                // Hip adduction and Q angle
+                return 1.0 / 3.0;
         }
-        
-        return recommendations;
+    }
+    
+
+    // Selects the recommendations for the assessment's key risk factors and risk tier.
+    // assessment The risk assessment containing risk factors
+    // returns Shared, immutable list of recommendations from RecommendationCatalog
+    private List<Recommendation> generateRecommendations(RiskAssessment assessment) {
+        boolean highTier = assessment.getRiskCategory().equals("High")
+                || assessment.getRiskCategory().equals("Very High");
+        return RecommendationCatalog.select(assessment.getKeyRiskFactorMask(), highTier);
     }
 }
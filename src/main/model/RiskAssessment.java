@@ -1,9 +1,16 @@
 package model;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class RiskAssessment {
     // Core risk information
@@ -15,11 +22,16 @@ public class RiskAssessment {
     private double biomechanicalRiskScore;
     private double medicalHistoryRiskScore;
     
-    // Key risk factors identified
-    private Map<String, Double> keyRiskFactors;
+    // Key risk factors identified: one score slot per KeyRiskFactor, with presence tracked as a bitmask
+    private double[] factorScores;
+    private int factorMask;
     
-    // Recommendations
+    // Factors outside KeyRiskFactor, in insertion order (allocated only when first needed)
+    private Map<String, Double> otherFactors;
+    
+    // Recommendations; a shared list (from RecommendationCatalog) is copied before it is modified
     private List<Recommendation> recommendations;
+    private boolean recommendationsShared;
     
     // Reference to the athlete
     private String athleteName;
@@ -41,7 +53,7 @@ public class RiskAssessment {
         this.demographicRiskScore = demographicRiskScore;
         this.biomechanicalRiskScore = biomechanicalRiskScore;
         this.medicalHistoryRiskScore = medicalHistoryRiskScore;
-        this.keyRiskFactors = new HashMap<>();
+        this.factorScores = new double[KeyRiskFactor.COUNT];
         this.recommendations = new ArrayList<>();
     }
     
@@ -52,7 +64,57 @@ public class RiskAssessment {
      * @param factorScore Score representing severity of this factor (0-10)
      */
     public void addKeyRiskFactor(String factorName, double factorScore) {
-        keyRiskFactors.put(factorName, factorScore);
+        KeyRiskFactor factor = KeyRiskFactor.fromDisplayName(factorName);
+        if (factor != null) {
+            addKeyRiskFactor(factor, factorScore);
+        } else {
+            if (otherFactors == null) {
+                otherFactors = new LinkedHashMap<>();
+            }
+            otherFactors.put(factorName, factorScore);
+        }
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: records factor with the given severity score (0-10), replacing any previous score
+    public void addKeyRiskFactor(KeyRiskFactor factor, double factorScore) {
+        factorScores[factor.ordinal()] = factorScore;
+        factorMask |= factor.bit();
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: forgets factor and its score, returning the score or null if it was not identified
+    private Double removeKeyRiskFactor(KeyRiskFactor factor) {
+        if (!hasKeyRiskFactor(factor)) {
+            return null;
+        }
+        double previous = factorScores[factor.ordinal()];
+        factorScores[factor.ordinal()] = 0.0;
+        factorMask &= ~factor.bit();
+        return previous;
+    }
+    
+    // EFFECTS: returns true if factor was identified in this assessment
+    public boolean hasKeyRiskFactor(KeyRiskFactor factor) {
+        return (factorMask & factor.bit()) != 0;
+    }
+    
+    // EFFECTS: returns the severity score of factor, or 0.0 if it was not identified
+    public double getKeyRiskFactorScore(KeyRiskFactor factor) {
+        return factorScores[factor.ordinal()];
+    }
+    
+    // EFFECTS: returns the mask of identified factors (see KeyRiskFactor.bit())
+    public int getKeyRiskFactorMask() {
+        return factorMask;
+    }
+    
+    // EFFECTS: returns the identified factors ordered from most to least severe; equal scores keep
+    //          KeyRiskFactor order, followed by other factors in insertion order
+    public Iterator<Map.Entry<String, Double>> keyRiskFactorsBySeverity() {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(getKeyRiskFactors().entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        return entries.iterator();
     }
     
     /**
@@ -61,13 +123,32 @@ public class RiskAssessment {
      * @param recommendation Recommendation object to add
      */
     public void addRecommendation(Recommendation recommendation) {
-        recommendations.add(recommendation);
+        ownRecommendations().add(recommendation);
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: replaces a shared recommendation list by a private copy and returns the (private) list
+    private List<Recommendation> ownRecommendations() {
+        if (recommendationsShared) {
+            recommendations = new ArrayList<>(recommendations);
+            recommendationsShared = false;
+        }
+        return recommendations;
     }
     
     
     // Sets multiple recommendations at once.
     public void setRecommendations(List<Recommendation> recommendations) {
         this.recommendations = recommendations;
+        this.recommendationsShared = false;
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: uses the immutable, shared list recommendations without copying it; it is copied when a
+    //          recommendation is added or the list returned by getRecommendations is first modified
+    void setSharedRecommendations(List<Recommendation> recommendations) {
+        this.recommendations = recommendations;
+        this.recommendationsShared = true;
     }
     
     
@@ -86,7 +167,7 @@ public class RiskAssessment {
         summary.append("- Medical History: ").append(String.format("%.1f", medicalHistoryRiskScore)).append("/10\n\n");
         
         summary.append("Key Risk Factors:\n");
-        for (Map.Entry<String, Double> factor : keyRiskFactors.entrySet()) {
+        for (Map.Entry<String, Double> factor : getKeyRiskFactors().entrySet()) {
             summary.append("- ").append(factor.getKey()).append(": ")
                    .append(String.format("%.1f", factor.getValue())).append("/10\n");
         }
@@ -121,15 +202,162 @@ public class RiskAssessment {
         return medicalHistoryRiskScore;
     }
     
+    // EFFECTS: returns a live, modifiable map view of the key risk factors, keyed by display name, iterating
+    //         in KeyRiskFactor order followed by other factors in insertion order. Every factor has a score,
+    //         so putting a null score removes the factor.
     public Map<String, Double> getKeyRiskFactors() {
-        return keyRiskFactors;
+        return new FactorMapView();
     }
     
+    // EFFECTS: returns the modifiable list of recommendations; while they are still shared this is a view
+    //          that reads the shared list and switches to a private copy on its first modification
     public List<Recommendation> getRecommendations() {
-        return recommendations;
+        return recommendationsShared ? new RecommendationListView() : recommendations;
     }
     
     public String getAthleteName() {
         return athleteName;
     }
-}
\ No newline at end of file
+    
+    // Map adapter over the factor score array, presence mask and other factors.
+    // Writes go through addKeyRiskFactor; removing a factor clears its bit and score slot.
+    private class FactorMapView extends AbstractMap<String, Double> {
+        @Override
+        public Double get(Object key) {
+            KeyRiskFactor factor = key instanceof String ? KeyRiskFactor.fromDisplayName((String) key) : null;
+            if (factor != null) {
+                return hasKeyRiskFactor(factor) ? factorScores[factor.ordinal()] : null;
+            }
+            return otherFactors == null ? null : otherFactors.get(key);
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+        
+        @Override
+        public Double put(String key, Double value) {
+            if (value == null) {
+                return remove(key);
+            }
+            Double previous = get(key);
+            addKeyRiskFactor(key, value);
+            return previous;
+        }
+        
+        @Override
+        public Double remove(Object key) {
+            KeyRiskFactor factor = key instanceof String ? KeyRiskFactor.fromDisplayName((String) key) : null;
+            if (factor != null) {
+                return removeKeyRiskFactor(factor);
+            }
+            return otherFactors == null ? null : otherFactors.remove(key);
+        }
+        
+        @Override
+        public void clear() {
+            Arrays.fill(factorScores, 0.0);
+            factorMask = 0;
+            otherFactors = null;
+        }
+        
+        @Override
+        public int size() {
+            return Integer.bitCount(factorMask) + (otherFactors == null ? 0 : otherFactors.size());
+        }
+        
+        @Override
+        public Set<Map.Entry<String, Double>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Double>>() {
+                @Override
+                public Iterator<Map.Entry<String, Double>> iterator() {
+                    return new FactorIterator();
+                }
+                
+                @Override
+                public int size() {
+                    return FactorMapView.this.size();
+                }
+            };
+        }
+    }
+    
+    // List adapter over recommendations: reads go to the current list, writes to a private copy
+    private class RecommendationListView extends AbstractList<Recommendation> {
+        @Override
+        public Recommendation get(int index) {
+            return recommendations.get(index);
+        }
+        
+        @Override
+        public int size() {
+            return recommendations.size();
+        }
+        
+        @Override
+        public Recommendation set(int index, Recommendation recommendation) {
+            return ownRecommendations().set(index, recommendation);
+        }
+        
+        @Override
+        public void add(int index, Recommendation recommendation) {
+            ownRecommendations().add(index, recommendation);
+            modCount++;
+        }
+        
+        @Override
+        public Recommendation remove(int index) {
+            Recommendation removed = ownRecommendations().remove(index);
+            modCount++;
+            return removed;
+        }
+    }
+    
+    // Iterates set bits of the mask in KeyRiskFactor order, then the other factors
+    private class FactorIterator implements Iterator<Map.Entry<String, Double>> {
+        private int remaining = factorMask;
+        private Iterator<Map.Entry<String, Double>> others =
+                otherFactors == null ? null : otherFactors.entrySet().iterator();
+        // The factor last returned, or null if it was another factor or none was returned since
+        private KeyRiskFactor last;
+        private boolean canRemove;
+        
+        @Override
+        public boolean hasNext() {
+            return remaining != 0 || (others != null && others.hasNext());
+        }
+        
+        @Override
+        public Map.Entry<String, Double> next() {
+            if (remaining != 0) {
+                int ordinal = Integer.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                last = KeyRiskFactor.FACTORS[ordinal];
+                canRemove = true;
+                return new AbstractMap.SimpleImmutableEntry<>(KeyRiskFactor.FACTORS[ordinal].getDisplayName(),
+                        factorScores[ordinal]);
+            }
+            if (others == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Double> entry = others.next();
+            last = null;
+            canRemove = true;
+            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        }
+        
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            if (last != null) {
+                removeKeyRiskFactor(last);
+            } else {
+                others.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+// Opt-in audit mode: analyzes athletes with a tracing variant of the rule engine so that every rule
+// that fired, and its contribution, can be shown alongside the assessment. Regular analyzers are
+// unaffected. Each explainer owns one reusable trace buffer and must not be shared between threads.
+public class RiskExplainer {
+    private final ExplanationTrace trace;
+    private final RiskAnalyzer analyzer;
+
+    // EFFECTS: creates an explainer with the standard risk weighting
+    public RiskExplainer() {
+        this.trace = new ExplanationTrace();
+        this.analyzer = new RiskAnalyzer(new TracingRuleEngine(trace));
+    }
+
+    // EFFECTS: creates an explainer with custom risk weighting (see RiskAnalyzer)
+    public RiskExplainer(double demographicWeight, double biomechanicalWeight, double medicalWeight) {
+        this(ScoringConfig.DEFAULT.withWeights(demographicWeight, biomechanicalWeight, medicalWeight));
+    }
+
+    // EFFECTS: creates an explainer that scores with config, so its traces match an analyzer using config
+    public RiskExplainer(ScoringConfig config) {
+        this.trace = new ExplanationTrace();
+        this.analyzer = new RiskAnalyzer(new TracingRuleEngine(trace), config);
+    }
+
+    // EFFECTS: creates an explainer with the configuration analyzer currently uses
+    public static RiskExplainer of(RiskAnalyzer analyzer) {
+        return new RiskExplainer(analyzer.getConfig());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: analyzes athlete and returns the assessment; getTrace() then describes the rules that fired
+    public RiskAssessment explain(Athlete athlete) {
+        trace.reset();
+        return analyzer.analyzeRisk(athlete);
+    }
+
+    // EFFECTS: returns the trace of the most recent explain call (overwritten by the next call)
+    public ExplanationTrace getTrace() {
+        return trace;
+    }
+}
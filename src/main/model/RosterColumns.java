@@ -0,0 +1,147 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// A roster stored column by column for bulk filtering (see RosterQuery). Numeric values are double
+// columns, yes/no values are bitmasks (bit i of word i / 64 is athlete i), and sports are
+// dictionary-encoded: each athlete holds the code of its sport, and a sport filter becomes one lookup
+// per athlete in a table indexed by code. Sport names are matched case-insensitively.
+public final class RosterColumns {
+    // Numeric columns after the twelve biomechanical ones (which use their ordinals)
+    static final int AGE = BiomechanicalField.COUNT;
+    static final int HEIGHT = AGE + 1;
+    static final int WEIGHT = AGE + 2;
+    static final int BMI = AGE + 3;
+    static final int NUMERIC_COUNT = AGE + 4;
+
+    // Yes/no columns
+    static final int FEMALE = 0;
+    static final int FAMILY_HISTORY = 1;
+    static final int PREVIOUS_INJURY_RIGHT = 2;
+    static final int PREVIOUS_INJURY_LEFT = 3;
+    static final int FLAG_COUNT = 4;
+
+    private static final String[] NUMERIC_NAMES = {"age", "height", "weight", "bmi"};
+    private static final String[] FLAG_NAMES = {"female", "familyHistory", "previousInjuryRight",
+        "previousInjuryLeft"};
+
+    private final int size;
+    private final double[][] numeric;
+    private final long[][] flags;
+    private final int[] sportCodes;
+    private final List<String> sports = new ArrayList<>();
+    private final Map<String, Integer> sportIndex = new HashMap<>();
+
+    private RosterColumns(List<Athlete> roster) {
+        size = roster.size();
+        numeric = new double[NUMERIC_COUNT][];
+        double[][] biomechanical = BiomechanicalField.toColumns(roster);
+        System.arraycopy(biomechanical, 0, numeric, 0, BiomechanicalField.COUNT);
+        for (int c = AGE; c < NUMERIC_COUNT; c++) {
+            numeric[c] = new double[size];
+        }
+        flags = new long[FLAG_COUNT][words(size)];
+        sportCodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            Athlete athlete = roster.get(i);
+            numeric[AGE][i] = athlete.getAge();
+            numeric[HEIGHT][i] = athlete.getHeight();
+            numeric[WEIGHT][i] = athlete.getWeight();
+            numeric[BMI][i] = athlete.getBMI();
+            long bit = 1L << i;
+            if (athlete.getGender()) {
+                flags[FEMALE][i >>> 6] |= bit;
+            }
+            if (athlete.hasFamilyHistory()) {
+                flags[FAMILY_HISTORY][i >>> 6] |= bit;
+            }
+            if (athlete.hasPrevInjuryR()) {
+                flags[PREVIOUS_INJURY_RIGHT][i >>> 6] |= bit;
+            }
+            if (athlete.hasPrevInjuryL()) {
+                flags[PREVIOUS_INJURY_LEFT][i >>> 6] |= bit;
+            }
+            sportCodes[i] = encodeSport(athlete.getSport());
+        }
+    }
+
+    // EFFECTS: returns the columns of roster; later changes to the athletes are not reflected
+    public static RosterColumns of(List<Athlete> roster) {
+        return new RosterColumns(roster);
+    }
+
+    private int encodeSport(String sport) {
+        String key = sportKey(sport);
+        Integer code = sportIndex.get(key);
+        if (code == null) {
+            code = sports.size();
+            sports.add(sport);
+            sportIndex.put(key, code);
+        }
+        return code;
+    }
+
+    private static String sportKey(String sport) {
+        return sport == null ? "" : sport.toLowerCase(Locale.ROOT);
+    }
+
+    // EFFECTS: returns the number of long words in a bitmask of size bits
+    public static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    // EFFECTS: returns the index of the numeric column called name (case-insensitive), or -1
+    static int numericColumn(String name) {
+        BiomechanicalField field = BiomechanicalField.fromPropertyName(name);
+        if (field != null) {
+            return field.ordinal();
+        }
+        for (int i = 0; i < NUMERIC_NAMES.length; i++) {
+            if (NUMERIC_NAMES[i].equalsIgnoreCase(name)) {
+                return AGE + i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the index of the yes/no column called name (case-insensitive), or -1
+    static int flagColumn(String name) {
+        for (int i = 0; i < FLAG_NAMES.length; i++) {
+            if (FLAG_NAMES[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the code of sport, or -1 if no athlete plays it
+    int sportCode(String sport) {
+        Integer code = sportIndex.get(sportKey(sport));
+        return code == null ? -1 : code;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the number of distinct sports
+    public int getSportCount() {
+        return sports.size();
+    }
+
+    double[] numeric(int column) {
+        return numeric[column];
+    }
+
+    long[] flags(int column) {
+        return flags[column];
+    }
+
+    int[] sportCodes() {
+        return sportCodes;
+    }
+}
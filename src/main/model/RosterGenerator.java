@@ -0,0 +1,219 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Generates synthetic athlete populations for load, scale and soak testing, where real athlete data cannot
+// be used. Each athlete is drawn from a sport profile (share of the population, share of female athletes,
+// typical age, stature and BMI) and a sex-specific baseline. The biomechanical measurements share a latent
+// neuromuscular-control score, so valgus, hip adduction, stiff landings, weak hamstrings and asymmetry
+// tend to occur together as they do in screening data, while jump height and landing force also depend on
+// sport and body size.
+// Generation is reproducible and splittable: nextBatch hands out batches that each own a SplittableRandom
+// split off the root in order, so for a given seed the roster is the same however many threads generate
+// the batches. Names end in a scrambled form of the athlete's index and are unique below 2^40 athletes.
+public class RosterGenerator {
+    private static final String[] SPORTS = {
+        "Soccer", "Basketball", "Football", "Handball", "Volleyball",
+        "Running", "Swimming", "Tennis", "Gymnastics", "Baseball"
+    };
+    // Per sport: share of the population, share of female athletes, mean age, height offset (cm) from
+    // the sex baseline, mean BMI, and jump height offset (cm)
+    private static final double[] SHARE = {0.22, 0.14, 0.10, 0.05, 0.08, 0.12, 0.08, 0.07, 0.05, 0.09};
+    private static final double[] FEMALE_SHARE = {0.45, 0.48, 0.02, 0.50, 0.70, 0.50, 0.55, 0.50, 0.80, 0.05};
+    private static final double[] MEAN_AGE = {19, 19, 20, 21, 19, 27, 18, 22, 15, 21};
+    private static final double[] HEIGHT_OFFSET = {0, 9, 4, 5, 8, -1, 4, 1, -10, 2};
+    private static final double[] MEAN_BMI = {22.0, 23.0, 27.5, 23.5, 22.0, 20.5, 22.0, 22.0, 20.5, 25.0};
+    private static final double[] JUMP_OFFSET = {3, 8, 2, 4, 9, -4, -2, 0, 4, 0};
+    private static final double[] CUMULATIVE_SHARE = cumulative(SHARE);
+
+    private static final String[] FIRST_NAMES = {
+        "Avery", "Jordan", "Taylor", "Morgan", "Riley", "Casey", "Jamie", "Quinn", "Harper", "Rowan",
+        "Sofia", "Mateo", "Amara", "Kenji", "Leila", "Noah", "Ingrid", "Tariq", "Mei", "Lucas",
+        "Zara", "Emeka", "Hana", "Diego", "Freya", "Omar", "Anya", "Kai", "Nadia", "Elias"
+    };
+    private static final String[] LAST_NAMES = {
+        "Chen", "Okafor", "Garcia", "Nguyen", "Smith", "Kowalski", "Haddad", "Silva", "Tanaka", "Muller",
+        "Brown", "Rossi", "Larsen", "Patel", "Dubois", "Kim", "Novak", "Moreau", "Ivanova", "Jensen",
+        "Fischer", "Costa", "Ahmed", "Lopez", "Walker", "Sato", "Murphy", "Berg", "Hughes", "Reyes"
+    };
+    private static final long NAME_ID_MASK = (1L << 40) - 1;
+
+    private final SplittableRandom root;
+    private long nextIndex;
+
+    // EFFECTS: creates a generator whose rosters are fully determined by seed
+    public RosterGenerator(long seed) {
+        this.root = new SplittableRandom(seed);
+    }
+
+    private static double[] cumulative(double[] shares) {
+        double[] cumulative = new double[shares.length];
+        double total = 0.0;
+        for (int i = 0; i < shares.length; i++) {
+            total += shares[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    // REQUIRES: count >= 0
+    // MODIFIES: this
+    // EFFECTS: returns the next count athletes of the roster as a batch that can be generated on any
+    //          thread; must be called from one thread at a time, in roster order
+    public Batch nextBatch(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Batch size must not be negative");
+        }
+        Batch batch = new Batch(root.split(), nextIndex, count);
+        nextIndex += count;
+        return batch;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next count athletes of the roster
+    public List<Athlete> generate(int count) {
+        Batch batch = nextBatch(count);
+        List<Athlete> athletes = new ArrayList<>(count);
+        while (batch.hasNext()) {
+            athletes.add(batch.next());
+        }
+        return athletes;
+    }
+
+    // EFFECTS: returns a bijective scramble of the low 40 bits of index, so consecutive athletes do not
+    //          get names that differ in one character
+    static long scrambleIndex(long index) {
+        long x = index & NAME_ID_MASK;
+        for (int round = 0; round < 2; round++) {
+            x = (x * 0x9E3779B97L) & NAME_ID_MASK;
+            x ^= x >>> 21;
+        }
+        return x;
+    }
+
+    // A run of consecutive roster athletes with its own random stream. Not thread-safe, but different
+    // batches can be generated concurrently.
+    public static final class Batch {
+        private final SplittableRandom random;
+        private final long firstIndex;
+        private final int size;
+        private int generated;
+        private double spareGaussian;
+        private boolean hasSpareGaussian;
+
+        private Batch(SplittableRandom random, long firstIndex, int size) {
+            this.random = random;
+            this.firstIndex = firstIndex;
+            this.size = size;
+        }
+
+        // EFFECTS: returns the roster index of the batch's first athlete
+        public long getFirstIndex() {
+            return firstIndex;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean hasNext() {
+            return generated < size;
+        }
+
+        // REQUIRES: hasNext()
+        // MODIFIES: this
+        // EFFECTS: returns the batch's next athlete
+        public Athlete next() {
+            if (generated == size) {
+                throw new IllegalStateException("Batch exhausted");
+            }
+            long index = firstIndex + generated++;
+            int sport = pickSport(random.nextDouble());
+            boolean female = random.nextDouble() < FEMALE_SHARE[sport];
+
+            int age = (int) clamp(Math.round(MEAN_AGE[sport] + 3.5 * gaussian()), 12, 40);
+            double height = round1((female ? 165.0 : 178.0) + HEIGHT_OFFSET[sport] + 6.8 * gaussian());
+            double bmi = clamp(MEAN_BMI[sport] - (female ? 0.8 : 0.0) + 2.2 * gaussian(), 16.0, 38.0);
+            double weight = round1(bmi * height * height / 10000.0);
+
+            List<Boolean> history = new ArrayList<>(3);
+            // Latent neuromuscular control: positive means poorer control and higher biomechanical risk
+            double control = gaussian();
+            double priorInjury = 0.03 + (female ? 0.02 : 0.0) + 0.004 * Math.max(0, age - 18)
+                    + 0.02 * Math.max(0.0, control);
+            history.add(random.nextDouble() < 0.08);
+            history.add(random.nextDouble() < priorInjury / 2);
+            history.add(random.nextDouble() < priorInjury / 2);
+
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + ' '
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + ' '
+                    + Long.toString(scrambleIndex(index), 36);
+            Athlete athlete = new Athlete(name, age, female, SPORTS[sport], height, weight, history);
+
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(round1(Math.max(0.0, 7.0 + (female ? 3.0 : 0.0) + 3.0 * control
+                    + 2.0 * gaussian())));
+            data.setHipAdductionAngle(round1(Math.max(0.0, 11.0 + (female ? 2.5 : 0.0) + 2.5 * control
+                    + 2.5 * gaussian())));
+            data.setKneeFlexionAngle(round1(clamp(68.0 - 6.0 * control + 6.0 * gaussian(), 25.0, 100.0)));
+            data.setHamstringsToQuadsRatio(round2(clamp(0.64 - (female ? 0.05 : 0.0) - 0.04 * control
+                    + 0.06 * gaussian(), 0.3, 1.0)));
+            data.setLandingAsymmetry(round1(Math.abs(6.0 + 3.0 * control + 4.0 * gaussian())));
+            data.setQAngle(round1((female ? 17.0 : 13.0) + 0.6 * control + 2.5 * gaussian()));
+
+            double jump = Math.max(10.0, (female ? 38.0 : 50.0) + JUMP_OFFSET[sport] - 2.0 * control
+                    - 0.4 * (bmi - 22.0) + 6.0 * gaussian());
+            data.setVerticalJumpHeight(round1(jump));
+            data.setLandingForce(round2(Math.max(1.5, 3.2 + 0.04 * jump + 0.4 * control + 0.5 * gaussian())));
+            data.setSingleLegBalanceTime((int) clamp(Math.round(35.0 - 6.0 * control + 10.0 * gaussian()), 0, 60));
+            data.setProprioceptionScore(round1(clamp(7.0 - 1.2 * control + 1.5 * gaussian(), 0.0, 10.0)));
+            data.setJointLaxity(round1(clamp((female ? 2.3 : 1.7) + 0.8 * gaussian(), 0.0, 5.0)));
+            data.setIntercondylarNotchWidth(round1((female ? 17.0 : 19.5)
+                    + 0.05 * (height - (female ? 165.0 : 178.0)) + 1.2 * gaussian()));
+            return athlete;
+        }
+
+        // EFFECTS: returns a standard normal variate (Marsaglia polar method, which yields them in pairs)
+        private double gaussian() {
+            if (hasSpareGaussian) {
+                hasSpareGaussian = false;
+                return spareGaussian;
+            }
+            double u;
+            double v;
+            double s;
+            do {
+                u = 2.0 * random.nextDouble() - 1.0;
+                v = 2.0 * random.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+            double scale = Math.sqrt(-2.0 * Math.log(s) / s);
+            spareGaussian = v * scale;
+            hasSpareGaussian = true;
+            return u * scale;
+        }
+    }
+
+    private static int pickSport(double u) {
+        for (int i = 0; i < CUMULATIVE_SHARE.length - 1; i++) {
+            if (u < CUMULATIVE_SHARE[i]) {
+                return i;
+            }
+        }
+        return CUMULATIVE_SHARE.length - 1;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
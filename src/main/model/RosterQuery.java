@@ -0,0 +1,493 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A screening filter written as a small expression, e.g.
+//   sport in (Soccer, Basketball) and kneeValgusAngle > 12 and hamstringsToQuadsRatio < 0.55
+// compiled once and then evaluated over RosterColumns a column at a time, giving a bitmask of the
+// matching athletes. Grammar (keywords and names are case-insensitive):
+//   expr       := term ("or" term)*
+//   term       := factor ("and" factor)*
+//   factor     := "not" factor | "(" expr ")" | comparison
+//   comparison := numeric op number              op is one of < <= > >= = != (or == <>)
+//               | "sport" ("=" | "!=") name
+//               | "sport" ["not"] "in" "(" name ("," name)* ")"
+//               | flag                           female, male, familyHistory, previousInjury,
+//                                                previousInjuryRight, previousInjuryLeft
+// numeric is age, height, weight, bmi or a BiomechanicalData property (kneeValgusAngle, qAngle, ...);
+// a name is a word or a quoted string ('Track and Field'). Comparisons with a missing (NaN) value are
+// false, except !=.
+public final class RosterQuery {
+    private static final int LESS = 0;
+    private static final int LESS_EQUAL = 1;
+    private static final int GREATER = 2;
+    private static final int GREATER_EQUAL = 3;
+    private static final int EQUAL = 4;
+    private static final int NOT_EQUAL = 5;
+    private static final String[] OPERATORS = {"<", "<=", ">", ">=", "=", "!="};
+
+    private final String expression;
+    private final Node root;
+
+    private RosterQuery(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    // EFFECTS: compiles expression; throws IllegalArgumentException (naming the position) if it is not
+    //          valid
+    public static RosterQuery compile(String expression) {
+        Parser parser = new Parser(expression);
+        Node root = parser.expression();
+        parser.expect(Token.END, "end of expression");
+        return new RosterQuery(expression, root);
+    }
+
+    // EFFECTS: returns the athletes matching this query as a bitmask: bit i of word i / 64 is set if
+    //          athlete i matches; bits past the last athlete are clear
+    public long[] evaluate(RosterColumns columns) {
+        long[] out = new long[RosterColumns.words(columns.size())];
+        root.evaluate(columns, out);
+        return out;
+    }
+
+    // EFFECTS: returns the number of athletes matching this query
+    public int count(RosterColumns columns) {
+        int count = 0;
+        for (long word : evaluate(columns)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the indices of the athletes matching this query, in ascending order
+    public int[] select(RosterColumns columns) {
+        long[] mask = evaluate(columns);
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        int[] selected = new int[count];
+        int next = 0;
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                selected[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return selected;
+    }
+
+    // EFFECTS: returns the athletes in roster matching this query, in roster order
+    public List<Athlete> filter(List<Athlete> roster) {
+        List<Athlete> matches = new ArrayList<>();
+        for (int i : select(RosterColumns.of(roster))) {
+            matches.add(roster.get(i));
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    // A compiled (sub)expression. evaluate overwrites every word of out, which has one bit per athlete
+    private abstract static class Node {
+        abstract void evaluate(RosterColumns columns, long[] out);
+    }
+
+    private static final class Comparison extends Node {
+        private final int column;
+        private final int operator;
+        private final double value;
+
+        Comparison(int column, int operator, double value) {
+            this.column = column;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        // One loop per operator, so the comparison is fixed inside each loop. Shift distances are taken
+        // mod 64, so "<< i" places athlete i at bit i % 64 of its word
+        @Override
+        void evaluate(RosterColumns columns, long[] out) {
+            double[] values = columns.numeric(column);
+            int size = columns.size();
+            for (int w = 0, base = 0; w < out.length; w++, base += 64) {
+                int end = Math.min(size, base + 64);
+                long bits = 0;
+                switch (operator) {
+                    case LESS:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] < value ? 1L : 0L) << i;
+                        }
+                        break;
+                    case LESS_EQUAL:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] <= value ? 1L : 0L) << i;
+                        }
+                        break;
+                    case GREATER:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] > value ? 1L : 0L) << i;
+                        }
+                        break;
+                    case GREATER_EQUAL:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] >= value ? 1L : 0L) << i;
+                        }
+                        break;
+                    case EQUAL:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] == value ? 1L : 0L) << i;
+                        }
+                        break;
+                    default:
+                        for (int i = base; i < end; i++) {
+                            bits |= (values[i] != value ? 1L : 0L) << i;
+                        }
+                        break;
+                }
+                out[w] = bits;
+            }
+        }
+    }
+
+    private static final class Flag extends Node {
+        private final int column;
+
+        Flag(int column) {
+            this.column = column;
+        }
+
+        @Override
+        void evaluate(RosterColumns columns, long[] out) {
+            System.arraycopy(columns.flags(column), 0, out, 0, out.length);
+        }
+    }
+
+    // Matches athletes whose sport is one of names. The names are looked up in the roster's sport
+    // dictionary once per evaluation; each athlete then costs one table lookup by sport code
+    private static final class SportIn extends Node {
+        private final String[] names;
+
+        SportIn(List<String> names) {
+            this.names = names.toArray(new String[0]);
+        }
+
+        @Override
+        void evaluate(RosterColumns columns, long[] out) {
+            boolean[] matches = new boolean[columns.getSportCount()];
+            for (String name : names) {
+                int code = columns.sportCode(name);
+                if (code >= 0) {
+                    matches[code] = true;
+                }
+            }
+            int[] codes = columns.sportCodes();
+            int size = columns.size();
+            for (int w = 0, base = 0; w < out.length; w++, base += 64) {
+                int end = Math.min(size, base + 64);
+                long bits = 0;
+                for (int i = base; i < end; i++) {
+                    bits |= (matches[codes[i]] ? 1L : 0L) << i;
+                }
+                out[w] = bits;
+            }
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void evaluate(RosterColumns columns, long[] out) {
+            operand.evaluate(columns, out);
+            for (int w = 0; w < out.length; w++) {
+                out[w] = ~out[w];
+            }
+            int tail = columns.size() & 63;
+            if (tail != 0) {
+                out[out.length - 1] &= (1L << tail) - 1;
+            }
+        }
+    }
+
+    // "and" (conjunction true) or "or" of two or more operands. Operands are evaluated left to right
+    // and skipped once the result can no longer change
+    private static final class Combination extends Node {
+        private final boolean conjunction;
+        private final Node[] operands;
+
+        Combination(boolean conjunction, List<Node> operands) {
+            this.conjunction = conjunction;
+            this.operands = operands.toArray(new Node[0]);
+        }
+
+        @Override
+        void evaluate(RosterColumns columns, long[] out) {
+            operands[0].evaluate(columns, out);
+            long[] scratch = new long[out.length];
+            for (int k = 1; k < operands.length && !settled(out, columns.size()); k++) {
+                operands[k].evaluate(columns, scratch);
+                for (int w = 0; w < out.length; w++) {
+                    out[w] = conjunction ? out[w] & scratch[w] : out[w] | scratch[w];
+                }
+            }
+        }
+
+        // Nothing left to remove (and) or to add (or)
+        private boolean settled(long[] out, int size) {
+            if (conjunction) {
+                for (long word : out) {
+                    if (word != 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (int w = 0; w < out.length; w++) {
+                int bits = Math.min(64, size - (w << 6));
+                if (out[w] != (bits == 64 ? -1L : (1L << bits) - 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Token {
+        static final int WORD = 0;
+        static final int NUMBER = 1;
+        static final int STRING = 2;
+        static final int SYMBOL = 3;
+        static final int END = 4;
+
+        final int type;
+        final String text;
+        final int position;
+
+        Token(int type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+
+        boolean isWord(String word) {
+            return type == WORD && text.equalsIgnoreCase(word);
+        }
+
+        boolean isSymbol(String symbol) {
+            return type == SYMBOL && text.equals(symbol);
+        }
+    }
+
+    // Splits the expression into tokens and parses them by recursive descent
+    private static final class Parser {
+        private final String expression;
+        private final List<Token> tokens = new ArrayList<>();
+        private int next;
+
+        Parser(String expression) {
+            this.expression = expression;
+            tokenize();
+        }
+
+        private void tokenize() {
+            int i = 0;
+            int length = expression.length();
+            while (i < length) {
+                char c = expression.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (Character.isLetter(c) || c == '_') {
+                    while (i < length && (Character.isLetterOrDigit(expression.charAt(i))
+                            || expression.charAt(i) == '_')) {
+                        i++;
+                    }
+                    tokens.add(new Token(Token.WORD, expression.substring(start, i), start));
+                } else if (Character.isDigit(c) || ((c == '-' || c == '.') && i + 1 < length
+                        && (Character.isDigit(expression.charAt(i + 1)) || expression.charAt(i + 1) == '.'))) {
+                    i++;
+                    while (i < length && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.'
+                            || expression.charAt(i) == 'e' || expression.charAt(i) == 'E')) {
+                        i++;
+                    }
+                    tokens.add(new Token(Token.NUMBER, expression.substring(start, i), start));
+                } else if (c == '\'' || c == '"') {
+                    int close = expression.indexOf(c, i + 1);
+                    if (close < 0) {
+                        throw error("Unterminated string", start);
+                    }
+                    tokens.add(new Token(Token.STRING, expression.substring(i + 1, close), start));
+                    i = close + 1;
+                } else if (c == '(' || c == ')' || c == ',') {
+                    tokens.add(new Token(Token.SYMBOL, String.valueOf(c), start));
+                    i++;
+                } else if (c == '<' || c == '>' || c == '=' || c == '!') {
+                    i++;
+                    if (i < length && (expression.charAt(i) == '=' || (c == '<' && expression.charAt(i) == '>'))) {
+                        i++;
+                    }
+                    String symbol = expression.substring(start, i);
+                    if (symbol.equals("!")) {
+                        throw error("Unexpected '!'", start);
+                    }
+                    tokens.add(new Token(Token.SYMBOL, normalizeOperator(symbol), start));
+                } else {
+                    throw error("Unexpected '" + c + "'", start);
+                }
+            }
+            tokens.add(new Token(Token.END, "", length));
+        }
+
+        private static String normalizeOperator(String symbol) {
+            if (symbol.equals("==")) {
+                return "=";
+            }
+            return symbol.equals("<>") ? "!=" : symbol;
+        }
+
+        private IllegalArgumentException error(String message, int position) {
+            return new IllegalArgumentException(message + " at position " + position + " in: " + expression);
+        }
+
+        private Token peek() {
+            return tokens.get(next);
+        }
+
+        private Token take() {
+            return tokens.get(next++);
+        }
+
+        Token expect(int type, String description) {
+            Token token = take();
+            if (token.type != type) {
+                throw error("Expected " + description + " but found '" + token.text + "'", token.position);
+            }
+            return token;
+        }
+
+        private void expectSymbol(String symbol) {
+            Token token = take();
+            if (!token.isSymbol(symbol)) {
+                throw error("Expected '" + symbol + "' but found '" + token.text + "'", token.position);
+            }
+        }
+
+        Node expression() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(term());
+            while (peek().isWord("or")) {
+                take();
+                operands.add(term());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Combination(false, operands);
+        }
+
+        private Node term() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(factor());
+            while (peek().isWord("and")) {
+                take();
+                operands.add(factor());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Combination(true, operands);
+        }
+
+        private Node factor() {
+            Token token = take();
+            if (token.isWord("not")) {
+                return new Not(factor());
+            }
+            if (token.isSymbol("(")) {
+                Node inner = expression();
+                expectSymbol(")");
+                return inner;
+            }
+            if (token.type != Token.WORD) {
+                throw error("Expected a field but found '" + token.text + "'", token.position);
+            }
+            if (token.isWord("sport")) {
+                return sport();
+            }
+            if (token.isWord("male")) {
+                return new Not(new Flag(RosterColumns.FEMALE));
+            }
+            if (token.isWord("previousInjury")) {
+                List<Node> sides = new ArrayList<>();
+                sides.add(new Flag(RosterColumns.PREVIOUS_INJURY_RIGHT));
+                sides.add(new Flag(RosterColumns.PREVIOUS_INJURY_LEFT));
+                return new Combination(false, sides);
+            }
+            int flag = RosterColumns.flagColumn(token.text);
+            if (flag >= 0) {
+                return new Flag(flag);
+            }
+            int column = RosterColumns.numericColumn(token.text);
+            if (column < 0) {
+                throw error("Unknown field '" + token.text + "'", token.position);
+            }
+            Token operator = take();
+            int op = operator.type == Token.SYMBOL ? operatorIndex(operator.text) : -1;
+            if (op < 0) {
+                throw error("Expected a comparison after '" + token.text + "'", operator.position);
+            }
+            Token number = expect(Token.NUMBER, "a number");
+            try {
+                return new Comparison(column, op, Double.parseDouble(number.text));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + number.text + "'", number.position);
+            }
+        }
+
+        private static int operatorIndex(String symbol) {
+            for (int i = 0; i < OPERATORS.length; i++) {
+                if (OPERATORS[i].equals(symbol)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Node sport() {
+            Token token = take();
+            List<String> names = new ArrayList<>();
+            if (token.isSymbol("=") || token.isSymbol("!=")) {
+                names.add(name());
+                Node match = new SportIn(names);
+                return token.isSymbol("=") ? match : new Not(match);
+            }
+            boolean negated = token.isWord("not");
+            if (negated) {
+                token = take();
+            }
+            if (!token.isWord("in")) {
+                throw error("Expected '=', '!=' or 'in' after 'sport'", token.position);
+            }
+            expectSymbol("(");
+            names.add(name());
+            while (peek().isSymbol(",")) {
+                take();
+                names.add(name());
+            }
+            expectSymbol(")");
+            Node match = new SportIn(names);
+            return negated ? new Not(match) : match;
+        }
+
+        private String name() {
+            Token token = take();
+            if (token.type != Token.WORD && token.type != Token.STRING) {
+                throw error("Expected a sport but found '" + token.text + "'", token.position);
+            }
+            return token.text;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package model;
+
+// The original step-function rules: each risk factor adds a fixed increment once its measurement
+// crosses a threshold. This is the default engine used by RiskAnalyzer. Thresholds and increments come
+// from an immutable ScoringConfig; withConfig returns a new engine rather than changing this one.
+public class RuleScoringEngine implements ScoringEngine {
+    private final ScoringConfig config;
+
+    // EFFECTS: creates an engine with the default thresholds and increments
+    public RuleScoringEngine() {
+        this(ScoringConfig.DEFAULT);
+    }
+
+    // EFFECTS: creates an engine scoring with config's thresholds and increments
+    public RuleScoringEngine(ScoringConfig config) {
+        this.config = config;
+    }
+
+    public ScoringConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public ScoringEngine withConfig(ScoringConfig config) {
+        return new RuleScoringEngine(config);
+    }
+
+    // Called each time a rule fires, with the increment it adds to its component score. This is a no-op
+    // here, so the JIT removes it from the plain engine; TracingRuleEngine overrides it to record the rule.
+    protected void ruleFired(ScoringRule rule, double contribution) {
+    }
+
+    // Evaluates demographic risk factors (age, gender, sport, etc.)
+    // athlete is The athlete to analyze
+    // returns Risk score for demographic factors (0-10)
+    @Override
+    public double assessDemographicRisk(Athlete athlete) {
+        double riskScore = 0.0;
+
+        // Gender risk (females have higher ACL injury risk)
+        if (athlete.getGender()) {  // True = Female in your implementation
+            riskScore += config.getFemaleIncrement();
+            ruleFired(ScoringRule.FEMALE, config.getFemaleIncrement());
+        }
+
+        // Age risk (adolescents and young adults at higher risk)
+        if (config.isRiskyAge(athlete.getAge())) {
+            riskScore += config.getAgeIncrement();
+            ruleFired(ScoringRule.AGE_IN_RANGE, config.getAgeIncrement());
+        }
+
+        // Sport risk (certain sports have higher ACL injury rates)
+        if (config.isHighRiskSport(athlete.getSport())) {
+            riskScore += config.getHighRiskSportIncrement();
+            ruleFired(ScoringRule.HIGH_RISK_SPORT, config.getHighRiskSportIncrement());
+        }
+
+        // BMI risk (very low or very high BMI can be risk factors)
+        if (config.isRiskyBmi(athlete.getBMI())) {
+            riskScore += config.getBmiIncrement();
+            ruleFired(ScoringRule.BMI_OUT_OF_RANGE, config.getBmiIncrement());
+        }
+
+        // Normalize to 0-10 scale
+        return Math.min(10.0, riskScore);
+    }
+
+    // Evaluates biomechanical risk factors (landing mechanics, muscle imbalances, etc.)
+    // data is Biomechanical measurements for the athlete
+    // returns Risk score for biomechanical factors (0-10)
+    @Override
+    public double assessBiomechanicalRisk(BiomechanicalData data) {
+        return biomechanicalRisk(data.getKneeValgusAngle(), data.getHipAdductionAngle(),
+                data.getKneeFlexionAngle(), data.getHamstringsToQuadsRatio(),
+                data.getLandingAsymmetry(), data.getQAngle());
+    }
+
+    @Override
+    public double assessBiomechanicalRisk(double[] fields) {
+        return biomechanicalRisk(fields[BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal()],
+                fields[BiomechanicalField.HIP_ADDUCTION_ANGLE.ordinal()],
+                fields[BiomechanicalField.KNEE_FLEXION_ANGLE.ordinal()],
+                fields[BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal()],
+                fields[BiomechanicalField.LANDING_ASYMMETRY.ordinal()],
+                fields[BiomechanicalField.Q_ANGLE.ordinal()]);
+    }
+
+    @Override
+    public void assessBiomechanicalRisk(double[][] columns, double[] out) {
+        double[] valgus = columns[BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal()];
+        double[] hip = columns[BiomechanicalField.HIP_ADDUCTION_ANGLE.ordinal()];
+        double[] flexion = columns[BiomechanicalField.KNEE_FLEXION_ANGLE.ordinal()];
+        double[] hq = columns[BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal()];
+        double[] asymmetry = columns[BiomechanicalField.LANDING_ASYMMETRY.ordinal()];
+        double[] qAngle = columns[BiomechanicalField.Q_ANGLE.ordinal()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = biomechanicalRisk(valgus[i], hip[i], flexion[i], hq[i], asymmetry[i], qAngle[i]);
+        }
+    }
+
+    // Each measurement contributes independently, so the score is the capped sum of per-field terms
+    @Override
+    public double assessFieldContribution(BiomechanicalField field, double value) {
+        switch (field) {
+            case KNEE_VALGUS_ANGLE:
+                return kneeValgusRisk(value);
+            case HIP_ADDUCTION_ANGLE:
+                return hipAdductionRisk(value);
+            case KNEE_FLEXION_ANGLE:
+                return kneeFlexionRisk(value);
+            case HAMSTRINGS_TO_QUADS_RATIO:
+                return hqRatioRisk(value);
+            case LANDING_ASYMMETRY:
+                return landingAsymmetryRisk(value);
+            case Q_ANGLE:
+                return qAngleRisk(value);
+            default:
+                return 0.0;
+        }
+    }
+
+    private double biomechanicalRisk(double kneeValgusAngle, double hipAdductionAngle, double kneeFlexionAngle,
+                                     double hqRatio, double asymmetry, double qAngle) {
+        double riskScore = kneeValgusRisk(kneeValgusAngle)
+                + hipAdductionRisk(hipAdductionAngle)
+                + kneeFlexionRisk(kneeFlexionAngle)
+                + hqRatioRisk(hqRatio)
+                + landingAsymmetryRisk(asymmetry)
+                + qAngleRisk(qAngle);
+
+        // Normalize to 0-10 scale
+        return Math.min(10.0, riskScore);
+    }
+
+    // Knee valgus risk (higher angles = higher risk)
+    private double kneeValgusRisk(double kneeValgusAngle) {
+        return fieldRisk(BiomechanicalField.KNEE_VALGUS_ANGLE, kneeValgusAngle,
+                ScoringRule.KNEE_VALGUS_MILD, ScoringRule.KNEE_VALGUS_SEVERE);
+    }
+
+    // Hip adduction risk
+    private double hipAdductionRisk(double hipAdductionAngle) {
+        return fieldRisk(BiomechanicalField.HIP_ADDUCTION_ANGLE, hipAdductionAngle,
+                ScoringRule.HIP_ADDUCTION_MILD, ScoringRule.HIP_ADDUCTION_SEVERE);
+    }
+
+    // Knee flexion risk (lower angles = higher risk)
+    private double kneeFlexionRisk(double kneeFlexionAngle) {
+        return fieldRisk(BiomechanicalField.KNEE_FLEXION_ANGLE, kneeFlexionAngle,
+                ScoringRule.KNEE_FLEXION_MILD, ScoringRule.KNEE_FLEXION_SEVERE);
+    }
+
+    // Hamstrings to quadriceps strength ratio risk (lower ratio = higher risk)
+    private double hqRatioRisk(double hqRatio) {
+        return fieldRisk(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, hqRatio,
+                ScoringRule.HQ_RATIO_MILD, ScoringRule.HQ_RATIO_SEVERE);
+    }
+
+    // Landing asymmetry risk
+    private double landingAsymmetryRisk(double asymmetry) {
+        return fieldRisk(BiomechanicalField.LANDING_ASYMMETRY, asymmetry,
+                ScoringRule.LANDING_ASYMMETRY_MILD, ScoringRule.LANDING_ASYMMETRY_SEVERE);
+    }
+
+    // Q-angle risk
+    private double qAngleRisk(double qAngle) {
+        return fieldRisk(BiomechanicalField.Q_ANGLE, qAngle, ScoringRule.Q_ANGLE_MILD, ScoringRule.Q_ANGLE_SEVERE);
+    }
+
+    // EFFECTS: returns the increment of the most severe of field's two rules that value triggers, or 0
+    private double fieldRisk(BiomechanicalField field, double value, ScoringRule mild, ScoringRule severe) {
+        int level = config.ruleLevel(field, value);
+        if (level == 0) {
+            return 0.0;
+        }
+        double increment = config.ruleIncrement(field, level);
+        ruleFired(level == 2 ? severe : mild, increment);
+        return increment;
+    }
+
+    // Evaluates medical history risk factors (previous injuries, family history)
+    // athlete is the athlete to analyze
+    // returns Risk score for medical history (0-10)
+    @Override
+    public double assessMedicalHistoryRisk(Athlete athlete) {
+        double riskScore = 0.0;
+
+        // Previous ACL injury (highest risk factor)
+        if (athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) {
+            riskScore += config.getPreviousInjuryIncrement();  // Very high risk factor
+            ruleFired(ScoringRule.PREVIOUS_ACL_INJURY, config.getPreviousInjuryIncrement());
+        }
+
+        // Family history of ACL injury
+        if (athlete.hasFamilyHistory()) {
+            riskScore += config.getFamilyHistoryIncrement();
+            ruleFired(ScoringRule.FAMILY_HISTORY, config.getFamilyHistoryIncrement());
+        }
+
+        // Normalize to 0-10 scale
+        return Math.min(10.0, riskScore);
+    }
+}
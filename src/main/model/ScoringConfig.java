@@ -0,0 +1,444 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+// Immutable set of every number the rule-based scoring depends on: the category thresholds, the
+// component weights, and the threshold and increment of each demographic, biomechanical and medical
+// rule. Instances are built once (from Properties, usually a file watched by
+// persistence.ScoringConfigWatcher) and never change, so an analysis that reads one reference sees a
+// consistent configuration for its whole run.
+// Properties format (any key left out keeps its DEFAULT value):
+//   weights            = 0.25,0.5,0.25         demographic, biomechanical, medical; must sum to 1.0
+//   categoryThresholds = 3.0,6.0,8.0           upper bounds of Low, Moderate and High
+//   female = 2.0, age = 1.5, ageRange = 14,25, highRiskSport = 2.0, bmi = 1.0, bmiRange = 18.5,30.0
+//   highRiskSports     = Basketball,Soccer,... matched case-insensitively
+//   previousInjury = 6.0, familyHistory = 2.0
+//   <measurement>      = threshold:increment,threshold:increment   the milder rule first, e.g.
+//                        kneeValgusAngle = 10.0:1.0,15.0:2.0 or kneeFlexionAngle = 60.0:0.75,45.0:1.5
+public final class ScoringConfig {
+    // The measurements scored by threshold rules; knee flexion and H:Q ratio are risky when low
+    static final BiomechanicalField[] RULE_FIELDS = {
+        BiomechanicalField.KNEE_VALGUS_ANGLE, BiomechanicalField.HIP_ADDUCTION_ANGLE,
+        BiomechanicalField.KNEE_FLEXION_ANGLE, BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO,
+        BiomechanicalField.LANDING_ASYMMETRY, BiomechanicalField.Q_ANGLE
+    };
+
+    public static final ScoringConfig DEFAULT = new ScoringConfig(new Properties(), null);
+
+    private final double[] categoryThresholds;
+    private final double demographicWeight;
+    private final double biomechanicalWeight;
+    private final double medicalWeight;
+
+    private final double femaleIncrement;
+    private final int minAge;
+    private final int maxAge;
+    private final double ageIncrement;
+    private final String[] highRiskSports;
+    private final double highRiskSportIncrement;
+    private final double minBmi;
+    private final double maxBmi;
+    private final double bmiIncrement;
+
+    // Indexed by BiomechanicalField.ordinal(); fields without rules never cross their thresholds
+    private final double[] mildThresholds = new double[BiomechanicalField.COUNT];
+    private final double[] mildIncrements = new double[BiomechanicalField.COUNT];
+    private final double[] severeThresholds = new double[BiomechanicalField.COUNT];
+    private final double[] severeIncrements = new double[BiomechanicalField.COUNT];
+
+    private final double previousInjuryIncrement;
+    private final double familyHistoryIncrement;
+
+    // EFFECTS: builds a configuration from properties, falling back to base (or the built-in defaults
+    //          when base is null) for missing keys; throws IllegalArgumentException if a value is malformed
+    //          or inconsistent
+    private ScoringConfig(Properties properties, ScoringConfig base) {
+        Parser in = new Parser(properties);
+        double[] weights = in.doubles("weights", base == null ? new double[] {0.25, 0.5, 0.25}
+                : new double[] {base.demographicWeight, base.biomechanicalWeight, base.medicalWeight}, 3);
+        validateWeights(weights[0], weights[1], weights[2]);
+        demographicWeight = weights[0];
+        biomechanicalWeight = weights[1];
+        medicalWeight = weights[2];
+        categoryThresholds = in.doubles("categoryThresholds",
+                base == null ? new double[] {3.0, 6.0, 8.0} : base.categoryThresholds, 3);
+        if (!(categoryThresholds[0] <= categoryThresholds[1] && categoryThresholds[1] <= categoryThresholds[2])) {
+            throw new IllegalArgumentException("categoryThresholds must be in ascending order");
+        }
+
+        femaleIncrement = in.number("female", base == null ? 2.0 : base.femaleIncrement);
+        double[] ages = in.doubles("ageRange", base == null ? new double[] {14, 25}
+                : new double[] {base.minAge, base.maxAge}, 2);
+        if (ages[0] != Math.rint(ages[0]) || ages[1] != Math.rint(ages[1])
+                || Math.abs(ages[0]) > Integer.MAX_VALUE || Math.abs(ages[1]) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ageRange must be two whole numbers of years");
+        }
+        if (ages[0] > ages[1]) {
+            throw new IllegalArgumentException("ageRange must be in ascending order");
+        }
+        minAge = (int) ages[0];
+        maxAge = (int) ages[1];
+        ageIncrement = in.number("age", base == null ? 1.5 : base.ageIncrement);
+        highRiskSports = in.words("highRiskSports", base == null
+                ? new String[] {"Basketball", "Soccer", "Football", "Handball", "Volleyball"} : base.highRiskSports);
+        highRiskSportIncrement = in.number("highRiskSport", base == null ? 2.0 : base.highRiskSportIncrement);
+        double[] bmi = in.doubles("bmiRange", base == null ? new double[] {18.5, 30.0}
+                : new double[] {base.minBmi, base.maxBmi}, 2);
+        if (bmi[0] > bmi[1]) {
+            throw new IllegalArgumentException("bmiRange must be in ascending order");
+        }
+        minBmi = bmi[0];
+        maxBmi = bmi[1];
+        bmiIncrement = in.number("bmi", base == null ? 1.0 : base.bmiIncrement);
+
+        double[][] defaultRules = {
+            {10.0, 1.0, 15.0, 2.0}, {15.0, 0.75, 20.0, 1.5}, {60.0, 0.75, 45.0, 1.5},
+            {0.6, 1.0, 0.5, 2.0}, {10.0, 0.75, 20.0, 1.5}, {15.0, 0.75, 20.0, 1.5}
+        };
+        Arrays.fill(mildThresholds, Double.NaN);
+        Arrays.fill(severeThresholds, Double.NaN);
+        for (int r = 0; r < RULE_FIELDS.length; r++) {
+            BiomechanicalField field = RULE_FIELDS[r];
+            int f = field.ordinal();
+            double[] rule = base == null ? defaultRules[r] : new double[] {base.mildThresholds[f],
+                base.mildIncrements[f], base.severeThresholds[f], base.severeIncrements[f]};
+            rule = in.rule(field.getPropertyName(), rule);
+            boolean ordered = lowerIsWorse(field) ? rule[2] <= rule[0] : rule[2] >= rule[0];
+            if (!ordered) {
+                throw new IllegalArgumentException(field.getPropertyName()
+                        + ": the severe threshold must be at least as extreme as the mild one");
+            }
+            mildThresholds[f] = rule[0];
+            mildIncrements[f] = rule[1];
+            severeThresholds[f] = rule[2];
+            severeIncrements[f] = rule[3];
+        }
+
+        previousInjuryIncrement = in.number("previousInjury", base == null ? 6.0 : base.previousInjuryIncrement);
+        familyHistoryIncrement = in.number("familyHistory", base == null ? 2.0 : base.familyHistoryIncrement);
+        in.checkAllUsed();
+    }
+
+    // EFFECTS: returns the configuration described by properties (see the class comment for the keys);
+    //          throws IllegalArgumentException if a key is unknown or a value is malformed
+    public static ScoringConfig fromProperties(Properties properties) {
+        return new ScoringConfig(properties, null);
+    }
+
+    // EFFECTS: returns a copy of this configuration with the given component weights
+    public ScoringConfig withWeights(double demographicWeight, double biomechanicalWeight, double medicalWeight) {
+        Properties properties = new Properties();
+        properties.setProperty("weights", demographicWeight + "," + biomechanicalWeight + "," + medicalWeight);
+        return new ScoringConfig(properties, this);
+    }
+
+    // EFFECTS: returns a copy of this configuration with the given upper bounds of Low, Moderate and High;
+    //          throws IllegalArgumentException unless they are in ascending order
+    public ScoringConfig withCategoryThresholds(double low, double moderate, double high) {
+        Properties properties = new Properties();
+        properties.setProperty("categoryThresholds", low + "," + moderate + "," + high);
+        return new ScoringConfig(properties, this);
+    }
+
+    // EFFECTS: returns a copy of this configuration with new mild and severe thresholds for field's rules,
+    //          keeping their increments; throws IllegalArgumentException if field has no rules or the severe
+    //          threshold is less extreme than the mild one
+    public ScoringConfig withRuleThresholds(BiomechanicalField field, double mildThreshold, double severeThreshold) {
+        int f = field.ordinal();
+        Properties properties = new Properties();
+        properties.setProperty(field.getPropertyName(), mildThreshold + ":" + mildIncrements[f] + ","
+                + severeThreshold + ":" + severeIncrements[f]);
+        return new ScoringConfig(properties, this);
+    }
+
+    // EFFECTS: throws IllegalArgumentException unless the weights are non-negative and sum to approximately 1.0
+    public static void validateWeights(double demographicWeight, double biomechanicalWeight, double medicalWeight) {
+        if (!(demographicWeight >= 0.0 && biomechanicalWeight >= 0.0 && medicalWeight >= 0.0)) {
+            throw new IllegalArgumentException("Weights must not be negative");
+        }
+        double sum = demographicWeight + biomechanicalWeight + medicalWeight;
+        if (!(sum >= 0.99 && sum <= 1.01)) {
+            throw new IllegalArgumentException("Weights must sum to 1.0");
+        }
+    }
+
+    private static boolean lowerIsWorse(BiomechanicalField field) {
+        return field == BiomechanicalField.KNEE_FLEXION_ANGLE || field == BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO;
+    }
+
+    // EFFECTS: returns the upper bounds of Low, Moderate and High
+    public double[] getCategoryThresholds() {
+        return categoryThresholds.clone();
+    }
+
+    // EFFECTS: returns the index into RiskAnalyzer.RISK_CATEGORIES of the category for riskScore
+    public int categoryIndex(double riskScore) {
+        if (riskScore <= categoryThresholds[0]) {
+            return 0;
+        } else if (riskScore <= categoryThresholds[1]) {
+            return 1;
+        } else if (riskScore <= categoryThresholds[2]) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    // EFFECTS: returns the weighted overall risk score of the three component scores
+    public double overallRisk(double demographicRisk, double biomechanicalRisk, double medicalRisk) {
+        return (demographicRisk * demographicWeight)
+                + (biomechanicalRisk * biomechanicalWeight)
+                + (medicalRisk * medicalWeight);
+    }
+
+    // EFFECTS: returns true if sport is one of the high-risk sports (case-insensitive)
+    public boolean isHighRiskSport(String sport) {
+        for (String highRiskSport : highRiskSports) {
+            if (sport.equalsIgnoreCase(highRiskSport)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isRiskyAge(int age) {
+        return age >= minAge && age <= maxAge;
+    }
+
+    public boolean isRiskyBmi(double bmi) {
+        return bmi < minBmi || bmi > maxBmi;
+    }
+
+    // EFFECTS: returns 2 if value crosses field's severe threshold, 1 if it crosses only the mild one and
+    //          0 otherwise (also for fields without rules)
+    public int ruleLevel(BiomechanicalField field, double value) {
+        int f = field.ordinal();
+        if (lowerIsWorse(field)) {
+            return value < severeThresholds[f] ? 2 : value < mildThresholds[f] ? 1 : 0;
+        }
+        return value > severeThresholds[f] ? 2 : value > mildThresholds[f] ? 1 : 0;
+    }
+
+    // EFFECTS: returns the mild threshold of field's rule, or NaN for a field without rules
+    public double mildThreshold(BiomechanicalField field) {
+        return mildThresholds[field.ordinal()];
+    }
+
+    // EFFECTS: returns the severe threshold of field's rule, or NaN for a field without rules
+    public double severeThreshold(BiomechanicalField field) {
+        return severeThresholds[field.ordinal()];
+    }
+
+    // EFFECTS: returns true if a value of field is riskier the lower it is (knee flexion, H:Q ratio)
+    public static boolean isLowerWorse(BiomechanicalField field) {
+        return lowerIsWorse(field);
+    }
+
+    // EFFECTS: returns the increment of field's rule at level (1 = mild, 2 = severe)
+    public double ruleIncrement(BiomechanicalField field, int level) {
+        return level == 2 ? severeIncrements[field.ordinal()] : mildIncrements[field.ordinal()];
+    }
+
+    public double getDemographicWeight() {
+        return demographicWeight;
+    }
+
+    public double getBiomechanicalWeight() {
+        return biomechanicalWeight;
+    }
+
+    public double getMedicalWeight() {
+        return medicalWeight;
+    }
+
+    public double getFemaleIncrement() {
+        return femaleIncrement;
+    }
+
+    // EFFECTS: returns the youngest age the age rule applies to
+    public int getMinAge() {
+        return minAge;
+    }
+
+    // EFFECTS: returns the oldest age the age rule applies to
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    // EFFECTS: returns the lower bound of the BMI range that scores no risk
+    public double getMinBmi() {
+        return minBmi;
+    }
+
+    // EFFECTS: returns the upper bound of the BMI range that scores no risk
+    public double getMaxBmi() {
+        return maxBmi;
+    }
+
+    public double getAgeIncrement() {
+        return ageIncrement;
+    }
+
+    public double getHighRiskSportIncrement() {
+        return highRiskSportIncrement;
+    }
+
+    public double getBmiIncrement() {
+        return bmiIncrement;
+    }
+
+    public double getPreviousInjuryIncrement() {
+        return previousInjuryIncrement;
+    }
+
+    public double getFamilyHistoryIncrement() {
+        return familyHistoryIncrement;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScoringConfig)) {
+            return false;
+        }
+        ScoringConfig other = (ScoringConfig) o;
+        return Arrays.equals(categoryThresholds, other.categoryThresholds)
+                && Double.compare(demographicWeight, other.demographicWeight) == 0
+                && Double.compare(biomechanicalWeight, other.biomechanicalWeight) == 0
+                && Double.compare(medicalWeight, other.medicalWeight) == 0
+                && Double.compare(femaleIncrement, other.femaleIncrement) == 0
+                && minAge == other.minAge && maxAge == other.maxAge
+                && Double.compare(ageIncrement, other.ageIncrement) == 0
+                && Arrays.equals(normalizedSports(), other.normalizedSports())
+                && Double.compare(highRiskSportIncrement, other.highRiskSportIncrement) == 0
+                && Double.compare(minBmi, other.minBmi) == 0 && Double.compare(maxBmi, other.maxBmi) == 0
+                && Double.compare(bmiIncrement, other.bmiIncrement) == 0
+                && Arrays.equals(mildThresholds, other.mildThresholds)
+                && Arrays.equals(mildIncrements, other.mildIncrements)
+                && Arrays.equals(severeThresholds, other.severeThresholds)
+                && Arrays.equals(severeIncrements, other.severeIncrements)
+                && Double.compare(previousInjuryIncrement, other.previousInjuryIncrement) == 0
+                && Double.compare(familyHistoryIncrement, other.familyHistoryIncrement) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(categoryThresholds);
+        hash = 31 * hash + Double.hashCode(demographicWeight);
+        hash = 31 * hash + Double.hashCode(biomechanicalWeight);
+        hash = 31 * hash + Double.hashCode(medicalWeight);
+        hash = 31 * hash + Arrays.hashCode(new double[] {femaleIncrement, minAge, maxAge, ageIncrement,
+            highRiskSportIncrement, minBmi, maxBmi, bmiIncrement, previousInjuryIncrement, familyHistoryIncrement});
+        hash = 31 * hash + Arrays.hashCode(normalizedSports());
+        hash = 31 * hash + Arrays.hashCode(mildThresholds);
+        hash = 31 * hash + Arrays.hashCode(mildIncrements);
+        hash = 31 * hash + Arrays.hashCode(severeThresholds);
+        return 31 * hash + Arrays.hashCode(severeIncrements);
+    }
+
+    // Sports compare case-insensitively and in any order
+    private String[] normalizedSports() {
+        String[] sports = new String[highRiskSports.length];
+        for (int i = 0; i < sports.length; i++) {
+            sports[i] = highRiskSports[i].toLowerCase(Locale.ROOT);
+        }
+        Arrays.sort(sports);
+        return sports;
+    }
+
+    // Reads typed values from Properties and remembers which keys were used, so typos are reported
+    private static final class Parser {
+        private final Properties properties;
+        private final Set<String> unused;
+
+        Parser(Properties properties) {
+            this.properties = properties;
+            this.unused = new HashSet<>(properties.stringPropertyNames());
+        }
+
+        private String get(String key) {
+            unused.remove(key);
+            String value = properties.getProperty(key);
+            return value == null ? null : value.trim();
+        }
+
+        double number(String key, double fallback) {
+            String value = get(key);
+            return value == null ? fallback : parse(key, value);
+        }
+
+        double[] doubles(String key, double[] fallback, int count) {
+            String value = get(key);
+            if (value == null) {
+                return fallback.clone();
+            }
+            String[] parts = value.split(",");
+            if (parts.length != count) {
+                throw new IllegalArgumentException(key + " needs " + count + " comma-separated numbers");
+            }
+            double[] numbers = new double[count];
+            for (int i = 0; i < count; i++) {
+                numbers[i] = parse(key, parts[i].trim());
+            }
+            return numbers;
+        }
+
+        String[] words(String key, String[] fallback) {
+            String value = get(key);
+            if (value == null) {
+                return fallback.clone();
+            }
+            String[] parts = value.split(",");
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = parts[i].trim();
+            }
+            return parts;
+        }
+
+        // EFFECTS: returns {mild threshold, mild increment, severe threshold, severe increment}
+        double[] rule(String key, double[] fallback) {
+            String value = get(key);
+            if (value == null) {
+                return fallback.clone();
+            }
+            String[] tiers = value.split(",");
+            if (tiers.length != 2) {
+                throw new IllegalArgumentException(key + " needs two threshold:increment pairs");
+            }
+            double[] rule = new double[4];
+            for (int t = 0; t < 2; t++) {
+                String[] pair = tiers[t].split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException(key + " needs two threshold:increment pairs");
+                }
+                rule[2 * t] = parse(key, pair[0].trim());
+                rule[2 * t + 1] = parse(key, pair[1].trim());
+            }
+            return rule;
+        }
+
+        private double parse(String key, String value) {
+            try {
+                double number = Double.parseDouble(value);
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    throw new IllegalArgumentException(key + " must be finite");
+                }
+                return number;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + key + ": " + value, e);
+            }
+        }
+
+        void checkAllUsed() {
+            if (!unused.isEmpty()) {
+                throw new IllegalArgumentException("Unknown scoring configuration keys: " + unused);
+            }
+        }
+    }
+}
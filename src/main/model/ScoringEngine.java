@@ -0,0 +1,47 @@
+package model;
+
+// Computes the three component risk scores (each 0-10) that RiskAnalyzer combines into an overall score.
+// Biomechanical measurements can be passed as a BiomechanicalData object, as a primitive vector indexed
+// by BiomechanicalField.ordinal(), or as whole columns for batch scoring.
+public interface ScoringEngine {
+
+    // EFFECTS: returns the demographic risk score (0-10) of athlete
+    double assessDemographicRisk(Athlete athlete);
+
+    // EFFECTS: returns the biomechanical risk score (0-10) of data
+    double assessBiomechanicalRisk(BiomechanicalData data);
+
+    // REQUIRES: fields.length >= BiomechanicalField.COUNT
+    // EFFECTS: returns the biomechanical risk score (0-10) of the measurement vector fields
+    double assessBiomechanicalRisk(double[] fields);
+
+    // EFFECTS: returns the part of the biomechanical score that comes from field having value, for
+    //          engines whose biomechanical score is min(10, sum of independent per-field contributions);
+    //          returns NaN if the score does not decompose that way (the default)
+    default double assessFieldContribution(BiomechanicalField field, double value) {
+        return Double.NaN;
+    }
+
+    // EFFECTS: returns an engine that scores like this one but with config's rule thresholds and
+    //          increments; engines without configurable rules return themselves (the default)
+    default ScoringEngine withConfig(ScoringConfig config) {
+        return this;
+    }
+
+    // EFFECTS: returns the medical history risk score (0-10) of athlete
+    double assessMedicalHistoryRisk(Athlete athlete);
+
+    // REQUIRES: columns[f] has at least out.length entries for every field f
+    // MODIFIES: out
+    // EFFECTS: stores the biomechanical risk score of every athlete i in out[i], where athlete i's
+    //          measurements are columns[field.ordinal()][i]
+    default void assessBiomechanicalRisk(double[][] columns, double[] out) {
+        double[] row = new double[BiomechanicalField.COUNT];
+        for (int i = 0; i < out.length; i++) {
+            for (int f = 0; f < row.length; f++) {
+                row[f] = columns[f][i];
+            }
+            out[i] = assessBiomechanicalRisk(row);
+        }
+    }
+}
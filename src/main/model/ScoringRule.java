@@ -0,0 +1,82 @@
+package model;
+
+// Every threshold rule of RuleScoringEngine, with the component it contributes to. Thresholds come from
+// the ScoringConfig in use, so rules are named by what they test and describe(config) states the
+// thresholds that config applies.
+public enum ScoringRule {
+    FEMALE(Component.DEMOGRAPHIC, "Female athlete"),
+    AGE_IN_RANGE(Component.DEMOGRAPHIC, "Age"),
+    HIGH_RISK_SPORT(Component.DEMOGRAPHIC, "High-risk sport"),
+    BMI_OUT_OF_RANGE(Component.DEMOGRAPHIC, "BMI"),
+    KNEE_VALGUS_SEVERE(BiomechanicalField.KNEE_VALGUS_ANGLE, 2, "Knee valgus", " degrees"),
+    KNEE_VALGUS_MILD(BiomechanicalField.KNEE_VALGUS_ANGLE, 1, "Knee valgus", " degrees"),
+    HIP_ADDUCTION_SEVERE(BiomechanicalField.HIP_ADDUCTION_ANGLE, 2, "Hip adduction", " degrees"),
+    HIP_ADDUCTION_MILD(BiomechanicalField.HIP_ADDUCTION_ANGLE, 1, "Hip adduction", " degrees"),
+    KNEE_FLEXION_SEVERE(BiomechanicalField.KNEE_FLEXION_ANGLE, 2, "Knee flexion", " degrees"),
+    KNEE_FLEXION_MILD(BiomechanicalField.KNEE_FLEXION_ANGLE, 1, "Knee flexion", " degrees"),
+    HQ_RATIO_SEVERE(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 2, "H:Q ratio", ""),
+    HQ_RATIO_MILD(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 1, "H:Q ratio", ""),
+    LANDING_ASYMMETRY_SEVERE(BiomechanicalField.LANDING_ASYMMETRY, 2, "Landing asymmetry", "%"),
+    LANDING_ASYMMETRY_MILD(BiomechanicalField.LANDING_ASYMMETRY, 1, "Landing asymmetry", "%"),
+    Q_ANGLE_SEVERE(BiomechanicalField.Q_ANGLE, 2, "Q-angle", " degrees"),
+    Q_ANGLE_MILD(BiomechanicalField.Q_ANGLE, 1, "Q-angle", " degrees"),
+    PREVIOUS_ACL_INJURY(Component.MEDICAL, "Previous ACL injury"),
+    FAMILY_HISTORY(Component.MEDICAL, "Family history of ACL injury");
+
+    // The component score a rule adds to
+    public enum Component {
+        DEMOGRAPHIC, BIOMECHANICAL, MEDICAL
+    }
+
+    public static final int COUNT = values().length;
+
+    private final Component component;
+    // The measurement and level (1 = mild, 2 = severe) of a biomechanical rule; null and 0 otherwise
+    private final BiomechanicalField field;
+    private final int level;
+    private final String subject;
+    private final String unit;
+
+    ScoringRule(Component component, String subject) {
+        this.component = component;
+        this.field = null;
+        this.level = 0;
+        this.subject = subject;
+        this.unit = "";
+    }
+
+    ScoringRule(BiomechanicalField field, int level, String subject, String unit) {
+        this.component = Component.BIOMECHANICAL;
+        this.field = field;
+        this.level = level;
+        this.subject = subject;
+        this.unit = unit;
+    }
+
+    public Component getComponent() {
+        return component;
+    }
+
+    // EFFECTS: returns what the rule tests under config, with the thresholds config applies, e.g.
+    //          "Knee valgus above 15 degrees" or "Age between 14 and 25"
+    public String describe(ScoringConfig config) {
+        switch (this) {
+            case AGE_IN_RANGE:
+                return subject + " between " + config.getMinAge() + " and " + config.getMaxAge();
+            case BMI_OUT_OF_RANGE:
+                return subject + " below " + format(config.getMinBmi()) + " or above " + format(config.getMaxBmi());
+            default:
+                if (field == null) {
+                    return subject;
+                }
+                double threshold = level == 2 ? config.severeThreshold(field) : config.mildThreshold(field);
+                return subject + (ScoringConfig.isLowerWorse(field) ? " below " : " above ") + format(threshold) + unit;
+        }
+    }
+
+    // Whole numbers without a trailing ".0"
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+}
@@ -0,0 +1,62 @@
+package model;
+
+import java.util.Locale;
+
+// Category distribution of a roster under one (demographic, biomechanical, medical) weight triple
+public class SweepResult {
+    static final String CSV_HEADER = "demographicWeight,biomechanicalWeight,medicalWeight,"
+            + "low,moderate,high,veryHigh,meanScore";
+
+    private final double demographicWeight;
+    private final double biomechanicalWeight;
+    private final double medicalWeight;
+    private final int[] categoryCounts;
+    private final double meanScore;
+
+    SweepResult(double demographicWeight, double biomechanicalWeight, double medicalWeight,
+                int[] categoryCounts, double meanScore) {
+        this.demographicWeight = demographicWeight;
+        this.biomechanicalWeight = biomechanicalWeight;
+        this.medicalWeight = medicalWeight;
+        this.categoryCounts = categoryCounts;
+        this.meanScore = meanScore;
+    }
+
+    // EFFECTS: returns the number of athletes in the given category (Low, Moderate, High, Very High)
+    public int getCategoryCount(String category) {
+        for (int i = 0; i < RiskAnalyzer.RISK_CATEGORIES.length; i++) {
+            if (RiskAnalyzer.RISK_CATEGORIES[i].equals(category)) {
+                return categoryCounts[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown risk category: " + category);
+    }
+
+    // EFFECTS: returns a copy of the counts per category, ordered Low to Very High
+    public int[] getCategoryCounts() {
+        return categoryCounts.clone();
+    }
+
+    // EFFECTS: formats this result as a row matching CSV_HEADER
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%.4f,%.4f,%.4f,%d,%d,%d,%d,%.4f",
+                demographicWeight, biomechanicalWeight, medicalWeight,
+                categoryCounts[0], categoryCounts[1], categoryCounts[2], categoryCounts[3], meanScore);
+    }
+
+    public double getDemographicWeight() {
+        return demographicWeight;
+    }
+
+    public double getBiomechanicalWeight() {
+        return biomechanicalWeight;
+    }
+
+    public double getMedicalWeight() {
+        return medicalWeight;
+    }
+
+    public double getMeanScore() {
+        return meanScore;
+    }
+}
@@ -0,0 +1,145 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Team-level aggregates kept up to date as assessments arrive, so a dashboard read never touches the
+// roster. Each athlete contributes its latest assessment only: when a new one replaces it, the old
+// contribution is subtracted and the new one added, a constant amount of work per update.
+// Counters are striped LongAdders, so concurrent updates from many threads do not contend. Scores are
+// summed in fixed point (millionths) so that subtracting an old contribution cancels it exactly and
+// sums do not drift however many replacements happen. Reads are not an atomic snapshot: while updates
+// are in flight, different aggregates may reflect slightly different moments.
+public class TeamDashboard {
+    private static final double SCALE = 1_000_000.0;
+    private static final int OVERALL = 0;
+    private static final int DEMOGRAPHIC = 1;
+    private static final int BIOMECHANICAL = 2;
+    private static final int MEDICAL = 3;
+
+    private final ConcurrentHashMap<String, RiskAssessment> latest = new ConcurrentHashMap<>();
+    private final LongAdder athletes = new LongAdder();
+    private final LongAdder[] categoryCounts = adders(RiskAnalyzer.RISK_CATEGORIES.length);
+    private final LongAdder[] scoreSums = adders(4);
+    private final LongAdder[] factorCounts = adders(KeyRiskFactor.COUNT);
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes assessment the latest one of its athlete and updates the aggregates
+    public void update(RiskAssessment assessment) {
+        RiskAssessment previous = latest.put(assessment.getAthleteName(), assessment);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(assessment, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the athlete's latest assessment from the aggregates; returns false if the
+    //          athlete has none
+    public boolean remove(String athleteName) {
+        RiskAssessment previous = latest.remove(athleteName);
+        if (previous == null) {
+            return false;
+        }
+        apply(previous, -1);
+        return true;
+    }
+
+    // Concurrent updates of one athlete each see a distinct previous assessment, so every assessment is
+    // added once and subtracted at most once, and the totals converge whatever the interleaving
+    private void apply(RiskAssessment assessment, int sign) {
+        athletes.add(sign);
+        int category = categoryIndex(assessment.getRiskCategory());
+        if (category >= 0) {
+            categoryCounts[category].add(sign);
+        }
+        scoreSums[OVERALL].add(sign * toFixed(assessment.getOverallRiskScore()));
+        scoreSums[DEMOGRAPHIC].add(sign * toFixed(assessment.getDemographicRiskScore()));
+        scoreSums[BIOMECHANICAL].add(sign * toFixed(assessment.getBiomechanicalRiskScore()));
+        scoreSums[MEDICAL].add(sign * toFixed(assessment.getMedicalHistoryRiskScore()));
+        int mask = assessment.getKeyRiskFactorMask();
+        while (mask != 0) {
+            factorCounts[Integer.numberOfTrailingZeros(mask)].add(sign);
+            mask &= mask - 1;
+        }
+    }
+
+    private static long toFixed(double score) {
+        return Math.round(score * SCALE);
+    }
+
+    private static int categoryIndex(String category) {
+        for (int i = 0; i < RiskAnalyzer.RISK_CATEGORIES.length; i++) {
+            if (RiskAnalyzer.RISK_CATEGORIES[i].equals(category)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the latest assessment of the athlete, or null if there is none
+    public RiskAssessment getLatest(String athleteName) {
+        return latest.get(athleteName);
+    }
+
+    public long getAthleteCount() {
+        return athletes.sum();
+    }
+
+    // EFFECTS: returns the number of athletes in category (Low, Moderate, High, Very High)
+    public long getCategoryCount(String category) {
+        int index = categoryIndex(category);
+        return index < 0 ? 0 : categoryCounts[index].sum();
+    }
+
+    public double getMeanOverallRisk() {
+        return mean(OVERALL);
+    }
+
+    public double getMeanDemographicRisk() {
+        return mean(DEMOGRAPHIC);
+    }
+
+    public double getMeanBiomechanicalRisk() {
+        return mean(BIOMECHANICAL);
+    }
+
+    public double getMeanMedicalHistoryRisk() {
+        return mean(MEDICAL);
+    }
+
+    private double mean(int score) {
+        long count = athletes.sum();
+        return count <= 0 ? 0.0 : scoreSums[score].sum() / SCALE / count;
+    }
+
+    // EFFECTS: returns the number of athletes whose latest assessment flags factor
+    public long getFactorCount(KeyRiskFactor factor) {
+        return factorCounts[factor.ordinal()].sum();
+    }
+
+    // EFFECTS: returns up to limit factors flagged for at least one athlete, most common first
+    //          (ties in factor order)
+    public List<KeyRiskFactor> getMostCommonFactors(int limit) {
+        long[] counts = new long[KeyRiskFactor.COUNT];
+        List<KeyRiskFactor> factors = new ArrayList<>();
+        for (KeyRiskFactor factor : KeyRiskFactor.FACTORS) {
+            counts[factor.ordinal()] = factorCounts[factor.ordinal()].sum();
+            if (counts[factor.ordinal()] > 0) {
+                factors.add(factor);
+            }
+        }
+        factors.sort((a, b) -> Long.compare(counts[b.ordinal()], counts[a.ordinal()]));
+        return factors.size() > limit ? new ArrayList<>(factors.subList(0, limit)) : factors;
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps tenants (clubs) to the analyzer for their scoring configuration. Configurations are interned by
+// value, so every tenant whose rules are equal to another's (see ScoringConfig.equals) shares one
+// RiskAnalyzer and its engine, however many tenants there are. Looking up a tenant is a single
+// ConcurrentHashMap read: it never locks and allocates nothing. Registering, changing and removing
+// tenants are rare and serialized; an analyzer is dropped once no tenant uses it.
+// Shared analyzers must not be reconfigured directly (RiskAnalyzer.setConfig would change every tenant
+// sharing it); register the tenant with its new configuration instead.
+public class TenantRegistry {
+    private final RiskAnalyzer defaultAnalyzer;
+    private final ConcurrentHashMap<String, RiskAnalyzer> tenants = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final Map<ScoringConfig, Shared> interned = new HashMap<>();
+
+    // An interned analyzer and the number of tenants using it
+    private static final class Shared {
+        final RiskAnalyzer analyzer;
+        int tenants;
+
+        Shared(RiskAnalyzer analyzer) {
+            this.analyzer = analyzer;
+        }
+    }
+
+    // EFFECTS: creates a registry whose unregistered tenants use the default configuration
+    public TenantRegistry() {
+        this(new RiskAnalyzer());
+    }
+
+    // EFFECTS: creates a registry whose unregistered tenants use defaultAnalyzer
+    public TenantRegistry(RiskAnalyzer defaultAnalyzer) {
+        this.defaultAnalyzer = defaultAnalyzer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes tenant use config, replacing any earlier configuration, and returns the analyzer it
+    //          now shares with every other tenant whose configuration equals config
+    public synchronized RiskAnalyzer register(String tenant, ScoringConfig config) {
+        if (tenant == null || config == null) {
+            throw new IllegalArgumentException("Tenant and configuration are required");
+        }
+        Shared shared = interned.get(config);
+        if (shared == null) {
+            shared = new Shared(new RiskAnalyzer(config));
+            interned.put(config, shared);
+        }
+        RiskAnalyzer previous = tenants.get(tenant);
+        if (previous == shared.analyzer) {
+            return previous;
+        }
+        shared.tenants++;
+        tenants.put(tenant, shared.analyzer);
+        if (previous != null) {
+            release(previous);
+        }
+        return shared.analyzer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes tenant, which then uses the default analyzer; returns false if it was not registered
+    public synchronized boolean remove(String tenant) {
+        RiskAnalyzer previous = tenants.remove(tenant);
+        if (previous == null) {
+            return false;
+        }
+        release(previous);
+        return true;
+    }
+
+    // Drops a tenant's use of analyzer, and the analyzer itself once no tenant uses it
+    private void release(RiskAnalyzer analyzer) {
+        ScoringConfig config = analyzer.getConfig();
+        Shared shared = interned.get(config);
+        if (--shared.tenants == 0) {
+            interned.remove(config);
+        }
+    }
+
+    // EFFECTS: returns the analyzer for tenant, or the default analyzer if it is not registered
+    public RiskAnalyzer getAnalyzer(String tenant) {
+        return tenants.getOrDefault(tenant, defaultAnalyzer);
+    }
+
+    // EFFECTS: returns true if tenant has its own configuration
+    public boolean isRegistered(String tenant) {
+        return tenants.containsKey(tenant);
+    }
+
+    // EFFECTS: returns the number of registered tenants
+    public int getTenantCount() {
+        return tenants.size();
+    }
+
+    // EFFECTS: returns the number of distinct analyzers shared by the registered tenants
+    public synchronized int getAnalyzerCount() {
+        return interned.size();
+    }
+}
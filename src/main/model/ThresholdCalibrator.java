@@ -0,0 +1,290 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Searches weight triples and screening cut-offs against a roster with known injury outcomes.
+// For every weight triple the overall scores of injured and uninjured athletes are sorted once;
+// ROC/AUC and the sensitivity/specificity of every cut-off are then read off the two sorted arrays
+// with linear merges, so a whole cut-off grid costs little more than the sort itself.
+// Weight triples are evaluated in parallel.
+// calibrateConfig goes further and tunes the rule thresholds and category bounds of a ScoringConfig,
+// re-analyzing the roster for every candidate configuration.
+public class ThresholdCalibrator {
+    // Quantiles of a measurement over the roster tried as thresholds of its rules
+    private static final int THRESHOLD_QUANTILES = 20;
+    // Spacing of the Moderate category bounds tried for each candidate configuration
+    private static final double BOUND_STEP = 0.25;
+    private static final double MAX_SCORE = 10.0;
+
+    private final ComponentScores scores;
+    private final boolean[] injured;
+    private final int positives;
+
+    // REQUIRES: injured[i] is the outcome of the athlete at index i of scores
+    public ThresholdCalibrator(ComponentScores scores, boolean[] injured) {
+        if (scores.size() != injured.length) {
+            throw new IllegalArgumentException("Outcome count does not match roster size");
+        }
+        int count = 0;
+        for (boolean outcome : injured) {
+            if (outcome) {
+                count++;
+            }
+        }
+        if (count == 0 || count == injured.length) {
+            throw new IllegalArgumentException("Outcomes must contain both injured and uninjured athletes");
+        }
+        this.scores = scores;
+        this.injured = injured;
+        this.positives = count;
+    }
+
+    // EFFECTS: scores roster once with analyzer's rules and returns a calibrator over it
+    public static ThresholdCalibrator of(RiskAnalyzer analyzer, List<Athlete> roster, boolean[] injured) {
+        return new ThresholdCalibrator(ComponentScores.compute(analyzer, roster), injured);
+    }
+
+    // REQUIRES: each row of weights sums to 1.0
+    // EFFECTS: returns one result per (weight triple, cut-off) pair, ordered by weight triple and then
+    //          by cut-off as given. An athlete is flagged when their overall score exceeds the cut-off,
+    //          mirroring how scores above the Moderate threshold of a ScoringConfig are categorized High
+    //          or Very High. Throws IllegalArgumentException if a row is not a valid weight triple.
+    public List<CalibrationResult> calibrate(double[][] weights, double[] cutoffs) {
+        WeightSweep.validate(weights);
+        Integer[] order = new Integer[cutoffs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> cutoffs[i]));
+
+        return IntStream.range(0, weights.length).parallel()
+                .mapToObj(k -> evaluate(weights[k], cutoffs, order))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns the result with the highest Youden index (sensitivity + specificity - 1),
+    //          breaking ties by AUC
+    public CalibrationResult best(double[][] weights, double[] cutoffs) {
+        CalibrationResult best = null;
+        for (CalibrationResult result : calibrate(weights, cutoffs)) {
+            if (best == null || isBetter(result, best)) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    // REQUIRES: injured[i] is the outcome of roster.get(i)
+    // EFFECTS: tunes the biomechanical rule thresholds and category bounds of start against roster by
+    //          coordinate descent and returns the best configuration found. An athlete is flagged when
+    //          categorized High or Very High, and configurations are compared by the Youden index of that
+    //          screen, ties broken by AUC. Each round tries, for the mild and then the severe threshold of
+    //          every rule in turn, the quantiles of that measurement over the roster, keeping the best change.
+    //          Every candidate is scored by analyzing roster with new RiskAnalyzer(candidate) and gets the
+    //          best Moderate bound on a grid; the Low and High bounds move with it. Weights are kept, so pick
+    //          them first with best and ScoringConfig.withWeights. Stops after maxRounds rounds or a round
+    //          without improvement. Throws IllegalArgumentException if maxRounds < 1 or the outcomes do not
+    //          match roster.
+    public static ScoringConfig calibrateConfig(ScoringConfig start, List<Athlete> roster, boolean[] injured,
+                                                int maxRounds) {
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("At least one calibration round is needed");
+        }
+        double[] bounds = new double[(int) Math.round(MAX_SCORE / BOUND_STEP) + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = i * BOUND_STEP;
+        }
+        double[][] columns = BiomechanicalField.toColumns(roster);
+
+        Candidate best = score(start, roster, injured, bounds);
+        for (int round = 0; round < maxRounds; round++) {
+            boolean improved = false;
+            for (BiomechanicalField field : ScoringConfig.RULE_FIELDS) {
+                double[] values = quantiles(columns[field.ordinal()]);
+                for (int level = 1; level <= 2; level++) {
+                    List<ScoringConfig> trials = new ArrayList<>();
+                    double mild = best.config.mildThreshold(field);
+                    double severe = best.config.severeThreshold(field);
+                    for (double value : values) {
+                        double trialMild = level == 1 ? value : mild;
+                        double trialSevere = level == 2 ? value : severe;
+                        boolean ordered = ScoringConfig.isLowerWorse(field) ? trialSevere <= trialMild
+                                : trialSevere >= trialMild;
+                        if (ordered && (trialMild != mild || trialSevere != severe)) {
+                            trials.add(best.config.withRuleThresholds(field, trialMild, trialSevere));
+                        }
+                    }
+                    List<Candidate> scored = trials.parallelStream()
+                            .map(config -> score(config, roster, injured, bounds))
+                            .collect(Collectors.toList());
+                    for (Candidate candidate : scored) {
+                        if (isBetter(candidate.result, best.result)) {
+                            best = candidate;
+                            improved = true;
+                        }
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return best.config;
+    }
+
+    // A configuration with its category bounds moved to the best Moderate bound, and that screen's result
+    private static final class Candidate {
+        final ScoringConfig config;
+        final CalibrationResult result;
+
+        Candidate(ScoringConfig config, CalibrationResult result) {
+            this.config = config;
+            this.result = result;
+        }
+    }
+
+    // EFFECTS: analyzes roster under config and returns config with the Moderate bound from bounds that
+    //          screens best; the Low and High bounds are shifted by as much, within [0, MAX_SCORE]
+    private static Candidate score(ScoringConfig config, List<Athlete> roster, boolean[] injured, double[] bounds) {
+        ComponentScores scores = ComponentScores.compute(new RiskAnalyzer(config), roster);
+        double[] weights = {config.getDemographicWeight(), config.getBiomechanicalWeight(), config.getMedicalWeight()};
+        CalibrationResult result = new ThresholdCalibrator(scores, injured).best(new double[][] {weights}, bounds);
+        double[] thresholds = config.getCategoryThresholds();
+        double shift = result.getCutoff() - thresholds[1];
+        ScoringConfig shifted = config.withCategoryThresholds(clampScore(thresholds[0] + shift),
+                result.getCutoff(), clampScore(thresholds[2] + shift));
+        return new Candidate(shifted, result);
+    }
+
+    private static double clampScore(double score) {
+        return Math.max(0.0, Math.min(MAX_SCORE, score));
+    }
+
+    // EFFECTS: returns the distinct values of column at the inner THRESHOLD_QUANTILES-quantiles, ascending
+    private static double[] quantiles(double[] column) {
+        double[] sorted = column.clone();
+        Arrays.sort(sorted);
+        double[] values = new double[THRESHOLD_QUANTILES - 1];
+        int count = 0;
+        for (int q = 1; q < THRESHOLD_QUANTILES; q++) {
+            double value = sorted[(int) ((long) q * (sorted.length - 1) / THRESHOLD_QUANTILES)];
+            if (count == 0 || value != values[count - 1]) {
+                values[count++] = value;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    // EFFECTS: returns true if result has a higher Youden index than other, or the same one and a higher AUC
+    private static boolean isBetter(CalibrationResult result, CalibrationResult other) {
+        return result.getYoudenIndex() > other.getYoudenIndex()
+                || (result.getYoudenIndex() == other.getYoudenIndex() && result.getAuc() > other.getAuc());
+    }
+
+    // REQUIRES: weights sums to 1.0
+    // EFFECTS: returns the ROC curve of the overall score under weights as {falsePositiveRates, truePositiveRates},
+    //          one point per distinct score from the strictest cut-off down to the most lenient
+    public double[][] rocCurve(double[] weights) {
+        WeightSweep.validate(new double[][] {weights});
+        double[][] sorted = sortedScores(weights);
+        double[] pos = sorted[0];
+        double[] neg = sorted[1];
+
+        List<double[]> points = new ArrayList<>();
+        points.add(new double[] {0.0, 0.0});
+        int p = pos.length;
+        int n = neg.length;
+        while (p > 0 || n > 0) {
+            double next = Math.max(p > 0 ? pos[p - 1] : Double.NEGATIVE_INFINITY,
+                    n > 0 ? neg[n - 1] : Double.NEGATIVE_INFINITY);
+            while (p > 0 && pos[p - 1] == next) {
+                p--;
+            }
+            while (n > 0 && neg[n - 1] == next) {
+                n--;
+            }
+            points.add(new double[] {(double) (neg.length - n) / neg.length, (double) (pos.length - p) / pos.length});
+        }
+
+        double[][] curve = new double[2][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            curve[0][i] = points.get(i)[0];
+            curve[1][i] = points.get(i)[1];
+        }
+        return curve;
+    }
+
+    private List<CalibrationResult> evaluate(double[] weights, double[] cutoffs, Integer[] order) {
+        double[][] sorted = sortedScores(weights);
+        double[] pos = sorted[0];
+        double[] neg = sorted[1];
+        double auc = auc(pos, neg);
+
+        // Walk the cut-offs in ascending order; pointers only move forward
+        CalibrationResult[] results = new CalibrationResult[cutoffs.length];
+        int p = 0;
+        int n = 0;
+        for (Integer index : order) {
+            double cutoff = cutoffs[index];
+            while (p < pos.length && pos[p] <= cutoff) {
+                p++;
+            }
+            while (n < neg.length && neg[n] <= cutoff) {
+                n++;
+            }
+            double sensitivity = (double) (pos.length - p) / pos.length;
+            double specificity = (double) n / neg.length;
+            results[index] = new CalibrationResult(weights[0], weights[1], weights[2], cutoff,
+                    auc, sensitivity, specificity);
+        }
+        return Arrays.asList(results);
+    }
+
+    // EFFECTS: returns {injured scores, uninjured scores} under weights, each sorted ascending
+    private double[][] sortedScores(double[] weights) {
+        double[] demographic = scores.demographicColumn();
+        double[] biomechanical = scores.biomechanicalColumn();
+        double[] medical = scores.medicalColumn();
+        double[] pos = new double[positives];
+        double[] neg = new double[injured.length - positives];
+        int p = 0;
+        int n = 0;
+        for (int i = 0; i < injured.length; i++) {
+            double overall = demographic[i] * weights[0] + biomechanical[i] * weights[1] + medical[i] * weights[2];
+            if (injured[i]) {
+                pos[p++] = overall;
+            } else {
+                neg[n++] = overall;
+            }
+        }
+        Arrays.sort(pos);
+        Arrays.sort(neg);
+        return new double[][] {pos, neg};
+    }
+
+    // EFFECTS: returns the probability that a random injured athlete outscores a random uninjured one
+    //          (ties count one half), computed by merging the two sorted arrays
+    private static double auc(double[] pos, double[] neg) {
+        double wins = 0.0;
+        int below = 0;
+        int equalEnd = 0;
+        for (int p = 0; p < pos.length; p++) {
+            double score = pos[p];
+            while (below < neg.length && neg[below] < score) {
+                below++;
+            }
+            equalEnd = Math.max(equalEnd, below);
+            while (equalEnd < neg.length && neg[equalEnd] == score) {
+                equalEnd++;
+            }
+            wins += below + 0.5 * (equalEnd - below);
+        }
+        return wins / ((double) pos.length * neg.length);
+    }
+}
@@ -0,0 +1,26 @@
+package model;
+
+// Audit variant of RuleScoringEngine that records every rule that fires into an ExplanationTrace.
+// Kept as a separate class so the default engine's hook stays empty and costs nothing.
+class TracingRuleEngine extends RuleScoringEngine {
+    private final ExplanationTrace trace;
+
+    TracingRuleEngine(ExplanationTrace trace) {
+        this(trace, ScoringConfig.DEFAULT);
+    }
+
+    TracingRuleEngine(ExplanationTrace trace, ScoringConfig config) {
+        super(config);
+        this.trace = trace;
+    }
+
+    @Override
+    public ScoringEngine withConfig(ScoringConfig config) {
+        return new TracingRuleEngine(trace, config);
+    }
+
+    @Override
+    protected void ruleFired(ScoringRule rule, double contribution) {
+        trace.record(rule, contribution, getConfig());
+    }
+}
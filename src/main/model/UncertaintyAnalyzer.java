@@ -0,0 +1,77 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Monte Carlo propagation of measurement error: each athlete's biomechanical measurements are resampled
+// from a noise model many times and scored, giving the probability of each risk category and intervals
+// for the scores. Demographic and medical scores carry no measurement error and are computed once.
+// Every athlete gets its own SplittableRandom split from the seed in roster order, so team results are
+// reproducible no matter how the parallel work is scheduled.
+public class UncertaintyAnalyzer {
+    private final RiskAnalyzer analyzer;
+    private final MeasurementNoise noise;
+    private final int samples;
+    private final long seed;
+
+    // REQUIRES: samples > 0
+    public UncertaintyAnalyzer(RiskAnalyzer analyzer, MeasurementNoise noise, int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Sample count must be positive");
+        }
+        this.analyzer = analyzer;
+        this.noise = noise;
+        this.samples = samples;
+        this.seed = seed;
+    }
+
+    // EFFECTS: returns the uncertainty of athlete's risk using a generator derived from the seed
+    public UncertaintyResult analyze(Athlete athlete) {
+        return analyze(athlete, new SplittableRandom(seed));
+    }
+
+    // EFFECTS: returns the uncertainty of every athlete in roster, in roster order, computed in parallel
+    public List<UncertaintyResult> analyzeTeam(List<Athlete> roster) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[roster.size()];
+        for (int i = 0; i < generators.length; i++) {
+            generators[i] = root.split();
+        }
+        return IntStream.range(0, roster.size()).parallel()
+                .mapToObj(i -> analyze(roster.get(i), generators[i]))
+                .collect(Collectors.toList());
+    }
+
+    private UncertaintyResult analyze(Athlete athlete, SplittableRandom random) {
+        RiskAnalyzer.Snapshot current = analyzer.snapshot();
+        ScoringEngine engine = current.engine;
+        double demographicRisk = engine.assessDemographicRisk(athlete);
+        double medicalRisk = engine.assessMedicalHistoryRisk(athlete);
+
+        double[] base = athlete.getBioMechData().toArray(new double[BiomechanicalField.COUNT]);
+        double[] noisy = new double[BiomechanicalField.COUNT];
+        double[] overallScores = new double[samples];
+        double[] biomechanicalScores = new double[samples];
+        int[] categoryCounts = new int[RiskAnalyzer.RISK_CATEGORIES.length];
+
+        for (int s = 0; s < samples; s++) {
+            noise.sample(base, noisy, random);
+            double biomechanicalRisk = engine.assessBiomechanicalRisk(noisy);
+            double overall = current.overallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
+            biomechanicalScores[s] = biomechanicalRisk;
+            overallScores[s] = overall;
+            categoryCounts[current.categoryIndex(overall)]++;
+        }
+
+        Arrays.sort(overallScores);
+        Arrays.sort(biomechanicalScores);
+        double[] probabilities = new double[categoryCounts.length];
+        for (int c = 0; c < probabilities.length; c++) {
+            probabilities[c] = (double) categoryCounts[c] / samples;
+        }
+        return new UncertaintyResult(athlete.getName(), probabilities, overallScores, biomechanicalScores);
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+// Category probabilities and score distributions for one athlete under measurement uncertainty
+public class UncertaintyResult {
+    private final String athleteName;
+    private final double[] categoryProbabilities;
+    private final double[] sortedOverallScores;
+    private final double[] sortedBiomechanicalScores;
+
+    // REQUIRES: score arrays are sorted ascending and non-empty
+    UncertaintyResult(String athleteName, double[] categoryProbabilities,
+                      double[] sortedOverallScores, double[] sortedBiomechanicalScores) {
+        this.athleteName = athleteName;
+        this.categoryProbabilities = categoryProbabilities;
+        this.sortedOverallScores = sortedOverallScores;
+        this.sortedBiomechanicalScores = sortedBiomechanicalScores;
+    }
+
+    // EFFECTS: returns the fraction of samples that fell in category (Low, Moderate, High, Very High)
+    public double getCategoryProbability(String category) {
+        for (int i = 0; i < RiskAnalyzer.RISK_CATEGORIES.length; i++) {
+            if (RiskAnalyzer.RISK_CATEGORIES[i].equals(category)) {
+                return categoryProbabilities[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown risk category: " + category);
+    }
+
+    // EFFECTS: returns the category that occurred in the most samples
+    public String getMostLikelyCategory() {
+        int best = 0;
+        for (int i = 1; i < categoryProbabilities.length; i++) {
+            if (categoryProbabilities[i] > categoryProbabilities[best]) {
+                best = i;
+            }
+        }
+        return RiskAnalyzer.RISK_CATEGORIES[best];
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the central {lower, upper} interval of the overall score containing confidence
+    //          of the samples (e.g. 0.95 gives the 2.5th and 97.5th percentiles)
+    public double[] getOverallScoreInterval(double confidence) {
+        return interval(sortedOverallScores, confidence);
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the central interval of the biomechanical score, as for getOverallScoreInterval
+    public double[] getBiomechanicalScoreInterval(double confidence) {
+        return interval(sortedBiomechanicalScores, confidence);
+    }
+
+    // EFFECTS: returns the mean overall score over all samples
+    public double getMeanOverallScore() {
+        double sum = 0.0;
+        for (double score : sortedOverallScores) {
+            sum += score;
+        }
+        return sum / sortedOverallScores.length;
+    }
+
+    public String getAthleteName() {
+        return athleteName;
+    }
+
+    public int getSampleCount() {
+        return sortedOverallScores.length;
+    }
+
+    private static double[] interval(double[] sorted, double confidence) {
+        if (confidence <= 0.0 || confidence >= 1.0) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+        }
+        double tail = (1.0 - confidence) / 2.0;
+        int lower = (int) Math.floor(tail * (sorted.length - 1));
+        int upper = (int) Math.ceil((1.0 - tail) * (sorted.length - 1));
+        return new double[] {sorted[lower], sorted[upper]};
+    }
+}
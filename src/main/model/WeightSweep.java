@@ -0,0 +1,160 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Evaluates many (demographic, biomechanical, medical) weight triples against a roster whose
+// component scores were computed once. Overall scores for a batch of triples are the product of
+// the N x 3 score matrix with the 3 x K weight matrix; athletes are processed in cache-sized blocks
+// in parallel and only the per-triple category distributions are kept.
+public class WeightSweep {
+    // Number of weight triples evaluated per pass over the score columns
+    private static final int COMBINATION_BATCH = 256;
+
+    // Number of athletes per parallel block (three double columns stay within L1 cache)
+    private static final int ATHLETE_BLOCK = 1024;
+
+    private final ComponentScores scores;
+
+    public WeightSweep(ComponentScores scores) {
+        this.scores = scores;
+    }
+
+    // EFFECTS: computes component scores for roster once and returns a sweep over them
+    public static WeightSweep of(RiskAnalyzer analyzer, List<Athlete> roster) {
+        return new WeightSweep(ComponentScores.compute(analyzer, roster));
+    }
+
+    // REQUIRES: step > 0 and 1.0 / step is (close to) a whole number
+    // EFFECTS: returns every weight triple on a lattice of the given step whose weights sum to 1.0
+    public static double[][] weightGrid(double step) {
+        int divisions = (int) Math.round(1.0 / step);
+        if (divisions <= 0) {
+            throw new IllegalArgumentException("Step must be in (0, 1]");
+        }
+        List<double[]> grid = new ArrayList<>();
+        for (int d = 0; d <= divisions; d++) {
+            for (int b = 0; b + d <= divisions; b++) {
+                int m = divisions - d - b;
+                grid.add(new double[] {(double) d / divisions, (double) b / divisions, (double) m / divisions});
+            }
+        }
+        return grid.toArray(new double[0][]);
+    }
+
+    // REQUIRES: each row of weights is a {demographic, biomechanical, medical} triple summing to 1.0
+    // EFFECTS: returns the category distribution of the roster under each weight triple, in input order
+    public SweepResult[] evaluate(double[][] weights) {
+        validate(weights);
+        SweepResult[] results = new SweepResult[weights.length];
+        for (int from = 0; from < weights.length; from += COMBINATION_BATCH) {
+            int to = Math.min(weights.length, from + COMBINATION_BATCH);
+            evaluateBatch(weights, from, to, results);
+        }
+        return results;
+    }
+
+    // REQUIRES: each row of weights is a {demographic, biomechanical, medical} triple summing to 1.0
+    // MODIFIES: out
+    // EFFECTS: evaluates weights batch by batch and writes one CSV row per triple to out as soon as its
+    //          batch is done, so the full result set never has to be held in memory
+    public void writeCsv(double[][] weights, Writer out) throws IOException {
+        validate(weights);
+        out.write(SweepResult.CSV_HEADER);
+        out.write('\n');
+        SweepResult[] batch = new SweepResult[weights.length];
+        for (int from = 0; from < weights.length; from += COMBINATION_BATCH) {
+            int to = Math.min(weights.length, from + COMBINATION_BATCH);
+            evaluateBatch(weights, from, to, batch);
+            for (int i = from; i < to; i++) {
+                out.write(batch[i].toCsvRow());
+                out.write('\n');
+                batch[i] = null;
+            }
+            out.flush();
+        }
+    }
+
+    // EFFECTS: throws IllegalArgumentException unless every row of weights is a triple summing to 1.0
+    static void validate(double[][] weights) {
+        for (double[] triple : weights) {
+            if (triple.length != 3) {
+                throw new IllegalArgumentException("Each weight combination must have three weights");
+            }
+            RiskAnalyzer.validateWeights(triple[0], triple[1], triple[2]);
+        }
+    }
+
+    // MODIFIES: results
+    // EFFECTS: fills results[from, to) with the distributions for weights[from, to)
+    private void evaluateBatch(double[][] weights, int from, int to, SweepResult[] results) {
+        int combinations = to - from;
+        double[] wd = new double[combinations];
+        double[] wb = new double[combinations];
+        double[] wm = new double[combinations];
+        for (int k = 0; k < combinations; k++) {
+            wd[k] = weights[from + k][0];
+            wb[k] = weights[from + k][1];
+            wm[k] = weights[from + k][2];
+        }
+
+        int size = scores.size();
+        int blocks = (size + ATHLETE_BLOCK - 1) / ATHLETE_BLOCK;
+        BatchTotals totals = IntStream.range(0, blocks).parallel().collect(
+                () -> new BatchTotals(combinations),
+                (acc, block) -> acc.add(block * ATHLETE_BLOCK, Math.min(size, (block + 1) * ATHLETE_BLOCK),
+                        wd, wb, wm),
+                BatchTotals::merge);
+
+        for (int k = 0; k < combinations; k++) {
+            int[] counts = new int[RiskAnalyzer.RISK_CATEGORIES.length];
+            System.arraycopy(totals.counts, k * counts.length, counts, 0, counts.length);
+            double mean = size == 0 ? 0.0 : totals.scoreSums[k] / size;
+            results[from + k] = new SweepResult(wd[k], wb[k], wm[k], counts, mean);
+        }
+    }
+
+    // Per-thread accumulator of category counts and score sums for one batch of weight triples
+    private final class BatchTotals {
+        private final int[] counts;
+        private final double[] scoreSums;
+
+        BatchTotals(int combinations) {
+            counts = new int[combinations * RiskAnalyzer.RISK_CATEGORIES.length];
+            scoreSums = new double[combinations];
+        }
+
+        void add(int start, int end, double[] wd, double[] wb, double[] wm) {
+            double[] demographic = scores.demographicColumn();
+            double[] biomechanical = scores.biomechanicalColumn();
+            double[] medical = scores.medicalColumn();
+            int categories = RiskAnalyzer.RISK_CATEGORIES.length;
+            ScoringConfig config = scores.getConfig();
+            for (int k = 0; k < wd.length; k++) {
+                double d = wd[k];
+                double b = wb[k];
+                double m = wm[k];
+                double sum = 0.0;
+                int base = k * categories;
+                for (int i = start; i < end; i++) {
+                    double overall = demographic[i] * d + biomechanical[i] * b + medical[i] * m;
+                    sum += overall;
+                    counts[base + config.categoryIndex(overall)]++;
+                }
+                scoreSums[k] += sum;
+            }
+        }
+
+        void merge(BatchTotals other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            for (int k = 0; k < scoreSums.length; k++) {
+                scoreSums[k] += other.scoreSums[k];
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package model;
+
+// Answers "what if" questions about changes to an athlete's biomechanics. The demographic and medical
+// scores are computed once per athlete and reused; each scenario only re-scores the biomechanical
+// component on a scratch copy of the measurement vector, so neither the athlete nor a RiskAssessment
+// is created per scenario.
+public class WhatIfAnalyzer {
+    private final RiskAnalyzer analyzer;
+
+    public WhatIfAnalyzer(RiskAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    // REQUIRES: every row of deltas has one entry per element of fields
+    // EFFECTS: returns the scores of athlete under each scenario s, in which fields[j] is changed by
+    //          deltas[s][j] (units of the field) and every other measurement is left as it is
+    public WhatIfResult evaluate(Athlete athlete, BiomechanicalField[] fields, double[][] deltas) {
+        RiskAnalyzer.Snapshot current = analyzer.snapshot();
+        ScoringEngine engine = current.engine;
+        double demographicRisk = engine.assessDemographicRisk(athlete);
+        double medicalRisk = engine.assessMedicalHistoryRisk(athlete);
+
+        double[] base = athlete.getBioMechData().toArray(new double[BiomechanicalField.COUNT]);
+        double[] scenario = base.clone();
+        int[] indexes = new int[fields.length];
+        for (int j = 0; j < fields.length; j++) {
+            indexes[j] = fields[j].ordinal();
+        }
+
+        double baselineBiomechanical = engine.assessBiomechanicalRisk(base);
+        double baselineOverall = current.overallRisk(demographicRisk, baselineBiomechanical, medicalRisk);
+
+        double[] biomechanicalScores = new double[deltas.length];
+        double[] overallScores = new double[deltas.length];
+        byte[] categories = new byte[deltas.length];
+        for (int s = 0; s < deltas.length; s++) {
+            double[] change = deltas[s];
+            if (change.length != indexes.length) {
+                throw new IllegalArgumentException("Scenario " + s + " does not have one delta per field");
+            }
+            for (int j = 0; j < indexes.length; j++) {
+                scenario[indexes[j]] += change[j];
+            }
+            double biomechanicalRisk = engine.assessBiomechanicalRisk(scenario);
+            double overall = current.overallRisk(demographicRisk, biomechanicalRisk, medicalRisk);
+            biomechanicalScores[s] = biomechanicalRisk;
+            overallScores[s] = overall;
+            categories[s] = (byte) current.categoryIndex(overall);
+            // Restore only the fields this scenario touched
+            for (int index : indexes) {
+                scenario[index] = base[index];
+            }
+        }
+        return new WhatIfResult(baselineBiomechanical, baselineOverall, biomechanicalScores, overallScores,
+                categories);
+    }
+}
@@ -0,0 +1,57 @@
+package model;
+
+// Scores of one athlete under a batch of hypothetical biomechanical changes, indexed by scenario
+public class WhatIfResult {
+    private final double baselineBiomechanicalScore;
+    private final double baselineOverallScore;
+    private final double[] biomechanicalScores;
+    private final double[] overallScores;
+    private final byte[] categories;
+
+    WhatIfResult(double baselineBiomechanicalScore, double baselineOverallScore,
+                 double[] biomechanicalScores, double[] overallScores, byte[] categories) {
+        this.baselineBiomechanicalScore = baselineBiomechanicalScore;
+        this.baselineOverallScore = baselineOverallScore;
+        this.biomechanicalScores = biomechanicalScores;
+        this.overallScores = overallScores;
+        this.categories = categories;
+    }
+
+    // EFFECTS: returns the number of scenarios evaluated
+    public int size() {
+        return overallScores.length;
+    }
+
+    public double getBiomechanicalScore(int scenario) {
+        return biomechanicalScores[scenario];
+    }
+
+    public double getOverallScore(int scenario) {
+        return overallScores[scenario];
+    }
+
+    // EFFECTS: returns the risk category (Low, Moderate, High, Very High) of scenario
+    public String getRiskCategory(int scenario) {
+        return RiskAnalyzer.RISK_CATEGORIES[categories[scenario]];
+    }
+
+    // EFFECTS: returns the scenario with the lowest overall score (the first one on ties)
+    public int getBestScenario() {
+        int best = 0;
+        for (int s = 1; s < overallScores.length; s++) {
+            if (overallScores[s] < overallScores[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    // Scores of the athlete's current measurements
+    public double getBaselineBiomechanicalScore() {
+        return baselineBiomechanicalScore;
+    }
+
+    public double getBaselineOverallScore() {
+        return baselineOverallScore;
+    }
+}
@@ -0,0 +1,109 @@
+package persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.KeyRiskFactor;
+import model.Recommendation;
+import model.RiskAssessment;
+
+// Binary encoding of a complete RiskAssessment (scores, key risk factors and recommendations),
+// shared by the on-disk assessment stores
+public final class AssessmentCodec {
+    private static final KeyRiskFactor[] FACTORS = KeyRiskFactor.values();
+
+    private AssessmentCodec() {
+    }
+
+    // EFFECTS: returns the encoded bytes of assessment
+    public static byte[] encode(RiskAssessment assessment) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(assessment.getAthleteName());
+            out.writeUTF(assessment.getRiskCategory());
+            out.writeDouble(assessment.getOverallRiskScore());
+            out.writeDouble(assessment.getDemographicRiskScore());
+            out.writeDouble(assessment.getBiomechanicalRiskScore());
+            out.writeDouble(assessment.getMedicalHistoryRiskScore());
+
+            // Known factors as a mask followed by the score of each set bit
+            int mask = assessment.getKeyRiskFactorMask();
+            out.writeInt(mask);
+            for (KeyRiskFactor factor : FACTORS) {
+                if ((mask & factor.bit()) != 0) {
+                    out.writeDouble(assessment.getKeyRiskFactorScore(factor));
+                }
+            }
+            List<Map.Entry<String, Double>> others = new ArrayList<>();
+            for (Map.Entry<String, Double> entry : assessment.getKeyRiskFactors().entrySet()) {
+                if (KeyRiskFactor.fromDisplayName(entry.getKey()) == null) {
+                    others.add(entry);
+                }
+            }
+            out.writeShort(others.size());
+            for (Map.Entry<String, Double> entry : others) {
+                out.writeUTF(entry.getKey());
+                out.writeDouble(entry.getValue());
+            }
+
+            List<Recommendation> recommendations = assessment.getRecommendations();
+            out.writeShort(recommendations.size());
+            for (Recommendation recommendation : recommendations) {
+                out.writeUTF(recommendation.getCategory());
+                out.writeByte(recommendation.getPriority());
+                out.writeUTF(recommendation.getDescription());
+                out.writeUTF(recommendation.getTargetRiskFactor());
+            }
+        } catch (IOException e) {
+            // Writing to a byte array cannot fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // REQUIRES: bytes[offset, offset + length) was produced by encode
+    // EFFECTS: returns the assessment encoded in the given range
+    public static RiskAssessment decode(byte[] bytes, int offset, int length) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+            String athleteName = in.readUTF();
+            String category = in.readUTF();
+            double overall = in.readDouble();
+            double demographic = in.readDouble();
+            double biomechanical = in.readDouble();
+            double medical = in.readDouble();
+            RiskAssessment assessment = new RiskAssessment(athleteName, overall, category,
+                    demographic, biomechanical, medical);
+
+            int mask = in.readInt();
+            for (KeyRiskFactor factor : FACTORS) {
+                if ((mask & factor.bit()) != 0) {
+                    assessment.addKeyRiskFactor(factor, in.readDouble());
+                }
+            }
+            int others = in.readShort();
+            for (int i = 0; i < others; i++) {
+                assessment.addKeyRiskFactor(in.readUTF(), in.readDouble());
+            }
+
+            int recommendations = in.readShort();
+            for (int i = 0; i < recommendations; i++) {
+                String recommendationCategory = in.readUTF();
+                int priority = in.readByte();
+                String description = in.readUTF();
+                String target = in.readUTF();
+                assessment.addRecommendation(new Recommendation(recommendationCategory, priority,
+                        description, target));
+            }
+            return assessment;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt assessment record", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package persistence;
+
+import java.util.Map;
+
+import model.RiskAssessment;
+
+// CSV format for batch assessment output: scores rounded to two decimals, key risk factors as a
+// semicolon-separated list in stable factor order
+public final class AssessmentCsv {
+    public static final String HEADER =
+            "athleteName,overallRisk,riskCategory,demographicRisk,biomechanicalRisk,medicalRisk,keyRiskFactors";
+
+    private AssessmentCsv() {
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends assessment as one CSV line (without a line terminator) to out
+    public static void format(RiskAssessment assessment, StringBuilder out) {
+        AthleteCsv.appendField(assessment.getAthleteName(), out);
+        out.append(',');
+        appendScore(assessment.getOverallRiskScore(), out);
+        out.append(',').append(assessment.getRiskCategory()).append(',');
+        appendScore(assessment.getDemographicRiskScore(), out);
+        out.append(',');
+        appendScore(assessment.getBiomechanicalRiskScore(), out);
+        out.append(',');
+        appendScore(assessment.getMedicalHistoryRiskScore(), out);
+        out.append(',');
+
+        StringBuilder factors = new StringBuilder();
+        for (Map.Entry<String, Double> factor : assessment.getKeyRiskFactors().entrySet()) {
+            if (factors.length() > 0) {
+                factors.append(';');
+            }
+            factors.append(factor.getKey());
+        }
+        AthleteCsv.appendField(factors.toString(), out);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends score rounded to two decimals (avoids String.format, which is slow to initialize)
+    static void appendScore(double score, StringBuilder out) {
+        long hundredths = Math.round(score * 100.0);
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
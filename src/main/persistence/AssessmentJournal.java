@@ -0,0 +1,433 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+import model.RiskAssessment;
+
+// Append-only audit log of every RiskAssessment produced.
+//
+// Records are appended into fixed-size, memory-mapped segment files. Each record is framed as
+// [int payloadLength][int crc32c][long timestamp][payload], where the checksum covers the timestamp and
+// payload; a zero length marks the unused, zero-filled end of a segment. Appends only copy bytes into
+// the mapping. A background flusher forces the mapping to disk and releases every writer waiting in
+// awaitDurable at once, so many records share one force() (group commit). On open, segments are
+// scanned and any bytes left after the last good record by a crash are zeroed so appends resume there;
+// a segment closed cleanly has a zero tail and is not written at all. Mapping a new segment only sets its
+// length, so segment files are sparse: the file system allocates blocks as records reach them. Every
+// segment of a journal has the same size, which is checked on open.
+//
+// A failed force() leaves it unknown which records reached the disk, so the journal stops: the flusher
+// exits, and every later append and every writer still waiting in awaitDurable fails with an IOException.
+//
+// Mappings are never unmapped explicitly; a sealed segment's buffer is dropped and the garbage collector
+// unmaps it. The flusher and replay may therefore keep using a buffer outside lock after it is released.
+public class AssessmentJournal implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int ZERO_CHUNK = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object lock = new Object();
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private final Thread flusher;
+
+    // Guarded by lock
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentIndex;
+    private int position;
+    private long appendedRecords;
+    private long durableRecords;
+    private long forceCount;
+    private RuntimeException flushFailure;
+    private boolean closed;
+
+    // EFFECTS: opens (or creates) the journal in directory with the default segment size
+    public AssessmentJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    // REQUIRES: segmentSize is large enough to hold any single record
+    // EFFECTS: opens (or creates) the journal in directory, recovering existing segments and
+    //          truncating any torn tail, then starts the group-commit flusher; throws IOException if an
+    //          existing segment is not segmentSize bytes long
+    public AssessmentJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+        flusher = new Thread(this::flushLoop, "assessment-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends assessment stamped with the current time and returns its sequence number;
+    //          the record is durable once awaitDurable(sequence) returns
+    public long append(RiskAssessment assessment) throws IOException {
+        return append(System.currentTimeMillis(), assessment);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends assessment with the given timestamp and returns its sequence number (1-based);
+    //          throws IOException once a flush has failed
+    public long append(long timestamp, RiskAssessment assessment) throws IOException {
+        byte[] payload = AssessmentCodec.encode(assessment);
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record larger than a journal segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, timestamp));
+        crc.update(payload);
+
+        synchronized (lock) {
+            ensureOpen();
+            checkFlushed();
+            if (position + recordSize > segmentSize) {
+                rollSegment();
+            }
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putLong(position + 8, timestamp);
+            ByteBuffer target = buffer.duplicate();
+            target.position(position + HEADER_SIZE);
+            target.put(payload);
+            // Length goes last so a reader never sees a length without its payload in memory
+            buffer.putInt(position, payload.length);
+            position += recordSize;
+            appendedRecords++;
+            if (appendedRecords - 1 == durableRecords) {
+                // First record since the last flush: the flusher may be idle
+                lock.notifyAll();
+            }
+            return appendedRecords;
+        }
+    }
+
+    // EFFECTS: blocks until the record with the given sequence number has been forced to disk; throws
+    //          IOException if a flush fails first
+    public void awaitDurable(long sequence) throws IOException, InterruptedException {
+        synchronized (lock) {
+            while (durableRecords < sequence) {
+                checkFlushed();
+                ensureOpen();
+                lock.wait();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends assessment and waits until it is durable
+    public void appendDurably(RiskAssessment assessment) throws IOException, InterruptedException {
+        awaitDurable(append(assessment));
+    }
+
+    // EFFECTS: returns the number of records in the journal, including recovered ones
+    public long getRecordCount() {
+        synchronized (lock) {
+            return appendedRecords;
+        }
+    }
+
+    // EFFECTS: returns the number of times a mapping has been forced to disk since the journal was opened
+    long getForceCount() {
+        synchronized (lock) {
+            return forceCount;
+        }
+    }
+
+    // EFFECTS: calls visitor with every record in append order (assessment, timestamp)
+    public void replay(ObjLongConsumer<RiskAssessment> visitor) throws IOException {
+        List<Path> sealed;
+        ByteBuffer active;
+        synchronized (lock) {
+            ensureOpen();
+            sealed = new ArrayList<>(sealedSegments);
+            active = buffer.duplicate();
+            active.limit(position);
+        }
+        // Decoded before visiting so the records are fixed even if the visitor appends
+        List<RiskAssessment> activeRecords = new ArrayList<>();
+        List<Long> activeTimestamps = new ArrayList<>();
+        readRecords(active, (assessment, timestamp) -> {
+            activeRecords.add(assessment);
+            activeTimestamps.add(timestamp);
+        });
+        for (Path segment : sealed) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                readRecords(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()), visitor);
+            }
+        }
+        for (int i = 0; i < activeRecords.size(); i++) {
+            visitor.accept(activeRecords.get(i), activeTimestamps.get(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces outstanding records to disk, stops the flusher and closes the journal; throws
+    //          IOException if a flush has failed
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (flushFailure == null) {
+                try {
+                    buffer.force();
+                    forceCount++;
+                    durableRecords = appendedRecords;
+                } catch (RuntimeException e) {
+                    flushFailure = e;
+                }
+            }
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            release();
+            checkFlushed();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    // EFFECTS: throws IOException if a flush has failed
+    private void checkFlushed() throws IOException {
+        if (flushFailure != null) {
+            throw new IOException("Journal flush failed; later records may be lost", flushFailure);
+        }
+    }
+
+    // Group commit: force everything appended so far, then wake every writer it covers; stops at the
+    // first failure
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long covered;
+            synchronized (lock) {
+                while (!closed && durableRecords == appendedRecords) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                target = buffer;
+                covered = appendedRecords;
+            }
+            RuntimeException failure = null;
+            try {
+                force(target);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            synchronized (lock) {
+                if (failure != null) {
+                    flushFailure = failure;
+                    lock.notifyAll();
+                    return;
+                }
+                durableRecords = Math.max(durableRecords, covered);
+                forceCount++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // EFFECTS: forces target to disk (the flusher's force, replaceable to test failures)
+    void force(MappedByteBuffer target) {
+        target.force();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: seals the current segment (forcing it) and maps a fresh one
+    private void rollSegment() throws IOException {
+        buffer.force();
+        forceCount++;
+        durableRecords = appendedRecords;
+        release();
+        sealedSegments.add(segmentPath(segmentIndex));
+        openSegment(segmentIndex + 1);
+        position = 0;
+    }
+
+    private void openSegment(int index) throws IOException {
+        Path path = segmentPath(index);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentIndex = index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the current mapping, leaving it to the garbage collector to unmap, and closes its
+    //          channel
+    private void release() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: scans existing segments in order, counting valid records; at the first torn or corrupt
+    //          record, or in the last segment, whatever follows the last valid record is zeroed and any
+    //          later segments are deleted; throws IOException if a segment has a different size
+    private void recover() throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                indexes.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        indexes.sort(null);
+        if (indexes.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+
+        for (int i = 0; i < indexes.size(); i++) {
+            checkSegmentSize(segmentPath(indexes.get(i)), i == indexes.size() - 1);
+            openSegment(indexes.get(i));
+            int end = scanValidRecords(buffer);
+            boolean torn = end + HEADER_SIZE <= segmentSize && buffer.getInt(end) != 0;
+            if (torn || i == indexes.size() - 1) {
+                // Writes reach the disk in any order, so a crash can leave valid-looking records after a
+                // missing one; clear up to the last non-zero byte so they cannot be replayed later
+                int dirtyEnd = dirtyEnd(buffer, end);
+                if (dirtyEnd > end) {
+                    byte[] zeros = new byte[Math.min(ZERO_CHUNK, dirtyEnd - end)];
+                    ByteBuffer target = buffer.duplicate();
+                    target.position(end);
+                    while (target.position() < dirtyEnd) {
+                        target.put(zeros, 0, Math.min(zeros.length, dirtyEnd - target.position()));
+                    }
+                    buffer.force();
+                    forceCount++;
+                }
+                for (int j = i + 1; j < indexes.size(); j++) {
+                    Files.delete(segmentPath(indexes.get(j)));
+                }
+                position = end;
+                break;
+            }
+            release();
+            sealedSegments.add(segmentPath(indexes.get(i)));
+        }
+        durableRecords = appendedRecords;
+    }
+
+    // EFFECTS: throws IOException unless segment is segmentSize bytes long; the last segment may also be
+    //          empty, as a crash can come between creating and mapping it
+    private void checkSegmentSize(Path segment, boolean last) throws IOException {
+        long size = Files.size(segment);
+        if (size != segmentSize && !(last && size == 0)) {
+            throw new IOException("Journal segment " + segment.getFileName() + " is " + size
+                    + " bytes, expected " + segmentSize);
+        }
+    }
+
+    // EFFECTS: returns the offset after the last non-zero byte of segment at or after from, or from if
+    //          there is none
+    private static int dirtyEnd(ByteBuffer segment, int from) {
+        int offset = segment.limit();
+        while (offset > from && (offset & 7) != 0) {
+            if (segment.get(offset - 1) != 0) {
+                return offset;
+            }
+            offset--;
+        }
+        while (offset - Long.BYTES >= from && segment.getLong(offset - Long.BYTES) == 0L) {
+            offset -= Long.BYTES;
+        }
+        while (offset > from && segment.get(offset - 1) == 0) {
+            offset--;
+        }
+        return offset;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts the valid records at the start of segment and returns the offset after the last one
+    private int scanValidRecords(ByteBuffer segment) {
+        int offset = 0;
+        while (true) {
+            int length = validRecordLength(segment, offset);
+            if (length < 0) {
+                return offset;
+            }
+            offset += HEADER_SIZE + length;
+            appendedRecords++;
+        }
+    }
+
+    // EFFECTS: returns the payload length of the record at offset, or -1 if there is no valid record there
+    private static int validRecordLength(ByteBuffer segment, int offset) {
+        int limit = segment.limit();
+        if (offset + HEADER_SIZE > limit) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > limit - offset - HEADER_SIZE) {
+            return -1;
+        }
+        ByteBuffer covered = segment.duplicate();
+        covered.limit(offset + HEADER_SIZE + length);
+        covered.position(offset + 8);
+        CRC32C crc = new CRC32C();
+        crc.update(covered);
+        return (int) crc.getValue() == segment.getInt(offset + 4) ? length : -1;
+    }
+
+    private static void readRecords(ByteBuffer segment, ObjLongConsumer<RiskAssessment> visitor) {
+        int offset = 0;
+        while (true) {
+            int length = validRecordLength(segment, offset);
+            if (length < 0) {
+                return;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer source = segment.duplicate();
+            source.position(offset + HEADER_SIZE);
+            source.get(payload);
+            visitor.accept(AssessmentCodec.decode(payload, 0, length), segment.getLong(offset + 8));
+            offset += HEADER_SIZE + length;
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+import model.RiskAssessment;
+
+// Embedded log-structured store of historical RiskAssessments keyed by (athlete, timestamp); storing a
+// key again replaces its assessment.
+//
+// Writes go to a write-ahead log and a sorted in-memory memtable. When the memtable reaches its size
+// limit it is frozen and a fresh one takes writes while a background thread writes the frozen one to an
+// immutable sorted segment file (see StoreSegment) and deletes its log. Compaction is size-tiered: the
+// same thread merges a run of compactionTrigger or more neighbouring segments of similar size into one,
+// keeping the newest assessment for each key (see compactionWindow). Segments then grow geometrically,
+// so each record is rewritten about log(store size / memtable size) times rather than on every merge.
+//
+// Reads never lock: they take the current (memtable, frozen memtable, segments) state and merge cursors
+// over each source, newest first for equal keys. A scan for one athlete seeks each segment through its
+// sparse index and skips segments whose bloom filter rules the athlete out; a scan over a time range
+// skips segments whose timestamps fall outside it and reads only the blocks that the segment's time
+// index lists for the range. Segments replaced by compaction are deleted once the last scan using them
+// finishes.
+//
+// Log records use AssessmentJournal's framing ([int length][int crc32c][long timestamp][payload]) and are
+// not forced on every write: they survive a process crash but not necessarily a power loss until their
+// memtable has been flushed. On open, leftover logs are replayed into segments and segments already
+// merged into a newer one are deleted.
+public class AssessmentStore implements Closeable {
+    public static final long DEFAULT_MEMTABLE_BYTES = 4L * 1024 * 1024;
+    public static final int DEFAULT_COMPACTION_TRIGGER = 4;
+
+    private static final String LOG_PREFIX = "log-";
+    private static final String LOG_SUFFIX = ".wal";
+    private static final int LOG_HEADER_SIZE = 16;
+    // Rough per-entry overhead of the skip list, key and payload array
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Path directory;
+    private final long memtableBytes;
+    private final int compactionTrigger;
+    private final Object lock = new Object();
+    private final Thread worker;
+
+    // Replaced, never mutated, under lock
+    private volatile State state;
+    // Guarded by lock
+    private long nextGeneration;
+    private IOException failure;
+    private boolean closed;
+    private long compactedBytes;
+
+    // What a reader sees: the memtable taking writes, the one being flushed (or null), and the segments,
+    // oldest first
+    private static final class State {
+        final Memtable active;
+        final Memtable flushing;
+        final StoreSegment[] segments;
+
+        State(Memtable active, Memtable flushing, StoreSegment[] segments) {
+            this.active = active;
+            this.flushing = flushing;
+            this.segments = segments;
+        }
+    }
+
+    private static final class Memtable {
+        final long generation;
+        final ConcurrentSkipListMap<Key, byte[]> entries = new ConcurrentSkipListMap<>();
+        final Path log;
+        // Guarded by the store's lock
+        FileChannel logChannel;
+        long bytes;
+
+        Memtable(long generation, Path log) {
+            this.generation = generation;
+            this.log = log;
+        }
+    }
+
+    static final class Key implements Comparable<Key> {
+        final String name;
+        final long timestamp;
+
+        Key(String name, long timestamp) {
+            this.name = name;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return compare(name, timestamp, other.name, other.timestamp);
+        }
+    }
+
+    // Iterates records in (athlete, timestamp) order. After advance returns true, name, timestamp and
+    // payload describe the current record
+    abstract static class Cursor {
+        static final Cursor EMPTY = new Cursor() {
+            @Override
+            boolean advance() {
+                return false;
+            }
+        };
+
+        String name;
+        long timestamp;
+        byte[] payload;
+
+        abstract boolean advance() throws IOException;
+    }
+
+    static int compare(String name, long timestamp, String otherName, long otherTimestamp) {
+        int order = name.compareTo(otherName);
+        return order != 0 ? order : Long.compare(timestamp, otherTimestamp);
+    }
+
+    // EFFECTS: opens (or creates) the store in directory with the default memtable size and compaction
+    //          trigger
+    public AssessmentStore(Path directory) throws IOException {
+        this(directory, DEFAULT_MEMTABLE_BYTES, DEFAULT_COMPACTION_TRIGGER);
+    }
+
+    // REQUIRES: memtableBytes > 0, compactionTrigger >= 2
+    // EFFECTS: opens (or creates) the store in directory, recovering segments and logs left by an earlier
+    //          run, then starts the flush and compaction thread. A memtable is flushed once it holds about
+    //          memtableBytes, and segments are merged once compactionTrigger neighbours of similar size
+    //          have piled up
+    public AssessmentStore(Path directory, long memtableBytes, int compactionTrigger) throws IOException {
+        if (memtableBytes <= 0 || compactionTrigger < 2) {
+            throw new IllegalArgumentException("Invalid memtable size or compaction trigger");
+        }
+        this.directory = directory;
+        this.memtableBytes = memtableBytes;
+        this.compactionTrigger = compactionTrigger;
+        Files.createDirectories(directory);
+        StoreSegment[] segments = recover();
+        state = new State(newMemtable(), null, segments);
+        worker = new Thread(this::work, "assessment-store-compactor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // REQUIRES: timestamp < Long.MAX_VALUE
+    // MODIFIES: this
+    // EFFECTS: stores assessment under (its athlete, timestamp), replacing any assessment stored there
+    public void put(long timestamp, RiskAssessment assessment) {
+        if (timestamp == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Timestamp out of range");
+        }
+        byte[] payload = AssessmentCodec.encode(assessment);
+        ByteBuffer record = ByteBuffer.allocate(LOG_HEADER_SIZE + payload.length);
+        record.putInt(payload.length).putInt(0).putLong(timestamp).put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), 8, record.capacity() - 8);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        synchronized (lock) {
+            try {
+                Memtable active = writableMemtable();
+                while (record.hasRemaining()) {
+                    active.logChannel.write(record);
+                }
+                active.entries.put(new Key(assessment.getAthleteName(), timestamp), payload);
+                active.bytes += payload.length + ENTRY_OVERHEAD;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Returns the memtable to write to, first freezing a full one (waiting for an earlier flush to finish)
+    private Memtable writableMemtable() throws IOException {
+        while (true) {
+            ensureUsable();
+            State current = state;
+            if (current.active.bytes < memtableBytes) {
+                return current.active;
+            }
+            if (current.flushing == null) {
+                state = new State(newMemtable(), current.active, current.segments);
+                lock.notifyAll();
+                return state.active;
+            }
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for a memtable flush", e);
+            }
+        }
+    }
+
+    private void ensureUsable() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Background flush or compaction failed", failure);
+        }
+    }
+
+    // EFFECTS: returns the assessment stored for (athlete, timestamp), or null
+    public RiskAssessment get(String athlete, long timestamp) throws IOException {
+        RiskAssessment[] found = new RiskAssessment[1];
+        scan(athlete, timestamp, timestamp + 1, (assessment, t) -> found[0] = assessment);
+        return found[0];
+    }
+
+    // EFFECTS: calls visitor with every assessment of athlete whose timestamp is in [from, to), in
+    //          timestamp order
+    public void scanAthlete(String athlete, long from, long to, ObjLongConsumer<RiskAssessment> visitor)
+            throws IOException {
+        scan(athlete, from, to, visitor);
+    }
+
+    // EFFECTS: calls visitor with every assessment whose timestamp is in [from, to), ordered by athlete and
+    //          then timestamp
+    public void scanTimeRange(long from, long to, ObjLongConsumer<RiskAssessment> visitor) throws IOException {
+        scan(null, from, to, visitor);
+    }
+
+    private void scan(String athlete, long from, long to, ObjLongConsumer<RiskAssessment> visitor)
+            throws IOException {
+        if (from >= to) {
+            return;
+        }
+        State current;
+        StoreSegment[] segments;
+        while (true) {
+            current = state;
+            segments = current.segments;
+            int acquired = 0;
+            while (acquired < segments.length && segments[acquired].acquire()) {
+                acquired++;
+            }
+            if (acquired == segments.length) {
+                break;
+            }
+            // Replaced by a compaction since state was read; retry with the new state
+            for (int i = 0; i < acquired; i++) {
+                segments[i].release(true);
+            }
+        }
+        try {
+            List<Cursor> sources = new ArrayList<>();
+            sources.add(memtableCursor(current.active, athlete, from, to));
+            if (current.flushing != null) {
+                sources.add(memtableCursor(current.flushing, athlete, from, to));
+            }
+            for (int i = segments.length - 1; i >= 0; i--) {
+                sources.add(segments[i].cursor(athlete, from, to));
+            }
+            Cursor merged = new MergingCursor(sources);
+            while (merged.advance()) {
+                visitor.accept(AssessmentCodec.decode(merged.payload, 0, merged.payload.length), merged.timestamp);
+            }
+        } finally {
+            for (StoreSegment segment : segments) {
+                segment.release(true);
+            }
+        }
+    }
+
+    private static Cursor memtableCursor(Memtable memtable, String athlete, long from, long to) {
+        ConcurrentNavigableMap<Key, byte[]> range = athlete == null ? memtable.entries
+                : memtable.entries.subMap(new Key(athlete, from), new Key(athlete, to));
+        Iterator<Map.Entry<Key, byte[]>> entries = range.entrySet().iterator();
+        return new Cursor() {
+            @Override
+            boolean advance() {
+                while (entries.hasNext()) {
+                    Map.Entry<Key, byte[]> entry = entries.next();
+                    Key key = entry.getKey();
+                    if (key.timestamp >= from && key.timestamp < to) {
+                        name = key.name;
+                        timestamp = key.timestamp;
+                        payload = entry.getValue();
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    // Merges sources, which are given newest first; of several records with the same key only the one
+    // from the newest source is returned
+    private static final class MergingCursor extends Cursor {
+        private final PriorityQueue<Cursor> heap;
+        private final Map<Cursor, Integer> ages = new IdentityHashMap<>();
+
+        MergingCursor(List<Cursor> sources) throws IOException {
+            heap = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+                int order = compare(a.name, a.timestamp, b.name, b.timestamp);
+                return order != 0 ? order : Integer.compare(ages.get(a), ages.get(b));
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                Cursor source = sources.get(i);
+                ages.put(source, i);
+                if (source.advance()) {
+                    heap.add(source);
+                }
+            }
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            Cursor newest = heap.poll();
+            if (newest == null) {
+                return false;
+            }
+            name = newest.name;
+            timestamp = newest.timestamp;
+            payload = newest.payload;
+            if (newest.advance()) {
+                heap.add(newest);
+            }
+            // Drop older versions of the same key
+            while (!heap.isEmpty() && compare(heap.peek().name, heap.peek().timestamp, name, timestamp) == 0) {
+                Cursor older = heap.poll();
+                if (older.advance()) {
+                    heap.add(older);
+                }
+            }
+            return true;
+        }
+    }
+
+    // EFFECTS: returns the number of segment files
+    public int getSegmentCount() {
+        return state.segments.length;
+    }
+
+    // EFFECTS: returns the number of data blocks in the current segments
+    int getBlockCount() {
+        int blocks = 0;
+        for (StoreSegment segment : state.segments) {
+            blocks += segment.getBlockCount();
+        }
+        return blocks;
+    }
+
+    // EFFECTS: returns the number of data blocks read from the current segments since they were opened
+    long getBlockReads() {
+        long reads = 0;
+        for (StoreSegment segment : state.segments) {
+            reads += segment.getBlockReads();
+        }
+        return reads;
+    }
+
+    // EFFECTS: returns the number of bytes of segments written by compaction since the store was opened
+    long getCompactedBytes() {
+        synchronized (lock) {
+            return compactedBytes;
+        }
+    }
+
+    // EFFECTS: returns true if a memtable is waiting to be flushed or segments are waiting to be merged
+    boolean isCompactionPending() {
+        synchronized (lock) {
+            return failure == null && (state.flushing != null || compactionWindow(state.segments) != null);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything stored so far to segment files and waits until it has been flushed
+    public void flush() throws IOException, InterruptedException {
+        synchronized (lock) {
+            ensureUsable();
+            while (state.flushing != null) {
+                lock.wait();
+                ensureUsable();
+            }
+            if (state.active.entries.isEmpty()) {
+                return;
+            }
+            Memtable frozen = state.active;
+            state = new State(newMemtable(), frozen, state.segments);
+            lock.notifyAll();
+            while (state.flushing == frozen) {
+                lock.wait();
+                ensureUsable();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread and closes the store; unflushed assessments stay in the log
+    //          and are recovered on the next open
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        State last = state;
+        last.active.logChannel.force(false);
+        last.active.logChannel.close();
+        if (last.flushing != null) {
+            last.flushing.logChannel.force(false);
+            last.flushing.logChannel.close();
+        }
+        for (StoreSegment segment : last.segments) {
+            segment.release(false);
+        }
+    }
+
+    // Flushes frozen memtables and merges segments until the store is closed
+    private void work() {
+        while (true) {
+            State current;
+            synchronized (lock) {
+                while (!closed && state.flushing == null && compactionWindow(state.segments) == null) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                current = state;
+            }
+            try {
+                if (current.flushing != null) {
+                    flushMemtable(current.flushing);
+                } else {
+                    compact(current.segments, compactionWindow(current.segments));
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (lock) {
+                    failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private void flushMemtable(Memtable memtable) throws IOException {
+        StoreSegment segment = StoreSegment.write(directory, memtable.generation, memtable.generation,
+                memtable.generation, memtableCursor(memtable, null, Long.MIN_VALUE, Long.MAX_VALUE));
+        synchronized (lock) {
+            State current = state;
+            StoreSegment[] segments = Arrays.copyOf(current.segments, current.segments.length + 1);
+            segments[segments.length - 1] = segment;
+            state = new State(current.active, null, segments);
+            lock.notifyAll();
+            memtable.logChannel.close();
+        }
+        Files.delete(memtable.log);
+    }
+
+    // Returns the positions [first, last] of the segments to merge next, or null if there are none.
+    // Starting from the newest segment, each older neighbour joins the run while it is no larger than the
+    // newer segments in the run together; a run of at least compactionTrigger segments is merged. Only
+    // neighbours are merged, so a merged segment covers a contiguous range of generations and keeps its
+    // place in the age order
+    private int[] compactionWindow(StoreSegment[] segments) {
+        for (int newest = segments.length - 1; newest >= compactionTrigger - 1; newest--) {
+            long runBytes = segments[newest].getSize();
+            int oldest = newest;
+            while (oldest > 0 && segments[oldest - 1].getSize() <= runBytes) {
+                oldest--;
+                runBytes += segments[oldest].getSize();
+            }
+            if (newest - oldest + 1 >= compactionTrigger) {
+                return new int[] {oldest, newest};
+            }
+        }
+        return null;
+    }
+
+    // Merges segments[window[0]..window[1]] into one segment that takes their place. Only this thread
+    // adds or removes segments, so they are still in place when the merge finishes
+    private void compact(StoreSegment[] segments, int[] window) throws IOException {
+        long generation;
+        synchronized (lock) {
+            generation = nextGeneration++;
+        }
+        StoreSegment[] inputs = Arrays.copyOfRange(segments, window[0], window[1] + 1);
+        List<Cursor> sources = new ArrayList<>();
+        for (int i = inputs.length - 1; i >= 0; i--) {
+            sources.add(inputs[i].cursor(null, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        StoreSegment merged = StoreSegment.write(directory, generation, inputs[0].getFirstGeneration(),
+                inputs[inputs.length - 1].getLastGeneration(), new MergingCursor(sources));
+        synchronized (lock) {
+            State current = state;
+            StoreSegment[] remaining = new StoreSegment[segments.length - inputs.length + 1];
+            System.arraycopy(segments, 0, remaining, 0, window[0]);
+            remaining[window[0]] = merged;
+            System.arraycopy(segments, window[1] + 1, remaining, window[0] + 1, segments.length - window[1] - 1);
+            state = new State(current.active, current.flushing, remaining);
+            compactedBytes += merged.getSize();
+            lock.notifyAll();
+        }
+        for (StoreSegment input : inputs) {
+            input.release(true);
+        }
+    }
+
+    // Guarded by lock (or called before the store is shared)
+    private Memtable newMemtable() throws IOException {
+        long generation = nextGeneration++;
+        Memtable memtable = new Memtable(generation, directory.resolve(logName(generation)));
+        memtable.logChannel = FileChannel.open(memtable.log, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        return memtable;
+    }
+
+    private static String logName(long generation) {
+        return String.format("%s%016d%s", LOG_PREFIX, generation, LOG_SUFFIX);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the segments in directory, deleting those merged into another and unfinished
+    //          temporary files, replays leftover logs into new segments, and returns the segments oldest
+    //          first
+    private StoreSegment[] recover() throws IOException {
+        List<StoreSegment> segments = new ArrayList<>();
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(StoreSegment.PREFIX) && name.endsWith(".tmp")) {
+                    Files.delete(file);
+                } else if (name.startsWith(StoreSegment.PREFIX) && name.endsWith(StoreSegment.SUFFIX)) {
+                    segments.add(StoreSegment.open(file));
+                    nextGeneration = Math.max(nextGeneration, generationOf(name, StoreSegment.PREFIX,
+                            StoreSegment.SUFFIX) + 1);
+                } else if (name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX)) {
+                    logs.add(file);
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(a.getLastGeneration(), b.getLastGeneration()));
+        List<StoreSegment> live = new ArrayList<>();
+        for (StoreSegment segment : segments) {
+            // A crash after a merge but before its inputs were deleted leaves both
+            boolean merged = false;
+            for (StoreSegment other : segments) {
+                merged |= other != segment && other.covers(segment) && !segment.covers(other);
+            }
+            if (merged) {
+                segment.release(true);
+            } else {
+                live.add(segment);
+            }
+        }
+
+        logs.sort(null);
+        long flushedUpTo = live.isEmpty() ? -1 : live.get(live.size() - 1).getLastGeneration();
+        for (Path log : logs) {
+            long generation = generationOf(log.getFileName().toString(), LOG_PREFIX, LOG_SUFFIX);
+            nextGeneration = Math.max(nextGeneration, generation + 1);
+            if (generation > flushedUpTo) {
+                Memtable memtable = new Memtable(generation, log);
+                replayLog(log, memtable);
+                if (!memtable.entries.isEmpty()) {
+                    live.add(StoreSegment.write(directory, generation, generation, generation,
+                            memtableCursor(memtable, null, Long.MIN_VALUE, Long.MAX_VALUE)));
+                }
+            }
+            // Either flushed before the crash or just now
+            Files.delete(log);
+        }
+        return live.toArray(new StoreSegment[0]);
+    }
+
+    private static long generationOf(String fileName, String prefix, String suffix) {
+        return Long.parseLong(fileName.substring(prefix.length(), fileName.length() - suffix.length()));
+    }
+
+    // Reads the log's records into memtable, stopping at the first torn or corrupt one
+    private static void replayLog(Path log, Memtable memtable) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(log));
+        while (bytes.remaining() >= LOG_HEADER_SIZE) {
+            int start = bytes.position();
+            int length = bytes.getInt(start);
+            if (length <= 0 || length > bytes.remaining() - LOG_HEADER_SIZE) {
+                return;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(bytes.array(), start + 8, length + 8);
+            if ((int) crc.getValue() != bytes.getInt(start + 4)) {
+                return;
+            }
+            long timestamp = bytes.getLong(start + 8);
+            byte[] payload = Arrays.copyOfRange(bytes.array(), start + LOG_HEADER_SIZE,
+                    start + LOG_HEADER_SIZE + length);
+            RiskAssessment assessment = AssessmentCodec.decode(payload, 0, length);
+            memtable.entries.put(new Key(assessment.getAthleteName(), timestamp), payload);
+            bytes.position(start + LOG_HEADER_SIZE + length);
+        }
+    }
+}
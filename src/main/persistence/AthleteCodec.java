@@ -0,0 +1,63 @@
+package persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Athlete;
+import model.BiomechanicalData;
+import model.BiomechanicalField;
+
+// Binary encoding of an Athlete: name, age, a byte of flags (female, family history, previous right and
+// left injury), sport, height, weight and the twelve measurements in BiomechanicalField order
+public final class AthleteCodec {
+    private static final int FEMALE = 1;
+    private static final int FAMILY_HISTORY = 2;
+    private static final int PREV_INJURY_RIGHT = 4;
+    private static final int PREV_INJURY_LEFT = 8;
+
+    private AthleteCodec() {
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes athlete to out
+    public static void encode(Athlete athlete, DataOutput out) throws IOException {
+        out.writeUTF(athlete.getName());
+        out.writeInt(athlete.getAge());
+        int flags = (athlete.getGender() ? FEMALE : 0)
+                | (athlete.hasFamilyHistory() ? FAMILY_HISTORY : 0)
+                | (athlete.hasPrevInjuryR() ? PREV_INJURY_RIGHT : 0)
+                | (athlete.hasPrevInjuryL() ? PREV_INJURY_LEFT : 0);
+        out.writeByte(flags);
+        out.writeUTF(athlete.getSport());
+        out.writeDouble(athlete.getHeight());
+        out.writeDouble(athlete.getWeight());
+        BiomechanicalData data = athlete.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            out.writeDouble(field.get(data));
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads one athlete written by encode
+    public static Athlete decode(DataInput in) throws IOException {
+        String name = in.readUTF();
+        int age = in.readInt();
+        int flags = in.readUnsignedByte();
+        String sport = in.readUTF();
+        double height = in.readDouble();
+        double weight = in.readDouble();
+        List<Boolean> history = new ArrayList<>(3);
+        history.add((flags & FAMILY_HISTORY) != 0);
+        history.add((flags & PREV_INJURY_RIGHT) != 0);
+        history.add((flags & PREV_INJURY_LEFT) != 0);
+        Athlete athlete = new Athlete(name, age, (flags & FEMALE) != 0, sport, height, weight, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            field.set(data, in.readDouble());
+        }
+        return athlete;
+    }
+}
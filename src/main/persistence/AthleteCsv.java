@@ -0,0 +1,153 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Athlete;
+import model.BiomechanicalData;
+import model.BiomechanicalField;
+
+// CSV format for athlete files: one athlete per line with demographics, history flags and the twelve
+// biomechanical measurements in BiomechanicalField order. Fields containing commas or quotes are quoted.
+public final class AthleteCsv {
+    public static final String HEADER = buildHeader();
+
+    // Columns before the biomechanical measurements
+    private static final int FIXED_COLUMNS = 9;
+    private static final int COLUMNS = FIXED_COLUMNS + BiomechanicalField.COUNT;
+
+    private AthleteCsv() {
+    }
+
+    private static String buildHeader() {
+        StringBuilder header = new StringBuilder(
+                "name,age,female,sport,height,weight,familyHistory,prevInjuryRight,prevInjuryLeft");
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            header.append(',').append(field.getPropertyName());
+        }
+        return header.toString();
+    }
+
+    // EFFECTS: returns true if line is the header row (ignoring a byte-order mark, surrounding whitespace and
+    //          case); only the first line of a file should be tested, so an athlete named "name" is data
+    public static boolean isHeader(String line) {
+        String trimmed = line.startsWith("\uFEFF") ? line.substring(1).trim() : line.trim();
+        return trimmed.equalsIgnoreCase(HEADER);
+    }
+
+    // EFFECTS: parses one data line into an athlete; throws IllegalArgumentException if it is malformed
+    public static Athlete parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException(new StringBuilder("Expected ").append(COLUMNS)
+                    .append(" columns but found ").append(fields.size()).toString());
+        }
+        try {
+            List<Boolean> history = new ArrayList<>(3);
+            history.add(parseBoolean("familyHistory", fields.get(6)));
+            history.add(parseBoolean("prevInjuryRight", fields.get(7)));
+            history.add(parseBoolean("prevInjuryLeft", fields.get(8)));
+            Athlete athlete = new Athlete(fields.get(0), Integer.parseInt(fields.get(1)),
+                    parseBoolean("female", fields.get(2)), fields.get(3), Double.parseDouble(fields.get(4)),
+                    Double.parseDouble(fields.get(5)), history);
+            BiomechanicalData data = athlete.getBioMechData();
+            for (BiomechanicalField field : BiomechanicalField.values()) {
+                field.set(data, Double.parseDouble(fields.get(FIXED_COLUMNS + field.ordinal())));
+            }
+            return athlete;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: ".concat(String.valueOf(e.getMessage())), e);
+        }
+    }
+
+    // EFFECTS: returns value as a boolean; only true and false (in any case) are accepted, so a "yes" or "1"
+    //          is reported rather than read as false
+    private static boolean parseBoolean(String column, String value) {
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) {
+            return true;
+        } else if (trimmed.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(new StringBuilder("Invalid boolean for ").append(column).append(": ")
+                .append(value).append(" (expected true or false)").toString());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends athlete as one CSV line (without a line terminator) to out
+    public static void format(Athlete athlete, StringBuilder out) {
+        appendField(athlete.getName(), out);
+        out.append(',').append(athlete.getAge())
+           .append(',').append(athlete.getGender())
+           .append(',');
+        appendField(athlete.getSport(), out);
+        out.append(',').append(athlete.getHeight())
+           .append(',').append(athlete.getWeight())
+           .append(',').append(athlete.hasFamilyHistory())
+           .append(',').append(athlete.hasPrevInjuryR())
+           .append(',').append(athlete.hasPrevInjuryL());
+        BiomechanicalData data = athlete.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            out.append(',');
+            if (field == BiomechanicalField.SINGLE_LEG_BALANCE_TIME) {
+                out.append(data.getSingleLegBalanceTime());
+            } else {
+                out.append(field.get(data));
+            }
+        }
+    }
+
+    // EFFECTS: returns athlete as one CSV line
+    public static String format(Athlete athlete) {
+        StringBuilder out = new StringBuilder(160);
+        format(athlete, out);
+        return out.toString();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends value to out, quoting it if it contains a comma or quote
+    static void appendField(String value, StringBuilder out) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    // EFFECTS: splits a CSV line into fields, honouring quoted fields with doubled quotes
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
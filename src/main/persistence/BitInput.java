@@ -0,0 +1,38 @@
+package persistence;
+
+// Big-endian bit reader over a byte range, the counterpart of BitOutput
+final class BitInput {
+    private final byte[] bytes;
+    private final int end;
+    private int position;    // next byte to load
+    private long accumulator;
+    private int available;   // bits held in accumulator
+
+    BitInput(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    // REQUIRES: 0 <= count <= 64
+    // EFFECTS: reads the next count bits as an unsigned value; throws IllegalStateException past the end
+    long read(int count) {
+        if (count > 56) {
+            long high = read(count - 32);
+            return (high << 32) | read(32);
+        }
+        while (available < count) {
+            if (position >= end) {
+                throw new IllegalStateException("Read past the end of a compressed column");
+            }
+            accumulator = (accumulator << 8) | (bytes[position++] & 0xFF);
+            available += 8;
+        }
+        available -= count;
+        return count == 0 ? 0 : (accumulator >>> available) & ((1L << count) - 1);
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
@@ -0,0 +1,68 @@
+package persistence;
+
+import java.util.Arrays;
+
+// Growable big-endian bit buffer used by the session column encoders
+final class BitOutput {
+    private byte[] bytes;
+    private long accumulator;
+    private int pending;     // bits held in accumulator, always < 8 between calls
+    private int length;      // complete bytes in bytes
+
+    BitOutput(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    // REQUIRES: 0 <= count <= 64
+    // MODIFIES: this
+    // EFFECTS: appends the low count bits of value, most significant first
+    void write(long value, int count) {
+        if (count > 56) {
+            write(value >>> 32, count - 32);
+            write(value, 32);
+            return;
+        }
+        if (count == 0) {
+            return;
+        }
+        long bits = count == 64 ? value : value & ((1L << count) - 1);
+        accumulator = (accumulator << count) | bits;
+        pending += count;
+        while (pending >= 8) {
+            pending -= 8;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) (accumulator >>> pending);
+        }
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pads the last byte with zero bits
+    void flush() {
+        if (pending > 0) {
+            write(0, 8 - pending);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards everything written
+    void reset() {
+        accumulator = 0;
+        pending = 0;
+        length = 0;
+    }
+
+    byte[] buffer() {
+        return bytes;
+    }
+
+    // EFFECTS: returns the number of complete bytes written
+    int length() {
+        return length;
+    }
+}
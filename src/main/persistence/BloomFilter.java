@@ -0,0 +1,92 @@
+package persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+// Bloom filter over strings, stored in AssessmentStore segments so a lookup for an athlete can skip
+// segments that certainly do not hold them. Probes are derived from one 64-bit hash by double hashing.
+final class BloomFilter {
+    private static final int BITS_PER_KEY = 10;
+    // About ln 2 * BITS_PER_KEY, which minimizes the false-positive rate (~1%)
+    private static final int PROBES = 7;
+
+    private final long[] bits;
+    private final int probes;
+
+    private BloomFilter(long[] bits, int probes) {
+        this.bits = bits;
+        this.probes = probes;
+    }
+
+    // EFFECTS: returns a filter containing every key in keys
+    static BloomFilter of(List<String> keys) {
+        long size = Math.max(64L, (long) keys.size() * BITS_PER_KEY);
+        BloomFilter filter = new BloomFilter(new long[(int) ((size + 63) >>> 6)], PROBES);
+        for (String key : keys) {
+            filter.add(key);
+        }
+        return filter;
+    }
+
+    private void add(String key) {
+        long hash = hash(key);
+        long size = (long) bits.length << 6;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % size;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    // EFFECTS: returns false if key was certainly not added, true if it probably was
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        long size = (long) bits.length << 6;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % size;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the characters, then a finalizer so both halves are well mixed
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeByte(probes);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter read(DataInput in) throws IOException {
+        int probes = in.readByte();
+        int words = in.readInt();
+        if (probes <= 0 || words <= 0) {
+            throw new IOException("Corrupt bloom filter");
+        }
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits, probes);
+    }
+}
@@ -0,0 +1,275 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import model.Athlete;
+import model.BiomechanicalData;
+import model.BiomechanicalField;
+import model.RosterGenerator;
+
+// Writes synthetic rosters straight to disk for load and soak tests. The roster is cut into batches that
+// worker threads generate and encode into byte arrays in parallel; the calling thread writes the encoded
+// batches to a FileChannel strictly in roster order, keeping only a few batches in flight, so the output
+// is identical for a given seed whatever the thread count. Formats:
+//   CSV    - the AthleteCsv format (header row, one athlete per line), readable by batch mode
+//   JSON   - one array of athlete objects whose keys are the CSV column names
+//   BINARY - int MAGIC, long athlete count, then one AthleteCodec record per athlete
+public final class RosterWriter {
+    static final int MAGIC = 0x41434C52;   // "ACLR"
+    static final int BATCH_SIZE = 8192;
+
+    public enum Format {
+        CSV, JSON, BINARY
+    }
+
+    private static final String[] JSON_KEYS = AthleteCsv.HEADER.split(",");
+
+    private RosterWriter() {
+    }
+
+    // Usage: java persistence.RosterWriter <count> <csv|json|binary> <output> [seed] [threads]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 5) {
+            System.err.println("Usage: java persistence.RosterWriter <count> <csv|json|binary> <output> "
+                    + "[seed] [threads]");
+            System.exit(2);
+        }
+        long count = Long.parseLong(args[0]);
+        Format format = Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        long bytes = write(new RosterGenerator(seed), count, format, Paths.get(args[2]), threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d athletes (%d bytes) in %.1f s, %.0f MB/s%n", count, bytes, seconds,
+                bytes / seconds / 1e6);
+    }
+
+    // REQUIRES: count >= 0, threads > 0
+    // MODIFIES: generator
+    // EFFECTS: writes the next count athletes of generator's roster to path in format, using threads
+    //          worker threads, and returns the number of bytes written
+    public static long write(RosterGenerator generator, long count, Format format, Path path, int threads)
+            throws IOException {
+        if (count < 0 || threads <= 0) {
+            throw new IllegalArgumentException("Count must not be negative and threads must be positive");
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "roster-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = writeFully(channel, header(format, count));
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            long remaining = count;
+            boolean first = true;
+            while (remaining > 0) {
+                RosterGenerator.Batch batch = generator.nextBatch((int) Math.min(BATCH_SIZE, remaining));
+                remaining -= batch.size();
+                boolean leading = first;
+                pending.addLast(workers.submit(() -> encode(batch, format, leading)));
+                first = false;
+                // Two batches per worker keep every worker busy while this thread writes
+                if (pending.size() >= 2 * threads) {
+                    written += writeFully(channel, await(pending.removeFirst()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                written += writeFully(channel, await(pending.removeFirst()));
+            }
+            if (format == Format.JSON) {
+                written += writeFully(channel, (count == 0 ? "]\n" : "\n]\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return written;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // MODIFIES: sink
+    // EFFECTS: passes every athlete of the binary roster at path to sink, in order, and returns how many
+    //          there were; throws IOException if the file is not a binary roster
+    public static long readBinary(Path path, Consumer<Athlete> sink) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a binary roster");
+            }
+            long count = in.readLong();
+            for (long i = 0; i < count; i++) {
+                sink.accept(AthleteCodec.decode(in));
+            }
+            return count;
+        }
+    }
+
+    private static byte[] header(Format format, long count) {
+        switch (format) {
+            case CSV:
+                return (AthleteCsv.HEADER + "\n").getBytes(StandardCharsets.UTF_8);
+            case JSON:
+                return "[".getBytes(StandardCharsets.UTF_8);
+            default:
+                return ByteBuffer.allocate(12).putInt(MAGIC).putLong(count).array();
+        }
+    }
+
+    // EFFECTS: generates batch and returns its encoding in format; leading is true for the roster's
+    //          first batch
+    static byte[] encode(RosterGenerator.Batch batch, Format format, boolean leading) throws IOException {
+        if (format == Format.BINARY) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 160);
+            DataOutputStream out = new DataOutputStream(bytes);
+            while (batch.hasNext()) {
+                AthleteCodec.encode(batch.next(), out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+        StringBuilder text = new StringBuilder(batch.size() * (format == Format.JSON ? 560 : 200));
+        boolean first = leading;
+        while (batch.hasNext()) {
+            Athlete athlete = batch.next();
+            if (format == Format.CSV) {
+                appendCsv(athlete, text);
+                text.append('\n');
+            } else {
+                text.append(first ? "\n" : ",\n");
+                appendJson(athlete, text);
+            }
+            first = false;
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends athlete as an AthleteCsv line, formatting numbers with appendNumber
+    static void appendCsv(Athlete athlete, StringBuilder out) {
+        AthleteCsv.appendField(athlete.getName(), out);
+        out.append(',').append(athlete.getAge()).append(',').append(athlete.getGender()).append(',');
+        AthleteCsv.appendField(athlete.getSport(), out);
+        out.append(',');
+        appendNumber(athlete.getHeight(), out);
+        out.append(',');
+        appendNumber(athlete.getWeight(), out);
+        out.append(',').append(athlete.hasFamilyHistory())
+           .append(',').append(athlete.hasPrevInjuryR())
+           .append(',').append(athlete.hasPrevInjuryL());
+        BiomechanicalData data = athlete.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            out.append(',');
+            if (field == BiomechanicalField.SINGLE_LEG_BALANCE_TIME) {
+                out.append(data.getSingleLegBalanceTime());
+            } else {
+                appendNumber(field.get(data), out);
+            }
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends athlete as a JSON object keyed by the AthleteCsv column names
+    static void appendJson(Athlete athlete, StringBuilder out) {
+        out.append("{\"").append(JSON_KEYS[0]).append("\":");
+        appendJsonString(athlete.getName(), out);
+        out.append(",\"").append(JSON_KEYS[1]).append("\":").append(athlete.getAge());
+        out.append(",\"").append(JSON_KEYS[2]).append("\":").append(athlete.getGender());
+        out.append(",\"").append(JSON_KEYS[3]).append("\":");
+        appendJsonString(athlete.getSport(), out);
+        out.append(",\"").append(JSON_KEYS[4]).append("\":");
+        appendNumber(athlete.getHeight(), out);
+        out.append(",\"").append(JSON_KEYS[5]).append("\":");
+        appendNumber(athlete.getWeight(), out);
+        out.append(",\"").append(JSON_KEYS[6]).append("\":").append(athlete.hasFamilyHistory());
+        out.append(",\"").append(JSON_KEYS[7]).append("\":").append(athlete.hasPrevInjuryR());
+        out.append(",\"").append(JSON_KEYS[8]).append("\":").append(athlete.hasPrevInjuryL());
+        BiomechanicalData data = athlete.getBioMechData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            out.append(",\"").append(field.getPropertyName()).append("\":");
+            double value = field.get(data);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                // JSON has no literal for these
+                out.append("null");
+            } else {
+                appendNumber(value, out);
+            }
+        }
+        out.append('}');
+    }
+
+    private static void appendJsonString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends value so that Double.parseDouble reads back exactly value; values with at most two
+    //          decimals (all generated measurements) are written directly as fixed-point digits, which is
+    //          several times faster than Double.toString
+    static void appendNumber(double value, StringBuilder out) {
+        long hundredths = Math.round(value * 100.0);
+        if (Math.abs(value) >= 1e12 || hundredths / 100.0 != value
+                || (hundredths == 0 && Double.doubleToRawLongBits(value) != 0L)) {
+            out.append(value);
+            return;
+        }
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        out.append(hundredths / 100).append('.').append((char) ('0' + hundredths / 10 % 10));
+        if (hundredths % 10 != 0) {
+            out.append((char) ('0' + hundredths % 10));
+        }
+    }
+
+    private static byte[] await(Future<byte[]> encoded) throws IOException {
+        try {
+            return encoded.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing roster", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not encode roster batch", e.getCause());
+        }
+    }
+
+    private static long writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return bytes.length;
+    }
+}
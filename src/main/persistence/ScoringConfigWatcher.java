@@ -0,0 +1,136 @@
+package persistence;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import model.ScoringConfig;
+
+// Loads a ScoringConfig from a properties file (see ScoringConfig for the keys) and reloads it whenever
+// the file is modified or replaced, handing each new configuration to a listener, typically
+// RiskAnalyzer::setConfig, which publishes it to analysis threads with one volatile write. The file's
+// directory is watched by a WatchService on a daemon thread. A file that fails to load, e.g. one caught
+// half-written, is skipped: the previous configuration stays in effect, the error is kept for
+// getLastError, and the next change event tries again. A listener that throws while taking a reloaded
+// configuration is reported the same way and on System.err; the watcher keeps running. A partly written
+// file can still parse (an empty file is the default configuration), so update the file by writing a
+// temporary copy and moving it over the original.
+public class ScoringConfigWatcher implements Closeable {
+    private final Path file;
+    private final Consumer<ScoringConfig> listener;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private volatile ScoringConfig config;
+    private volatile Exception lastError;
+
+    // EFFECTS: loads file, passes the configuration to listener and starts watching for changes; throws
+    //          IOException if the file cannot be read or does not hold a valid configuration
+    public ScoringConfigWatcher(Path file, Consumer<ScoringConfig> listener) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.listener = listener;
+        this.config = load(this.file);
+        listener.accept(config);
+        this.watchService = this.file.getFileSystem().newWatchService();
+        try {
+            this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.watcher = new Thread(this::watch, "scoring-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    // EFFECTS: returns the configuration in file; throws IOException if it cannot be read or is invalid
+    public static ScoringConfig load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        try {
+            return ScoringConfig.fromProperties(properties);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the file again and passes it to the listener if it differs from the current
+    //          configuration; returns false (keeping the current configuration) if it cannot be loaded,
+    //          and also if the listener throws, in which case the new configuration counts as delivered
+    public synchronized boolean reload() {
+        ScoringConfig loaded;
+        try {
+            loaded = load(file);
+        } catch (IOException e) {
+            lastError = e;
+            return false;
+        }
+        lastError = null;
+        if (!loaded.equals(config)) {
+            config = loaded;
+            try {
+                listener.accept(loaded);
+            } catch (RuntimeException e) {
+                lastError = e;
+                System.err.println("Scoring configuration listener failed: ".concat(String.valueOf(e)));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the configuration most recently passed to the listener
+    public ScoringConfig getConfig() {
+        return config;
+    }
+
+    // EFFECTS: returns why the latest reload failed, or null if it succeeded
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // Lost events (OVERFLOW) may have included this file
+                changed |= event.kind() == OVERFLOW || file.getFileName().equals(event.context());
+            }
+            if (changed) {
+                reload();
+            }
+            if (!key.reset()) {
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching; the last configuration stays with the listener
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        watcher.interrupt();
+    }
+}
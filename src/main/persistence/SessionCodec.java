@@ -0,0 +1,176 @@
+package persistence;
+
+// Column compression for session data, after Facebook's Gorilla time-series format:
+//   timestamps: the first is stored whole, the second as a delta, and the rest as the change between
+//               successive deltas in a variable-width bucket, so a steady sample rate costs one bit
+//   values:     each double is XORed with the previous one; identical values cost one bit, and
+//               otherwise only the meaningful (non-zero) bits of the XOR are stored, reusing the
+//               previous leading/trailing-zero window when it still fits
+// Each encoder starts from scratch, so every chunk of a session can be decoded on its own.
+final class SessionCodec {
+
+    private SessionCodec() {
+    }
+
+    static final class TimestampEncoder {
+        private final BitOutput out;
+        private int count;
+        private long previous;
+        private long previousDelta;
+
+        TimestampEncoder(BitOutput out) {
+            this.out = out;
+        }
+
+        void add(long timestamp) {
+            if (count == 0) {
+                out.write(timestamp, 64);
+            } else if (count == 1) {
+                previousDelta = timestamp - previous;
+                out.write(previousDelta, 64);
+            } else {
+                long delta = timestamp - previous;
+                long deltaOfDelta = delta - previousDelta;
+                previousDelta = delta;
+                if (deltaOfDelta == 0) {
+                    out.write(0b0, 1);
+                } else if (fits(deltaOfDelta, 7)) {
+                    out.write(0b10, 2);
+                    out.write(deltaOfDelta, 7);
+                } else if (fits(deltaOfDelta, 9)) {
+                    out.write(0b110, 3);
+                    out.write(deltaOfDelta, 9);
+                } else if (fits(deltaOfDelta, 12)) {
+                    out.write(0b1110, 4);
+                    out.write(deltaOfDelta, 12);
+                } else {
+                    out.write(0b1111, 4);
+                    out.write(deltaOfDelta, 64);
+                }
+            }
+            previous = timestamp;
+            count++;
+        }
+    }
+
+    static final class TimestampDecoder {
+        private final BitInput in;
+        private int count;
+        private long previous;
+        private long previousDelta;
+
+        TimestampDecoder(BitInput in) {
+            this.in = in;
+        }
+
+        long next() {
+            if (count == 0) {
+                previous = in.read(64);
+            } else if (count == 1) {
+                previousDelta = in.read(64);
+                previous += previousDelta;
+            } else {
+                long deltaOfDelta;
+                if (!in.readBit()) {
+                    deltaOfDelta = 0;
+                } else if (!in.readBit()) {
+                    deltaOfDelta = signExtend(in.read(7), 7);
+                } else if (!in.readBit()) {
+                    deltaOfDelta = signExtend(in.read(9), 9);
+                } else if (!in.readBit()) {
+                    deltaOfDelta = signExtend(in.read(12), 12);
+                } else {
+                    deltaOfDelta = in.read(64);
+                }
+                previousDelta += deltaOfDelta;
+                previous += previousDelta;
+            }
+            count++;
+            return previous;
+        }
+    }
+
+    static final class ValueEncoder {
+        private final BitOutput out;
+        private boolean first = true;
+        private long previous;
+        private int leading = Integer.MAX_VALUE;
+        private int trailing;
+
+        ValueEncoder(BitOutput out) {
+            this.out = out;
+        }
+
+        void add(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (first) {
+                out.write(bits, 64);
+                first = false;
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    out.write(0b0, 1);
+                } else {
+                    int newLeading = Math.min(31, Long.numberOfLeadingZeros(xor));
+                    int newTrailing = Long.numberOfTrailingZeros(xor);
+                    if (leading != Integer.MAX_VALUE && newLeading >= leading && newTrailing >= trailing) {
+                        // Meaningful bits fit in the previous window
+                        out.write(0b10, 2);
+                        out.write(xor >>> trailing, 64 - leading - trailing);
+                    } else {
+                        leading = newLeading;
+                        trailing = newTrailing;
+                        int meaningful = 64 - leading - trailing;
+                        out.write(0b11, 2);
+                        out.write(leading, 5);
+                        // 64 meaningful bits are stored as 0
+                        out.write(meaningful & 63, 6);
+                        out.write(xor >>> trailing, meaningful);
+                    }
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    static final class ValueDecoder {
+        private final BitInput in;
+        private boolean first = true;
+        private long previous;
+        private int leading;
+        private int trailing;
+
+        ValueDecoder(BitInput in) {
+            this.in = in;
+        }
+
+        double next() {
+            if (first) {
+                previous = in.read(64);
+                first = false;
+            } else if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.read(5);
+                    int meaningful = (int) in.read(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                int meaningful = 64 - leading - trailing;
+                previous ^= in.read(meaningful) << trailing;
+            }
+            return Double.longBitsToDouble(previous);
+        }
+    }
+
+    private static boolean fits(long value, int bits) {
+        long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+}
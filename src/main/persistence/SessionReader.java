@@ -0,0 +1,190 @@
+package persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streams a session written by SessionWriter one sample at a time. Only the current chunk's compressed
+// columns are held in memory and samples are decoded as the cursor advances, so a long session can be
+// fed to processing code without decompressing it. Channels that were not selected are skipped on disk.
+public class SessionReader implements Closeable {
+    private final FileChannel channel;
+    private final String athleteName;
+    private final String[] channels;
+    private final boolean[] selected;
+    private final ByteBuffer chunkHeader;
+    private final double[] values;
+    private final byte[][] columnBytes;
+
+    private SessionCodec.TimestampDecoder timeDecoder;
+    private SessionCodec.ValueDecoder[] valueDecoders;
+    private int remainingInChunk;
+    private long timestamp;
+
+    // EFFECTS: opens the session at path, decoding every channel
+    public SessionReader(Path path) throws IOException {
+        this(path, new String[0]);
+    }
+
+    // EFFECTS: opens the session at path, decoding only the named channels (all of them if none are
+    //          named); throws IOException if the file is not a session file and IllegalArgumentException
+    //          if a named channel does not exist
+    public SessionReader(Path path, String... selectedChannels) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer start = ByteBuffer.allocate(8);
+            readFully(start);
+            if (start.getInt() != SessionWriter.MAGIC) {
+                throw new IOException(path + " is not a session file");
+            }
+            int headerLength = start.getInt();
+            if (headerLength < 0 || headerLength > channel.size()) {
+                throw new IOException(path + " has a corrupt session header");
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerLength);
+            readFully(header);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.array()));
+            int version = in.readInt();
+            if (version != SessionWriter.VERSION) {
+                throw new IOException("Unsupported session file version " + version);
+            }
+            athleteName = in.readUTF();
+            channels = new String[in.readInt()];
+            for (int c = 0; c < channels.length; c++) {
+                channels[c] = in.readUTF();
+            }
+            selected = new boolean[channels.length];
+            for (String name : selectedChannels) {
+                selected[indexOf(name)] = true;
+            }
+            if (selectedChannels.length == 0) {
+                Arrays.fill(selected, true);
+            }
+            chunkHeader = ByteBuffer.allocate(4 * (channels.length + 2));
+            values = new double[channels.length];
+            Arrays.fill(values, Double.NaN);
+            columnBytes = new byte[channels.length + 1][];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String getAthleteName() {
+        return athleteName;
+    }
+
+    // EFFECTS: returns the channel names in file order
+    public String[] getChannels() {
+        return channels.clone();
+    }
+
+    // EFFECTS: returns the index of the named channel; throws IllegalArgumentException if there is none
+    public int indexOf(String channelName) {
+        for (int c = 0; c < channels.length; c++) {
+            if (channels[c].equals(channelName)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("No channel named " + channelName);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances to the next sample and returns true, or returns false at the end of the session
+    public boolean next() throws IOException {
+        if (remainingInChunk == 0 && !loadChunk()) {
+            return false;
+        }
+        timestamp = timeDecoder.next();
+        for (int c = 0; c < channels.length; c++) {
+            if (valueDecoders[c] != null) {
+                values[c] = valueDecoders[c].next();
+            }
+        }
+        remainingInChunk--;
+        return true;
+    }
+
+    // EFFECTS: returns the timestamp of the current sample
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // EFFECTS: returns the current sample's value on channel (index in file order), or NaN if the
+    //          channel was not selected
+    public double getValue(int channel) {
+        return values[channel];
+    }
+
+    // EFFECTS: reads the next chunk's columns, skipping unselected ones; returns false at end of file
+    private boolean loadChunk() throws IOException {
+        chunkHeader.clear();
+        int read = readUpTo(chunkHeader);
+        if (read == 0) {
+            return false;
+        }
+        if (chunkHeader.hasRemaining()) {
+            throw new EOFException("Truncated session chunk header");
+        }
+        chunkHeader.flip();
+        remainingInChunk = chunkHeader.getInt();
+        int[] lengths = new int[channels.length + 1];
+        for (int c = 0; c < lengths.length; c++) {
+            lengths[c] = chunkHeader.getInt();
+        }
+
+        valueDecoders = new SessionCodec.ValueDecoder[channels.length];
+        for (int c = 0; c < lengths.length; c++) {
+            boolean wanted = c == 0 || selected[c - 1];
+            if (!wanted) {
+                channel.position(channel.position() + lengths[c]);
+                continue;
+            }
+            if (columnBytes[c] == null || columnBytes[c].length < lengths[c]) {
+                columnBytes[c] = new byte[lengths[c]];
+            }
+            ByteBuffer column = ByteBuffer.wrap(columnBytes[c], 0, lengths[c]);
+            readFully(column);
+            BitInput bits = new BitInput(columnBytes[c], 0, lengths[c]);
+            if (c == 0) {
+                timeDecoder = new SessionCodec.TimestampDecoder(bits);
+            } else {
+                valueDecoders[c - 1] = new SessionCodec.ValueDecoder(bits);
+            }
+        }
+        return true;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        readUpTo(buffer);
+        if (buffer.hasRemaining()) {
+            throw new EOFException("Truncated session file");
+        }
+        buffer.flip();
+    }
+
+    // EFFECTS: reads until buffer is full or the file ends; returns the number of bytes read
+    private int readUpTo(ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,138 @@
+package persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes a raw measurement session (IMU or force-plate samples: a timestamp and one value per channel)
+// to a compressed columnar file. Samples are buffered into chunks; each chunk stores the timestamp
+// column and every channel column separately, compressed with SessionCodec, behind a small header of
+// column lengths, so a SessionReader can decode chunk by chunk and skip channels it does not need.
+// File layout:
+//   int MAGIC, int header length, header (athlete name, channel names, chunk size)
+//   per chunk: int sample count, int byte length of each column (timestamps first), column bytes
+public class SessionWriter implements Closeable {
+    static final int MAGIC = 0x41434C53;   // "ACLS"
+    static final int VERSION = 1;
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final FileChannel channel;
+    private final int channelCount;
+    private final int chunkSize;
+    private final long[] timestamps;
+    private final double[][] columns;
+    private final BitOutput[] encoded;
+    private int buffered;
+    private long sampleCount;
+
+    public SessionWriter(Path path, String athleteName, String[] channels) throws IOException {
+        this(path, athleteName, channels, DEFAULT_CHUNK_SIZE);
+    }
+
+    // REQUIRES: channels is not empty, chunkSize > 0
+    // EFFECTS: creates (or truncates) the session file at path and writes its header
+    public SessionWriter(Path path, String athleteName, String[] channels, int chunkSize) throws IOException {
+        if (channels.length == 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("A session needs at least one channel and a positive chunk size");
+        }
+        this.channelCount = channels.length;
+        this.chunkSize = chunkSize;
+        this.timestamps = new long[chunkSize];
+        this.columns = new double[channels.length][chunkSize];
+        this.encoded = new BitOutput[channels.length + 1];
+        for (int c = 0; c < encoded.length; c++) {
+            encoded[c] = new BitOutput(chunkSize * 2);
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(header)) {
+            out.writeInt(VERSION);
+            out.writeUTF(athleteName);
+            out.writeInt(channels.length);
+            for (String name : channels) {
+                out.writeUTF(name);
+            }
+            out.writeInt(chunkSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer start = ByteBuffer.allocate(8 + header.size());
+        start.putInt(MAGIC).putInt(header.size()).put(header.toByteArray()).flip();
+        writeFully(start);
+    }
+
+    // REQUIRES: values has one entry per channel
+    // MODIFIES: this
+    // EFFECTS: appends one sample; writes a chunk to the file whenever one fills up
+    public void append(long timestamp, double[] values) throws IOException {
+        if (values.length != channelCount) {
+            throw new IllegalArgumentException("Expected " + channelCount + " channel values, got " + values.length);
+        }
+        timestamps[buffered] = timestamp;
+        for (int c = 0; c < channelCount; c++) {
+            columns[c][buffered] = values[c];
+        }
+        sampleCount++;
+        if (++buffered == chunkSize) {
+            writeChunk();
+        }
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    private void writeChunk() throws IOException {
+        for (BitOutput column : encoded) {
+            column.reset();
+        }
+        SessionCodec.TimestampEncoder timeEncoder = new SessionCodec.TimestampEncoder(encoded[0]);
+        for (int i = 0; i < buffered; i++) {
+            timeEncoder.add(timestamps[i]);
+        }
+        for (int c = 0; c < channelCount; c++) {
+            SessionCodec.ValueEncoder valueEncoder = new SessionCodec.ValueEncoder(encoded[c + 1]);
+            double[] column = columns[c];
+            for (int i = 0; i < buffered; i++) {
+                valueEncoder.add(column[i]);
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(4 * (encoded.length + 1));
+        header.putInt(buffered);
+        for (BitOutput column : encoded) {
+            column.flush();
+            header.putInt(column.length());
+        }
+        header.flip();
+        writeFully(header);
+        for (BitOutput column : encoded) {
+            writeFully(ByteBuffer.wrap(column.buffer(), 0, column.length()));
+        }
+        buffered = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the last partial chunk and closes the file
+    @Override
+    public void close() throws IOException {
+        try {
+            if (buffered > 0) {
+                writeChunk();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
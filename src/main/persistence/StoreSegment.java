@@ -0,0 +1,481 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+// An immutable, sorted segment file of an AssessmentStore. Layout:
+//   int MAGIC
+//   data blocks of about BLOCK_SIZE bytes; each holds records sorted by (athlete, timestamp):
+//     UTF athlete, long timestamp, int payload length, AssessmentCodec payload
+//   time index: per record, sorted by timestamp: long timestamp, int block holding the record
+//   bloom filter over the athletes in the segment
+//   sparse index: int block count, then per block: UTF first athlete, long first timestamp, long offset,
+//     int length, long min timestamp, long max timestamp, int crc32c of the block
+//   trailer: long time index offset, long bloom offset, long index offset, long first and last covered
+//     generation, long min and max timestamp, long record count, int MAGIC
+// The bloom filter and index are loaded when the segment is opened; blocks are read on demand and
+// checked against their checksum. Records are sorted by athlete, so a block usually spans most of the
+// segment's time range; a scan over a narrow time range instead binary-searches the time index on disk
+// and reads only the blocks it names. A segment is written to a temporary file, forced and then renamed,
+// so a crash never leaves a partial segment under a segment name.
+// The covered generations are the memtables whose records the segment holds: [g, g] for a flushed
+// memtable, the union of the inputs for a compacted segment. They order segments by age on recovery.
+final class StoreSegment {
+    static final String PREFIX = "segment-";
+    static final String SUFFIX = ".sst";
+
+    private static final int MAGIC = 0x41535354;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int TRAILER_SIZE = 8 * Long.BYTES + Integer.BYTES;
+    private static final int TIME_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    // A time-range scan uses the time index only while it matches at most this many records per block;
+    // beyond that nearly every block holds a match and reading the index would not save anything
+    private static final int TIME_ENTRIES_PER_BLOCK = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long timeIndexOffset;
+    private final long firstGeneration;
+    private final long lastGeneration;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final long recordCount;
+    private final BloomFilter bloom;
+
+    private final String[] firstNames;
+    private final long[] firstTimestamps;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final long[] blockMinTimestamps;
+    private final long[] blockMaxTimestamps;
+    private final int[] checksums;
+
+    // One reference belongs to the store until the segment is replaced; scans hold one each
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicLong blockReads = new AtomicLong();
+
+    private StoreSegment(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            if (size < Integer.BYTES + TRAILER_SIZE) {
+                throw new IOException("Truncated segment " + path);
+            }
+            DataInputStream trailer = new DataInputStream(new ByteArrayInputStream(
+                    read(size - TRAILER_SIZE, TRAILER_SIZE)));
+            timeIndexOffset = trailer.readLong();
+            long bloomOffset = trailer.readLong();
+            long indexOffset = trailer.readLong();
+            firstGeneration = trailer.readLong();
+            lastGeneration = trailer.readLong();
+            minTimestamp = trailer.readLong();
+            maxTimestamp = trailer.readLong();
+            recordCount = trailer.readLong();
+            if (trailer.readInt() != MAGIC || timeIndexOffset < Integer.BYTES || recordCount < 0
+                    || bloomOffset - timeIndexOffset != recordCount * TIME_ENTRY_SIZE || indexOffset < bloomOffset
+                    || indexOffset > size - TRAILER_SIZE) {
+                throw new IOException("Corrupt segment " + path);
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    read(bloomOffset, (int) (size - TRAILER_SIZE - bloomOffset))));
+            bloom = BloomFilter.read(in);
+            int blocks = in.readInt();
+            firstNames = new String[blocks];
+            firstTimestamps = new long[blocks];
+            offsets = new long[blocks];
+            lengths = new int[blocks];
+            blockMinTimestamps = new long[blocks];
+            blockMaxTimestamps = new long[blocks];
+            checksums = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                firstNames[b] = in.readUTF();
+                firstTimestamps[b] = in.readLong();
+                offsets[b] = in.readLong();
+                lengths[b] = in.readInt();
+                blockMinTimestamps[b] = in.readLong();
+                blockMaxTimestamps[b] = in.readLong();
+                checksums[b] = in.readInt();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e instanceof EOFException ? new IOException("Corrupt segment " + path, e) : e;
+        }
+    }
+
+    // EFFECTS: opens the segment file at path
+    static StoreSegment open(Path path) throws IOException {
+        return new StoreSegment(path);
+    }
+
+    // EFFECTS: writes every record of records (which must be sorted and free of duplicate keys) to a new
+    //          segment file for generation id in directory, covering generations [first, last], and
+    //          returns it opened
+    static StoreSegment write(Path directory, long id, long first, long last, AssessmentStore.Cursor records)
+            throws IOException {
+        Path target = directory.resolve(fileName(id));
+        Path temporary = directory.resolve(fileName(id) + ".tmp");
+        List<String> names = new ArrayList<>();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        int count = 0;
+        int blocks = 0;
+        // The timestamp and block of every record, for the time index
+        long[] recordTimestamps = new long[1024];
+        int[] recordBlocks = new int[1024];
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out),
+                    1 << 16));
+            file.writeInt(MAGIC);
+            long offset = Integer.BYTES;
+            ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE * 2);
+            DataOutputStream blockOut = new DataOutputStream(block);
+            String blockName = null;
+            long blockTimestamp = 0;
+            long blockMin = Long.MAX_VALUE;
+            long blockMax = Long.MIN_VALUE;
+
+            boolean more = records.advance();
+            while (more) {
+                if (block.size() == 0) {
+                    blockName = records.name;
+                    blockTimestamp = records.timestamp;
+                }
+                if (names.isEmpty() || !names.get(names.size() - 1).equals(records.name)) {
+                    names.add(records.name);
+                }
+                blockOut.writeUTF(records.name);
+                blockOut.writeLong(records.timestamp);
+                blockOut.writeInt(records.payload.length);
+                blockOut.write(records.payload);
+                blockMin = Math.min(blockMin, records.timestamp);
+                blockMax = Math.max(blockMax, records.timestamp);
+                if (count == recordTimestamps.length) {
+                    recordTimestamps = Arrays.copyOf(recordTimestamps, count * 2);
+                    recordBlocks = Arrays.copyOf(recordBlocks, count * 2);
+                }
+                recordTimestamps[count] = records.timestamp;
+                recordBlocks[count] = blocks;
+                count++;
+
+                more = records.advance();
+                if (block.size() >= BLOCK_SIZE || (!more && block.size() > 0)) {
+                    byte[] bytes = block.toByteArray();
+                    file.write(bytes);
+                    indexOut.writeUTF(blockName);
+                    indexOut.writeLong(blockTimestamp);
+                    indexOut.writeLong(offset);
+                    indexOut.writeInt(bytes.length);
+                    indexOut.writeLong(blockMin);
+                    indexOut.writeLong(blockMax);
+                    indexOut.writeInt(checksum(bytes));
+                    offset += bytes.length;
+                    blocks++;
+                    minTimestamp = Math.min(minTimestamp, blockMin);
+                    maxTimestamp = Math.max(maxTimestamp, blockMax);
+                    block.reset();
+                    blockMin = Long.MAX_VALUE;
+                    blockMax = Long.MIN_VALUE;
+                }
+            }
+
+            long timeIndexOffset = offset;
+            sortByTimestamp(recordTimestamps, recordBlocks, count);
+            for (int i = 0; i < count; i++) {
+                file.writeLong(recordTimestamps[i]);
+                file.writeInt(recordBlocks[i]);
+            }
+            offset += (long) count * TIME_ENTRY_SIZE;
+
+            ByteArrayOutputStream bloom = new ByteArrayOutputStream();
+            BloomFilter.of(names).write(new DataOutputStream(bloom));
+            long bloomOffset = offset;
+            long indexOffset = bloomOffset + bloom.size();
+            bloom.writeTo(file);
+            file.writeInt(blocks);
+            index.writeTo(file);
+            file.writeLong(timeIndexOffset);
+            file.writeLong(bloomOffset);
+            file.writeLong(indexOffset);
+            file.writeLong(first);
+            file.writeLong(last);
+            file.writeLong(minTimestamp);
+            file.writeLong(maxTimestamp);
+            file.writeLong(count);
+            file.writeInt(MAGIC);
+            file.flush();
+            out.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(target);
+    }
+
+    // Sorts the first count timestamps, moving blocks along with them (a bottom-up merge sort; stable, so
+    // records with equal timestamps stay in block order)
+    private static void sortByTimestamp(long[] timestamps, int[] blocks, int count) {
+        long[] timeBuffer = new long[count];
+        int[] blockBuffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(middle + width, count);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (right >= high || (left < middle && timestamps[left] <= timestamps[right])) {
+                        timeBuffer[i] = timestamps[left];
+                        blockBuffer[i] = blocks[left++];
+                    } else {
+                        timeBuffer[i] = timestamps[right];
+                        blockBuffer[i] = blocks[right++];
+                    }
+                }
+                System.arraycopy(timeBuffer, low, timestamps, low, high - low);
+                System.arraycopy(blockBuffer, low, blocks, low, high - low);
+            }
+        }
+    }
+
+    static String fileName(long id) {
+        return String.format("%s%016d%s", PREFIX, id, SUFFIX);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated segment " + path);
+            }
+        }
+        return buffer.array();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getFirstGeneration() {
+        return firstGeneration;
+    }
+
+    long getLastGeneration() {
+        return lastGeneration;
+    }
+
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    // EFFECTS: returns the size of the segment file in bytes
+    long getSize() {
+        return size;
+    }
+
+    int getBlockCount() {
+        return offsets.length;
+    }
+
+    // EFFECTS: returns the number of data blocks read from this segment so far
+    long getBlockReads() {
+        return blockReads.get();
+    }
+
+    // EFFECTS: returns true if this segment covers every generation other covers
+    boolean covers(StoreSegment other) {
+        return firstGeneration <= other.firstGeneration && lastGeneration >= other.lastGeneration;
+    }
+
+    // EFFECTS: takes a reference for a reader; returns false if the segment has already been released
+    boolean acquire() {
+        while (true) {
+            int count = references.get();
+            if (count == 0) {
+                return false;
+            }
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // EFFECTS: drops a reference; the last one closes the file and, if delete, removes it
+    void release(boolean delete) throws IOException {
+        if (references.decrementAndGet() == 0) {
+            channel.close();
+            if (delete) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    // EFFECTS: returns a cursor over the records of athlete (or of every athlete if null) with timestamps
+    //          in [from, to), in key order
+    AssessmentStore.Cursor cursor(String athlete, long from, long to) throws IOException {
+        if (recordCount == 0 || maxTimestamp < from || minTimestamp >= to
+                || (athlete != null && !bloom.mightContain(athlete))) {
+            return AssessmentStore.Cursor.EMPTY;
+        }
+        int start = 0;
+        BitSet selected = null;
+        if (athlete == null && (from > minTimestamp || to <= maxTimestamp)) {
+            selected = blocksInRange(from, to);
+            if (selected != null && selected.isEmpty()) {
+                return AssessmentStore.Cursor.EMPTY;
+            }
+        } else if (athlete != null) {
+            // Last block starting at or before (athlete, from); earlier blocks hold only smaller keys
+            int low = 0;
+            int high = firstNames.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (AssessmentStore.compare(firstNames[mid], firstTimestamps[mid], athlete, from) <= 0) {
+                    start = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+        return new SegmentCursor(athlete, from, to, start, selected);
+    }
+
+    // EFFECTS: returns the blocks holding a record with a timestamp in [from, to), found through the time
+    //          index, or null if more than TIME_ENTRIES_PER_BLOCK records per block match
+    private BitSet blocksInRange(long from, long to) throws IOException {
+        long low = firstTimeEntry(from);
+        long high = firstTimeEntry(to);
+        if (high - low > (long) TIME_ENTRIES_PER_BLOCK * offsets.length) {
+            return null;
+        }
+        ByteBuffer entries = ByteBuffer.wrap(read(timeIndexOffset + low * TIME_ENTRY_SIZE,
+                (int) ((high - low) * TIME_ENTRY_SIZE)));
+        BitSet selected = new BitSet(offsets.length);
+        while (entries.hasRemaining()) {
+            entries.getLong();
+            int block = entries.getInt();
+            if (block < 0 || block >= offsets.length) {
+                throw new IOException("Corrupt time index in " + path);
+            }
+            selected.set(block);
+        }
+        return selected;
+    }
+
+    // Position of the first time index entry at or after timestamp
+    private long firstTimeEntry(long timestamp) throws IOException {
+        long low = 0;
+        long high = recordCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (ByteBuffer.wrap(read(timeIndexOffset + mid * TIME_ENTRY_SIZE, Long.BYTES)).getLong() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private final class SegmentCursor extends AssessmentStore.Cursor {
+        private final String athlete;
+        private final long from;
+        private final long to;
+        // Blocks to read, or null for every block overlapping [from, to)
+        private final BitSet selected;
+        private int nextBlock;
+        private DataInputStream block;
+        private boolean done;
+
+        SegmentCursor(String athlete, long from, long to, int firstBlock, BitSet selected) {
+            this.athlete = athlete;
+            this.from = from;
+            this.to = to;
+            this.nextBlock = firstBlock;
+            this.selected = selected;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            while (!done) {
+                if ((block == null || block.available() == 0) && !nextBlock()) {
+                    done = true;
+                    break;
+                }
+                String recordName = block.readUTF();
+                long recordTimestamp = block.readLong();
+                byte[] recordPayload = new byte[block.readInt()];
+                block.readFully(recordPayload);
+                if (athlete != null) {
+                    int order = recordName.compareTo(athlete);
+                    if (order > 0 || (order == 0 && recordTimestamp >= to)) {
+                        done = true;
+                        break;
+                    }
+                    if (order < 0) {
+                        continue;
+                    }
+                }
+                if (recordTimestamp >= from && recordTimestamp < to) {
+                    name = recordName;
+                    timestamp = recordTimestamp;
+                    payload = recordPayload;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Loads the next block whose timestamps overlap [from, to)
+        private boolean nextBlock() throws IOException {
+            while (nextBlock < offsets.length) {
+                int b = nextBlock++;
+                if (blockMaxTimestamps[b] < from || blockMinTimestamps[b] >= to
+                        || (selected != null && !selected.get(b))) {
+                    if (athlete != null && firstNames[b].compareTo(athlete) > 0) {
+                        return false;
+                    }
+                    continue;
+                }
+                byte[] bytes = read(offsets[b], lengths[b]);
+                blockReads.incrementAndGet();
+                if (checksum(bytes) != checksums[b]) {
+                    throw new IOException("Corrupt block " + b + " in " + path);
+                }
+                block = new DataInputStream(new ByteArrayInputStream(bytes));
+                return true;
+            }
+            return false;
+        }
+    }
+}
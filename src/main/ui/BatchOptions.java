@@ -0,0 +1,138 @@
+package ui;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import model.ScoringConfig;
+
+// Command-line options for a non-interactive batch run. Messages are built with String.concat rather than
+// +, which would bootstrap the invokedynamic string concatenation machinery on the error path.
+public class BatchOptions {
+    static final String USAGE = "Usage: java ui.Main --input <athletes.csv> --output <assessments.csv>\n"
+            + "       [--summary <summary.txt>] [--weights <demographic,biomechanical,medical>]\n"
+            + "       [--engine rules|continuous] [--workers <n>] [--batch-size <n>] [--queue-capacity <n>]\n"
+            + "       [--dedup on|off]";
+
+    private Path input;
+    private Path output;
+    private Path summary;
+    private double[] weights = {0.25, 0.5, 0.25};
+    private String engine = "rules";
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+    private int batchSize = 512;
+    private int queueCapacity = 16;
+    private boolean dedup;
+
+    // EFFECTS: parses args; throws IllegalArgumentException with a readable message if they are invalid
+    public static BatchOptions parse(String[] args) {
+        BatchOptions options = new BatchOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for ".concat(args[i]));
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--input":
+                    options.input = Paths.get(value);
+                    break;
+                case "--output":
+                    options.output = Paths.get(value);
+                    break;
+                case "--summary":
+                    options.summary = Paths.get(value);
+                    break;
+                case "--weights":
+                    options.weights = parseWeights(value);
+                    break;
+                case "--engine":
+                    if (!value.equals("rules") && !value.equals("continuous")) {
+                        throw new IllegalArgumentException("Unknown engine: ".concat(value));
+                    }
+                    options.engine = value;
+                    break;
+                case "--workers":
+                    options.workers = parsePositive(args[i], value);
+                    break;
+                case "--batch-size":
+                    options.batchSize = parsePositive(args[i], value);
+                    break;
+                case "--queue-capacity":
+                    options.queueCapacity = parsePositive(args[i], value);
+                    break;
+                case "--dedup":
+                    if (!value.equals("on") && !value.equals("off")) {
+                        throw new IllegalArgumentException("--dedup must be on or off");
+                    }
+                    options.dedup = value.equals("on");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: ".concat(args[i]));
+            }
+        }
+        if (options.input == null || options.output == null) {
+            throw new IllegalArgumentException("Both --input and --output are required");
+        }
+        return options;
+    }
+
+    // EFFECTS: returns the three weights in value; throws IllegalArgumentException (a NumberFormatException
+    //          for a malformed number) unless they are valid ScoringConfig weights
+    private static double[] parseWeights(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("--weights needs three comma-separated values");
+        }
+        double[] weights = new double[3];
+        for (int i = 0; i < 3; i++) {
+            weights[i] = Double.parseDouble(parts[i].trim());
+        }
+        ScoringConfig.validateWeights(weights[0], weights[1], weights[2]);
+        return weights;
+    }
+
+    private static int parsePositive(String option, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(option.concat(" must be positive"));
+        }
+        return parsed;
+    }
+
+    public Path getInput() {
+        return input;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    // EFFECTS: returns the summary file, or null to print the summary to standard output
+    public Path getSummary() {
+        return summary;
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    // EFFECTS: returns true if athletes that seem to repeat an earlier one are flagged in the output
+    public boolean isDedup() {
+        return dedup;
+    }
+}
@@ -0,0 +1,294 @@
+package ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import model.Athlete;
+import model.AthleteDeduplicator;
+import model.ContinuousScoringEngine;
+import model.RiskAnalyzer;
+import model.RiskAssessment;
+import model.RuleScoringEngine;
+import model.ScoringEngine;
+import persistence.AssessmentCsv;
+import persistence.AthleteCsv;
+
+// Runs a batch job as three pipelined stages connected by bounded queues:
+//   reader thread: reads and parses the athlete file into numbered batches
+//   worker threads: analyze batches with one shared RiskAnalyzer
+//   calling thread: writes finished batches in input order and accumulates the summary
+// Bounded queues keep memory flat for any file size. Threads are plain classes rather than lambdas or
+// streams, so a short job does not pay for bootstrapping the invokedynamic machinery.
+public class BatchRunner {
+    private static final long POLL_MILLIS = 100;
+
+    private final BatchOptions options;
+    private final BlockingQueue<Batch> parsed;
+    private final BlockingQueue<Batch> analyzed;
+    // The first failure of any stage; an Error in a worker is recorded like an exception so the writer
+    // stops instead of finishing with the batches that worker never produced
+    private volatile Throwable failure;
+    // Exact duplicates the reader dropped; read only after the reader has been joined
+    private long skippedDuplicates;
+
+    // A numbered slice of the input; an end marker has no athletes
+    private static final class Batch {
+        final long sequence;
+        final List<Athlete> athletes;
+        // Whether each athlete nearly repeats an earlier one, or null without --dedup
+        final List<AthleteDeduplicator.Match> matches;
+        RiskAssessment[] assessments;
+
+        Batch(long sequence, List<Athlete> athletes, List<AthleteDeduplicator.Match> matches) {
+            this.sequence = sequence;
+            this.athletes = athletes;
+            this.matches = matches;
+        }
+
+        boolean isEnd() {
+            return athletes == null;
+        }
+    }
+
+    public BatchRunner(BatchOptions options) {
+        this.options = options;
+        this.parsed = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        this.analyzed = new ArrayBlockingQueue<>(options.getQueueCapacity());
+    }
+
+    // EFFECTS: runs the job and returns its summary; throws the first failure of any stage (an Error is
+    //          rethrown as is)
+    public BatchSummary run() throws Exception {
+        long start = System.nanoTime();
+        RiskAnalyzer analyzer = createAnalyzer();
+
+        Thread reader = new ReaderStage();
+        reader.start();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.getWorkers(); i++) {
+            Thread worker = new AnalysisStage(analyzer, i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        BatchSummary summary = new BatchSummary();
+        try {
+            write(summary);
+        } catch (Throwable e) {
+            fail(e);
+        }
+        reader.join();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        summary.addSkippedDuplicates(skippedDuplicates);
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure instanceof Exception) {
+            throw (Exception) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        if (options.getSummary() != null) {
+            Files.write(options.getSummary(), summary.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return summary;
+    }
+
+    private RiskAnalyzer createAnalyzer() {
+        // Only the chosen engine class is loaded
+        ScoringEngine engine = options.getEngine().equals("continuous")
+                ? ContinuousScoringEngine.withDefaultCoefficients()
+                : new RuleScoringEngine();
+        double[] weights = options.getWeights();
+        return new RiskAnalyzer(engine, weights[0], weights[1], weights[2]);
+    }
+
+    private void write(BatchSummary summary) throws IOException, InterruptedException {
+        Map<Long, Batch> pending = new HashMap<>();
+        long next = 0;
+        int finishedWorkers = 0;
+        StringBuilder line = new StringBuilder(160);
+        try (BufferedWriter out = Files.newBufferedWriter(options.getOutput(), StandardCharsets.UTF_8)) {
+            out.write(AssessmentCsv.HEADER);
+            if (options.isDedup()) {
+                out.write(",suspectedDuplicate");
+            }
+            out.newLine();
+            while (finishedWorkers < options.getWorkers()) {
+                Batch batch = take(analyzed);
+                if (batch == null) {
+                    return;
+                }
+                if (batch.isEnd()) {
+                    finishedWorkers++;
+                    continue;
+                }
+                pending.put(batch.sequence, batch);
+                // Workers finish out of order; emit batches strictly in input order
+                for (Batch ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                    for (int i = 0; i < ready.assessments.length; i++) {
+                        RiskAssessment assessment = ready.assessments[i];
+                        line.setLength(0);
+                        AssessmentCsv.format(assessment, line);
+                        if (ready.matches != null) {
+                            appendMatch(ready.matches.get(i), line, summary);
+                        }
+                        out.append(line);
+                        out.newLine();
+                        summary.add(assessment);
+                    }
+                    next++;
+                }
+            }
+        }
+    }
+
+    // MODIFIES: line, summary
+    // EFFECTS: appends the suspectedDuplicate column (empty or near) and counts suspected duplicates
+    private static void appendMatch(AthleteDeduplicator.Match match, StringBuilder line, BatchSummary summary) {
+        line.append(',');
+        if (match == AthleteDeduplicator.Match.NEAR_DUPLICATE) {
+            line.append("near");
+            summary.addSuspectedDuplicate();
+        }
+    }
+
+    private final class ReaderStage extends Thread {
+        ReaderStage() {
+            super("batch-reader");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long sequence = 0;
+            long lineNumber = 0;
+            // An exact duplicate adds nothing, so it is dropped before analysis. Earlier records may already
+            // be written, so a near duplicate is flagged rather than merged; it is still analyzed and
+            // written, as the match may be wrong
+            AthleteDeduplicator deduplicator = options.isDedup()
+                    ? new AthleteDeduplicator(AthleteDeduplicator.MergePolicy.KEEP_FIRST) : null;
+            try (BufferedReader in = Files.newBufferedReader(options.getInput(), StandardCharsets.UTF_8)) {
+                List<Athlete> athletes = new ArrayList<>(options.getBatchSize());
+                List<AthleteDeduplicator.Match> matches = newMatches(deduplicator);
+                String line;
+                while ((line = in.readLine()) != null && failure == null) {
+                    lineNumber++;
+                    if (line.isEmpty() || (lineNumber == 1 && AthleteCsv.isHeader(line))) {
+                        continue;
+                    }
+                    Athlete athlete;
+                    try {
+                        athlete = AthleteCsv.parse(line);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(new StringBuilder("Line ").append(lineNumber).append(": ")
+                                .append(e.getMessage()).toString(), e);
+                    }
+                    if (deduplicator != null) {
+                        AthleteDeduplicator.Match match = deduplicator.classify(athlete);
+                        if (match == AthleteDeduplicator.Match.EXACT_DUPLICATE) {
+                            skippedDuplicates++;
+                            continue;
+                        }
+                        matches.add(match);
+                    }
+                    athletes.add(athlete);
+                    if (athletes.size() == options.getBatchSize()) {
+                        put(parsed, new Batch(sequence++, athletes, matches));
+                        athletes = new ArrayList<>(options.getBatchSize());
+                        matches = newMatches(deduplicator);
+                    }
+                }
+                if (!athletes.isEmpty()) {
+                    put(parsed, new Batch(sequence, athletes, matches));
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                for (int i = 0; i < options.getWorkers(); i++) {
+                    put(parsed, new Batch(-1, null, null));
+                }
+            }
+        }
+
+        private List<AthleteDeduplicator.Match> newMatches(AthleteDeduplicator deduplicator) {
+            return deduplicator == null ? null : new ArrayList<>(options.getBatchSize());
+        }
+    }
+
+    private final class AnalysisStage extends Thread {
+        private final RiskAnalyzer analyzer;
+
+        AnalysisStage(RiskAnalyzer analyzer, int index) {
+            super("batch-worker-".concat(Integer.toString(index)));
+            setDaemon(true);
+            this.analyzer = analyzer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch batch;
+                while ((batch = take(parsed)) != null && !batch.isEnd()) {
+                    RiskAssessment[] assessments = new RiskAssessment[batch.athletes.size()];
+                    for (int i = 0; i < assessments.length; i++) {
+                        assessments[i] = analyzer.analyzeRisk(batch.athletes.get(i));
+                    }
+                    batch.assessments = assessments;
+                    put(analyzed, batch);
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                put(analyzed, new Batch(-1, null, null));
+            }
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    // EFFECTS: puts batch on queue, giving up once any stage has failed (end markers always go through)
+    private void put(BlockingQueue<Batch> queue, Batch batch) {
+        try {
+            while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure != null && !batch.isEnd()) {
+                    return;
+                }
+                if (failure != null) {
+                    queue.poll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: takes the next batch from queue, or returns null once any stage has failed
+    private Batch take(BlockingQueue<Batch> queue) throws InterruptedException {
+        while (true) {
+            Batch batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (batch != null) {
+                return batch;
+            }
+            if (failure != null) {
+                return null;
+            }
+        }
+    }
+}
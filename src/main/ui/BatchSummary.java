@@ -0,0 +1,95 @@
+package ui;
+
+import java.util.List;
+
+import model.RiskAnalyzer;
+import model.RiskAssessment;
+
+// Summary statistics of a batch run: athletes per risk category and mean scores
+public class BatchSummary {
+    private static final List<String> CATEGORIES = RiskAnalyzer.getRiskCategories();
+
+    private final long[] categoryCounts = new long[CATEGORIES.size()];
+    private long count;
+    private double overallSum;
+    private double demographicSum;
+    private double biomechanicalSum;
+    private double medicalSum;
+    private long elapsedMillis;
+    private long suspectedDuplicates;
+    private long skippedDuplicates;
+
+    // MODIFIES: this
+    // EFFECTS: adds assessment to the statistics
+    public void add(RiskAssessment assessment) {
+        String category = assessment.getRiskCategory();
+        int index = CATEGORIES.indexOf(category);
+        if (index >= 0) {
+            categoryCounts[index]++;
+        }
+        count++;
+        overallSum += assessment.getOverallRiskScore();
+        demographicSum += assessment.getDemographicRiskScore();
+        biomechanicalSum += assessment.getBiomechanicalRiskScore();
+        medicalSum += assessment.getMedicalHistoryRiskScore();
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    void addSuspectedDuplicate() {
+        suspectedDuplicates++;
+    }
+
+    void addSkippedDuplicates(long skipped) {
+        skippedDuplicates += skipped;
+    }
+
+    // EFFECTS: returns the number of athletes flagged as possibly repeating an earlier one (with --dedup)
+    public long getSuspectedDuplicates() {
+        return suspectedDuplicates;
+    }
+
+    // EFFECTS: returns the number of records dropped as exact repeats of an earlier one (with --dedup)
+    public long getSkippedDuplicates() {
+        return skippedDuplicates;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // EFFECTS: returns the number of athletes in category (Low, Moderate, High, Very High)
+    public long getCategoryCount(String category) {
+        int index = CATEGORIES.indexOf(category);
+        return index < 0 ? 0 : categoryCounts[index];
+    }
+
+    // EFFECTS: returns the summary as human-readable lines
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Athletes analyzed: ").append(count).append('\n');
+        if (skippedDuplicates > 0) {
+            summary.append("Exact duplicates skipped: ").append(skippedDuplicates).append('\n');
+        }
+        if (suspectedDuplicates > 0) {
+            summary.append("Suspected duplicates: ").append(suspectedDuplicates).append('\n');
+        }
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            summary.append("- ").append(CATEGORIES.get(i)).append(": ").append(categoryCounts[i]).append('\n');
+        }
+        appendMean(summary, "Mean overall risk: ", overallSum);
+        appendMean(summary, "Mean demographic risk: ", demographicSum);
+        appendMean(summary, "Mean biomechanical risk: ", biomechanicalSum);
+        appendMean(summary, "Mean medical history risk: ", medicalSum);
+        summary.append("Elapsed: ").append(elapsedMillis).append(" ms\n");
+        return summary.toString();
+    }
+
+    private void appendMean(StringBuilder summary, String label, double sum) {
+        double mean = count == 0 ? 0.0 : sum / count;
+        summary.append(label).append(Math.round(mean * 100.0) / 100.0).append("/10\n");
+    }
+}
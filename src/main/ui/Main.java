@@ -1,7 +1,34 @@
 package ui;
 
 public class Main {
+    // Runs a batch job when options are given (see BatchOptions.USAGE); the batch classes are only
+    // loaded on that path so scheduled runs start quickly.
     public static void main(String[] args) throws Exception {
-        System.out.println("Welcome to my project!");
+        if (args.length == 0) {
+            System.out.println("Welcome to my project!");
+            System.out.println(BatchOptions.USAGE);
+            return;
+        }
+
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            BatchSummary summary = new BatchRunner(options).run();
+            if (options.getSummary() == null) {
+                System.out.print(summary);
+            }
+        } catch (Throwable e) {
+            // Includes an Error thrown by a worker, so a failed run never exits with status 0
+            System.err.println("Batch run failed: ".concat(String.valueOf(e.getMessage())));
+            System.exit(1);
+        }
     }
 }
@@ -0,0 +1,231 @@
+package cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.Athlete;
+import model.BiomechanicalData;
+import model.RiskAnalyzer;
+import model.RiskAssessment;
+
+public class TestShardCoordinator {
+    private static final double DELTA = 0.0001;
+    private static final String[] SPORTS = {"Soccer", "Basketball", "Swimming"};
+
+    private List<ShardServer> servers;
+    private ShardCoordinator coordinator;
+    private List<Athlete> roster;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servers = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ShardServer server = new ShardServer(0, new RiskAnalyzer());
+            server.start();
+            servers.add(server);
+            addresses.add(new InetSocketAddress("127.0.0.1", server.getPort()));
+        }
+        coordinator = new ShardCoordinator(addresses);
+
+        Random random = new Random(36);
+        roster = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            List<Boolean> history = new ArrayList<>();
+            history.add(random.nextBoolean());
+            history.add(random.nextBoolean());
+            history.add(random.nextBoolean());
+            Athlete athlete = new Athlete("Athlete " + i, 14 + random.nextInt(20), random.nextBoolean(),
+                    SPORTS[random.nextInt(SPORTS.length)], 160 + random.nextInt(30), 50 + random.nextInt(40),
+                    history);
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(random.nextInt(25));
+            data.setHamstringsToQuadsRatio(0.4 + random.nextInt(40) / 100.0);
+            data.setLandingAsymmetry(random.nextInt(30));
+            roster.add(athlete);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        coordinator.close();
+        for (ShardServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    void testAnalyzeMatchesLocalAnalysis() throws IOException {
+        RiskAnalyzer local = new RiskAnalyzer();
+        List<RiskAssessment> remote = coordinator.analyzeRisk(roster);
+        assertEquals(roster.size(), remote.size());
+        for (int i = 0; i < roster.size(); i++) {
+            RiskAssessment expected = local.analyzeRisk(roster.get(i));
+            assertEquals(expected.getAthleteName(), remote.get(i).getAthleteName());
+            assertEquals(expected.getOverallRiskScore(), remote.get(i).getOverallRiskScore(), DELTA);
+            assertEquals(expected.getKeyRiskFactors(), remote.get(i).getKeyRiskFactors());
+        }
+
+        int total = 0;
+        for (int size : coordinator.shardSizes()) {
+            assertTrue(size > 0);
+            total += size;
+        }
+        assertEquals(roster.size(), total);
+
+        assertEquals(remote.get(7).getOverallRiskScore(),
+                coordinator.getAssessment("Athlete 7").getOverallRiskScore(), DELTA);
+        assertNull(coordinator.getAssessment("Nobody"));
+    }
+
+    @Test
+    void testTopKMergesShards() throws IOException {
+        List<RiskAssessment> expected = coordinator.analyzeRisk(roster);
+        expected.sort(ShardCoordinator.BY_RISK);
+
+        List<RiskAssessment> top = coordinator.topK(10);
+        assertEquals(10, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(expected.get(i).getAthleteName(), top.get(i).getAthleteName());
+        }
+        assertEquals(roster.size(), coordinator.topK(1000).size());
+    }
+
+    @Test
+    void testCohortStatisticsMergeShards() throws IOException {
+        List<RiskAssessment> assessments = coordinator.analyzeRisk(roster);
+        CohortStatistics expected = new CohortStatistics();
+        for (int i = 0; i < roster.size(); i++) {
+            if (roster.get(i).getSport().equals("Soccer")) {
+                expected.add(assessments.get(i));
+            }
+        }
+
+        CohortStatistics soccer = coordinator.cohortStatistics("Soccer");
+        assertEquals(expected.getCount(), soccer.getCount());
+        assertEquals(expected.getMean(), soccer.getMean(), DELTA);
+        assertEquals(expected.getStandardDeviation(), soccer.getStandardDeviation(), DELTA);
+        assertEquals(expected.getMax(), soccer.getMax(), DELTA);
+        assertEquals(expected.getCategoryCount("High"), soccer.getCategoryCount("High"));
+        assertEquals(roster.size(), coordinator.cohortStatistics(null).getCount());
+    }
+
+    @Test
+    void testReanalysisReplacesAthlete() throws IOException {
+        Athlete athlete = roster.get(0);
+        coordinator.analyzeRisk(athlete);
+        athlete.getBioMechData().setKneeValgusAngle(30.0);
+        RiskAssessment updated = coordinator.analyzeRisk(athlete);
+        assertEquals(1, coordinator.cohortStatistics("").getCount());
+        assertEquals(updated.getOverallRiskScore(),
+                coordinator.getAssessment(athlete.getName()).getOverallRiskScore(), DELTA);
+    }
+
+    // Forwards connections to a shard and can cut them all while it keeps listening
+    private static final class Proxy implements Closeable {
+        private final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        private final List<Socket> sockets = new ArrayList<>();
+
+        Proxy(int target) throws IOException {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        Socket client = serverSocket.accept();
+                        Socket shard = new Socket(InetAddress.getLoopbackAddress(), target);
+                        synchronized (sockets) {
+                            sockets.add(client);
+                            sockets.add(shard);
+                        }
+                        pump(client, shard);
+                        pump(shard, client);
+                    }
+                } catch (IOException e) {
+                    // Proxy closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private static void pump(Socket from, Socket to) {
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                        out.write(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    // Connection cut
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void cutConnections() throws IOException {
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+                sockets.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            cutConnections();
+        }
+    }
+
+    @Test
+    void testFailedConnectionIsReplaced() throws IOException {
+        List<Proxy> proxies = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (ShardServer server : servers) {
+            Proxy proxy = new Proxy(server.getPort());
+            proxies.add(proxy);
+            addresses.add(new InetSocketAddress("127.0.0.1", proxy.getPort()));
+        }
+        try (ShardCoordinator proxied = new ShardCoordinator(addresses)) {
+            proxied.analyzeRisk(roster);
+            // A rejected request does not break later ones
+            assertThrows(IOException.class, () -> proxied.topK(0));
+            assertEquals(10, proxied.topK(10).size());
+
+            // Cut every connection: the dead ones fail once and are then replaced, not reused
+            for (Proxy proxy : proxies) {
+                proxy.cutConnections();
+            }
+            assertThrows(IOException.class, () -> proxied.shardSizes());
+            assertEquals(roster.size(), proxied.cohortStatistics(null).getCount());
+            assertEquals(roster.get(3).getName(), proxied.getAssessment(roster.get(3).getName()).getAthleteName());
+        } finally {
+            for (Proxy proxy : proxies) {
+                proxy.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import model.Athlete;
+
+public class TestShardServer {
+
+    @Test
+    void testMainKeepsServingInItsOwnProcess() throws IOException, InterruptedException, URISyntaxException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // Test runners may load the classes through their own class loader rather than the class path
+        String classes = Paths.get(ShardServer.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        Process process = new ProcessBuilder(java, "-cp",
+                classes + File.pathSeparator + System.getProperty("java.class.path"), "cluster.ShardServer", "0")
+                .redirectErrorStream(true).start();
+        try {
+            BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            String line = out.readLine();
+            assertTrue(line != null && line.startsWith("Shard listening on port "), String.valueOf(line));
+            int port = Integer.parseInt(line.substring("Shard listening on port ".length()));
+
+            // main must not return once the acceptor has started
+            assertTrue(!process.waitFor(500, TimeUnit.MILLISECONDS));
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            addresses.add(new InetSocketAddress("127.0.0.1", port));
+            try (ShardCoordinator coordinator = new ShardCoordinator(addresses)) {
+                List<Boolean> history = new ArrayList<>();
+                history.add(false);
+                history.add(false);
+                history.add(true);
+                coordinator.analyzeRisk(new Athlete("Remote", 22, true, "Soccer", 168.0, 60.0, history));
+                assertEquals(1, coordinator.shardSizes()[0]);
+                assertEquals("Remote", coordinator.getAssessment("Remote").getAthleteName());
+            }
+            assertTrue(process.isAlive());
+        } finally {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+}
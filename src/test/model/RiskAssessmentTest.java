@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -108,4 +109,103 @@ public class RiskAssessmentTest {
         assertTrue(result.contains("Biomechanical"));
         assertTrue(result.contains("Improve landing technique"));
     }
+    
+    @Test
+    void testKnownFactorsUseMask() {
+        assessment.addKeyRiskFactor(KeyRiskFactor.FEMALE_GENDER, 7.0);
+        assessment.addKeyRiskFactor("Excessive Knee Valgus", 6.5);
+        
+        assertTrue(assessment.hasKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+        assertFalse(assessment.hasKeyRiskFactor(KeyRiskFactor.PREVIOUS_ACL_INJURY));
+        assertEquals(6.5, assessment.getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+        assertEquals(0.0, assessment.getKeyRiskFactorScore(KeyRiskFactor.PREVIOUS_ACL_INJURY));
+        assertEquals(KeyRiskFactor.mask(KeyRiskFactor.FEMALE_GENDER, KeyRiskFactor.EXCESSIVE_KNEE_VALGUS),
+                assessment.getKeyRiskFactorMask());
+        
+        Map<String, Double> factors = assessment.getKeyRiskFactors();
+        assertEquals(2, factors.size());
+        assertEquals(7.0, factors.get("Female Gender"));
+        assertNull(factors.get("Previous ACL Injury"));
+        factors.put("Previous ACL Injury", 9.0);
+        assertTrue(assessment.hasKeyRiskFactor(KeyRiskFactor.PREVIOUS_ACL_INJURY));
+    }
+    
+    @Test
+    void testFactorMapMutation() {
+        assessment.addKeyRiskFactor(KeyRiskFactor.FEMALE_GENDER, 7.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, 6.5);
+        assessment.addKeyRiskFactor(KeyRiskFactor.LANDING_ASYMMETRY, 5.0);
+        assessment.addKeyRiskFactor("Custom Factor", 4.0);
+        assessment.addKeyRiskFactor("Other Factor", 3.0);
+        Map<String, Double> factors = assessment.getKeyRiskFactors();
+        
+        assertEquals(7.0, factors.remove("Female Gender"));
+        assertNull(factors.remove("Female Gender"));
+        assertFalse(assessment.hasKeyRiskFactor(KeyRiskFactor.FEMALE_GENDER));
+        assertEquals(0.0, assessment.getKeyRiskFactorScore(KeyRiskFactor.FEMALE_GENDER));
+        assertEquals(4.0, factors.remove("Custom Factor"));
+        assertNull(factors.remove("Unknown"));
+        assertEquals(3, factors.size());
+        
+        // A null score removes the factor
+        assertEquals(5.0, factors.put("Landing Asymmetry", null));
+        assertFalse(factors.containsKey("Landing Asymmetry"));
+        assertEquals(2, factors.size());
+        
+        Iterator<Map.Entry<String, Double>> entries = factors.entrySet().iterator();
+        assertThrows(IllegalStateException.class, entries::remove);
+        while (entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+        assertTrue(factors.isEmpty());
+        assertEquals(0, assessment.getKeyRiskFactorMask());
+        
+        assessment.addKeyRiskFactor(KeyRiskFactor.HIGH_RISK_SPORT, 2.0);
+        assessment.addKeyRiskFactor("Custom Factor", 1.0);
+        factors.keySet().removeIf(name -> name.startsWith("High"));
+        assertEquals(1, factors.size());
+        factors.clear();
+        assertTrue(assessment.getKeyRiskFactors().isEmpty());
+        assertEquals(0.0, assessment.getKeyRiskFactorScore(KeyRiskFactor.HIGH_RISK_SPORT));
+    }
+    
+    @Test
+    void testFactorOrderIsStable() {
+        assessment.addKeyRiskFactor("Custom Factor", 9.5);
+        assessment.addKeyRiskFactor(KeyRiskFactor.HIGH_RISK_SPORT, 7.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, 8.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.LANDING_ASYMMETRY, 8.0);
+        
+        Iterator<Map.Entry<String, Double>> entries = assessment.getKeyRiskFactors().entrySet().iterator();
+        assertEquals("Excessive Knee Valgus", entries.next().getKey());
+        assertEquals("Landing Asymmetry", entries.next().getKey());
+        assertEquals("High-Risk Sport Participation", entries.next().getKey());
+        assertEquals("Custom Factor", entries.next().getKey());
+        assertFalse(entries.hasNext());
+        
+        Iterator<Map.Entry<String, Double>> bySeverity = assessment.keyRiskFactorsBySeverity();
+        assertEquals("Custom Factor", bySeverity.next().getKey());
+        assertEquals("Excessive Knee Valgus", bySeverity.next().getKey());
+        assertEquals("Landing Asymmetry", bySeverity.next().getKey());
+        assertEquals("High-Risk Sport Participation", bySeverity.next().getKey());
+        
+        String result = assessment.toString();
+        assertTrue(result.indexOf("Excessive Knee Valgus") < result.indexOf("Custom Factor"));
+    }
+    
+    @Test
+    void testCohortCounts() {
+        int[] masks = {
+            KeyRiskFactor.mask(KeyRiskFactor.FEMALE_GENDER, KeyRiskFactor.EXCESSIVE_KNEE_VALGUS),
+            KeyRiskFactor.mask(KeyRiskFactor.FEMALE_GENDER),
+            KeyRiskFactor.mask(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, KeyRiskFactor.HIGH_RISK_SPORT),
+            0
+        };
+        assertEquals(2, KeyRiskFactor.countWith(masks, KeyRiskFactor.FEMALE_GENDER.bit()));
+        assertEquals(1, KeyRiskFactor.countWith(masks,
+                KeyRiskFactor.mask(KeyRiskFactor.FEMALE_GENDER, KeyRiskFactor.EXCESSIVE_KNEE_VALGUS)));
+        assertEquals(4, KeyRiskFactor.countWith(masks, 0));
+        assertEquals(KeyRiskFactor.HIGH_RISK_SPORT, KeyRiskFactor.fromDisplayName("High-Risk Sport Participation"));
+    }
 }
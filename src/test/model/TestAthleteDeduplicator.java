@@ -0,0 +1,142 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.AthleteDeduplicator.Match;
+import model.AthleteDeduplicator.MergePolicy;
+
+public class TestAthleteDeduplicator {
+    private static final double DELTA = 0.0001;
+
+    private Athlete athlete(String name, int age, boolean female, String sport) {
+        List<Boolean> history = new ArrayList<>();
+        history.add(false);
+        history.add(false);
+        history.add(false);
+        return new Athlete(name, age, female, sport, 170.0, 65.0, history);
+    }
+
+    @Test
+    void testExactDuplicates() {
+        AthleteDeduplicator deduplicator = new AthleteDeduplicator(MergePolicy.KEEP_FIRST);
+        assertTrue(deduplicator.offer(athlete("Jane Doe", 20, true, "Soccer")));
+        assertFalse(deduplicator.offer(athlete("  jane   DOE", 20, true, "soccer ")));
+        assertTrue(deduplicator.offer(athlete("Jane Doe", 20, false, "Soccer")));
+        assertTrue(deduplicator.offer(athlete("Jane Doe", 20, true, "Basketball")));
+        assertTrue(deduplicator.offer(athlete("Jane Doe", 25, true, "Soccer")));
+
+        assertEquals(4, deduplicator.getUniqueCount());
+        assertEquals(1, deduplicator.getExactDuplicateCount());
+        assertEquals(0, deduplicator.getNearDuplicateCount());
+    }
+
+    @Test
+    void testNearDuplicates() {
+        AthleteDeduplicator deduplicator = new AthleteDeduplicator(MergePolicy.KEEP_FIRST);
+        assertTrue(deduplicator.offer(athlete("Jonathan Smithers", 20, false, "Rugby")));
+        assertFalse(deduplicator.offer(athlete("Jonathon Smithers", 21, false, "Rugby")));
+        assertTrue(deduplicator.offer(athlete("Jonathan Smithers", 23, false, "Rugby")));
+        assertTrue(deduplicator.offer(athlete("Maria Gonzalez", 20, false, "Rugby")));
+
+        assertEquals(3, deduplicator.getUniqueCount());
+        assertEquals(1, deduplicator.getNearDuplicateCount());
+    }
+
+    @Test
+    void testSimilarNamesOfDifferentAthletes() {
+        AthleteDeduplicator deduplicator = new AthleteDeduplicator(MergePolicy.KEEP_FIRST);
+        // One letter apart but not the same athlete
+        assertTrue(deduplicator.offer(athlete("Maria Garcia", 20, true, "Soccer")));
+        assertEquals(Match.UNIQUE, deduplicator.classify(athlete("Marta Garcia", 20, true, "Soccer")));
+        assertTrue(deduplicator.offer(athlete("Emma Johnson", 19, true, "Soccer")));
+        assertTrue(deduplicator.offer(athlete("Emmy Johnson", 19, true, "Soccer")));
+
+        // Similar enough by name, so the body measurements decide
+        assertTrue(deduplicator.offer(athlete("Anna Smith", 22, true, "Tennis")));
+        Athlete hanna = new Athlete("Hanna Smith", 22, true, "Tennis", 176.0, 65.0, new ArrayList<>(List.of(
+                false, false, false)));
+        assertEquals(Match.UNIQUE, deduplicator.classify(hanna));
+        Athlete retyped = new Athlete("Hanna Smith", 23, true, "Tennis", 171.0, 64.0, new ArrayList<>(List.of(
+                false, false, false)));
+        assertEquals(Match.EXACT_DUPLICATE, deduplicator.classify(athlete("Hanna Smith", 22, true, "tennis")));
+        assertEquals(Match.NEAR_DUPLICATE, deduplicator.classify(athlete("Ana Smith", 22, true, "Tennis")));
+        assertEquals(Match.NEAR_DUPLICATE, deduplicator.classify(retyped));
+
+        assertEquals(6, deduplicator.getUniqueCount());
+        assertEquals(2, deduplicator.getNearDuplicateCount());
+        // KEEP_FIRST does not hold on to the records
+        assertTrue(deduplicator.getAthletes().isEmpty());
+    }
+
+    @Test
+    void testExactMatchComparesStoredName() {
+        AthleteDeduplicator deduplicator = new AthleteDeduplicator(MergePolicy.KEEP_FIRST);
+        assertEquals(Match.UNIQUE, deduplicator.classify(athlete("Ann Leeds", 30, true, "Netball")));
+        // Prefix of the stored name, and a name of the same length differing in one character
+        assertEquals(Match.UNIQUE, deduplicator.classify(athlete("Ann Lee", 30, true, "Netball")));
+        assertEquals(Match.UNIQUE, deduplicator.classify(athlete("Ann Reeds", 30, true, "Netball")));
+        assertEquals(Match.EXACT_DUPLICATE, deduplicator.classify(athlete("ANN LEEDS", 30, true, "netball")));
+        assertEquals(Match.EXACT_DUPLICATE, deduplicator.classify(athlete("Ann Lee", 30, true, "Netball")));
+        assertEquals(3, deduplicator.getUniqueCount());
+    }
+
+    @Test
+    void testManyDistinctAthletes() {
+        Random random = new Random(37);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int c = 0; c < 12; c++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+            names.add(name.toString());
+        }
+        AthleteDeduplicator deduplicator = new AthleteDeduplicator(MergePolicy.KEEP_FIRST);
+        for (String name : names) {
+            assertTrue(deduplicator.offer(athlete(name, 20, true, "Soccer")));
+        }
+        for (String name : names) {
+            assertFalse(deduplicator.offer(athlete(name.toUpperCase(), 20, true, "SOCCER")));
+        }
+        assertEquals(5000, deduplicator.getUniqueCount());
+        assertEquals(5000, deduplicator.getExactDuplicateCount());
+    }
+
+    @Test
+    void testMergePolicies() {
+        Athlete first = athlete("Jane Doe", 20, true, "Soccer");
+        first.getBioMechData().setKneeValgusAngle(10.0);
+        Athlete second = athlete("Jane Doe", 20, true, "Soccer");
+        second.getBioMechData().setKneeValgusAngle(14.0);
+        second.getBioMechData().setLandingAsymmetry(12.0);
+
+        AthleteDeduplicator fill = new AthleteDeduplicator(MergePolicy.FILL_MISSING);
+        fill.offer(first);
+        fill.offer(second);
+        assertEquals(10.0, first.getBioMechData().getKneeValgusAngle(), DELTA);
+        assertEquals(12.0, first.getBioMechData().getLandingAsymmetry(), DELTA);
+
+        AthleteDeduplicator latest = new AthleteDeduplicator(MergePolicy.PREFER_LATEST);
+        latest.offer(first);
+        latest.offer(second);
+        assertEquals(14.0, first.getBioMechData().getKneeValgusAngle(), DELTA);
+        assertEquals(1, latest.getAthletes().size());
+    }
+
+    @Test
+    void testJaccard() {
+        int[] a = AthleteDeduplicator.shingles("abc");
+        assertEquals(1.0, AthleteDeduplicator.jaccard(a, a), DELTA);
+        assertEquals(0.0, AthleteDeduplicator.jaccard(a, AthleteDeduplicator.shingles("xyz")), DELTA);
+        assertThrows(IllegalArgumentException.class, () -> new AthleteDeduplicator(MergePolicy.KEEP_FIRST, 0));
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.CohortRankIndex.ScoreKind;
+
+public class TestCohortRankIndex {
+    private static final String[] COHORTS = {"U16 Female Soccer", "U18 Female Soccer", "Senior Male Tennis"};
+
+    private RiskAssessment assessment(String athlete, Random random) {
+        // Two decimals, so quantization does not merge distinct scores
+        double overall = random.nextInt(1000) / 100.0;
+        return new RiskAssessment(athlete, overall, "Low", random.nextInt(800) / 100.0,
+                random.nextInt(2500) / 100.0, random.nextInt(9) * 1.0);
+    }
+
+    // Sorts the cohort, as reports used to
+    private double sortedPercentile(List<Double> scores, double score) {
+        double[] sorted = scores.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        int below = 0;
+        int ties = 0;
+        for (double value : sorted) {
+            double capped = Math.min(value, (CohortRankIndex.BUCKETS - 1) * CohortRankIndex.RESOLUTION);
+            double target = Math.min(score, (CohortRankIndex.BUCKETS - 1) * CohortRankIndex.RESOLUTION);
+            if (Math.round(capped * 100) < Math.round(target * 100)) {
+                below++;
+            } else if (Math.round(capped * 100) == Math.round(target * 100)) {
+                ties++;
+            }
+        }
+        return 100.0 * (below + 0.5 * ties) / sorted.length;
+    }
+
+    @Test
+    void testMatchesSortingUnderUpdates() {
+        Random random = new Random(17L);
+        CohortRankIndex index = new CohortRankIndex();
+        Map<String, RiskAssessment> latest = new HashMap<>();
+        Map<String, String> cohortOf = new HashMap<>();
+        for (int step = 0; step < 4000; step++) {
+            String athlete = "Athlete " + random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                assertEquals(latest.remove(athlete) != null, index.remove(athlete));
+                cohortOf.remove(athlete);
+                continue;
+            }
+            String cohort = COHORTS[random.nextInt(COHORTS.length)];
+            RiskAssessment assessment = assessment(athlete, random);
+            index.update(cohort, assessment);
+            latest.put(athlete, assessment);
+            cohortOf.put(athlete, cohort);
+        }
+
+        for (String cohort : COHORTS) {
+            for (ScoreKind kind : ScoreKind.values()) {
+                List<Double> scores = new ArrayList<>();
+                for (Map.Entry<String, RiskAssessment> entry : latest.entrySet()) {
+                    if (cohortOf.get(entry.getKey()).equals(cohort)) {
+                        scores.add(kind.of(entry.getValue()));
+                    }
+                }
+                assertEquals(scores.size(), index.getCohortSize(cohort));
+                for (Map.Entry<String, RiskAssessment> entry : latest.entrySet()) {
+                    if (cohortOf.get(entry.getKey()).equals(cohort)) {
+                        double score = kind.of(entry.getValue());
+                        assertEquals(sortedPercentile(scores, score), index.percentile(entry.getKey(), kind), 1e-9);
+                        assertEquals(cohort, index.getCohort(entry.getKey()));
+                    }
+                }
+                double[] sorted = scores.stream().mapToDouble(Double::doubleValue).map(
+                    s -> Math.min(s, (CohortRankIndex.BUCKETS - 1) * CohortRankIndex.RESOLUTION)).toArray();
+                Arrays.sort(sorted);
+                assertEquals(sorted[0], index.scoreAt(cohort, kind, 0.0), 1e-9);
+                assertEquals(sorted[(int) Math.floor(0.5 * (sorted.length - 1))], index.scoreAt(cohort, kind, 0.5),
+                        1e-9);
+                assertEquals(sorted[sorted.length - 1], index.scoreAt(cohort, kind, 1.0), 1e-9);
+                assertEquals(sortedPercentile(scores, 5.0), index.percentile(cohort, kind, 5.0), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testCohortsAndEdgeCases() {
+        List<Boolean> history = Arrays.asList(false, false, false);
+        Athlete athlete = new Athlete("Jane", 17, true, "Soccer", 165.0, 58.0, history);
+        assertEquals("U18 Female Soccer", CohortRankIndex.cohortOf(athlete));
+        assertEquals("Senior Male Tennis", CohortRankIndex.cohortOf(
+                new Athlete("John", 30, false, "Tennis", 180.0, 75.0, history)));
+        assertEquals("U12 Male Tennis", CohortRankIndex.cohortOf(
+                new Athlete("Kid", 10, false, "Tennis", 140.0, 35.0, history)));
+
+        CohortRankIndex index = new CohortRankIndex();
+        assertTrue(Double.isNaN(index.percentile("Jane", ScoreKind.OVERALL)));
+        assertTrue(Double.isNaN(index.scoreAt("U18 Female Soccer", ScoreKind.OVERALL, 0.5)));
+        index.update(athlete, new RiskAssessment("Jane", 4.0, "Moderate", 1.0, 2.0, 3.0));
+        assertEquals(50.0, index.percentile("Jane", ScoreKind.OVERALL));
+        assertEquals(100.0, index.percentile("U18 Female Soccer", ScoreKind.MEDICAL, 9.0));
+        assertEquals(1, index.countBelow("U18 Female Soccer", ScoreKind.DEMOGRAPHIC, 1.5));
+
+        // Moving to another cohort leaves the old one, which is then dropped
+        index.update("Senior Female Soccer", new RiskAssessment("Jane", 4.0, "Moderate", 1.0, 2.0, 3.0));
+        assertEquals(0, index.getCohortSize("U18 Female Soccer"));
+        assertEquals(1, index.getCohortSize("Senior Female Soccer"));
+        assertTrue(index.remove("Jane"));
+        assertFalse(index.remove("Jane"));
+        assertNull(index.getCohort("Jane"));
+        assertEquals(0, index.countBelow("Senior Female Soccer", ScoreKind.OVERALL, 10.0));
+    }
+
+    @Test
+    void testReassessingOnlyMemberKeepsCohort() {
+        CohortRankIndex index = new CohortRankIndex();
+        index.update("U16 Female Soccer", new RiskAssessment("Solo", 4.0, "Moderate", 1.0, 2.0, 3.0));
+        index.update("U16 Female Soccer", new RiskAssessment("Solo", 6.0, "Moderate", 1.0, 2.0, 3.0));
+        assertEquals(1, index.getCohortSize("U16 Female Soccer"));
+        assertEquals("U16 Female Soccer", index.getCohort("Solo"));
+        assertEquals(50.0, index.percentile("Solo", ScoreKind.OVERALL));
+        assertEquals(6.0, index.scoreAt("U16 Female Soccer", ScoreKind.OVERALL, 0.5), 1e-9);
+        assertEquals(0, index.countBelow("U16 Female Soccer", ScoreKind.OVERALL, 5.0));
+
+        // A second athlete joins the same, still registered cohort
+        index.update("U16 Female Soccer", new RiskAssessment("Duo", 2.0, "Low", 1.0, 2.0, 3.0));
+        assertEquals(2, index.getCohortSize("U16 Female Soccer"));
+        assertEquals(75.0, index.percentile("Solo", ScoreKind.OVERALL));
+        assertTrue(index.remove("Solo"));
+        assertTrue(index.remove("Duo"));
+        assertEquals(0, index.getCohortSize("U16 Female Soccer"));
+    }
+}
@@ -0,0 +1,461 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// Differential harness: every alternate scoring path (primitive vector, column batch, what-if, tracing,
+// incremental alert engine) must agree exactly with RiskAnalyzer.analyzeRisk on randomly generated
+// athletes, and the recommendations analyzeRisk selects from the catalog must match the threshold checks
+// of the original generateRecommendations, restated independently here. Inputs are biased towards rule
+// thresholds, their neighbouring doubles and special values; a failing input is shrunk to a minimal
+// reproduction before it is reported.
+public class TestEngineEquivalence {
+    private static final int CASES = 3000;
+
+    // Rule thresholds and spline knots per field; generated values land on and around these
+    private static final double[][] EDGES = new double[BiomechanicalField.COUNT][];
+
+    static {
+        for (int f = 0; f < EDGES.length; f++) {
+            EDGES[f] = new double[] {0.0};
+        }
+        EDGES[BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal()] = new double[] {7.5, 10.0, 15.0, 22.5};
+        EDGES[BiomechanicalField.HIP_ADDUCTION_ANGLE.ordinal()] = new double[] {12.5, 15.0, 20.0, 27.5};
+        EDGES[BiomechanicalField.KNEE_FLEXION_ANGLE.ordinal()] = new double[] {22.5, 45.0, 60.0, 67.5};
+        EDGES[BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal()] = new double[] {0.35, 0.5, 0.6, 0.65};
+        EDGES[BiomechanicalField.LANDING_ASYMMETRY.ordinal()] = new double[] {5.0, 10.0, 20.0, 35.0};
+        EDGES[BiomechanicalField.Q_ANGLE.ordinal()] = new double[] {12.5, 15.0, 20.0, 27.5};
+    }
+
+    // A healthy athlete that fires no rule; the shrinker resets measurements to these values
+    private static final double[] NEUTRAL = new double[BiomechanicalField.COUNT];
+
+    static {
+        NEUTRAL[BiomechanicalField.KNEE_FLEXION_ANGLE.ordinal()] = 70.0;
+        NEUTRAL[BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal()] = 0.7;
+    }
+
+    private static final double[] SPECIALS = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        -0.0, -1.0, Double.MAX_VALUE};
+    private static final int[] AGES = {13, 14, 25, 26};
+    private static final String[] SPORTS = {"Soccer", "soccer", "BASKETBALL", "Volleyball", "Tennis", "", "Rugby"};
+    // Height 200 cm makes BMI exactly weight / 4, so these weights sit on the 18.5 and 30.0 cut-offs
+    private static final double[] BOUNDARY_WEIGHTS = {74.0, 120.0, Math.nextDown(74.0), Math.nextUp(120.0)};
+
+    // One generated input: everything needed to build an Athlete, in a form the shrinker can edit
+    private static final class Case {
+        int age = 30;
+        boolean female;
+        String sport = "Tennis";
+        double height = 175.0;
+        double weight = 70.0;
+        boolean[] history = new boolean[3];
+        double[] fields = NEUTRAL.clone();
+
+        Case copy() {
+            Case copy = new Case();
+            copy.age = age;
+            copy.female = female;
+            copy.sport = sport;
+            copy.height = height;
+            copy.weight = weight;
+            copy.history = history.clone();
+            copy.fields = fields.clone();
+            return copy;
+        }
+
+        Athlete toAthlete() {
+            List<Boolean> list = new ArrayList<>();
+            for (boolean flag : history) {
+                list.add(flag);
+            }
+            Athlete athlete = new Athlete("Case", age, female, sport, height, weight, list);
+            for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+                field.set(athlete.getBioMechData(), fields[field.ordinal()]);
+            }
+            return athlete;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("age=").append(age).append(", female=").append(female)
+                    .append(", sport=\"").append(sport).append("\", height=").append(height)
+                    .append(", weight=").append(weight).append(", familyHistory=").append(history[0])
+                    .append(", prevInjuryR=").append(history[1]).append(", prevInjuryL=").append(history[2]);
+            for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+                double value = fields[field.ordinal()];
+                if (Double.compare(value, NEUTRAL[field.ordinal()]) != 0) {
+                    builder.append(", ").append(field.getPropertyName()).append('=').append(value);
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    // An analyzer under test, with a tracing explainer configured the same way when the engine is the rules
+    private static final class Setup {
+        final RiskAnalyzer analyzer;
+        final RiskExplainer explainer;
+
+        Setup(RiskAnalyzer analyzer, RiskExplainer explainer) {
+            this.analyzer = analyzer;
+            this.explainer = explainer;
+        }
+    }
+
+    private static Case generate(Random random) {
+        Case c = new Case();
+        c.age = random.nextInt(3) == 0 ? 8 + random.nextInt(35) : AGES[random.nextInt(AGES.length)];
+        c.female = random.nextBoolean();
+        c.sport = SPORTS[random.nextInt(SPORTS.length)];
+        if (random.nextInt(3) == 0) {
+            c.height = 200.0;
+            c.weight = BOUNDARY_WEIGHTS[random.nextInt(BOUNDARY_WEIGHTS.length)];
+        } else {
+            c.height = 150.0 + random.nextInt(50);
+            c.weight = 40.0 + random.nextInt(80);
+        }
+        for (int h = 0; h < c.history.length; h++) {
+            c.history[h] = random.nextInt(4) == 0;
+        }
+        for (BiomechanicalField field : BiomechanicalField.FIELDS) {
+            c.fields[field.ordinal()] = generateValue(random, field);
+        }
+        return c;
+    }
+
+    private static double generateValue(Random random, BiomechanicalField field) {
+        if (field == BiomechanicalField.SINGLE_LEG_BALANCE_TIME) {
+            return random.nextInt(60);
+        }
+        double[] edges = EDGES[field.ordinal()];
+        double edge = edges[random.nextInt(edges.length)];
+        int pick = random.nextInt(10);
+        if (pick < 4) {
+            return edge;
+        } else if (pick < 6) {
+            return random.nextBoolean() ? Math.nextUp(edge) : Math.nextDown(edge);
+        } else if (pick < 7) {
+            return SPECIALS[random.nextInt(SPECIALS.length)];
+        } else {
+            // Within a few units of a threshold, rounded to a typical measurement precision
+            return Math.round((edge + (random.nextDouble() - 0.5) * 4.0 * Math.max(1.0, edge / 10.0)) * 100.0)
+                    / 100.0;
+        }
+    }
+
+    // EFFECTS: returns a description of the first path that disagrees with analyzeRisk on c, or null
+    private static String check(Setup setup, Case c) {
+        RiskAnalyzer analyzer = setup.analyzer;
+        ScoringEngine engine = analyzer.getScoringEngine();
+        Athlete athlete = c.toAthlete();
+        RiskAssessment reference = analyzer.analyzeRisk(athlete);
+        double overall = reference.getOverallRiskScore();
+        double biomechanical = reference.getBiomechanicalRiskScore();
+
+        double[] vector = athlete.getBioMechData().toArray(new double[BiomechanicalField.COUNT]);
+        String mismatch = compare("vector biomechanical", biomechanical, engine.assessBiomechanicalRisk(vector));
+
+        if (mismatch == null) {
+            double[][] columns = new double[BiomechanicalField.COUNT][];
+            for (int f = 0; f < columns.length; f++) {
+                // The case is the middle row of three, between two neutral athletes
+                columns[f] = new double[] {NEUTRAL[f], vector[f], NEUTRAL[f]};
+            }
+            double[] out = new double[3];
+            engine.assessBiomechanicalRisk(columns, out);
+            mismatch = compare("column batch biomechanical", biomechanical, out[1]);
+        }
+
+        if (mismatch == null) {
+            double recombined = analyzer.calculateOverallRisk(engine.assessDemographicRisk(athlete),
+                    engine.assessBiomechanicalRisk(vector), engine.assessMedicalHistoryRisk(athlete));
+            mismatch = compare("recombined overall", overall, recombined);
+        }
+
+        if (mismatch == null) {
+            double[][] unchanged = {new double[BiomechanicalField.COUNT]};
+            WhatIfResult whatIf = new WhatIfAnalyzer(analyzer).evaluate(athlete, BiomechanicalField.FIELDS, unchanged);
+            mismatch = firstOf(compare("what-if baseline overall", overall, whatIf.getBaselineOverallScore()),
+                    compare("what-if baseline biomechanical", biomechanical, whatIf.getBaselineBiomechanicalScore()),
+                    compare("what-if scenario overall", overall, whatIf.getOverallScore(0)),
+                    compare("what-if scenario category", reference.getRiskCategory(), whatIf.getRiskCategory(0)));
+        }
+
+        if (mismatch == null && setup.explainer != null) {
+            mismatch = compare("tracing explainer", describe(reference), describe(setup.explainer.explain(athlete)));
+        }
+
+        if (mismatch == null) {
+            mismatch = checkAlertEngine(analyzer, c, overall);
+        }
+
+        if (mismatch == null) {
+            mismatch = compare("catalog recommendations",
+                    expectedRecommendations(analyzer.getConfig(), athlete, reference.getRiskCategory()),
+                    describe(reference.getRecommendations()));
+        }
+        return mismatch;
+    }
+
+    // EFFECTS: returns, as describe(List) would, the recommendations the original generateRecommendations
+    //          made for athlete: its threshold checks in its order, with the literal thresholds it used
+    //          (the default mild thresholds) read from config, and then stably sorted by priority
+    private static String expectedRecommendations(ScoringConfig config, Athlete athlete, String category) {
+        BiomechanicalData data = athlete.getBioMechData();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        if ((athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) && config.getPreviousInjuryIncrement() > 0.0) {
+            first.add("1:Previous ACL Injury; ");
+        }
+        if (scored(config, BiomechanicalField.KNEE_VALGUS_ANGLE)
+                && data.getKneeValgusAngle() > config.mildThreshold(BiomechanicalField.KNEE_VALGUS_ANGLE)) {
+            first.add("1:Excessive Knee Valgus; ");
+        }
+        if (scored(config, BiomechanicalField.HIP_ADDUCTION_ANGLE)
+                && data.getHipAdductionAngle() > config.mildThreshold(BiomechanicalField.HIP_ADDUCTION_ANGLE)) {
+            second.add("2:Excessive Hip Adduction; ");
+        }
+        if (scored(config, BiomechanicalField.KNEE_FLEXION_ANGLE)
+                && data.getKneeFlexionAngle() < config.mildThreshold(BiomechanicalField.KNEE_FLEXION_ANGLE)) {
+            first.add("1:Insufficient Knee Flexion; ");
+        }
+        if (scored(config, BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO) && data.getHamstringsToQuadsRatio()
+                < config.mildThreshold(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO)) {
+            first.add("1:Hamstring-Quadriceps Imbalance; ");
+        }
+        if (scored(config, BiomechanicalField.LANDING_ASYMMETRY)
+                && data.getLandingAsymmetry() > config.mildThreshold(BiomechanicalField.LANDING_ASYMMETRY)) {
+            second.add("2:Landing Asymmetry; ");
+        }
+        if (category.equals("High") || category.equals("Very High")) {
+            first.add("1:Overall High Risk; ");
+        }
+        StringBuilder expected = new StringBuilder();
+        for (String recommendation : first) {
+            expected.append(recommendation);
+        }
+        for (String recommendation : second) {
+            expected.append(recommendation);
+        }
+        return expected.length() == 0 ? "3:Maintenance of Low Risk Profile; " : expected.toString();
+    }
+
+    // EFFECTS: returns true if config gives field's rules any weight (a rule switched off flags nothing)
+    private static boolean scored(ScoringConfig config, BiomechanicalField field) {
+        return config.ruleIncrement(field, 1) > 0.0 || config.ruleIncrement(field, 2) > 0.0;
+    }
+
+    // Starts the alert engine from a neutral athlete and streams the case's measurements in one field at a
+    // time (in reverse order, unlike track), so the incremental total is built up the hard way
+    private static String checkAlertEngine(RiskAnalyzer analyzer, Case c, double overall) {
+        RiskAlertEngine alerts = new RiskAlertEngine(analyzer, Runnable::run, alert -> { });
+        String mismatch = compare("alert engine track", overall, alerts.track(c.toAthlete()));
+        if (mismatch != null) {
+            return mismatch;
+        }
+        Case start = c.copy();
+        start.fields = NEUTRAL.clone();
+        alerts.track(start.toAthlete());
+        for (int f = BiomechanicalField.COUNT - 1; f >= 0; f--) {
+            alerts.update("Case", BiomechanicalField.FIELDS[f], c.fields[f]);
+        }
+        return compare("alert engine incremental update", overall, alerts.getOverallRisk("Case"));
+    }
+
+    private static String compare(String path, double expected, double actual) {
+        return Double.compare(expected, actual) == 0 ? null
+                : path + ": expected " + expected + " but was " + actual;
+    }
+
+    private static String compare(String path, String expected, String actual) {
+        return expected.equals(actual) ? null : path + ": expected " + expected + " but was " + actual;
+    }
+
+    private static String firstOf(String... mismatches) {
+        for (String mismatch : mismatches) {
+            if (mismatch != null) {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    private static String describe(RiskAssessment assessment) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(assessment.getOverallRiskScore()).append(' ').append(assessment.getRiskCategory())
+                .append(" [").append(assessment.getDemographicRiskScore()).append(", ")
+                .append(assessment.getBiomechanicalRiskScore()).append(", ")
+                .append(assessment.getMedicalHistoryRiskScore()).append("] {");
+        for (KeyRiskFactor factor : KeyRiskFactor.FACTORS) {
+            if (assessment.hasKeyRiskFactor(factor)) {
+                builder.append(factor.getDisplayName()).append('=')
+                        .append(assessment.getKeyRiskFactorScore(factor)).append("; ");
+            }
+        }
+        return builder.append("} ").append(describe(assessment.getRecommendations())).toString();
+    }
+
+    private static String describe(List<Recommendation> recommendations) {
+        StringBuilder builder = new StringBuilder();
+        for (Recommendation recommendation : recommendations) {
+            builder.append(recommendation.getPriority()).append(':')
+                    .append(recommendation.getTargetRiskFactor()).append("; ");
+        }
+        return builder.toString();
+    }
+
+    // EFFECTS: returns a minimal variant of failing that still fails: inputs are reset to defaults, or
+    //          rounded, one at a time for as long as the failure persists
+    private static Case shrink(Setup setup, Case failing) {
+        Case current = failing;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (Case candidate : simplifications(current)) {
+                if (check(setup, candidate) != null) {
+                    current = candidate;
+                    progress = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static List<Case> simplifications(Case c) {
+        Case defaults = new Case();
+        List<Case> candidates = new ArrayList<>();
+        for (int f = 0; f < c.fields.length; f++) {
+            double value = c.fields[f];
+            if (Double.compare(value, NEUTRAL[f]) == 0) {
+                continue;
+            }
+            Case reset = c.copy();
+            reset.fields[f] = NEUTRAL[f];
+            candidates.add(reset);
+            if (!Double.isNaN(value) && !Double.isInfinite(value) && value != Math.rint(value)) {
+                Case candidate = c.copy();
+                candidate.fields[f] = Math.rint(value);
+                candidates.add(candidate);
+            }
+        }
+        for (int h = 0; h < c.history.length; h++) {
+            if (c.history[h]) {
+                Case candidate = c.copy();
+                candidate.history[h] = false;
+                candidates.add(candidate);
+            }
+        }
+        if (c.female) {
+            Case candidate = c.copy();
+            candidate.female = false;
+            candidates.add(candidate);
+        }
+        if (c.age != defaults.age) {
+            Case candidate = c.copy();
+            candidate.age = defaults.age;
+            candidates.add(candidate);
+        }
+        if (!c.sport.equals(defaults.sport)) {
+            Case candidate = c.copy();
+            candidate.sport = defaults.sport;
+            candidates.add(candidate);
+        }
+        if (c.height != defaults.height || c.weight != defaults.weight) {
+            Case candidate = c.copy();
+            candidate.height = defaults.height;
+            candidate.weight = defaults.weight;
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+
+    // EFFECTS: returns null if every generated case agrees, or the shrunk failure and what disagreed
+    private static String findMismatch(Setup setup, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < CASES; i++) {
+            Case c = generate(random);
+            if (check(setup, c) != null) {
+                Case minimal = shrink(setup, c);
+                return check(setup, minimal) + "\n  minimal case: " + minimal + "\n  original case: " + c
+                        + "\n  seed " + seed + ", case " + i;
+            }
+        }
+        return null;
+    }
+
+    private static void assertEquivalent(Setup setup, long seed) {
+        String mismatch = findMismatch(setup, seed);
+        if (mismatch != null) {
+            fail(mismatch);
+        }
+    }
+
+    @Test
+    void testRuleEngineWithDefaultWeights() {
+        assertEquivalent(new Setup(new RiskAnalyzer(), new RiskExplainer()), 43L);
+    }
+
+    @Test
+    void testRuleEngineWithCustomWeights() {
+        assertEquivalent(new Setup(new RiskAnalyzer(0.2, 0.6, 0.2), new RiskExplainer(0.2, 0.6, 0.2)), 4343L);
+    }
+
+    @Test
+    void testRuleEngineWithCustomConfig() {
+        // Every threshold moved to another generated edge, so the cases probe the new cut-offs too
+        Properties properties = new Properties();
+        properties.setProperty("weights", "0.3,0.45,0.25");
+        properties.setProperty("categoryThresholds", "2.5,5.0,7.5");
+        properties.setProperty("ageRange", "13,26");
+        properties.setProperty("highRiskSports", "Soccer,Tennis");
+        properties.setProperty("previousInjury", "4.0");
+        properties.setProperty("kneeValgusAngle", "7.5:1.0,15.0:2.5");
+        properties.setProperty("hipAdductionAngle", "12.5:0.5,27.5:1.5");
+        properties.setProperty("kneeFlexionAngle", "67.5:0.75,45.0:2.0");
+        properties.setProperty("hamstringsToQuadsRatio", "0.65:1.0,0.35:2.0");
+        properties.setProperty("landingAsymmetry", "5.0:0.0,35.0:0.0");
+        properties.setProperty("qAngle", "12.5:0.75,20.0:1.5");
+        ScoringConfig config = ScoringConfig.fromProperties(properties);
+        assertEquivalent(new Setup(new RiskAnalyzer(config), new RiskExplainer(config)), 434L);
+    }
+
+    @Test
+    void testContinuousEngine() {
+        assertEquivalent(new Setup(new RiskAnalyzer(ContinuousScoringEngine.withDefaultCoefficients()), null),
+                434343L);
+    }
+
+    @Test
+    void testHarnessShrinksSeededBug() {
+        // A vector path that treats 15 degrees of valgus as "over 15", unlike the reference
+        RuleScoringEngine faulty = new RuleScoringEngine() {
+            @Override
+            public double assessBiomechanicalRisk(double[] fields) {
+                double score = super.assessBiomechanicalRisk(fields);
+                if (fields[BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal()] == 15.0) {
+                    score = Math.min(10.0, score + 1.0);
+                }
+                return score;
+            }
+        };
+        String mismatch = findMismatch(new Setup(new RiskAnalyzer(faulty), null), 43L);
+        assertNotNull(mismatch);
+        assertTrue(mismatch.startsWith("vector biomechanical: expected 1.0 but was 2.0\n"), mismatch);
+        int start = mismatch.indexOf("minimal case: ");
+        String minimal = mismatch.substring(start, mismatch.indexOf('\n', start));
+        assertEquals("minimal case: age=30, female=false, sport=\"Tennis\", height=175.0, weight=70.0, "
+                + "familyHistory=false, prevInjuryR=false, prevInjuryL=false, kneeValgusAngle=15.0", minimal);
+    }
+}
@@ -0,0 +1,197 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestNameIndex {
+    private NameIndex index;
+    private Athlete jane;
+    private Athlete janet;
+    private Athlete john;
+
+    private Athlete athlete(String name) {
+        List<Boolean> history = new ArrayList<>();
+        history.add(false);
+        history.add(false);
+        history.add(false);
+        return new Athlete(name, 20, true, "Soccer", 170.0, 65.0, history);
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new NameIndex();
+        jane = athlete("Jane Doe");
+        janet = athlete("Janet O'Neil");
+        john = athlete("John  Smith");
+        index.add(jane);
+        index.add(janet);
+        index.add(john);
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("janet o neil", NameIndex.normalize("  Janet O'Neil "));
+        assertEquals("john smith", NameIndex.normalize("John  Smith"));
+    }
+
+    @Test
+    void testFindByPrefix() {
+        List<Athlete> result = index.findByPrefix("JAN", 10);
+        assertEquals(2, result.size());
+        assertEquals(jane, result.get(0));
+        assertEquals(janet, result.get(1));
+
+        assertEquals(List.of(john), index.findByPrefix("smi", 10));
+        assertEquals(List.of(janet), index.findByPrefix("o'n", 10));
+        assertEquals(1, index.findByPrefix("j", 1).size());
+        assertTrue(index.findByPrefix("", 10).isEmpty());
+        assertTrue(index.findByPrefix("x", 10).isEmpty());
+    }
+
+    @Test
+    void testFindSimilar() {
+        assertEquals(List.of(jane), index.findSimilar("Jane Do", 1, 10));
+        assertEquals(List.of(john), index.findSimilar("Jhon Smith", 2, 10));
+        assertTrue(index.findSimilar("Jhon Smith", 1, 10).isEmpty());
+
+        List<Athlete> result = index.findSimilar("Jane Doe", 6, 10);
+        assertEquals(jane, result.get(0));
+    }
+
+    @Test
+    void testAddAndRemove() {
+        assertFalse(index.add(jane));
+        Athlete twin = athlete("Jane Doe");
+        assertTrue(index.add(twin));
+        assertEquals(4, index.size());
+        assertEquals(2, index.findByPrefix("doe", 10).size());
+
+        assertTrue(index.remove(jane));
+        assertFalse(index.remove(jane));
+        assertEquals(List.of(twin), index.findByPrefix("doe", 10));
+        assertEquals(List.of(twin), index.findSimilar("jane doe", 0, 10));
+        assertTrue(index.remove(twin));
+        assertTrue(index.findByPrefix("doe", 10).isEmpty());
+    }
+
+    @Test
+    void testPrefixResultsAreInNameOrder() {
+        Athlete zed = athlete("Zed Doe");
+        Athlete amy = athlete("Amy Doe");
+        index.add(zed);
+        index.add(amy);
+        // Every match shares the key "doe", so only the full names can order them
+        assertEquals(List.of(amy, jane, zed), index.findByPrefix("doe", 10));
+        assertEquals(List.of(amy, jane), index.findByPrefix("do", 2));
+    }
+
+    @Test
+    void testPrefixMatchesAreDistinctAndInRangeOrder() {
+        Athlete anna = athlete("Anna Anderson");
+        Athlete dora = athlete("Dora Lee");
+        Athlete amy = athlete("Amy Doe");
+        index.add(anna);
+        index.add(dora);
+        index.add(amy);
+        // Both words of "anna anderson" start with "an"; it is listed once, under "anderson"
+        assertEquals(List.of(anna), index.findByPrefix("an", 10));
+        // "doe ..." sorts before "dora lee"; equal suffixes are in name order
+        assertEquals(List.of(amy, jane, dora), index.findByPrefix("do", 10));
+        assertEquals(List.of(amy), index.findByPrefix("do", 1));
+    }
+
+    @Test
+    void testPrefixMatchesBruteForce() {
+        List<Athlete> roster = new RosterGenerator(3L).generate(5000);
+        NameIndex large = new NameIndex();
+        for (Athlete athlete : roster) {
+            large.add(athlete);
+        }
+        for (String prefix : List.of("a", "ma", "jo", "s", "ri", "b")) {
+            List<String> expected = new ArrayList<>();
+            for (Athlete athlete : roster) {
+                String name = NameIndex.normalize(athlete.getName());
+                // The smallest word suffix that starts with the prefix
+                String best = null;
+                for (int start = 0; start >= 0; start = name.indexOf(' ', start) < 0 ? -1
+                        : name.indexOf(' ', start) + 1) {
+                    String suffix = name.substring(start);
+                    if (suffix.startsWith(prefix) && (best == null || suffix.compareTo(best) < 0)) {
+                        best = suffix;
+                    }
+                }
+                if (best != null) {
+                    expected.add(best + "\u0000" + name);
+                }
+            }
+            expected.sort(null);
+            List<String> found = new ArrayList<>();
+            for (Athlete athlete : large.findByPrefix(prefix, 25)) {
+                found.add(NameIndex.normalize(athlete.getName()));
+            }
+            List<String> names = new ArrayList<>();
+            for (String match : expected.subList(0, Math.min(25, expected.size()))) {
+                names.add(match.substring(match.indexOf(0) + 1));
+            }
+            assertEquals(names, found, prefix);
+        }
+    }
+
+    @Test
+    void testShortQueriesAndCleanup() {
+        Athlete ab = athlete("Ab");
+        index.add(ab);
+        // "xb" shares no trigram with "ab" but is one substitution away
+        assertEquals(List.of(ab), index.findSimilar("xb", 1, 10));
+        assertEquals(List.of(ab), index.findSimilar("b", 1, 10));
+        assertTrue(index.findSimilar("xy", 1, 10).isEmpty());
+
+        for (Athlete athlete : List.of(ab, jane, janet, john)) {
+            assertTrue(index.remove(athlete));
+        }
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTrigramCount());
+    }
+
+    @Test
+    void testConcurrentAddAndRemoveLeaveNoStaleKeys() throws InterruptedException {
+        Athlete racer = athlete("Racing Rita");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean adder = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    if (adder) {
+                        index.add(racer);
+                    } else {
+                        index.remove(racer);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        index.remove(racer);
+        assertTrue(index.findByPrefix("rita", 10).isEmpty());
+        assertTrue(index.findSimilar("racing rita", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testBoundedDistance() {
+        int[] a = new int[16];
+        int[] b = new int[16];
+        assertEquals(3, NameIndex.boundedDistance("kitten", "sitting", 5, a, b));
+        assertEquals(3, NameIndex.boundedDistance("kitten", "sitting", 2, a, b));
+        assertEquals(0, NameIndex.boundedDistance("doe", "doe", 0, a, b));
+    }
+}
@@ -0,0 +1,106 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TestProfileIndex {
+
+    // Scans every profile, normalizing the same way as the index
+    private Integer[] bruteForce(double[][] columns, double[] profile, int k, int excluded) {
+        int size = columns[0].length;
+        int dimensions = columns.length;
+        double[] means = new double[dimensions];
+        double[] scales = new double[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            double sum = 0.0;
+            for (double value : columns[d]) {
+                sum += value;
+            }
+            means[d] = sum / size;
+            double squares = 0.0;
+            for (double value : columns[d]) {
+                squares += (value - means[d]) * (value - means[d]);
+            }
+            double deviation = Math.sqrt(squares / size);
+            scales[d] = deviation > 0.0 ? 1.0 / deviation : 1.0;
+        }
+        double[] distances = new double[size];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            for (int d = 0; d < dimensions; d++) {
+                double difference = (profile[d] - means[d]) * scales[d] - (columns[d][i] - means[d]) * scales[d];
+                distances[i] += difference * difference;
+            }
+            if (i != excluded) {
+                candidates.add(i);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(i -> distances[i]));
+        return candidates.subList(0, Math.min(k, candidates.size())).toArray(new Integer[0]);
+    }
+
+    private int[] unbox(Integer[] values) {
+        return Arrays.stream(values).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        // Large enough to build in parallel
+        List<Athlete> roster = new RosterGenerator(23L).generate(40000);
+        double[][] columns = BiomechanicalField.toColumns(roster);
+        ProfileIndex index = ProfileIndex.of(roster);
+        assertEquals(roster.size(), index.size());
+
+        Random random = new Random(5L);
+        for (int query = 0; query < 20; query++) {
+            double[] profile = new double[BiomechanicalField.COUNT];
+            int source = random.nextInt(roster.size());
+            for (int d = 0; d < profile.length; d++) {
+                // Near a real athlete, perturbed
+                profile[d] = columns[d][source] * (0.9 + 0.2 * random.nextDouble());
+            }
+            int k = 1 + random.nextInt(25);
+            double[] distances = new double[k];
+            int[] nearest = index.nearest(profile, k, distances);
+            assertArrayEquals(unbox(bruteForce(columns, profile, k, -1)), nearest);
+            for (int i = 1; i < k; i++) {
+                assertEquals(true, distances[i - 1] <= distances[i]);
+            }
+
+            assertArrayEquals(unbox(bruteForce(columns, roster.get(source).getBioMechData().toArray(
+                    new double[BiomechanicalField.COUNT]), 10, source)), index.similarTo(source, 10));
+        }
+        assertArrayEquals(unbox(bruteForce(columns, roster.get(7).getBioMechData().toArray(
+                new double[BiomechanicalField.COUNT]), 3, -1)), index.nearest(roster.get(7).getBioMechData(), 3));
+    }
+
+    @Test
+    void testSmallAndDegenerateInputs() {
+        double[][] columns = new double[BiomechanicalField.COUNT][5];
+        for (int i = 0; i < 5; i++) {
+            // Only one measurement varies; the others are constant
+            columns[0][i] = i * 2.0;
+        }
+        ProfileIndex index = ProfileIndex.of(columns);
+        double[] profile = new double[BiomechanicalField.COUNT];
+        profile[0] = 5.1;
+        assertArrayEquals(new int[] {3, 2, 4, 1, 0}, index.nearest(profile, 10, null));
+        assertArrayEquals(new int[] {1, 3}, index.similarTo(2, 2));
+        assertArrayEquals(new int[] {1, 2, 3, 4}, index.similarTo(0, 9));
+
+        ProfileIndex empty = ProfileIndex.of(new double[BiomechanicalField.COUNT][0]);
+        assertEquals(0, empty.nearest(profile, 3, null).length);
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(profile, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> index.similarTo(5, 1));
+        assertThrows(IllegalArgumentException.class, () -> ProfileIndex.of(new double[3][4]));
+    }
+}
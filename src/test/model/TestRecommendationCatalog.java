@@ -0,0 +1,132 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TestRecommendationCatalog {
+
+    private List<String> targets(List<Recommendation> recommendations) {
+        List<String> targets = new ArrayList<>();
+        for (Recommendation recommendation : recommendations) {
+            targets.add(recommendation.getTargetRiskFactor());
+        }
+        return targets;
+    }
+
+    @Test
+    void testSelection() {
+        assertEquals(List.of("Maintenance of Low Risk Profile"), targets(RecommendationCatalog.select(0, false)));
+        assertEquals(List.of("Maintenance of Low Risk Profile"),
+                targets(RecommendationCatalog.select(KeyRiskFactor.FEMALE_GENDER.bit(), false)));
+
+        int mask = KeyRiskFactor.mask(KeyRiskFactor.EXCESSIVE_HIP_ADDUCTION, KeyRiskFactor.EXCESSIVE_KNEE_VALGUS,
+                KeyRiskFactor.LANDING_ASYMMETRY);
+        // Priority 1 before priority 2, catalog order within a priority
+        assertEquals(List.of("Excessive Knee Valgus", "Overall High Risk", "Excessive Hip Adduction",
+                "Landing Asymmetry"), targets(RecommendationCatalog.select(mask, true)));
+    }
+
+    @Test
+    void testListsAreSharedAndImmutable() {
+        int mask = KeyRiskFactor.mask(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS);
+        List<Recommendation> selected = RecommendationCatalog.select(mask, false);
+        assertSame(selected, RecommendationCatalog.select(mask | KeyRiskFactor.FEMALE_GENDER.bit(), false));
+        assertThrows(UnsupportedOperationException.class, () -> selected.add(selected.get(0)));
+
+        RiskAssessment assessment = new RiskAssessment("A", 5.0, "Moderate", 5.0, 5.0, 5.0);
+        assessment.setSharedRecommendations(selected);
+        assessment.addRecommendation(new Recommendation("Equipment", 3, "Wear a brace", "Other"));
+        assertEquals(2, assessment.getRecommendations().size());
+        assertEquals(1, RecommendationCatalog.select(mask, false).size());
+    }
+
+    @Test
+    void testAnalyzedRecommendationsAreModifiable() {
+        List<Boolean> history = new ArrayList<>();
+        history.add(false);
+        history.add(true);
+        history.add(false);
+        Athlete athlete = new Athlete("A", 20, true, "Soccer", 170.0, 65.0, history);
+        athlete.getBioMechData().setKneeValgusAngle(18.0);
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        RiskAssessment assessment = analyzer.analyzeRisk(athlete);
+        RiskAssessment other = analyzer.analyzeRisk(athlete);
+        List<Recommendation> shared = new ArrayList<>(other.getRecommendations());
+
+        List<Recommendation> recommendations = assessment.getRecommendations();
+        int size = recommendations.size();
+        Recommendation brace = new Recommendation("Equipment", 3, "Wear a brace", "Other");
+        assertTrue(recommendations.add(brace));
+        assertEquals(size + 1, recommendations.size());
+        assertEquals(brace, assessment.getRecommendations().get(size));
+        recommendations.remove(0);
+        recommendations.removeIf(recommendation -> recommendation.getPriority() == 1);
+        assertEquals(recommendations, assessment.getRecommendations());
+        assessment.getRecommendations().clear();
+        assertTrue(recommendations.isEmpty());
+
+        // The catalog list and other assessments sharing it are untouched
+        assertEquals(shared, other.getRecommendations());
+        assertEquals(shared, analyzer.analyzeRisk(athlete).getRecommendations());
+    }
+
+    @Test
+    void testAnalyzerMatchesThresholdChecks() {
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        Random random = new Random(41);
+        for (int i = 0; i < 500; i++) {
+            List<Boolean> history = new ArrayList<>();
+            history.add(random.nextBoolean());
+            history.add(random.nextInt(4) == 0);
+            history.add(random.nextInt(4) == 0);
+            Athlete athlete = new Athlete("A" + i, 12 + random.nextInt(20), random.nextBoolean(), "Soccer",
+                    170.0, 65.0, history);
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(random.nextInt(25));
+            data.setHipAdductionAngle(random.nextInt(25));
+            data.setKneeFlexionAngle(40 + random.nextInt(40));
+            data.setHamstringsToQuadsRatio(0.4 + random.nextInt(40) / 100.0);
+            data.setLandingAsymmetry(random.nextInt(25));
+            RiskAssessment assessment = analyzer.analyzeRisk(athlete);
+
+            // The checks generateRecommendations used to run, grouped by priority
+            List<String> first = new ArrayList<>();
+            List<String> second = new ArrayList<>();
+            if (athlete.hasPrevInjuryR() || athlete.hasPrevInjuryL()) {
+                first.add("Previous ACL Injury");
+            }
+            if (data.getKneeValgusAngle() > 10.0) {
+                first.add("Excessive Knee Valgus");
+            }
+            if (data.getHipAdductionAngle() > 15.0) {
+                second.add("Excessive Hip Adduction");
+            }
+            if (data.getKneeFlexionAngle() < 60.0) {
+                first.add("Insufficient Knee Flexion");
+            }
+            if (data.getHamstringsToQuadsRatio() < 0.6) {
+                first.add("Hamstring-Quadriceps Imbalance");
+            }
+            if (data.getLandingAsymmetry() > 10.0) {
+                second.add("Landing Asymmetry");
+            }
+            if (assessment.getRiskCategory().equals("High") || assessment.getRiskCategory().equals("Very High")) {
+                first.add("Overall High Risk");
+            }
+            List<String> expected = new ArrayList<>(first);
+            expected.addAll(second);
+            if (expected.isEmpty()) {
+                expected.add("Maintenance of Low Risk Profile");
+            }
+            assertEquals(expected, targets(assessment.getRecommendations()));
+        }
+    }
+}
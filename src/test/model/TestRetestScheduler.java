@@ -0,0 +1,100 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRetestScheduler {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private RetestScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RetestScheduler();
+    }
+
+    private RiskAssessment assessment(String name, String category) {
+        return new RiskAssessment(name, 5.0, category, 5.0, 5.0, 5.0);
+    }
+
+    @Test
+    void testIntervalsShrinkWithRisk() {
+        assertEquals(START.plusDays(180), scheduler.schedule(assessment("Low", "Low"), START));
+        assertEquals(START.plusDays(14), scheduler.schedule(assessment("VeryHigh", "Very High"), START));
+        assertEquals(START.plusDays(14), scheduler.getDueDate("VeryHigh"));
+        assertTrue(scheduler.getIntervalDays("High") < scheduler.getIntervalDays("Moderate"));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.getIntervalDays("Extreme"));
+        assertThrows(IllegalArgumentException.class, () -> new RetestScheduler(new int[] {1, 2, 3}));
+    }
+
+    @Test
+    void testDueOnIncludesOverdueInOrder() {
+        scheduler.schedule(assessment("B", "High"), START);
+        scheduler.schedule(assessment("A", "High"), START);
+        scheduler.schedule(assessment("C", "Very High"), START);
+        scheduler.schedule(assessment("D", "Low"), START);
+
+        assertTrue(scheduler.dueOn(START.plusDays(13)).isEmpty());
+        assertEquals(List.of("C"), scheduler.dueOn(START.plusDays(14)));
+        assertEquals(List.of("C", "A", "B"), scheduler.dueOn(START.plusDays(40)));
+        assertEquals(4, scheduler.dueOn(START.plusDays(365)).size());
+    }
+
+    @Test
+    void testRescheduleAndUnschedule() {
+        scheduler.schedule(assessment("A", "Low"), START);
+        scheduler.schedule(assessment("B", "Moderate"), START);
+        scheduler.schedule(assessment("A", "Very High"), START.plusDays(5));
+        assertEquals(START.plusDays(19), scheduler.getDueDate("A"));
+        assertEquals(List.of("A"), scheduler.dueOn(START.plusDays(20)));
+
+        assertTrue(scheduler.unschedule("A"));
+        assertFalse(scheduler.unschedule("A"));
+        assertNull(scheduler.getDueDate("A"));
+        assertEquals(1, scheduler.size());
+        assertEquals(List.of("B"), scheduler.dueOn(START.plusDays(90)));
+    }
+
+    @Test
+    void testMatchesFullScanAfterRandomUpdates() {
+        Random random = new Random(39);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("Athlete " + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            if (random.nextInt(10) == 0) {
+                scheduler.unschedule(name);
+            } else {
+                String category = RiskAnalyzer.RISK_CATEGORIES[random.nextInt(4)];
+                scheduler.schedule(assessment(name, category), START.plusDays(random.nextInt(200)));
+            }
+        }
+
+        LocalDate day = START.plusDays(120);
+        List<String> expected = new ArrayList<>();
+        for (String name : names) {
+            LocalDate due = scheduler.getDueDate(name);
+            if (due != null && !due.isAfter(day)) {
+                expected.add(name);
+            }
+        }
+        expected.sort((a, b) -> {
+            int byDate = scheduler.getDueDate(a).compareTo(scheduler.getDueDate(b));
+            return byDate != 0 ? byDate : a.compareTo(b);
+        });
+        assertEquals(expected, scheduler.dueOn(day));
+    }
+}
@@ -0,0 +1,146 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRiskAlertEngine {
+    private static final double DELTA = 0.0001;
+
+    private Athlete athlete;
+    private List<RiskAlert> alerts;
+    private RiskAlertEngine alertEngine;
+
+    @BeforeEach
+    void setUp() {
+        // Demographic 5.5 and medical 8.0, so overall = 3.375 + biomechanical / 2
+        List<Boolean> history = new ArrayList<>();
+        history.add(true);
+        history.add(true);
+        history.add(false);
+        athlete = new Athlete("Live", 20, true, "Soccer", 170.0, 65.0, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        data.setKneeFlexionAngle(70.0);
+        data.setHamstringsToQuadsRatio(0.7);
+
+        alerts = new ArrayList<>();
+        alertEngine = new RiskAlertEngine(new RiskAnalyzer(), Runnable::run, alerts::add);
+        alertEngine.track(athlete);
+    }
+
+    @Test
+    void testCategoryAlertIsDebounced() {
+        assertEquals("Moderate", alertEngine.getConfirmedCategory("Live"));
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 16.0);
+        alertEngine.update("Live", BiomechanicalField.HIP_ADDUCTION_ANGLE, 21.0);
+        alertEngine.update("Live", BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.4);
+        assertEquals(6.125, alertEngine.getOverallRisk("Live"), DELTA);
+        assertTrue(alerts.isEmpty());
+
+        alertEngine.update("Live", BiomechanicalField.Q_ANGLE, 0.0);
+        assertEquals(1, alerts.size());
+        assertEquals(RiskAlert.Type.CATEGORY_RAISED, alerts.get(0).getType());
+        assertEquals("High", alerts.get(0).getRiskCategory());
+        assertEquals("Live", alerts.get(0).getAthleteName());
+    }
+
+    @Test
+    void testHysteresisKeepsBorderlineCategory() {
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 16.0);
+        alertEngine.update("Live", BiomechanicalField.HIP_ADDUCTION_ANGLE, 21.0);
+        alertEngine.update("Live", BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.4);
+        alertEngine.update("Live", BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.4);
+        assertEquals("High", alertEngine.getConfirmedCategory("Live"));
+
+        // Overall 6.0 is Moderate by the thresholds but within the hysteresis margin of High
+        alertEngine.update("Live", BiomechanicalField.LANDING_ASYMMETRY, 12.0);
+        for (int i = 0; i < 5; i++) {
+            alertEngine.update("Live", BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.55);
+        }
+        assertEquals(6.0, alertEngine.getOverallRisk("Live"), DELTA);
+        assertEquals("High", alertEngine.getConfirmedCategory("Live"));
+
+        alertEngine.update("Live", BiomechanicalField.LANDING_ASYMMETRY, 0.0);
+        alertEngine.update("Live", BiomechanicalField.LANDING_ASYMMETRY, 0.0);
+        assertEquals("Moderate", alertEngine.getConfirmedCategory("Live"));
+        assertEquals(RiskAlert.Type.CATEGORY_CLEARED, alerts.get(alerts.size() - 1).getType());
+    }
+
+    @Test
+    void testFactorAlertWithHysteresis() {
+        alertEngine.watchFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, 7.0);
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 14.0);
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 14.5);
+        assertEquals(1, alerts.size());
+        assertEquals(RiskAlert.Type.FACTOR_RAISED, alerts.get(0).getType());
+        assertEquals(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, alerts.get(0).getFactor());
+        assertEquals(7.25, alerts.get(0).getFactorScore(), DELTA);
+
+        // Flapping around the threshold stays inside the margin
+        for (int i = 0; i < 6; i++) {
+            alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, i % 2 == 0 ? 13.6 : 14.2);
+        }
+        assertEquals(1, alerts.size());
+
+        // Updates of other fields do not touch the factor
+        alertEngine.update("Live", BiomechanicalField.Q_ANGLE, 10.0);
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 12.0);
+        alertEngine.update("Live", BiomechanicalField.KNEE_VALGUS_ANGLE, 12.0);
+        assertEquals(2, alerts.size());
+        assertEquals(RiskAlert.Type.FACTOR_CLEARED, alerts.get(1).getType());
+
+        assertThrows(IllegalArgumentException.class, () -> alertEngine.watchFactor(KeyRiskFactor.FEMALE_GENDER, 5));
+    }
+
+    @Test
+    void testIncrementalScoreMatchesFullAnalysis() {
+        ScoringEngine[] engines = {
+            new RuleScoringEngine(),
+            ContinuousScoringEngine.withDefaultCoefficients(),
+            new ScoringEngine() {
+                // Does not decompose per field, so every update re-scores the whole vector
+                private final RuleScoringEngine rules = new RuleScoringEngine();
+
+                public double assessDemographicRisk(Athlete a) {
+                    return rules.assessDemographicRisk(a);
+                }
+
+                public double assessBiomechanicalRisk(BiomechanicalData data) {
+                    return rules.assessBiomechanicalRisk(data);
+                }
+
+                public double assessBiomechanicalRisk(double[] fields) {
+                    return rules.assessBiomechanicalRisk(fields);
+                }
+
+                public double assessMedicalHistoryRisk(Athlete a) {
+                    return rules.assessMedicalHistoryRisk(a);
+                }
+            }
+        };
+        Random random = new Random(40);
+        for (ScoringEngine engine : engines) {
+            RiskAnalyzer analyzer = new RiskAnalyzer(engine);
+            RiskAlertEngine live = new RiskAlertEngine(analyzer, Runnable::run, alert -> { });
+            live.track(athlete);
+            for (int i = 0; i < 200; i++) {
+                BiomechanicalField field = BiomechanicalField.FIELDS[random.nextInt(BiomechanicalField.COUNT)];
+                double value = random.nextInt(300) / 10.0;
+                field.set(athlete.getBioMechData(), value);
+                live.update("Live", field, value);
+                assertEquals(analyzer.analyzeRisk(athlete).getOverallRiskScore(), live.getOverallRisk("Live"), DELTA);
+            }
+        }
+        assertFalse(alertEngine.update("Nobody", BiomechanicalField.Q_ANGLE, 1.0));
+        assertTrue(alertEngine.untrack("Live"));
+        assertTrue(Double.isNaN(alertEngine.getOverallRisk("Live")));
+    }
+}
@@ -2,6 +2,7 @@ package model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -107,6 +108,10 @@ public class TestRiskAnalyzer {
         // Test parameterized constructor if you have one
         RiskAnalyzer customAnalyzer = new RiskAnalyzer(0.2, 0.5, 0.3);
         assertNotNull(customAnalyzer);
+
+        // Weights must be non-negative as well as sum to 1.0
+        assertThrows(IllegalArgumentException.class, () -> new RiskAnalyzer(-0.25, 0.75, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new RiskAnalyzer(0.5, 0.5, 0.5));
     }
     
     @Test
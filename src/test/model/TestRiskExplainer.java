@@ -0,0 +1,79 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRiskExplainer {
+    private static final double DELTA = 0.0001;
+
+    private Athlete athlete;
+
+    @BeforeEach
+    void setUp() {
+        List<Boolean> history = new ArrayList<>();
+        history.add(true);
+        history.add(true);
+        history.add(false);
+        athlete = new Athlete("Traced", 18, true, "Basketball", 170.0, 65.0, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        data.setKneeValgusAngle(12.0);
+        data.setHipAdductionAngle(25.0);
+        data.setKneeFlexionAngle(70.0);
+        data.setHamstringsToQuadsRatio(0.45);
+        data.setLandingAsymmetry(5.0);
+        data.setQAngle(16.0);
+    }
+
+    @Test
+    void testTraceRecordsFiredRules() {
+        RiskExplainer explainer = new RiskExplainer();
+        RiskAssessment assessment = explainer.explain(athlete);
+        ExplanationTrace trace = explainer.getTrace();
+
+        assertEquals(1.0, trace.getContribution(ScoringRule.KNEE_VALGUS_MILD), DELTA);
+        assertEquals(0.0, trace.getContribution(ScoringRule.KNEE_VALGUS_SEVERE), DELTA);
+        assertEquals(1.5, trace.getContribution(ScoringRule.HIP_ADDUCTION_SEVERE), DELTA);
+        assertEquals(2.0, trace.getContribution(ScoringRule.HQ_RATIO_SEVERE), DELTA);
+        assertEquals(0.75, trace.getContribution(ScoringRule.Q_ANGLE_MILD), DELTA);
+        assertEquals(6.0, trace.getContribution(ScoringRule.PREVIOUS_ACL_INJURY), DELTA);
+        assertEquals(ScoringRule.FEMALE, trace.getRule(0));
+
+        assertEquals(assessment.getDemographicRiskScore(),
+                trace.getRawComponentTotal(ScoringRule.Component.DEMOGRAPHIC), DELTA);
+        assertEquals(assessment.getBiomechanicalRiskScore(),
+                trace.getRawComponentTotal(ScoringRule.Component.BIOMECHANICAL), DELTA);
+        assertEquals(assessment.getMedicalHistoryRiskScore(),
+                trace.getRawComponentTotal(ScoringRule.Component.MEDICAL), DELTA);
+        assertTrue(trace.toString().contains("Hip adduction above 20 degrees: +1.50"));
+    }
+
+    @Test
+    void testExplainMatchesPlainAnalyzer() {
+        RiskExplainer explainer = new RiskExplainer(0.2, 0.5, 0.3);
+        RiskAssessment explained = explainer.explain(athlete);
+        RiskAssessment plain = new RiskAnalyzer(0.2, 0.5, 0.3).analyzeRisk(athlete);
+        assertEquals(plain.getOverallRiskScore(), explained.getOverallRiskScore(), DELTA);
+        assertEquals(plain.getRiskCategory(), explained.getRiskCategory());
+
+        // The trace is reset for every explanation
+        int size = explainer.getTrace().size();
+        explainer.explain(athlete);
+        assertEquals(size, explainer.getTrace().size());
+    }
+
+    @Test
+    void testTraceOverflow() {
+        ExplanationTrace trace = new ExplanationTrace();
+        for (int i = 0; i < ScoringRule.COUNT; i++) {
+            trace.record(ScoringRule.FEMALE, 1.0, ScoringConfig.DEFAULT);
+        }
+        assertThrows(IllegalStateException.class, () -> trace.record(ScoringRule.FEMALE, 1.0, ScoringConfig.DEFAULT));
+    }
+}
@@ -0,0 +1,132 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TestRosterGenerator {
+
+    private String describe(Athlete athlete) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(athlete.getName()).append(athlete.getAge()).append(athlete.getGender())
+                .append(athlete.getSport()).append(athlete.getHeight()).append(athlete.getWeight())
+                .append(athlete.getHistory());
+        double[] values = athlete.getBioMechData().toArray(new double[BiomechanicalField.COUNT]);
+        for (double value : values) {
+            builder.append(',').append(value);
+        }
+        return builder.toString();
+    }
+
+    private List<String> describe(List<Athlete> athletes) {
+        List<String> descriptions = new ArrayList<>();
+        for (Athlete athlete : athletes) {
+            descriptions.add(describe(athlete));
+        }
+        return descriptions;
+    }
+
+    @Test
+    void testReproducibleWhateverTheGenerationOrder() throws InterruptedException {
+        List<String> sequential = describe(new RosterGenerator(7L).generate(3000));
+        assertEquals(sequential, describe(new RosterGenerator(7L).generate(3000)));
+        assertNotEquals(sequential, describe(new RosterGenerator(8L).generate(3000)));
+
+        // The same batches generated concurrently and out of order give the same athletes
+        RosterGenerator generator = new RosterGenerator(7L);
+        RosterGenerator.Batch whole = generator.nextBatch(3000);
+        assertEquals(0L, whole.getFirstIndex());
+        RosterGenerator.Batch[] batches = {generator.nextBatch(1000), generator.nextBatch(1000)};
+        assertEquals(4000L, batches[1].getFirstIndex());
+        List<List<String>> results = new ArrayList<>();
+        results.add(new ArrayList<>());
+        results.add(new ArrayList<>());
+        Thread[] threads = new Thread[2];
+        for (int b = 1; b >= 0; b--) {
+            int index = b;
+            threads[b] = new Thread(() -> {
+                while (batches[index].hasNext()) {
+                    results.get(index).add(describe(batches[index].next()));
+                }
+            });
+            threads[b].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        RosterGenerator reference = new RosterGenerator(7L);
+        reference.nextBatch(3000);
+        assertEquals(describe(reference.generate(1000)), results.get(0));
+        assertEquals(describe(reference.generate(1000)), results.get(1));
+    }
+
+    @Test
+    void testRealisticPopulation() {
+        List<Athlete> athletes = new RosterGenerator(11L).generate(20000);
+        Set<String> names = new HashSet<>();
+        int soccer = 0;
+        int football = 0;
+        int femaleFootball = 0;
+        double femaleValgus = 0.0;
+        double maleValgus = 0.0;
+        int females = 0;
+        double sumValgus = 0.0;
+        double sumFlexion = 0.0;
+        double sumProduct = 0.0;
+        double sumValgusSquares = 0.0;
+        double sumFlexionSquares = 0.0;
+        for (Athlete athlete : athletes) {
+            names.add(athlete.getName());
+            BiomechanicalData data = athlete.getBioMechData();
+            assertTrue(athlete.getAge() >= 12 && athlete.getAge() <= 40);
+            assertTrue(athlete.getBMI() > 14.0 && athlete.getBMI() < 40.0, "BMI " + athlete.getBMI());
+            assertTrue(data.getHamstringsToQuadsRatio() >= 0.3 && data.getHamstringsToQuadsRatio() <= 1.0);
+            assertTrue(data.getSingleLegBalanceTime() >= 0 && data.getSingleLegBalanceTime() <= 60);
+            if (athlete.getSport().equals("Soccer")) {
+                soccer++;
+            } else if (athlete.getSport().equals("Football")) {
+                football++;
+                femaleFootball += athlete.getGender() ? 1 : 0;
+            }
+            if (athlete.getGender()) {
+                females++;
+                femaleValgus += data.getKneeValgusAngle();
+            } else {
+                maleValgus += data.getKneeValgusAngle();
+            }
+            double valgus = data.getKneeValgusAngle();
+            double flexion = data.getKneeFlexionAngle();
+            sumValgus += valgus;
+            sumFlexion += flexion;
+            sumProduct += valgus * flexion;
+            sumValgusSquares += valgus * valgus;
+            sumFlexionSquares += flexion * flexion;
+        }
+        int n = athletes.size();
+        assertEquals(n, names.size());
+        assertEquals(0.22, soccer / (double) n, 0.02);
+        assertTrue(femaleFootball < football * 0.1);
+        assertTrue(femaleValgus / females > maleValgus / (n - females) + 2.0);
+
+        // Poor neuromuscular control raises valgus and stiffens landings at the same time
+        double covariance = sumProduct / n - (sumValgus / n) * (sumFlexion / n);
+        double correlation = covariance / Math.sqrt((sumValgusSquares / n - Math.pow(sumValgus / n, 2))
+                * (sumFlexionSquares / n - Math.pow(sumFlexion / n, 2)));
+        assertTrue(correlation < -0.3, "correlation " + correlation);
+    }
+
+    @Test
+    void testScrambleIndexIsInjective() {
+        Set<Long> seen = new HashSet<>();
+        for (long index = 0; index < 100000; index++) {
+            assertTrue(seen.add(RosterGenerator.scrambleIndex(index)));
+        }
+    }
+}
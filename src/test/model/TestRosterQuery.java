@@ -0,0 +1,87 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+public class TestRosterQuery {
+    // Not a multiple of 64, so the last mask word is partial
+    private static final List<Athlete> ROSTER = new RosterGenerator(11L).generate(3001);
+    private static final RosterColumns COLUMNS = RosterColumns.of(ROSTER);
+
+    private void assertMatches(String expression, Predicate<Athlete> expected) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < ROSTER.size(); i++) {
+            if (expected.test(ROSTER.get(i))) {
+                indices.add(i);
+            }
+        }
+        RosterQuery query = RosterQuery.compile(expression);
+        int[] selected = query.select(COLUMNS);
+        assertArrayEquals(indices.stream().mapToInt(Integer::intValue).toArray(), selected, expression);
+        assertEquals(selected.length, query.count(COLUMNS));
+        long[] mask = query.evaluate(COLUMNS);
+        assertEquals(0L, mask[mask.length - 1] >>> (ROSTER.size() & 63), "bits past the roster");
+    }
+
+    private boolean isSport(Athlete athlete, String... sports) {
+        for (String sport : sports) {
+            if (athlete.getSport().equalsIgnoreCase(sport)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void testMatchesPerAthleteEvaluation() {
+        assertMatches("sport in (Soccer, Basketball) and kneeValgusAngle > 12 and hamstringsToQuadsRatio < 0.55",
+            a -> isSport(a, "Soccer", "Basketball") && a.getBioMechData().getKneeValgusAngle() > 12
+                && a.getBioMechData().getHamstringsToQuadsRatio() < 0.55);
+        assertMatches("female and age <= 18 or bmi >= 27.5",
+            a -> a.getGender() && a.getAge() <= 18 || a.getBMI() >= 27.5);
+        assertMatches("female and (age <= 18 or bmi >= 27.5)",
+            a -> a.getGender() && (a.getAge() <= 18 || a.getBMI() >= 27.5));
+        assertMatches("not (SPORT = soccer) and male and QANGLE >= 15",
+            a -> !isSport(a, "Soccer") && !a.getGender() && a.getBioMechData().getQAngle() >= 15);
+        assertMatches("sport not in ('Tennis', \"Swimming\", Curling) and previousInjury",
+            a -> !isSport(a, "Tennis", "Swimming") && (a.hasPrevInjuryL() || a.hasPrevInjuryR()));
+        assertMatches("familyHistory and previousInjuryLeft and not previousInjuryRight",
+            a -> a.hasFamilyHistory() && a.hasPrevInjuryL() && !a.hasPrevInjuryR());
+        assertMatches("age = 20 or age == 21 or age <> 22 and height < 170",
+            a -> a.getAge() == 20 || a.getAge() == 21 || a.getAge() != 22 && a.getHeight() < 170);
+        assertMatches("sport != Running and weight > -1e3 and landingAsymmetry < .2",
+            a -> !isSport(a, "Running") && a.getBioMechData().getLandingAsymmetry() < 0.2);
+        assertMatches("sport = Curling", a -> false);
+        assertMatches("age > 0 or sport = Curling", a -> true);
+    }
+
+    @Test
+    void testEmptyRosterAndFilter() {
+        RosterQuery query = RosterQuery.compile("not female");
+        assertEquals(0, query.select(RosterColumns.of(new ArrayList<>())).length);
+        List<Athlete> soccer = RosterQuery.compile("sport = soccer").filter(ROSTER);
+        assertTrue(!soccer.isEmpty());
+        for (Athlete athlete : soccer) {
+            assertEquals("Soccer", athlete.getSport());
+        }
+        assertEquals("sport = soccer", RosterQuery.compile("sport = soccer").toString());
+    }
+
+    @Test
+    void testRejectsInvalidExpressions() {
+        String[] invalid = {"", "kneeValgus > 12", "age >", "age > twelve", "age 12", "(age > 1",
+            "age > 1 age < 2", "sport in Soccer", "sport in (Soccer", "sport like Soccer", "sport = 'Soccer",
+            "female = 1", "age ! 3", "bmi > 2 # 3", "age > 1.2.3", "and age > 1"};
+        for (String expression : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> RosterQuery.compile(expression), expression);
+        }
+    }
+}
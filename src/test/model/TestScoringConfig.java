@@ -0,0 +1,192 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+public class TestScoringConfig {
+
+    private Athlete athlete() {
+        List<Boolean> history = new ArrayList<>();
+        history.add(true);
+        history.add(false);
+        history.add(false);
+        Athlete athlete = new Athlete("Config", 18, true, "Soccer", 168.0, 62.0, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        data.setKneeValgusAngle(12.0);
+        data.setHipAdductionAngle(18.0);
+        data.setKneeFlexionAngle(65.0);
+        data.setHamstringsToQuadsRatio(0.7);
+        return athlete;
+    }
+
+    private Properties properties(String... keysAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    void testDefaultsMatchBuiltInRules() {
+        assertEquals(ScoringConfig.DEFAULT, ScoringConfig.fromProperties(new Properties()));
+        assertEquals(ScoringConfig.DEFAULT.hashCode(), ScoringConfig.fromProperties(new Properties()).hashCode());
+        RiskAssessment assessment = new RiskAnalyzer(ScoringConfig.DEFAULT).analyzeRisk(athlete());
+        // Female, age and sport: 2.0 + 1.5 + 2.0; valgus and hip adduction: 1.0 + 0.75; family history
+        assertEquals(5.5, assessment.getDemographicRiskScore());
+        assertEquals(1.75, assessment.getBiomechanicalRiskScore());
+        assertEquals(2.0, assessment.getMedicalHistoryRiskScore());
+        assertEquals(0.25 * 5.5 + 0.5 * 1.75 + 0.25 * 2.0, assessment.getOverallRiskScore());
+        assertEquals("Low", assessment.getRiskCategory());
+    }
+
+    @Test
+    void testPropertiesOverrideRules() {
+        ScoringConfig config = ScoringConfig.fromProperties(properties(
+                "weights", "0.2, 0.6, 0.2",
+                "categoryThresholds", "1.0,2.0,3.0",
+                "highRiskSports", "rugby",
+                "kneeValgusAngle", "8.0:1.5,11.0:3.0",
+                "kneeFlexionAngle", "70.0:1.0,50.0:2.0",
+                "familyHistory", "3.0"));
+        assertNotEquals(ScoringConfig.DEFAULT, config);
+        Athlete athlete = athlete();
+        RiskAssessment assessment = new RiskAnalyzer(config).analyzeRisk(athlete);
+        // Soccer is no longer high risk; valgus 12 is now severe and flexion 65 mild
+        assertEquals(3.5, assessment.getDemographicRiskScore());
+        assertEquals(3.0 + 0.75 + 1.0, assessment.getBiomechanicalRiskScore());
+        assertEquals(3.0, assessment.getMedicalHistoryRiskScore());
+        assertEquals(0.2 * 3.5 + 0.6 * 4.75 + 0.2 * 3.0, assessment.getOverallRiskScore(), 1e-12);
+        assertEquals("Very High", assessment.getRiskCategory());
+        assertTrue(!assessment.hasKeyRiskFactor(KeyRiskFactor.HIGH_RISK_SPORT));
+
+        // The same rules reach engines other than the default one
+        ExplanationTrace trace = new ExplanationTrace();
+        RiskAnalyzer tracing = new RiskAnalyzer(new TracingRuleEngine(trace), config);
+        assertEquals(assessment.getOverallRiskScore(), tracing.analyzeRisk(athlete).getOverallRiskScore());
+        assertEquals(3.0, trace.getContribution(ScoringRule.KNEE_VALGUS_SEVERE));
+        // Descriptions state the thresholds this configuration applied, not the defaults
+        assertTrue(trace.toString().contains("Knee valgus above 11 degrees: +3.00"), trace.toString());
+        assertTrue(trace.toString().contains("Knee flexion below 70 degrees: +1.00"), trace.toString());
+        assertEquals(config, trace.getConfig());
+        assertEquals("Age between 14 and 25", ScoringRule.AGE_IN_RANGE.describe(config));
+        assertEquals("BMI below 20 or above 27.5", ScoringRule.BMI_OUT_OF_RANGE.describe(
+                ScoringConfig.fromProperties(properties("bmiRange", "20,27.5"))));
+        assertEquals("Age between 12 and 30", ScoringRule.AGE_IN_RANGE.describe(
+                ScoringConfig.fromProperties(properties("ageRange", "12,30"))));
+        assertEquals("H:Q ratio below 0.5", ScoringRule.HQ_RATIO_SEVERE.describe(ScoringConfig.DEFAULT));
+    }
+
+    @Test
+    void testKeyFactorsFollowConfig() {
+        // Valgus 12 and hip adduction 18 cross the default mild thresholds (10 and 15)
+        RiskAssessment defaults = new RiskAnalyzer().analyzeRisk(athlete());
+        assertEquals(6.0, defaults.getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+        assertEquals(6.0, defaults.getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_HIP_ADDUCTION));
+        assertEquals(7.0, defaults.getKeyRiskFactorScore(KeyRiskFactor.FEMALE_GENDER));
+
+        ScoringConfig config = ScoringConfig.fromProperties(properties(
+                "kneeValgusAngle", "8.0:1.5,11.0:3.0",
+                "hipAdductionAngle", "20.0:0.75,25.0:1.5",
+                "female", "0.0",
+                "highRiskSport", "4.0"));
+        RiskAssessment configured = new RiskAnalyzer(config).analyzeRisk(athlete());
+        assertEquals(7.0, configured.getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+        assertFalse(configured.getKeyRiskFactors().containsKey(
+                KeyRiskFactor.EXCESSIVE_HIP_ADDUCTION.getDisplayName()));
+        assertFalse(configured.getKeyRiskFactors().containsKey(KeyRiskFactor.FEMALE_GENDER.getDisplayName()));
+        assertEquals(8.0, configured.getKeyRiskFactorScore(KeyRiskFactor.HIGH_RISK_SPORT));
+
+        // The weights constructor reconfigures the engine, and explainers can share a configuration
+        ScoringConfig weighted = ScoringConfig.DEFAULT.withWeights(0.2, 0.6, 0.2);
+        assertEquals(new RiskAnalyzer(weighted).analyzeRisk(athlete()).getOverallRiskScore(),
+                new RiskAnalyzer(new RuleScoringEngine(), 0.2, 0.6, 0.2).analyzeRisk(athlete()).getOverallRiskScore());
+        RiskAnalyzer analyzer = new RiskAnalyzer(config);
+        RiskAssessment explained = RiskExplainer.of(analyzer).explain(athlete());
+        assertEquals(configured.getOverallRiskScore(), explained.getOverallRiskScore());
+        assertEquals(configured.getKeyRiskFactors(), explained.getKeyRiskFactors());
+        assertEquals(configured.getOverallRiskScore(),
+                new RiskExplainer(config).explain(athlete()).getOverallRiskScore());
+    }
+
+    @Test
+    void testRejectsInvalidConfigurations() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("weights", "0.5,0.5,0.5")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("categoryThresholds", "3.0,2.0,8.0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("kneeValgusAngle", "15.0:1.0,10.0:2.0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("kneeValgusAngle", "15.0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("female", "two")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("kneeValgus", "10.0:1.0,15.0:2.0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("ageRange", "14.5,25")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("ageRange", "25,14")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("ageRange", "14,1e12")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringConfig.fromProperties(properties("bmiRange", "30,18.5")));
+        assertEquals(16, ScoringConfig.fromProperties(properties("ageRange", "16.0,21")).getMinAge());
+    }
+
+    @Test
+    void testSwapIsSeenWholeByConcurrentAnalyses() throws InterruptedException {
+        ScoringConfig lenient = ScoringConfig.fromProperties(properties("weights", "0.5,0.25,0.25",
+                "female", "0.5", "kneeValgusAngle", "20.0:1.0,25.0:2.0"));
+        ScoringConfig strict = ScoringConfig.fromProperties(properties("weights", "0.1,0.8,0.1",
+                "female", "4.0", "kneeValgusAngle", "5.0:3.0,11.0:6.0"));
+        Athlete athlete = athlete();
+        double lenientScore = new RiskAnalyzer(lenient).analyzeRisk(athlete).getOverallRiskScore();
+        double strictScore = new RiskAnalyzer(strict).analyzeRisk(athlete).getOverallRiskScore();
+
+        RiskAnalyzer analyzer = new RiskAnalyzer(lenient);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[3];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    double score = analyzer.analyzeRisk(athlete).getOverallRiskScore();
+                    if (score != lenientScore && score != strictScore) {
+                        failure.compareAndSet(null, "Mixed configurations gave " + score);
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (int i = 0; i < 2000; i++) {
+            analyzer.setConfig(i % 2 == 0 ? strict : lenient);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(null, failure.get());
+        assertEquals(lenient, analyzer.getConfig());
+    }
+
+    @Test
+    void testAlertEngineRescoresAfterSwap() {
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        RiskAlertEngine alerts = new RiskAlertEngine(analyzer, Runnable::run, alert -> { });
+        Athlete athlete = athlete();
+        assertEquals(analyzer.analyzeRisk(athlete).getOverallRiskScore(), alerts.track(athlete));
+
+        analyzer.setConfig(ScoringConfig.fromProperties(properties("kneeValgusAngle", "5.0:3.0,11.0:6.0")));
+        alerts.update("Config", BiomechanicalField.Q_ANGLE, 0.0);
+        assertEquals(analyzer.analyzeRisk(athlete).getOverallRiskScore(), alerts.getOverallRisk("Config"));
+    }
+}
@@ -0,0 +1,130 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestScoringEngine {
+    private static final double DELTA = 0.0001;
+
+    private List<Athlete> roster;
+
+    @BeforeEach
+    void setUp() {
+        roster = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            List<Boolean> history = new ArrayList<>();
+            history.add(i % 2 == 0);
+            history.add(i % 5 == 0);
+            history.add(false);
+            Athlete athlete = new Athlete("A" + i, 15 + i, i % 3 == 0, "Soccer", 170.0, 60.0 + i, history);
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(i * 0.75);
+            data.setHipAdductionAngle(i * 0.7);
+            data.setKneeFlexionAngle(80.0 - i);
+            data.setHamstringsToQuadsRatio(0.8 - i * 0.01);
+            data.setLandingAsymmetry(i);
+            data.setQAngle(5.0 + i * 0.5);
+            roster.add(athlete);
+        }
+    }
+
+    @Test
+    void testRuleEngineMatchesAnalyzer() {
+        RuleScoringEngine engine = new RuleScoringEngine();
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        double[][] columns = BiomechanicalField.toColumns(roster);
+        double[] batch = new double[roster.size()];
+        engine.assessBiomechanicalRisk(columns, batch);
+
+        double[] row = new double[BiomechanicalField.COUNT];
+        for (int i = 0; i < roster.size(); i++) {
+            Athlete athlete = roster.get(i);
+            RiskAssessment assessment = analyzer.analyzeRisk(athlete);
+            double single = engine.assessBiomechanicalRisk(athlete.getBioMechData());
+            assertEquals(assessment.getBiomechanicalRiskScore(), single, DELTA);
+            assertEquals(single, engine.assessBiomechanicalRisk(athlete.getBioMechData().toArray(row)), DELTA);
+            assertEquals(single, batch[i], DELTA);
+            assertEquals(assessment.getDemographicRiskScore(), engine.assessDemographicRisk(athlete), DELTA);
+            assertEquals(assessment.getMedicalHistoryRiskScore(), engine.assessMedicalHistoryRisk(athlete), DELTA);
+        }
+    }
+
+    @Test
+    void testContinuousEngineIsMonotoneAndUnsaturated() {
+        ContinuousScoringEngine engine = ContinuousScoringEngine.withDefaultCoefficients();
+        BiomechanicalData data = new BiomechanicalData();
+        data.setKneeFlexionAngle(90.0);
+        data.setHamstringsToQuadsRatio(0.8);
+        assertEquals(0.0, engine.assessBiomechanicalRisk(data), DELTA);
+
+        data.setKneeValgusAngle(15.1);
+        double moderate = engine.assessBiomechanicalRisk(data);
+        data.setKneeValgusAngle(30.0);
+        double severe = engine.assessBiomechanicalRisk(data);
+        assertTrue(moderate > 0.0);
+        assertTrue(severe > moderate);
+
+        // Rule increments are reproduced in the middle of each band
+        data.setKneeValgusAngle(12.5);
+        assertEquals(1.0, engine.assessBiomechanicalRisk(data), DELTA);
+        data.setKneeValgusAngle(0.0);
+        data.setHamstringsToQuadsRatio(0.45);
+        assertEquals(2.0, engine.assessBiomechanicalRisk(data), DELTA);
+    }
+
+    @Test
+    void testContinuousBatchMatchesSingle() {
+        ContinuousScoringEngine engine = ContinuousScoringEngine.withDefaultCoefficients();
+        double[] batch = new double[roster.size()];
+        engine.assessBiomechanicalRisk(BiomechanicalField.toColumns(roster), batch);
+        for (int i = 0; i < roster.size(); i++) {
+            double single = engine.assessBiomechanicalRisk(roster.get(i).getBioMechData());
+            assertEquals(single, batch[i], DELTA);
+            assertTrue(single >= 0.0 && single <= 10.0);
+        }
+    }
+
+    @Test
+    void testAnalyzerUsesEngine() {
+        ContinuousScoringEngine engine = ContinuousScoringEngine.withDefaultCoefficients();
+        RiskAnalyzer analyzer = new RiskAnalyzer(engine, 0.2, 0.6, 0.2);
+        // Reconfigured with the analyzer's weights, like every other constructor
+        assertEquals(ContinuousScoringEngine.class, analyzer.getScoringEngine().getClass());
+        Athlete athlete = roster.get(30);
+        assertEquals(engine.assessBiomechanicalRisk(athlete.getBioMechData()),
+                analyzer.analyzeRisk(athlete).getBiomechanicalRiskScore(), DELTA);
+
+        ComponentScores scores = ComponentScores.compute(analyzer, roster);
+        assertEquals(engine.assessBiomechanicalRisk(athlete.getBioMechData()), scores.getBiomechanical(30), DELTA);
+    }
+
+    @Test
+    void testInvalidCoefficients() {
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousScoringEngine(
+                new int[] {0}, new double[] {1.0, 2.0}, new double[] {1.0}, new double[] {1.0}));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousScoringEngine(
+                new int[] {12}, new double[] {1.0}, new double[] {1.0}, new double[] {1.0}));
+    }
+
+    @Test
+    void testBiomechanicalFieldAccessors() {
+        BiomechanicalData data = new BiomechanicalData();
+        for (BiomechanicalField field : BiomechanicalField.values()) {
+            field.set(data, field.ordinal() + 1);
+            assertEquals(field.ordinal() + 1, field.get(data), DELTA);
+            assertSame(field, BiomechanicalField.fromPropertyName(field.getPropertyName().toUpperCase()));
+        }
+        double[] values = data.toArray(new double[BiomechanicalField.COUNT]);
+        for (int f = 0; f < values.length; f++) {
+            assertEquals(f + 1, values[f], DELTA);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestTeamDashboard {
+    private static final double DELTA = 0.0001;
+
+    private TeamDashboard dashboard;
+
+    @BeforeEach
+    void setUp() {
+        dashboard = new TeamDashboard();
+    }
+
+    private RiskAssessment assessment(String name, double overall, String category, KeyRiskFactor... factors) {
+        RiskAssessment assessment = new RiskAssessment(name, overall, category, overall, overall / 2, 1.0);
+        for (KeyRiskFactor factor : factors) {
+            assessment.addKeyRiskFactor(factor, 5.0);
+        }
+        return assessment;
+    }
+
+    @Test
+    void testUpdateReplacesPreviousContribution() {
+        dashboard.update(assessment("A", 2.0, "Low", KeyRiskFactor.FEMALE_GENDER));
+        dashboard.update(assessment("B", 6.0, "High", KeyRiskFactor.FEMALE_GENDER,
+                KeyRiskFactor.LANDING_ASYMMETRY));
+        assertEquals(2, dashboard.getAthleteCount());
+        assertEquals(4.0, dashboard.getMeanOverallRisk(), DELTA);
+        assertEquals(2, dashboard.getFactorCount(KeyRiskFactor.FEMALE_GENDER));
+
+        dashboard.update(assessment("A", 8.0, "Very High", KeyRiskFactor.LANDING_ASYMMETRY));
+        assertEquals(2, dashboard.getAthleteCount());
+        assertEquals(0, dashboard.getCategoryCount("Low"));
+        assertEquals(1, dashboard.getCategoryCount("Very High"));
+        assertEquals(7.0, dashboard.getMeanOverallRisk(), DELTA);
+        assertEquals(3.5, dashboard.getMeanBiomechanicalRisk(), DELTA);
+        assertEquals(1.0, dashboard.getMeanMedicalHistoryRisk(), DELTA);
+        assertEquals(1, dashboard.getFactorCount(KeyRiskFactor.FEMALE_GENDER));
+        assertEquals(List.of(KeyRiskFactor.LANDING_ASYMMETRY, KeyRiskFactor.FEMALE_GENDER),
+                dashboard.getMostCommonFactors(5));
+        assertEquals(1, dashboard.getMostCommonFactors(1).size());
+    }
+
+    @Test
+    void testRemove() {
+        dashboard.update(assessment("A", 2.0, "Low", KeyRiskFactor.FEMALE_GENDER));
+        assertTrue(dashboard.remove("A"));
+        assertFalse(dashboard.remove("A"));
+        assertNull(dashboard.getLatest("A"));
+        assertEquals(0, dashboard.getAthleteCount());
+        assertEquals(0.0, dashboard.getMeanOverallRisk(), DELTA);
+        assertTrue(dashboard.getMostCommonFactors(3).isEmpty());
+    }
+
+    @Test
+    void testConcurrentUpdatesMatchRecomputation() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        RiskAnalyzer.Snapshot scoring = new RiskAnalyzer().snapshot();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    double score = random.nextInt(1000) / 100.0;
+                    String category = RiskAnalyzer.RISK_CATEGORIES[scoring.categoryIndex(score)];
+                    KeyRiskFactor factor = KeyRiskFactor.FACTORS[random.nextInt(KeyRiskFactor.COUNT)];
+                    dashboard.update(assessment("Athlete " + random.nextInt(50), score, category, factor));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double sum = 0;
+        long high = 0;
+        long valgus = 0;
+        int count = 0;
+        for (int i = 0; i < 50; i++) {
+            RiskAssessment latest = dashboard.getLatest("Athlete " + i);
+            if (latest != null) {
+                count++;
+                sum += latest.getOverallRiskScore();
+                high += latest.getRiskCategory().equals("High") ? 1 : 0;
+                valgus += latest.hasKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS) ? 1 : 0;
+            }
+        }
+        assertEquals(count, dashboard.getAthleteCount());
+        assertEquals(sum / count, dashboard.getMeanOverallRisk(), DELTA);
+        assertEquals(high, dashboard.getCategoryCount("High"));
+        assertEquals(valgus, dashboard.getFactorCount(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+public class TestTenantRegistry {
+
+    private ScoringConfig config(String weights, String sports) {
+        Properties properties = new Properties();
+        properties.setProperty("weights", weights);
+        properties.setProperty("highRiskSports", sports);
+        return ScoringConfig.fromProperties(properties);
+    }
+
+    @Test
+    void testEqualConfigurationsShareAnAnalyzer() {
+        TenantRegistry registry = new TenantRegistry();
+        RiskAnalyzer city = registry.register("City", config("0.2,0.6,0.2", "Soccer,Rugby"));
+        // Built separately, with the sports in another order and case
+        RiskAnalyzer united = registry.register("United", config("0.2,0.6,0.2", "rugby,SOCCER"));
+        RiskAnalyzer rovers = registry.register("Rovers", config("0.3,0.4,0.3", "Soccer,Rugby"));
+
+        assertSame(city, united);
+        assertNotSame(city, rovers);
+        assertSame(city, registry.getAnalyzer("United"));
+        assertEquals(3, registry.getTenantCount());
+        assertEquals(2, registry.getAnalyzerCount());
+        assertEquals(0.6, registry.getAnalyzer("City").getConfig().getBiomechanicalWeight());
+    }
+
+    @Test
+    void testUnregisteredTenantsUseDefault() {
+        RiskAnalyzer defaults = new RiskAnalyzer();
+        TenantRegistry registry = new TenantRegistry(defaults);
+        assertSame(defaults, registry.getAnalyzer("Unknown"));
+        assertFalse(registry.isRegistered("Unknown"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("Club", null));
+    }
+
+    @Test
+    void testChangingAndRemovingTenantsReleasesAnalyzers() {
+        TenantRegistry registry = new TenantRegistry();
+        ScoringConfig first = config("0.2,0.6,0.2", "Soccer");
+        ScoringConfig second = config("0.3,0.4,0.3", "Soccer");
+        RiskAnalyzer shared = registry.register("City", first);
+        registry.register("United", first);
+        assertSame(shared, registry.register("City", first));
+        assertEquals(1, registry.getAnalyzerCount());
+
+        RiskAnalyzer moved = registry.register("City", second);
+        assertNotSame(shared, moved);
+        assertSame(shared, registry.getAnalyzer("United"));
+        assertEquals(2, registry.getAnalyzerCount());
+
+        assertTrue(registry.remove("United"));
+        assertFalse(registry.remove("United"));
+        assertEquals(1, registry.getAnalyzerCount());
+        assertTrue(registry.isRegistered("City"));
+        assertFalse(registry.isRegistered("United"));
+
+        // An analyzer released by every tenant is rebuilt when its configuration returns
+        RiskAnalyzer rebuilt = registry.register("United", first);
+        assertNotSame(shared, rebuilt);
+        assertEquals(first, rebuilt.getConfig());
+        assertTrue(registry.remove("City"));
+        assertEquals(1, registry.getAnalyzerCount());
+    }
+}
@@ -0,0 +1,179 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestThresholdCalibrator {
+    private static final double DELTA = 0.0001;
+
+    private ComponentScores scores;
+    private boolean[] injured;
+
+    @BeforeEach
+    void setUp() {
+        int size = 200;
+        String[] names = new String[size];
+        double[] demographic = new double[size];
+        double[] biomechanical = new double[size];
+        double[] medical = new double[size];
+        injured = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "A" + i;
+            demographic[i] = (i * 7) % 11 * 0.5;
+            biomechanical[i] = (i * 13) % 21 * 0.5;
+            medical[i] = i % 5 == 0 ? 6.0 : 0.0;
+            // Injuries are more likely with high biomechanical or medical scores
+            injured[i] = biomechanical[i] + medical[i] > 7.0 || i % 17 == 0;
+        }
+        scores = new ComponentScores(names, demographic, biomechanical, medical);
+    }
+
+    @Test
+    void testMetricsMatchBruteForce() {
+        double[][] weights = {{0.25, 0.5, 0.25}, {0.5, 0.25, 0.25}};
+        double[] cutoffs = {6.0, 3.0, 8.0, 4.5};
+        List<CalibrationResult> results = new ThresholdCalibrator(scores, injured).calibrate(weights, cutoffs);
+        assertEquals(8, results.size());
+
+        for (int k = 0; k < weights.length; k++) {
+            double[] overall = new double[scores.size()];
+            for (int i = 0; i < overall.length; i++) {
+                overall[i] = scores.getDemographic(i) * weights[k][0] + scores.getBiomechanical(i) * weights[k][1]
+                        + scores.getMedical(i) * weights[k][2];
+            }
+            double auc = bruteForceAuc(overall);
+            for (int c = 0; c < cutoffs.length; c++) {
+                CalibrationResult result = results.get(k * cutoffs.length + c);
+                assertEquals(cutoffs[c], result.getCutoff(), DELTA);
+                assertEquals(auc, result.getAuc(), DELTA);
+
+                int tp = 0;
+                int fn = 0;
+                int tn = 0;
+                int fp = 0;
+                for (int i = 0; i < overall.length; i++) {
+                    boolean flagged = overall[i] > cutoffs[c];
+                    if (injured[i]) {
+                        tp += flagged ? 1 : 0;
+                        fn += flagged ? 0 : 1;
+                    } else {
+                        fp += flagged ? 1 : 0;
+                        tn += flagged ? 0 : 1;
+                    }
+                }
+                assertEquals((double) tp / (tp + fn), result.getSensitivity(), DELTA);
+                assertEquals((double) tn / (tn + fp), result.getSpecificity(), DELTA);
+            }
+        }
+    }
+
+    @Test
+    void testBestAndRocCurve() {
+        ThresholdCalibrator calibrator = new ThresholdCalibrator(scores, injured);
+        CalibrationResult best = calibrator.best(WeightSweep.weightGrid(0.25), new double[] {2.0, 3.0, 4.0, 5.0});
+        for (CalibrationResult result : calibrator.calibrate(WeightSweep.weightGrid(0.25),
+                new double[] {2.0, 3.0, 4.0, 5.0})) {
+            assertTrue(result.getYoudenIndex() <= best.getYoudenIndex());
+        }
+
+        double[][] roc = calibrator.rocCurve(new double[] {0.25, 0.5, 0.25});
+        assertEquals(0.0, roc[0][0], DELTA);
+        assertEquals(1.0, roc[0][roc[0].length - 1], DELTA);
+        assertEquals(1.0, roc[1][roc[1].length - 1], DELTA);
+        for (int i = 1; i < roc[0].length; i++) {
+            assertTrue(roc[0][i] >= roc[0][i - 1]);
+            assertTrue(roc[1][i] >= roc[1][i - 1]);
+        }
+    }
+
+    @Test
+    void testCalibrateConfigTunesRuleThresholds() {
+        // Injuries follow knee valgus above 22 degrees; every other measurement is unremarkable
+        List<Athlete> roster = new ArrayList<>();
+        boolean[] outcomes = new boolean[310];
+        for (int i = 0; i < outcomes.length; i++) {
+            Athlete athlete = new Athlete("A" + i, 30, false, "Running", 170.0, 65.0,
+                    Arrays.asList(false, false, false));
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(i % 31);
+            data.setHipAdductionAngle(5.0);
+            data.setKneeFlexionAngle(70.0);
+            data.setHamstringsToQuadsRatio(0.7);
+            data.setLandingAsymmetry(5.0);
+            data.setQAngle(10.0);
+            roster.add(athlete);
+            outcomes[i] = i % 31 > 22;
+        }
+
+        ScoringConfig config = ThresholdCalibrator.calibrateConfig(ScoringConfig.DEFAULT, roster, outcomes, 3);
+        double[] bounds = config.getCategoryThresholds();
+        assertTrue(bounds[0] <= bounds[1] && bounds[1] <= bounds[2]);
+        assertEquals(0.25, config.getDemographicWeight(), DELTA);
+        // The default severe threshold of 15 degrees flags far too many athletes
+        assertTrue(config.severeThreshold(BiomechanicalField.KNEE_VALGUS_ANGLE) > 15.0);
+        assertTrue(youden(new RiskAnalyzer(config), roster, outcomes) > 0.9);
+        assertTrue(youden(new RiskAnalyzer(config), roster, outcomes)
+                > youden(new RiskAnalyzer(ScoringConfig.DEFAULT.withCategoryThresholds(0.5, 0.75, 1.0)),
+                        roster, outcomes));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ThresholdCalibrator.calibrateConfig(ScoringConfig.DEFAULT, roster, outcomes, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ThresholdCalibrator.calibrateConfig(ScoringConfig.DEFAULT, roster, new boolean[3], 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> config.withRuleThresholds(BiomechanicalField.KNEE_VALGUS_ANGLE, 20.0, 10.0));
+    }
+
+    // EFFECTS: returns the Youden index of flagging the athletes analyzer puts in High or Very High
+    private double youden(RiskAnalyzer analyzer, List<Athlete> roster, boolean[] outcomes) {
+        int tp = 0;
+        int positives = 0;
+        int tn = 0;
+        for (int i = 0; i < roster.size(); i++) {
+            String category = analyzer.analyzeRisk(roster.get(i)).getRiskCategory();
+            boolean flagged = category.equals("High") || category.equals("Very High");
+            positives += outcomes[i] ? 1 : 0;
+            tp += outcomes[i] && flagged ? 1 : 0;
+            tn += !outcomes[i] && !flagged ? 1 : 0;
+        }
+        return (double) tp / positives + (double) tn / (roster.size() - positives) - 1.0;
+    }
+
+    @Test
+    void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdCalibrator(scores, new boolean[3]));
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdCalibrator(scores, new boolean[200]));
+        boolean[] outcomes = new boolean[scores.size()];
+        outcomes[0] = true;
+        ThresholdCalibrator calibrator = new ThresholdCalibrator(scores, outcomes);
+        assertThrows(IllegalArgumentException.class,
+                () -> calibrator.calibrate(new double[][] {{0.5, 0.5}}, new double[] {5.0}));
+        assertThrows(IllegalArgumentException.class, () -> calibrator.rocCurve(new double[] {1.0}));
+    }
+
+    private double bruteForceAuc(double[] overall) {
+        double wins = 0.0;
+        int pairs = 0;
+        for (int i = 0; i < overall.length; i++) {
+            for (int j = 0; j < overall.length; j++) {
+                if (injured[i] && !injured[j]) {
+                    pairs++;
+                    if (overall[i] > overall[j]) {
+                        wins += 1.0;
+                    } else if (overall[i] == overall[j]) {
+                        wins += 0.5;
+                    }
+                }
+            }
+        }
+        return wins / pairs;
+    }
+}
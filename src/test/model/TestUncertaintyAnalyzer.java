@@ -0,0 +1,142 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestUncertaintyAnalyzer {
+    private static final double DELTA = 0.0001;
+
+    private Athlete borderlineAthlete;
+    private Athlete clearAthlete;
+
+    @BeforeEach
+    void setUp() {
+        List<Boolean> history = new ArrayList<>();
+        history.add(false);
+        history.add(false);
+        history.add(false);
+
+        // Every measurement sits exactly on a rule threshold
+        borderlineAthlete = new Athlete("Borderline", 20, true, "Soccer", 170.0, 65.0, history);
+        BiomechanicalData data = borderlineAthlete.getBioMechData();
+        data.setKneeValgusAngle(10.0);
+        data.setHipAdductionAngle(15.0);
+        data.setKneeFlexionAngle(60.0);
+        data.setHamstringsToQuadsRatio(0.6);
+        data.setLandingAsymmetry(20.0);
+        data.setQAngle(20.0);
+
+        clearAthlete = new Athlete("Clear", 40, false, "Swimming", 180.0, 75.0, history);
+        data = clearAthlete.getBioMechData();
+        data.setKneeFlexionAngle(90.0);
+        data.setHamstringsToQuadsRatio(0.9);
+    }
+
+    @Test
+    void testExactMeasurementsReproduceAnalyzer() {
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        UncertaintyResult result = new UncertaintyAnalyzer(analyzer, new MeasurementNoise(), 100, 1L)
+                .analyze(borderlineAthlete);
+        RiskAssessment assessment = analyzer.analyzeRisk(borderlineAthlete);
+
+        assertEquals(1.0, result.getCategoryProbability(assessment.getRiskCategory()), DELTA);
+        double[] interval = result.getOverallScoreInterval(0.95);
+        assertEquals(assessment.getOverallRiskScore(), interval[0], DELTA);
+        assertEquals(assessment.getOverallRiskScore(), interval[1], DELTA);
+        assertEquals(100, result.getSampleCount());
+    }
+
+    @Test
+    void testBorderlineAthleteFlipsCategories() {
+        UncertaintyAnalyzer uncertainty = new UncertaintyAnalyzer(new RiskAnalyzer(),
+                MeasurementNoise.typicalRetestError(), 5000, 42L);
+        UncertaintyResult borderline = uncertainty.analyze(borderlineAthlete);
+        UncertaintyResult clear = uncertainty.analyze(clearAthlete);
+
+        assertTrue(borderline.getCategoryProbability("Low") > 0.05);
+        assertTrue(borderline.getCategoryProbability("Moderate") > 0.05);
+        assertEquals(1.0, clear.getCategoryProbability("Low"), DELTA);
+        assertEquals("Low", clear.getMostLikelyCategory());
+
+        double total = 0.0;
+        for (String category : new String[] {"Low", "Moderate", "High", "Very High"}) {
+            total += borderline.getCategoryProbability(category);
+        }
+        assertEquals(1.0, total, DELTA);
+
+        double[] interval = borderline.getBiomechanicalScoreInterval(0.9);
+        assertTrue(interval[0] < interval[1]);
+        double[] overall = borderline.getOverallScoreInterval(0.99);
+        assertTrue(borderline.getMeanOverallScore() > overall[0]);
+        assertTrue(borderline.getMeanOverallScore() < overall[1]);
+    }
+
+    @Test
+    void testTeamResultsAreReproducible() {
+        List<Athlete> team = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            team.add(i % 2 == 0 ? borderlineAthlete : clearAthlete);
+        }
+        UncertaintyAnalyzer uncertainty = new UncertaintyAnalyzer(new RiskAnalyzer(),
+                MeasurementNoise.typicalRetestError(), 2000, 7L);
+        List<UncertaintyResult> first = uncertainty.analyzeTeam(team);
+        List<UncertaintyResult> second = uncertainty.analyzeTeam(team);
+
+        assertEquals(team.size(), first.size());
+        for (int i = 0; i < team.size(); i++) {
+            assertEquals(team.get(i).getName(), first.get(i).getAthleteName());
+            assertEquals(first.get(i).getCategoryProbability("Moderate"),
+                    second.get(i).getCategoryProbability("Moderate"), 0.0);
+            assertEquals(first.get(i).getMeanOverallScore(), second.get(i).getMeanOverallScore(), 0.0);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UncertaintyAnalyzer(new RiskAnalyzer(), new MeasurementNoise(), 0, 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MeasurementNoise().withStandardDeviation(BiomechanicalField.Q_ANGLE, -1.0));
+        UncertaintyResult result = new UncertaintyAnalyzer(new RiskAnalyzer(), new MeasurementNoise(), 10, 1L)
+                .analyze(clearAthlete);
+        assertThrows(IllegalArgumentException.class, () -> result.getOverallScoreInterval(1.0));
+        assertThrows(IllegalArgumentException.class, () -> result.getCategoryProbability("Extreme"));
+    }
+
+    @Test
+    void testNoiseModelIsImmutableAndSamplesStayInRange() {
+        MeasurementNoise exact = new MeasurementNoise();
+        MeasurementNoise noisy = exact.withStandardDeviation(BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO, 0.5)
+                .withStandardDeviation(BiomechanicalField.PROPRIOCEPTION_SCORE, 5.0)
+                .withStandardDeviation(BiomechanicalField.KNEE_VALGUS_ANGLE, 10.0);
+        assertEquals(0.0, exact.getStandardDeviation(BiomechanicalField.KNEE_VALGUS_ANGLE));
+        assertEquals(10.0, noisy.getStandardDeviation(BiomechanicalField.KNEE_VALGUS_ANGLE));
+
+        double[] base = new double[BiomechanicalField.COUNT];
+        base[BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO.ordinal()] = 0.1;
+        base[BiomechanicalField.PROPRIOCEPTION_SCORE.ordinal()] = 9.5;
+        base[BiomechanicalField.KNEE_VALGUS_ANGLE.ordinal()] = 1.0;
+        base[BiomechanicalField.Q_ANGLE.ordinal()] = -2.0;
+        double[] out = new double[BiomechanicalField.COUNT];
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int s = 0; s < 1000; s++) {
+            noisy.sample(base, out, random);
+            for (BiomechanicalField field : BiomechanicalField.values()) {
+                double value = out[field.ordinal()];
+                if (noisy.getStandardDeviation(field) == 0.0) {
+                    assertEquals(base[field.ordinal()], value);
+                } else {
+                    assertTrue(value >= 0.0 && value <= field.getMaximum());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestWeightSweep {
+    private static final double DELTA = 0.0001;
+
+    private List<Athlete> roster;
+
+    @BeforeEach
+    void setUp() {
+        roster = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            List<Boolean> history = new ArrayList<>();
+            history.add(i % 3 == 0);
+            history.add(i % 7 == 0);
+            history.add(false);
+            Athlete athlete = new Athlete("A" + i, 12 + i % 20, i % 2 == 0,
+                    i % 4 == 0 ? "Soccer" : "Swimming", 170.0, 65.0, history);
+            BiomechanicalData data = athlete.getBioMechData();
+            data.setKneeValgusAngle(i % 25);
+            data.setHipAdductionAngle(10.0 + i % 15);
+            data.setKneeFlexionAngle(40.0 + i % 40);
+            data.setHamstringsToQuadsRatio(0.4 + (i % 5) * 0.08);
+            data.setLandingAsymmetry(i % 30);
+            data.setQAngle(10.0 + i % 14);
+            roster.add(athlete);
+        }
+    }
+
+    @Test
+    void testEvaluateMatchesAnalyzer() {
+        double[][] weights = {{0.25, 0.5, 0.25}, {0.2, 0.5, 0.3}, {0.0, 0.0, 1.0}};
+        SweepResult[] results = WeightSweep.of(new RiskAnalyzer(), roster).evaluate(weights);
+        assertEquals(3, results.length);
+
+        for (int k = 0; k < weights.length; k++) {
+            RiskAnalyzer analyzer = new RiskAnalyzer(weights[k][0], weights[k][1], weights[k][2]);
+            int[] expected = new int[4];
+            double sum = 0.0;
+            for (Athlete athlete : roster) {
+                RiskAssessment assessment = analyzer.analyzeRisk(athlete);
+                sum += assessment.getOverallRiskScore();
+                String category = assessment.getRiskCategory();
+                expected[category.equals("Low") ? 0 : category.equals("Moderate") ? 1
+                        : category.equals("High") ? 2 : 3]++;
+            }
+            for (int c = 0; c < 4; c++) {
+                assertEquals(expected[c], results[k].getCategoryCounts()[c]);
+            }
+            assertEquals(sum / roster.size(), results[k].getMeanScore(), DELTA);
+            assertEquals(weights[k][1], results[k].getBiomechanicalWeight(), DELTA);
+        }
+    }
+
+    @Test
+    void testWeightGrid() {
+        double[][] grid = WeightSweep.weightGrid(0.1);
+        assertEquals(66, grid.length);
+        for (double[] triple : grid) {
+            assertEquals(1.0, triple[0] + triple[1] + triple[2], DELTA);
+        }
+
+        SweepResult[] results = WeightSweep.of(new RiskAnalyzer(), roster).evaluate(grid);
+        for (SweepResult result : results) {
+            int total = 0;
+            for (int count : result.getCategoryCounts()) {
+                total += count;
+            }
+            assertEquals(roster.size(), total);
+        }
+    }
+
+    @Test
+    void testInvalidWeights() {
+        WeightSweep sweep = WeightSweep.of(new RiskAnalyzer(), roster);
+        assertThrows(IllegalArgumentException.class, () -> sweep.evaluate(new double[][] {{0.5, 0.5, 0.5}}));
+        assertThrows(IllegalArgumentException.class, () -> sweep.evaluate(new double[][] {{0.5, 0.5}}));
+    }
+
+    @Test
+    void testWriteCsv() throws IOException {
+        StringWriter out = new StringWriter();
+        double[][] grid = WeightSweep.weightGrid(0.01);
+        WeightSweep.of(new RiskAnalyzer(), roster).writeCsv(grid, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(grid.length + 1, lines.length);
+        assertTrue(lines[0].startsWith("demographicWeight"));
+        assertEquals(8, lines[1].split(",").length);
+        assertEquals(50, new SweepResult(0.0, 0.0, 1.0, new int[] {50, 0, 0, 0}, 0.0).getCategoryCount("Low"));
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestWhatIfAnalyzer {
+    private static final double DELTA = 0.0001;
+
+    private Athlete athlete;
+    private RiskAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        List<Boolean> history = new ArrayList<>();
+        history.add(true);
+        history.add(false);
+        history.add(false);
+        athlete = new Athlete("WhatIf", 18, true, "Soccer", 168.0, 62.0, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        data.setKneeValgusAngle(16.0);
+        data.setHipAdductionAngle(18.0);
+        data.setKneeFlexionAngle(50.0);
+        data.setHamstringsToQuadsRatio(0.55);
+        data.setLandingAsymmetry(15.0);
+        data.setQAngle(18.0);
+        analyzer = new RiskAnalyzer();
+    }
+
+    @Test
+    void testScenariosMatchFullAnalysis() {
+        BiomechanicalField[] fields = {BiomechanicalField.KNEE_FLEXION_ANGLE,
+            BiomechanicalField.HAMSTRINGS_TO_QUADS_RATIO};
+        double[][] deltas = {{0.0, 0.0}, {15.0, 0.07}, {-10.0, -0.1}, {30.0, 0.2}};
+        WhatIfResult result = new WhatIfAnalyzer(analyzer).evaluate(athlete, fields, deltas);
+        assertEquals(4, result.size());
+
+        RiskAssessment baseline = analyzer.analyzeRisk(athlete);
+        assertEquals(baseline.getOverallRiskScore(), result.getBaselineOverallScore(), DELTA);
+        assertEquals(baseline.getBiomechanicalRiskScore(), result.getBaselineBiomechanicalScore(), DELTA);
+
+        BiomechanicalData data = athlete.getBioMechData();
+        for (int s = 0; s < deltas.length; s++) {
+            data.setKneeFlexionAngle(50.0 + deltas[s][0]);
+            data.setHamstringsToQuadsRatio(0.55 + deltas[s][1]);
+            RiskAssessment expected = analyzer.analyzeRisk(athlete);
+            assertEquals(expected.getOverallRiskScore(), result.getOverallScore(s), DELTA);
+            assertEquals(expected.getBiomechanicalRiskScore(), result.getBiomechanicalScore(s), DELTA);
+            assertEquals(expected.getRiskCategory(), result.getRiskCategory(s));
+        }
+        // Scenarios 1 and 3 both clear the flexion and H:Q rules; the first one wins the tie
+        assertEquals(1, result.getBestScenario());
+    }
+
+    @Test
+    void testAthleteIsNotModified() {
+        BiomechanicalField[] fields = {BiomechanicalField.KNEE_VALGUS_ANGLE};
+        new WhatIfAnalyzer(analyzer).evaluate(athlete, fields, new double[][] {{-10.0}, {5.0}});
+        assertEquals(16.0, athlete.getBioMechData().getKneeValgusAngle(), DELTA);
+    }
+
+    @Test
+    void testMismatchedDeltas() {
+        BiomechanicalField[] fields = {BiomechanicalField.KNEE_VALGUS_ANGLE};
+        assertThrows(IllegalArgumentException.class,
+                () -> new WhatIfAnalyzer(analyzer).evaluate(athlete, fields, new double[][] {{1.0, 2.0}}));
+    }
+}
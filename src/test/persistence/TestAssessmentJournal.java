@@ -0,0 +1,192 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.KeyRiskFactor;
+import model.Recommendation;
+import model.RiskAssessment;
+
+public class TestAssessmentJournal {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private RiskAssessment assessment(int i) {
+        RiskAssessment assessment = new RiskAssessment("Athlete " + i, i % 10, "Moderate", 1.0, 2.0, 3.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, 6.5);
+        assessment.addKeyRiskFactor("Custom Factor", 4.0);
+        assessment.addRecommendation(new Recommendation("Training", 2, "Strengthen hamstrings", "Imbalance"));
+        return assessment;
+    }
+
+    private List<String> replayNames(AssessmentJournal journal) throws IOException {
+        List<String> names = new ArrayList<>();
+        journal.replay((assessment, timestamp) -> names.add(assessment.getAthleteName()));
+        return names;
+    }
+
+    @Test
+    void testAppendAndReplayRoundTrip() throws Exception {
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            long sequence = journal.append(1234L, assessment(7));
+            journal.awaitDurable(sequence);
+            assertEquals(1, sequence);
+
+            List<RiskAssessment> replayed = new ArrayList<>();
+            List<Long> timestamps = new ArrayList<>();
+            journal.replay((assessment, timestamp) -> {
+                replayed.add(assessment);
+                timestamps.add(timestamp);
+            });
+            assertEquals(1, replayed.size());
+            assertEquals(1234L, timestamps.get(0));
+            RiskAssessment copy = replayed.get(0);
+            assertEquals("Athlete 7", copy.getAthleteName());
+            assertEquals(7.0, copy.getOverallRiskScore());
+            assertEquals("Moderate", copy.getRiskCategory());
+            assertEquals(6.5, copy.getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+            assertEquals(4.0, copy.getKeyRiskFactors().get("Custom Factor"));
+            assertEquals("Strengthen hamstrings", copy.getRecommendations().get(0).getDescription());
+        }
+    }
+
+    @Test
+    void testSegmentsRollAndSurviveReopen() throws Exception {
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(assessment(i));
+            }
+        }
+        assertTrue(segments().size() > 1);
+
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(100, journal.getRecordCount());
+            // A cleanly closed segment has nothing to clear
+            assertEquals(0, journal.getForceCount());
+            journal.appendDurably(assessment(100));
+            List<String> names = replayNames(journal);
+            assertEquals(101, names.size());
+            assertEquals("Athlete 0", names.get(0));
+            assertEquals("Athlete 100", names.get(100));
+        }
+    }
+
+    @Test
+    void testRecoveryTruncatesTornTail() throws Exception {
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(assessment(i));
+            }
+        }
+
+        // Corrupt one payload byte of the last record, as a crash mid-write would
+        Path segment = segments().get(0);
+        int recordSize = 16 + AssessmentCodec.encode(assessment(4)).length;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int lastRecord = 4 * recordSize;
+            buffer.put(lastRecord + 20, (byte) (buffer.get(lastRecord + 20) ^ 0x5A));
+            buffer.force();
+        }
+
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(4, journal.getRecordCount());
+            assertEquals(1, journal.getForceCount());
+            journal.append(assessment(99));
+            List<String> names = replayNames(journal);
+            assertEquals(5, names.size());
+            assertEquals("Athlete 99", names.get(4));
+        }
+    }
+
+    @Test
+    void testConcurrentWritersShareFlushes() throws Exception {
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE * 64)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread writer = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 50; i++) {
+                            journal.appendDurably(assessment(i));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertEquals(400, journal.getRecordCount());
+            assertEquals(400, replayNames(journal).size());
+            // Group commit: writers waiting at the same time share a force
+            assertTrue(journal.getForceCount() < 400);
+        }
+    }
+
+    @Test
+    void testClosedJournalRejectsAppends() throws Exception {
+        AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE);
+        journal.close();
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(assessment(1)));
+        assertThrows(IllegalArgumentException.class, () -> new AssessmentJournal(directory, 8));
+    }
+
+    @Test
+    void testFailedFlushStopsJournal() throws Exception {
+        AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE) {
+            @Override
+            void force(MappedByteBuffer target) {
+                throw new UncheckedIOException(new IOException("Device gone"));
+            }
+        };
+        long sequence = journal.append(assessment(1));
+        IOException failure = assertThrows(IOException.class, () -> journal.awaitDurable(sequence));
+        assertTrue(failure.getCause() instanceof UncheckedIOException);
+        assertThrows(IOException.class, () -> journal.append(assessment(2)));
+        assertThrows(IOException.class, () -> journal.appendDurably(assessment(3)));
+        assertEquals(1, journal.getRecordCount());
+        assertThrows(IOException.class, journal::close);
+        journal.close();
+    }
+
+    @Test
+    void testReopenRejectsDifferentSegmentSize() throws Exception {
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            journal.append(assessment(1));
+        }
+        assertThrows(IOException.class, () -> new AssessmentJournal(directory, SEGMENT_SIZE * 2));
+        try (AssessmentJournal journal = new AssessmentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(1, journal.getRecordCount());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.KeyRiskFactor;
+import model.RiskAssessment;
+
+public class TestAssessmentStore {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int ATHLETES = 40;
+
+    @TempDir
+    Path directory;
+
+    private RiskAssessment assessment(String athlete, double score) {
+        RiskAssessment assessment = new RiskAssessment(athlete, score, "Moderate", 1.0, score, 2.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, score / 2);
+        return assessment;
+    }
+
+    private String describe(RiskAssessment assessment, long timestamp) {
+        return assessment.getAthleteName() + "@" + timestamp + "=" + assessment.getOverallRiskScore();
+    }
+
+    // Writes a few thousand assessments, some overwriting earlier ones, into store and expected
+    private void fill(AssessmentStore store, TreeMap<String, String> expected, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 3000; i++) {
+            String athlete = String.format("Athlete %03d", random.nextInt(ATHLETES));
+            long timestamp = random.nextInt(365) * DAY;
+            double score = random.nextInt(1000) / 100.0;
+            store.put(timestamp, assessment(athlete, score));
+            expected.put(String.format("%s@%020d", athlete, timestamp), describe(assessment(athlete, score),
+                    timestamp));
+        }
+    }
+
+    private List<String> athleteScan(AssessmentStore store, String athlete, long from, long to)
+            throws IOException {
+        List<String> found = new ArrayList<>();
+        store.scanAthlete(athlete, from, to, (assessment, timestamp) -> found.add(describe(assessment, timestamp)));
+        return found;
+    }
+
+    private List<String> timeScan(AssessmentStore store, long from, long to) throws IOException {
+        List<String> found = new ArrayList<>();
+        store.scanTimeRange(from, to, (assessment, timestamp) -> found.add(describe(assessment, timestamp)));
+        return found;
+    }
+
+    private void assertScans(AssessmentStore store, TreeMap<String, String> expected) throws IOException {
+        long from = 90 * DAY;
+        long to = 180 * DAY;
+        List<String> all = new ArrayList<>();
+        List<String> season = new ArrayList<>();
+        List<String> athlete7 = new ArrayList<>();
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            long timestamp = Long.parseLong(entry.getKey().substring(entry.getKey().indexOf('@') + 1));
+            all.add(entry.getValue());
+            if (timestamp >= from && timestamp < to) {
+                season.add(entry.getValue());
+                if (entry.getKey().startsWith("Athlete 007@")) {
+                    athlete7.add(entry.getValue());
+                }
+            }
+        }
+        assertEquals(all, timeScan(store, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(season, timeScan(store, from, to));
+        assertEquals(athlete7, athleteScan(store, "Athlete 007", from, to));
+        assertEquals(new ArrayList<>(), athleteScan(store, "Nobody", Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private int count(String glob) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void awaitCompaction(AssessmentStore store) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (store.isCompactionPending() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(store.isCompactionPending());
+    }
+
+    @Test
+    void testScansAcrossMemtableSegmentsAndCompaction() throws IOException, InterruptedException {
+        TreeMap<String, String> expected = new TreeMap<>();
+        // A small memtable forces many flushes and compactions while writing
+        try (AssessmentStore store = new AssessmentStore(directory, 16 * 1024, 3)) {
+            fill(store, expected, 1L);
+            assertScans(store, expected);
+            store.flush();
+            assertScans(store, expected);
+
+            store.put(10 * DAY, assessment("Athlete 001", 9.99));
+            assertEquals(9.99, store.get("Athlete 001", 10 * DAY).getOverallRiskScore());
+            assertEquals(4.995, store.get("Athlete 001", 10 * DAY)
+                    .getKeyRiskFactorScore(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS));
+            assertNull(store.get("Athlete 001", 10 * DAY + 1));
+            expected.put(String.format("%s@%020d", "Athlete 001", 10 * DAY),
+                    describe(assessment("Athlete 001", 9.99), 10 * DAY));
+            assertScans(store, expected);
+
+            // Runs of similarly sized segments are eventually all merged
+            store.flush();
+            awaitCompaction(store);
+            assertScans(store, expected);
+            assertEquals(store.getSegmentCount(), count("segment-*.sst"));
+        }
+        assertEquals(0, count("*.tmp"));
+    }
+
+    @Test
+    void testRecoversUnflushedWritesAndLeftoverSegments() throws IOException, InterruptedException {
+        TreeMap<String, String> expected = new TreeMap<>();
+        try (AssessmentStore store = new AssessmentStore(directory, 64 * 1024, 100)) {
+            fill(store, expected, 2L);
+            store.flush();
+            fill(store, expected, 3L);
+            // Left only in the write-ahead log
+        }
+        assertTrue(count("log-*.wal") >= 1);
+        Path backup = Files.createDirectory(directory.resolve("backup"));
+        int flushed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.sst")) {
+            for (Path file : files) {
+                Files.copy(file, backup.resolve(file.getFileName()));
+                flushed++;
+            }
+        }
+        int merged;
+        try (AssessmentStore store = new AssessmentStore(directory, 64 * 1024, 2)) {
+            assertScans(store, expected);
+            awaitCompaction(store);
+            merged = store.getSegmentCount();
+            assertTrue(merged < flushed);
+        }
+        assertEquals(merged, count("segment-*.sst"));
+
+        // A crash between a merge and deleting its inputs leaves both; the inputs are dropped on open. A
+        // segment that was never merged is simply restored as it was
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(backup)) {
+            for (Path file : files) {
+                Files.copy(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        try (AssessmentStore store = new AssessmentStore(directory, 64 * 1024, 100)) {
+            assertEquals(merged, store.getSegmentCount());
+            assertScans(store, expected);
+        }
+        assertEquals(merged, count("segment-*.sst"));
+    }
+
+    @Test
+    void testCompactionRewritesEachRecordLogarithmically() throws IOException, InterruptedException {
+        long segmentBytes;
+        long compactedBytes;
+        int segments;
+        // Distinct keys, so nothing shrinks when merged; about 64 memtables' worth
+        try (AssessmentStore store = new AssessmentStore(directory, 16 * 1024, 2)) {
+            for (int i = 0; i < 6400; i++) {
+                store.put(i * DAY, assessment(String.format("Athlete %03d", i % ATHLETES), i % 1000 / 100.0));
+            }
+            store.flush();
+            awaitCompaction(store);
+            segments = store.getSegmentCount();
+            compactedBytes = store.getCompactedBytes();
+            segmentBytes = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.sst")) {
+                for (Path file : files) {
+                    segmentBytes += Files.size(file);
+                }
+            }
+            List<String> found = timeScan(store, Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(6400, found.size());
+        }
+        // Merging every segment each time would rewrite the store about 32 times over; tiers need about
+        // log2(64) = 6, and leave a segment per tier
+        assertTrue(compactedBytes <= 10 * segmentBytes, compactedBytes + " bytes compacted for " + segmentBytes);
+        assertTrue(segments <= 10, segments + " segments");
+    }
+
+    @Test
+    void testNarrowTimeRangeReadsFewBlocks() throws IOException, InterruptedException {
+        TreeMap<String, String> expected = new TreeMap<>();
+        try (AssessmentStore store = new AssessmentStore(directory, 256 * 1024, 100)) {
+            fill(store, expected, 4L);
+            store.flush();
+            List<String> day = new ArrayList<>();
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                long timestamp = Long.parseLong(entry.getKey().substring(entry.getKey().indexOf('@') + 1));
+                if (timestamp == 200 * DAY) {
+                    day.add(entry.getValue());
+                }
+            }
+
+            long before = store.getBlockReads();
+            assertEquals(day, timeScan(store, 200 * DAY, 201 * DAY));
+            long reads = store.getBlockReads() - before;
+            // Every block spans most of the year, so without the time index a day would read them all
+            assertTrue(reads <= day.size(), reads + " blocks read for " + day.size() + " records");
+            assertTrue(reads * 4 < store.getBlockCount(), reads + " of " + store.getBlockCount() + " blocks read");
+
+            assertEquals(new ArrayList<>(), timeScan(store, 400 * DAY, 500 * DAY));
+            assertScans(store, expected);
+            assertEquals(0, timeScan(store, 200 * DAY + 1, 201 * DAY).size());
+        }
+    }
+
+    @Test
+    void testCorruptSegmentIsReported() throws IOException, InterruptedException {
+        try (AssessmentStore store = new AssessmentStore(directory)) {
+            store.put(DAY, assessment("Corrupt", 4.0));
+            store.flush();
+        }
+        Path segment;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.sst")) {
+            segment = files.iterator().next();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[10] ^= 0x55;
+        Files.write(segment, bytes);
+        try (AssessmentStore store = new AssessmentStore(directory)) {
+            assertThrows(IOException.class, () -> store.get("Corrupt", DAY));
+            assertThrows(IllegalArgumentException.class, () -> store.put(Long.MAX_VALUE, assessment("Late", 1.0)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.Athlete;
+import model.BiomechanicalData;
+import model.KeyRiskFactor;
+import model.RiskAssessment;
+
+public class TestAthleteCsv {
+
+    private Athlete athlete(String name) {
+        List<Boolean> history = new ArrayList<>();
+        history.add(true);
+        history.add(false);
+        history.add(true);
+        Athlete athlete = new Athlete(name, 19, true, "Soccer", 168.5, 61.2, history);
+        BiomechanicalData data = athlete.getBioMechData();
+        data.setKneeValgusAngle(12.5);
+        data.setHamstringsToQuadsRatio(0.55);
+        data.setSingleLegBalanceTime(31);
+        data.setIntercondylarNotchWidth(14.2);
+        return athlete;
+    }
+
+    @Test
+    void testRoundTrip() {
+        Athlete original = athlete("Doe, \"Jane\"");
+        String line = AthleteCsv.format(original);
+        Athlete parsed = AthleteCsv.parse(line);
+
+        assertEquals(original.getName(), parsed.getName());
+        assertEquals(19, parsed.getAge());
+        assertTrue(parsed.getGender());
+        assertEquals("Soccer", parsed.getSport());
+        assertEquals(168.5, parsed.getHeight());
+        assertEquals(61.2, parsed.getWeight());
+        assertTrue(parsed.hasFamilyHistory());
+        assertFalse(parsed.hasPrevInjuryR());
+        assertTrue(parsed.hasPrevInjuryL());
+        assertEquals(12.5, parsed.getBioMechData().getKneeValgusAngle());
+        assertEquals(0.55, parsed.getBioMechData().getHamstringsToQuadsRatio());
+        assertEquals(31, parsed.getBioMechData().getSingleLegBalanceTime());
+        assertEquals(14.2, parsed.getBioMechData().getIntercondylarNotchWidth());
+    }
+
+    @Test
+    void testHeader() {
+        assertTrue(AthleteCsv.isHeader(AthleteCsv.HEADER));
+        assertEquals(21, AthleteCsv.HEADER.split(",").length);
+        assertFalse(AthleteCsv.isHeader(AthleteCsv.format(athlete("A"))));
+        assertTrue(AthleteCsv.isHeader("\uFEFF" + AthleteCsv.HEADER + " "));
+        // An athlete literally named "name" is data, not a header
+        assertFalse(AthleteCsv.isHeader(AthleteCsv.format(athlete("name"))));
+    }
+
+    @Test
+    void testMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> AthleteCsv.parse("A,1,true"));
+        String line = AthleteCsv.format(athlete("A")).replace(",19,", ",nineteen,");
+        assertThrows(IllegalArgumentException.class, () -> AthleteCsv.parse(line));
+    }
+
+    @Test
+    void testBooleansAreStrict() {
+        String line = AthleteCsv.format(athlete("A"));
+        assertTrue(AthleteCsv.parse(line.replace(",19,true,", ",19,TRUE,")).getGender());
+        assertFalse(AthleteCsv.parse(line.replace(",19,true,", ",19,False,")).getGender());
+        for (String value : new String[] {"yes", "Y", "1", ""}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> AthleteCsv.parse(line.replace(",19,true,", ",19," + value + ",")));
+            assertTrue(e.getMessage().contains("female"));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> AthleteCsv.parse(line.replace(",true,false,", ",yes,false,")));
+    }
+
+    @Test
+    void testAssessmentFormat() {
+        RiskAssessment assessment = new RiskAssessment("A", 3.375, "Moderate", 5.5, 2.25, 0.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.FEMALE_GENDER, 7.0);
+        assessment.addKeyRiskFactor(KeyRiskFactor.EXCESSIVE_KNEE_VALGUS, 6.0);
+        StringBuilder out = new StringBuilder();
+        AssessmentCsv.format(assessment, out);
+        assertEquals("A,3.38,Moderate,5.50,2.25,0.00,Excessive Knee Valgus;Female Gender", out.toString());
+    }
+}
@@ -0,0 +1,100 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Athlete;
+import model.RosterGenerator;
+
+public class TestRosterWriter {
+    // Spans several batches and ends with a partial one
+    private static final int COUNT = RosterWriter.BATCH_SIZE * 2 + 123;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCsvMatchesGeneratorAndThreadCount() throws IOException {
+        Path single = directory.resolve("single.csv");
+        Path parallel = directory.resolve("parallel.csv");
+        long bytes = RosterWriter.write(new RosterGenerator(5L), COUNT, RosterWriter.Format.CSV, single, 1);
+        RosterWriter.write(new RosterGenerator(5L), COUNT, RosterWriter.Format.CSV, parallel, 3);
+        assertEquals(Files.size(single), bytes);
+        assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+
+        List<String> lines = Files.readAllLines(single, StandardCharsets.UTF_8);
+        assertEquals(AthleteCsv.HEADER, lines.get(0));
+        assertEquals(COUNT + 1, lines.size());
+        RosterGenerator generator = new RosterGenerator(5L);
+        List<Athlete> expected = new ArrayList<>();
+        for (int remaining = COUNT; remaining > 0; remaining -= RosterWriter.BATCH_SIZE) {
+            RosterGenerator.Batch batch = generator.nextBatch(Math.min(RosterWriter.BATCH_SIZE, remaining));
+            while (batch.hasNext()) {
+                expected.add(batch.next());
+            }
+        }
+        for (int i = 0; i < COUNT; i++) {
+            // The fast number formatting reads back to exactly the generated values
+            assertEquals(AthleteCsv.format(expected.get(i)), AthleteCsv.format(AthleteCsv.parse(lines.get(i + 1))));
+        }
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        Path csv = directory.resolve("roster.csv");
+        Path binary = directory.resolve("roster.bin");
+        RosterWriter.write(new RosterGenerator(9L), COUNT, RosterWriter.Format.CSV, csv, 2);
+        RosterWriter.write(new RosterGenerator(9L), COUNT, RosterWriter.Format.BINARY, binary, 2);
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        List<String> decoded = new ArrayList<>();
+        assertEquals(COUNT, RosterWriter.readBinary(binary, athlete -> decoded.add(AthleteCsv.format(athlete))));
+        assertEquals(lines.subList(1, lines.size()), decoded);
+        assertThrows(IOException.class, () -> RosterWriter.readBinary(csv, athlete -> { }));
+    }
+
+    @Test
+    void testJson() throws IOException {
+        Path json = directory.resolve("roster.json");
+        RosterWriter.write(new RosterGenerator(3L), COUNT, RosterWriter.Format.JSON, json, 2);
+        List<String> lines = Files.readAllLines(json, StandardCharsets.UTF_8);
+        assertEquals("[", lines.get(0));
+        assertEquals("]", lines.get(lines.size() - 1));
+        assertEquals(COUNT + 2, lines.size());
+        for (int i = 1; i <= COUNT; i++) {
+            String line = lines.get(i);
+            assertTrue(line.startsWith("{\"name\":\"") && line.endsWith(i < COUNT ? "}," : "}"), line);
+        }
+        assertTrue(lines.get(1).contains(",\"kneeValgusAngle\":"));
+
+        RosterWriter.write(new RosterGenerator(3L), 0, RosterWriter.Format.JSON, json, 2);
+        assertEquals("[]\n", new String(Files.readAllBytes(json), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNumbersReadBackExactly() {
+        double[] values = {0.0, -0.0, 12.3, 12.35, -0.05, 0.1, 100.0, 0.123, 1e15, -7.25, Double.NaN,
+            Double.POSITIVE_INFINITY, Double.MIN_VALUE, 3.0000000000000004};
+        for (double value : values) {
+            StringBuilder out = new StringBuilder();
+            RosterWriter.appendNumber(value, out);
+            assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(Double.parseDouble(
+                    out.toString())), out.toString());
+        }
+        StringBuilder out = new StringBuilder();
+        RosterWriter.appendNumber(12.3, out);
+        assertEquals("12.3", out.toString());
+    }
+}
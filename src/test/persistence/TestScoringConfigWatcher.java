@@ -0,0 +1,119 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.RiskAnalyzer;
+import model.ScoringConfig;
+
+public class TestScoringConfigWatcher {
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @TempDir
+    Path directory;
+
+    private void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Rewriting in place would briefly leave an empty file, which is a valid (default) configuration
+    private void replace(Path file, String content) throws IOException {
+        Path temporary = directory.resolve("scoring.tmp");
+        write(temporary, content);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (list.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, list.size());
+    }
+
+    @Test
+    void testReloadsOnChange() throws IOException, InterruptedException {
+        Path file = directory.resolve("scoring.properties");
+        write(file, "# defaults\n");
+        RiskAnalyzer analyzer = new RiskAnalyzer();
+        List<ScoringConfig> published = new CopyOnWriteArrayList<>();
+        try (ScoringConfigWatcher watcher = new ScoringConfigWatcher(file, config -> {
+            analyzer.setConfig(config);
+            published.add(config);
+        })) {
+            assertEquals(1, published.size());
+            assertEquals(ScoringConfig.DEFAULT, watcher.getConfig());
+
+            replace(file, "weights=0.2,0.6,0.2\ncategoryThresholds=2.0,5.0,7.0\n");
+            awaitSize(published, 2);
+            assertEquals(0.6, analyzer.getConfig().getBiomechanicalWeight());
+
+            // A broken file is skipped and the previous configuration stays in effect
+            assertTrue(watcher.reload());
+            assertNull(watcher.getLastError());
+            replace(file, "weights=0.2,0.6\n");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (watcher.getLastError() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(watcher.getLastError());
+            assertEquals(0.6, analyzer.getConfig().getBiomechanicalWeight());
+
+            replace(file, "weights=0.3,0.4,0.3\n");
+            deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (analyzer.getConfig().getBiomechanicalWeight() != 0.4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0.4, analyzer.getConfig().getBiomechanicalWeight());
+            assertNull(watcher.getLastError());
+        }
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopWatcher() throws IOException, InterruptedException {
+        Path file = directory.resolve("scoring.properties");
+        write(file, "# defaults\n");
+        List<ScoringConfig> published = new CopyOnWriteArrayList<>();
+        try (ScoringConfigWatcher watcher = new ScoringConfigWatcher(file, config -> {
+            published.add(config);
+            if (config.getBiomechanicalWeight() == 0.6) {
+                throw new IllegalStateException("Listener failed");
+            }
+        })) {
+            replace(file, "weights=0.2,0.6,0.2\n");
+            awaitSize(published, 2);
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (watcher.getLastError() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(watcher.getLastError() instanceof IllegalStateException);
+
+            // The watcher thread survived and delivers the next change
+            replace(file, "weights=0.3,0.4,0.3\n");
+            awaitSize(published, 3);
+            assertEquals(0.4, watcher.getConfig().getBiomechanicalWeight());
+        }
+    }
+
+    @Test
+    void testInvalidInitialFile() throws IOException {
+        Path file = directory.resolve("scoring.properties");
+        write(file, "weights=1,1,1\n");
+        assertThrows(IOException.class, () -> new ScoringConfigWatcher(file, config -> { }));
+        assertThrows(IOException.class, () -> ScoringConfigWatcher.load(directory.resolve("missing.properties")));
+    }
+}
@@ -0,0 +1,131 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestSessionStore {
+    private static final String[] CHANNELS = {"accelX", "accelY", "accelZ", "force"};
+
+    @TempDir
+    Path directory;
+
+    // A 1 kHz session in microseconds with occasional jitter; accelerometer values quantized like a
+    // 16-bit sensor and a force plate that rests at zero between landings
+    private long[] timestamps(int samples, Random random) {
+        long[] timestamps = new long[samples];
+        long time = 1_700_000_000_000_000L;
+        for (int i = 0; i < samples; i++) {
+            time += 1000 + (random.nextInt(50) == 0 ? random.nextInt(200) - 100 : 0);
+            timestamps[i] = time;
+        }
+        return timestamps;
+    }
+
+    private double[][] values(int samples, Random random) {
+        double[][] rows = new double[samples][CHANNELS.length];
+        for (int i = 0; i < samples; i++) {
+            for (int c = 0; c < 3; c++) {
+                rows[i][c] = Math.round(Math.sin(i / 50.0 + c) * 2048 + random.nextInt(8)) / 2048.0 * 16.0;
+            }
+            rows[i][3] = (i / 500) % 2 == 0 ? 0.0 : Math.round(800 + 400 * Math.sin(i / 20.0));
+        }
+        return rows;
+    }
+
+    @Test
+    void testRoundTripAcrossChunks() throws IOException {
+        Random random = new Random(42);
+        int samples = 5000;
+        long[] timestamps = timestamps(samples, random);
+        double[][] values = values(samples, random);
+        Path file = directory.resolve("session.acls");
+        try (SessionWriter writer = new SessionWriter(file, "Jane Doe", CHANNELS, 1024)) {
+            for (int i = 0; i < samples; i++) {
+                writer.append(timestamps[i], values[i]);
+            }
+            assertEquals(samples, writer.getSampleCount());
+        }
+
+        try (SessionReader reader = new SessionReader(file)) {
+            assertEquals("Jane Doe", reader.getAthleteName());
+            assertArrayEquals(CHANNELS, reader.getChannels());
+            for (int i = 0; i < samples; i++) {
+                assertTrue(reader.next());
+                assertEquals(timestamps[i], reader.getTimestamp());
+                for (int c = 0; c < CHANNELS.length; c++) {
+                    assertEquals(values[i][c], reader.getValue(c));
+                }
+            }
+            assertFalse(reader.next());
+        }
+
+        long raw = (long) samples * (8 + 8 * CHANNELS.length);
+        assertTrue(Files.size(file) < raw / 2, "compressed " + Files.size(file) + " of " + raw + " bytes");
+    }
+
+    @Test
+    void testSelectedChannelsOnly() throws IOException {
+        Random random = new Random(7);
+        long[] timestamps = timestamps(3000, random);
+        double[][] values = values(3000, random);
+        Path file = directory.resolve("session.acls");
+        try (SessionWriter writer = new SessionWriter(file, "A", CHANNELS, 256)) {
+            for (int i = 0; i < timestamps.length; i++) {
+                writer.append(timestamps[i], values[i]);
+            }
+        }
+
+        try (SessionReader reader = new SessionReader(file, "force")) {
+            int force = reader.indexOf("force");
+            int count = 0;
+            while (reader.next()) {
+                assertEquals(timestamps[count], reader.getTimestamp());
+                assertEquals(values[count][3], reader.getValue(force));
+                assertTrue(Double.isNaN(reader.getValue(0)));
+                count++;
+            }
+            assertEquals(timestamps.length, count);
+            assertThrows(IllegalArgumentException.class, () -> reader.indexOf("gyroX"));
+        }
+    }
+
+    @Test
+    void testEdgeValues() throws IOException {
+        double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE,
+            Double.MAX_VALUE, -1.5, 1e-300, 1e300, 0.1, 0.1, 42.0};
+        long[] times = {-5, 0, Long.MAX_VALUE / 4, 7, 7, 7, 100_000, 100_001, -1_000_000, 3, 4, 5};
+        Path file = directory.resolve("edge.acls");
+        try (SessionWriter writer = new SessionWriter(file, "Edge", new String[] {"x"}, 5)) {
+            for (int i = 0; i < specials.length; i++) {
+                writer.append(times[i], new double[] {specials[i]});
+            }
+        }
+        try (SessionReader reader = new SessionReader(file)) {
+            for (int i = 0; i < specials.length; i++) {
+                assertTrue(reader.next());
+                assertEquals(times[i], reader.getTimestamp());
+                assertEquals(Double.doubleToRawLongBits(specials[i]), Double.doubleToRawLongBits(reader.getValue(0)));
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> new SessionReader(file));
+        assertThrows(IllegalArgumentException.class, () -> new SessionWriter(file, "A", new String[0]));
+    }
+}
@@ -0,0 +1,77 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+public class TestBatchOptions {
+    private static final double DELTA = 0.0001;
+
+    private BatchOptions parse(String... args) {
+        return BatchOptions.parse(args);
+    }
+
+    @Test
+    void testDefaults() {
+        BatchOptions options = parse("--input", "in.csv", "--output", "out.csv");
+        assertEquals(Paths.get("in.csv"), options.getInput());
+        assertEquals(Paths.get("out.csv"), options.getOutput());
+        assertNull(options.getSummary());
+        assertArrayEquals(new double[] {0.25, 0.5, 0.25}, options.getWeights(), DELTA);
+        assertEquals("rules", options.getEngine());
+        assertTrue(options.getWorkers() >= 1);
+        assertFalse(options.isDedup());
+    }
+
+    @Test
+    void testAllOptions() {
+        BatchOptions options = parse("--input", "in.csv", "--output", "out.csv", "--summary", "summary.txt",
+                "--weights", "0.2, 0.5, 0.3", "--engine", "continuous", "--workers", "3", "--batch-size", "64",
+                "--queue-capacity", "4", "--dedup", "on");
+        assertEquals(Paths.get("summary.txt"), options.getSummary());
+        assertArrayEquals(new double[] {0.2, 0.5, 0.3}, options.getWeights(), DELTA);
+        assertEquals("continuous", options.getEngine());
+        assertEquals(3, options.getWorkers());
+        assertEquals(64, options.getBatchSize());
+        assertEquals(4, options.getQueueCapacity());
+        assertTrue(options.isDedup());
+    }
+
+    @Test
+    void testBadFlags() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--verbose", "yes"));
+        assertEquals("Unknown option: --verbose", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--engine", "neural"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--dedup", "yes"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--workers", "0"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--batch-size", "many"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--weights", "0.5,0.5"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--weights", "-0.25,0.75,0.5"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output", "out.csv", "--weights", "a,b,c"));
+    }
+
+    @Test
+    void testMissingValues() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parse("--input", "in.csv", "--output"));
+        assertEquals("Missing value for --output", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> parse("--input", "in.csv"));
+        assertThrows(IllegalArgumentException.class, () -> parse("--output", "out.csv"));
+        assertThrows(IllegalArgumentException.class, () -> parse());
+    }
+}
@@ -0,0 +1,113 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Athlete;
+import persistence.AssessmentCsv;
+import persistence.AthleteCsv;
+
+public class TestBatchRunner {
+    @TempDir
+    Path directory;
+
+    private Athlete athlete(String name, int age, boolean female, String sport, double kneeValgus) {
+        Athlete athlete = new Athlete(name, age, female, sport, 170.0, 65.0, Arrays.asList(false, false, false));
+        athlete.getBioMechData().setKneeValgusAngle(kneeValgus);
+        athlete.getBioMechData().setKneeFlexionAngle(70.0);
+        athlete.getBioMechData().setHamstringsToQuadsRatio(0.7);
+        return athlete;
+    }
+
+    private Path writeInput(List<String> lines) throws IOException {
+        Path input = directory.resolve("athletes.csv");
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        return input;
+    }
+
+    private BatchOptions options(Path input, String... extra) {
+        List<String> args = new ArrayList<>(Arrays.asList("--input", input.toString(),
+                "--output", directory.resolve("assessments.csv").toString(),
+                "--summary", directory.resolve("summary.txt").toString(),
+                "--workers", "2", "--batch-size", "2"));
+        args.addAll(Arrays.asList(extra));
+        return BatchOptions.parse(args.toArray(new String[0]));
+    }
+
+    @Test
+    void testRunWritesAssessmentsInInputOrder() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add(AthleteCsv.HEADER);
+        for (int i = 0; i < 7; i++) {
+            lines.add(AthleteCsv.format(athlete("Athlete " + i, 20 + i, i % 2 == 0, "Soccer", 4.0 * i)));
+        }
+        BatchSummary summary = new BatchRunner(options(writeInput(lines))).run();
+
+        List<String> output = Files.readAllLines(directory.resolve("assessments.csv"), StandardCharsets.UTF_8);
+        assertEquals(AssessmentCsv.HEADER, output.get(0));
+        assertEquals(8, output.size());
+        for (int i = 0; i < 7; i++) {
+            assertTrue(output.get(i + 1).startsWith("Athlete " + i + ","));
+        }
+        assertEquals(7, summary.getCount());
+        long categorized = 0;
+        for (String category : new String[] {"Low", "Moderate", "High", "Very High"}) {
+            categorized += summary.getCategoryCount(category);
+        }
+        assertEquals(7, categorized);
+        String written = new String(Files.readAllBytes(directory.resolve("summary.txt")), StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("Athletes analyzed: 7\n"));
+    }
+
+    @Test
+    void testDedupSkipsExactAndFlagsNearDuplicates() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add(AthleteCsv.HEADER);
+        lines.add(AthleteCsv.format(athlete("Jonathan Smithers", 20, false, "Rugby", 12.0)));
+        lines.add(AthleteCsv.format(athlete("Maria Gonzalez", 22, true, "Soccer", 8.0)));
+        lines.add(AthleteCsv.format(athlete("JONATHAN  smithers", 20, false, "rugby", 12.0)));
+        lines.add("");
+        lines.add(AthleteCsv.format(athlete("Jonathon Smithers", 21, false, "Rugby", 12.0)));
+        BatchSummary summary = new BatchRunner(options(writeInput(lines), "--dedup", "on")).run();
+
+        List<String> output = Files.readAllLines(directory.resolve("assessments.csv"), StandardCharsets.UTF_8);
+        assertEquals(AssessmentCsv.HEADER + ",suspectedDuplicate", output.get(0));
+        assertEquals(4, output.size());
+        assertTrue(output.get(1).startsWith("Jonathan Smithers,") && output.get(1).endsWith(","));
+        assertTrue(output.get(2).startsWith("Maria Gonzalez,") && output.get(2).endsWith(","));
+        assertTrue(output.get(3).startsWith("Jonathon Smithers,") && output.get(3).endsWith(",near"));
+        assertEquals(3, summary.getCount());
+        assertEquals(1, summary.getSkippedDuplicates());
+        assertEquals(1, summary.getSuspectedDuplicates());
+        assertTrue(summary.toString().contains("Exact duplicates skipped: 1\n"));
+    }
+
+    @Test
+    void testMalformedRowFailsWithLineNumber() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add(AthleteCsv.HEADER);
+        String valid = AthleteCsv.format(athlete("Jane Doe", 20, true, "Soccer", 12.0));
+        lines.add(valid);
+        lines.add(valid.replace(",20,true,", ",20,yes,"));
+        lines.add(valid);
+        BatchRunner runner = new BatchRunner(options(writeInput(lines)));
+
+        IOException e = assertThrows(IOException.class, runner::run);
+        assertTrue(e.getMessage().startsWith("Line 3: "), e.getMessage());
+        assertTrue(e.getMessage().contains("female"));
+        assertFalse(Files.exists(directory.resolve("summary.txt")));
+    }
+}